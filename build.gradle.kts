@@ -16,6 +16,32 @@ repositories {
     mavenCentral()
 }
 
+// Микробенчмарки JMH: src/jmh/java, запуск — gradle jmh -PjmhArgs="<регулярка бенчмарка>"
+val jmh by sourceSets.creating {
+    compileClasspath += sourceSets.main.get().output
+    runtimeClasspath += sourceSets.main.get().output
+}
+
+configurations[jmh.implementationConfigurationName].extendsFrom(configurations.implementation.get())
+configurations[jmh.compileOnlyConfigurationName].extendsFrom(configurations.compileOnly.get())
+configurations[jmh.annotationProcessorConfigurationName].extendsFrom(configurations.annotationProcessor.get())
+configurations[jmh.runtimeOnlyConfigurationName].extendsFrom(configurations.runtimeOnly.get())
+
+// Генератор синтетического набора данных: src/dataset/java, его тесты — src/datasetTest/java (gradle datasetTest)
+val dataset by sourceSets.creating {
+    compileClasspath += sourceSets.main.get().output
+    runtimeClasspath += sourceSets.main.get().output
+}
+
+val datasetTest by sourceSets.creating {
+    compileClasspath += dataset.output
+    runtimeClasspath += dataset.output + dataset.runtimeClasspath
+}
+
+configurations[dataset.implementationConfigurationName].extendsFrom(configurations.implementation.get())
+configurations[dataset.runtimeOnlyConfigurationName].extendsFrom(configurations.runtimeOnly.get())
+configurations[datasetTest.implementationConfigurationName].extendsFrom(configurations[dataset.implementationConfigurationName])
+
 dependencies {
     // Spring
     implementation(platform("org.springframework:spring-framework-bom:6.2.11"))
@@ -34,6 +60,8 @@ dependencies {
     implementation("com.fasterxml.jackson.core:jackson-databind:2.17.0")
     implementation("com.fasterxml.jackson.core:jackson-core:2.17.0")
     implementation("com.fasterxml.jackson.core:jackson-annotations:2.17.0")
+    implementation("com.fasterxml.jackson.dataformat:jackson-dataformat-cbor:2.17.0")
+    implementation("com.fasterxml.jackson.dataformat:jackson-dataformat-smile:2.17.0")
 
     // Data base
     implementation("org.postgresql:postgresql:42.7.8")
@@ -42,11 +70,17 @@ dependencies {
     annotationProcessor("org.projectlombok:lombok:1.18.42")
     compileOnly("org.projectlombok:lombok:1.18.42")
 
+    // Metrics
+    implementation("io.micrometer:micrometer-core:1.15.4")
+    implementation("io.micrometer:micrometer-registry-prometheus:1.15.4")
+
     // Logging
     implementation("org.apache.logging.log4j:log4j-api:2.25.2")
     implementation("org.apache.logging.log4j:log4j-core:2.25.2")
     implementation("org.apache.logging.log4j:log4j-slf4j2-impl:2.25.2")
     implementation("org.apache.logging.log4j:log4j-jcl:2.25.2")
+    // Кольцевой буфер для асинхронных логгеров log4j2
+    runtimeOnly("com.lmax:disruptor:4.0.0")
 
     // Test
     testImplementation(platform("org.junit:junit-bom:6.0.0"))
@@ -61,8 +95,52 @@ dependencies {
     testImplementation("com.jayway.jsonpath:json-path:2.9.0")
 
     testRuntimeOnly("org.junit.platform:junit-platform-launcher")
+
+    "datasetTestImplementation"(platform("org.junit:junit-bom:6.0.0"))
+    "datasetTestImplementation"("org.junit.jupiter:junit-jupiter")
+    "datasetTestRuntimeOnly"("org.junit.platform:junit-platform-launcher")
+
+    // Benchmarks
+    "jmhImplementation"("org.openjdk.jmh:jmh-core:1.37")
+    "jmhAnnotationProcessor"("org.openjdk.jmh:jmh-generator-annprocess:1.37")
 }
 
 tasks.test {
     useJUnitPlatform()
 }
+
+val datasetTestTask = tasks.register<Test>("datasetTest") {
+    group = "verification"
+    description = "Runs unit tests of the dataset generator from src/datasetTest/java"
+    testClassesDirs = datasetTest.output.classesDirs
+    classpath = datasetTest.runtimeClasspath
+    useJUnitPlatform()
+}
+
+tasks.check {
+    dependsOn(datasetTestTask)
+}
+
+tasks.register<JavaExec>("jmh") {
+    group = "benchmark"
+    description = "Runs JMH benchmarks from src/jmh/java"
+    classpath = jmh.runtimeClasspath
+    mainClass.set("org.openjdk.jmh.Main")
+    val jmhArgs = (findProperty("jmhArgs") as String?)?.split(" ") ?: emptyList<String>()
+    // Результаты в JSON для сравнения между коммитами; путь меняется через -PjmhResults=<файл>
+    val resultFile = file(findProperty("jmhResults") ?: layout.buildDirectory.file("reports/jmh/results.json").get())
+    args(jmhArgs)
+    if ("-rf" !in jmhArgs && "-rff" !in jmhArgs) {
+        args("-rf", "json", "-rff", resultFile.path)
+    }
+    doFirst { resultFile.parentFile.mkdirs() }
+}
+
+// Синтетический набор данных в PostgreSQL из SPRING_DATASOURCE_*: gradle seedDataset -PdatasetArgs="--posts=10000000 --seed=7"
+tasks.register<JavaExec>("seedDataset") {
+    group = "benchmark"
+    description = "Loads a seeded synthetic dataset into PostgreSQL via COPY"
+    classpath = dataset.runtimeClasspath
+    mainClass.set("ru.practicum.blog.dataset.DatasetGenerator")
+    args((findProperty("datasetArgs") as String?)?.split(" ")?.filter { it.isNotBlank() } ?: emptyList<String>())
+}
@@ -0,0 +1,104 @@
+package ru.practicum.blog.dataset;
+
+import org.postgresql.PGConnection;
+import org.postgresql.copy.PGCopyOutputStream;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.List;
+
+// Строки в текстовом формате COPY: поля через табуляцию, спецсимволы экранируются обратным слешем
+final class CopyRowWriter implements Closeable {
+
+    private static final int COPY_BUFFER_SIZE = 256 * 1024;
+
+    private final Writer writer;
+    private boolean firstField = true;
+    private long rows;
+
+    CopyRowWriter(Connection connection, String copySql) throws SQLException {
+        this(new OutputStreamWriter(
+                new PGCopyOutputStream(connection.unwrap(PGConnection.class), copySql, COPY_BUFFER_SIZE),
+                StandardCharsets.UTF_8
+        ));
+    }
+
+    CopyRowWriter(Writer writer) {
+        this.writer = writer;
+    }
+
+    CopyRowWriter field(long value) throws IOException {
+        separator();
+        writer.write(Long.toString(value));
+        return this;
+    }
+
+    CopyRowWriter field(LocalDateTime value) throws IOException {
+        separator();
+        writer.write(value.toString());
+        return this;
+    }
+
+    // null в текстовом формате COPY — \N; обратный слеш в самих данных экранируется, поэтому они не путаются
+    CopyRowWriter field(String value) throws IOException {
+        separator();
+        if (value == null) {
+            writer.write("\\N");
+            return this;
+        }
+        for (int i = 0; i < value.length(); i++) {
+            char ch = value.charAt(i);
+            switch (ch) {
+                case '\\' -> writer.write("\\\\");
+                case '\t' -> writer.write("\\t");
+                case '\n' -> writer.write("\\n");
+                case '\r' -> writer.write("\\r");
+                default -> writer.write(ch);
+            }
+        }
+        return this;
+    }
+
+    // Литерал массива TEXT[]; имена тегов генератора состоят из латиницы и дефиса, кавычки не нужны
+    CopyRowWriter array(List<String> values) throws IOException {
+        separator();
+        writer.write('{');
+        for (int i = 0; i < values.size(); i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            writer.write(values.get(i));
+        }
+        writer.write('}');
+        return this;
+    }
+
+    void endRow() throws IOException {
+        writer.write('\n');
+        firstField = true;
+        rows++;
+    }
+
+    long rows() {
+        return rows;
+    }
+
+    // Закрытие потока завершает COPY на сервере
+    @Override
+    public void close() throws IOException {
+        writer.close();
+    }
+
+    private void separator() throws IOException {
+        if (!firstField) {
+            writer.write('\t');
+        }
+        firstField = false;
+    }
+}
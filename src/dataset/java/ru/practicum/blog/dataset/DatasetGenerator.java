@@ -0,0 +1,379 @@
+package ru.practicum.blog.dataset;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.postgresql.Driver;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+
+import javax.sql.DataSource;
+import java.sql.Array;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+// Наполняет PostgreSQL синтетическим набором для нагрузочных замеров: gradle seedDataset -PdatasetArgs="--posts=10000000".
+// Подключение — из тех же переменных окружения, что у приложения (SPRING_DATASOURCE_*). Строки идут через COPY пачками
+// по chunk-size постов в нескольких соединениях; содержимое каждой строки зависит только от seed и id, поэтому один и тот же
+// seed даёт одинаковую базу при любом числе потоков
+public final class DatasetGenerator {
+
+    private static final Logger log = LogManager.getLogger(DatasetGenerator.class);
+
+    private static final String COPY_TAGS = "COPY tag (id, name, usage_count) FROM STDIN";
+    private static final String COPY_POSTS =
+            "COPY post (id, title, text, tags, likes_count, comments_count, created_at, updated_at) FROM STDIN";
+    private static final String COPY_POST_TAGS = "COPY post_tag (post_id, tag_id) FROM STDIN";
+    private static final String COPY_COMMENTS = "COPY comment (id, text, post_id, created_at, updated_at) FROM STDIN";
+
+    // Вторичные индексы набора: на время загрузки удаляются и строятся заново — так в разы быстрее, чем вставка в них
+    private static final String FIND_SECONDARY_INDEXES = """
+            SELECT i.indexname, i.indexdef
+            FROM pg_indexes i
+            WHERE i.schemaname = current_schema()
+              AND i.tablename IN ('post', 'tag', 'comment', 'post_tag')
+              AND NOT EXISTS (
+                  SELECT 1 FROM pg_constraint c
+                  WHERE c.conname = i.indexname AND c.connamespace = current_schema()::regnamespace
+              )
+            """;
+
+    private static final double LIKES_TAIL_INDEX = 1.8;
+    private static final int MAX_LIKES = 1_000_000;
+    private static final double COMMENT_GAP_HOURS = 6;
+    private static final int MIN_POST_TEXT = 40;
+    private static final int MAX_POST_TEXT = 50_000;
+    private static final int MIN_COMMENT_TEXT = 2;
+    private static final int MAX_COMMENT_TEXT = 4_000;
+    private static final int MAX_TAG_DRAWS_PER_SLOT = 20;
+
+    private final DatasetSpec spec;
+    private final DataSource dataSource;
+    private final TextGenerator textGenerator = new TextGenerator();
+    private final ZipfDistribution tagRanks;
+    private final long postStepNanos;
+    private final AtomicLongArray tagUsage;
+
+    DatasetGenerator(DatasetSpec spec, DataSource dataSource) {
+        this.spec = spec;
+        this.dataSource = dataSource;
+        this.tagRanks = new ZipfDistribution(spec.tags(), spec.tagZipfExponent());
+        this.postStepNanos = Math.max(1, Duration.ofDays(spec.days()).toNanos() / spec.posts());
+        this.tagUsage = new AtomicLongArray(spec.tags());
+    }
+
+    public static void main(String[] args) throws Exception {
+        DatasetSpec spec = DatasetSpec.parse(args);
+
+        DriverManagerDataSource dataSource = new DriverManagerDataSource();
+        dataSource.setDriverClassName(Driver.class.getName());
+        dataSource.setUrl(requiredEnv("SPRING_DATASOURCE_URL"));
+        dataSource.setUsername(System.getenv("SPRING_DATASOURCE_USERNAME"));
+        dataSource.setPassword(System.getenv("SPRING_DATASOURCE_PASSWORD"));
+
+        new DatasetGenerator(spec, dataSource).generate();
+    }
+
+    void generate() throws Exception {
+        long started = System.nanoTime();
+        log.info("Generating dataset: {}", spec);
+
+        // Та же схема, что создаёт приложение при старте
+        new ResourceDatabasePopulator(new ClassPathResource("schema.sql")).execute(dataSource);
+        prepareTables();
+
+        Map<String, String> indexes = dropSecondaryIndexes();
+        long comments;
+        // Индексы возвращаются и после сбоя загрузки, иначе база останется без них
+        try {
+            loadTags();
+            comments = loadPosts(commentIdBases());
+            updateTagUsage();
+            resetSequences();
+        } finally {
+            createIndexes(indexes);
+        }
+        execute("ANALYZE post, tag, comment, post_tag");
+
+        log.info("Dataset is ready: {} posts, {} tags, {} comments in {} s",
+                spec.posts(), spec.tags(), comments, Duration.ofNanos(System.nanoTime() - started).toSeconds());
+    }
+
+    private void prepareTables() throws SQLException {
+        if (spec.truncate()) {
+            execute("TRUNCATE comment, post_tag, post, tag RESTART IDENTITY");
+            return;
+        }
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery(
+                     "SELECT EXISTS (SELECT 1 FROM post) OR EXISTS (SELECT 1 FROM tag)")) {
+            resultSet.next();
+            if (resultSet.getBoolean(1)) {
+                throw new IllegalStateException("Database already contains posts or tags, rerun with --truncate=true");
+            }
+        }
+    }
+
+    private Map<String, String> dropSecondaryIndexes() throws SQLException {
+        Map<String, String> indexes = new LinkedHashMap<>();
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement()) {
+            try (ResultSet resultSet = statement.executeQuery(FIND_SECONDARY_INDEXES)) {
+                while (resultSet.next()) {
+                    indexes.put(resultSet.getString("indexname"), resultSet.getString("indexdef"));
+                }
+            }
+            for (String name : indexes.keySet()) {
+                statement.execute("DROP INDEX " + name);
+            }
+        }
+        log.info("Dropped {} secondary indexes for the load: {}", indexes.size(), indexes.keySet());
+        return indexes;
+    }
+
+    // Ранг тега по популярности совпадает с его id - 1; счётчики использования проставляются после загрузки постов
+    private void loadTags() throws Exception {
+        try (Connection connection = dataSource.getConnection()) {
+            try (CopyRowWriter copy = new CopyRowWriter(connection, COPY_TAGS)) {
+                for (int rank = 0; rank < spec.tags(); rank++) {
+                    copy.field(rank + 1L).field(textGenerator.tagName(rank)).field(0).endRow();
+                }
+            }
+        }
+    }
+
+    // id первого комментария каждой пачки: число комментариев поста выбирается отдельным генератором,
+    // поэтому пачки можно грузить параллельно, а id комментариев всё равно идут подряд в порядке постов
+    private long[] commentIdBases() {
+        int chunks = chunkCount();
+        long[] bases = new long[chunks];
+        long nextId = 1;
+        for (int chunk = 0; chunk < chunks; chunk++) {
+            bases[chunk] = nextId;
+            long lastPostId = Math.min(spec.posts(), (long) (chunk + 1) * spec.chunkSize());
+            for (long postId = (long) chunk * spec.chunkSize() + 1; postId <= lastPostId; postId++) {
+                nextId += commentCount(postId);
+            }
+        }
+        return bases;
+    }
+
+    private long loadPosts(long[] commentIdBases) throws Exception {
+        AtomicLong loadedPosts = new AtomicLong();
+        AtomicLong loadedComments = new AtomicLong();
+        long started = System.nanoTime();
+
+        try (ExecutorService executor = Executors.newFixedThreadPool(spec.threads())) {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int chunk = 0; chunk < commentIdBases.length; chunk++) {
+                int currentChunk = chunk;
+                futures.add(executor.submit(() -> {
+                    long comments = loadChunk(currentChunk, commentIdBases[currentChunk]);
+                    long posts = loadedPosts.addAndGet(chunkSize(currentChunk));
+                    loadedComments.addAndGet(comments);
+                    log.info("Loaded {}/{} posts, {} comments, {} posts/s",
+                            posts, spec.posts(), loadedComments.get(), (long) (posts / elapsedSeconds(started)));
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        }
+        return loadedComments.get();
+    }
+
+    // Одна пачка — одна транзакция и три COPY подряд: посты, связи с тегами, комментарии
+    private long loadChunk(int chunk, long firstCommentId) throws Exception {
+        long firstPostId = (long) chunk * spec.chunkSize() + 1;
+        int posts = chunkSize(chunk);
+        int[][] postTags = new int[posts][];
+        LocalDateTime[] postCreatedAt = new LocalDateTime[posts];
+        long[] localTagUsage = new long[spec.tags()];
+        long commentId = firstCommentId;
+
+        try (Connection connection = dataSource.getConnection()) {
+            connection.setAutoCommit(false);
+
+            try (CopyRowWriter copy = new CopyRowWriter(connection, COPY_POSTS)) {
+                for (int i = 0; i < posts; i++) {
+                    long postId = firstPostId + i;
+                    DatasetRandom random = DatasetRandom.of(spec.seed(), DatasetRandom.POSTS, postId);
+                    int[] ranks = tagRanks(random);
+                    postTags[i] = ranks;
+                    List<String> names = new ArrayList<>(ranks.length);
+                    for (int rank : ranks) {
+                        names.add(textGenerator.tagName(rank));
+                        localTagUsage[rank]++;
+                    }
+                    LocalDateTime createdAt = postCreatedAt(postId, random);
+                    postCreatedAt[i] = createdAt;
+                    copy.field(postId)
+                            .field(textGenerator.title(random))
+                            .field(textGenerator.text(random, random.logNormal(
+                                    spec.postTextMedian(), spec.postTextSigma(), MIN_POST_TEXT, MAX_POST_TEXT)))
+                            .array(names)
+                            .field(random.lomax(spec.avgLikes(), LIKES_TAIL_INDEX, MAX_LIKES))
+                            .field(commentCount(postId))
+                            .field(createdAt)
+                            .field(createdAt)
+                            .endRow();
+                }
+            }
+
+            try (CopyRowWriter copy = new CopyRowWriter(connection, COPY_POST_TAGS)) {
+                for (int i = 0; i < posts; i++) {
+                    for (int rank : postTags[i]) {
+                        copy.field(firstPostId + i).field(rank + 1L).endRow();
+                    }
+                }
+            }
+
+            try (CopyRowWriter copy = new CopyRowWriter(connection, COPY_COMMENTS)) {
+                for (int i = 0; i < posts; i++) {
+                    long postId = firstPostId + i;
+                    long comments = commentCount(postId);
+                    DatasetRandom random = DatasetRandom.of(spec.seed(), DatasetRandom.COMMENTS, postId);
+                    // Комментарии идут после поста с экспоненциальными паузами, так что время растёт вместе с id
+                    LocalDateTime createdAt = postCreatedAt[i];
+                    for (long c = 0; c < comments; c++) {
+                        createdAt = createdAt.plus((long) (random.exponential(COMMENT_GAP_HOURS) * 3_600_000_000L),
+                                ChronoUnit.MICROS);
+                        copy.field(commentId++)
+                                .field(textGenerator.text(random, random.logNormal(
+                                        spec.commentTextMedian(), spec.commentTextSigma(), MIN_COMMENT_TEXT, MAX_COMMENT_TEXT)))
+                                .field(postId)
+                                .field(createdAt)
+                                .field(createdAt)
+                                .endRow();
+                    }
+                }
+            }
+
+            connection.commit();
+        }
+
+        for (int rank = 0; rank < localTagUsage.length; rank++) {
+            if (localTagUsage[rank] > 0) {
+                tagUsage.addAndGet(rank, localTagUsage[rank]);
+            }
+        }
+        return commentId - firstCommentId;
+    }
+
+    // Число тегов — биномиальное со средним avg-tags, сами теги — различные ранги по Ципфу
+    private int[] tagRanks(DatasetRandom random) {
+        int count = random.binomial(spec.maxTagsPerPost(), spec.avgTagsPerPost() / spec.maxTagsPerPost());
+        int[] ranks = new int[count];
+        int filled = 0;
+        for (int draw = 0; filled < count && draw < count * MAX_TAG_DRAWS_PER_SLOT; draw++) {
+            int rank = tagRanks.sample(random);
+            if (!contains(ranks, filled, rank)) {
+                ranks[filled++] = rank;
+            }
+        }
+        return filled == count ? ranks : Arrays.copyOf(ranks, filled);
+    }
+
+    private long commentCount(long postId) {
+        return DatasetRandom.of(spec.seed(), DatasetRandom.COMMENT_COUNTS, postId)
+                .lomax(spec.avgComments(), spec.commentsTailIndex(), spec.maxComments());
+    }
+
+    // Посты равномерно распределены по периоду и упорядочены по id, внутри своего шага время случайно
+    private LocalDateTime postCreatedAt(long postId, DatasetRandom random) {
+        long offsetNanos = (postId - 1) * postStepNanos + (long) (random.nextDouble() * postStepNanos);
+        return spec.startAt().plus(offsetNanos / 1_000, ChronoUnit.MICROS);
+    }
+
+    private void updateTagUsage() throws SQLException {
+        Long[] ids = new Long[spec.tags()];
+        Long[] counts = new Long[spec.tags()];
+        for (int rank = 0; rank < spec.tags(); rank++) {
+            ids[rank] = rank + 1L;
+            counts[rank] = tagUsage.get(rank);
+        }
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement("""
+                     UPDATE tag t
+                     SET usage_count = u.usage_count
+                     FROM unnest(?::BIGINT[], ?::BIGINT[]) AS u(id, usage_count)
+                     WHERE t.id = u.id AND u.usage_count > 0
+                     """)) {
+            Array idArray = connection.createArrayOf("bigint", ids);
+            Array countArray = connection.createArrayOf("bigint", counts);
+            statement.setArray(1, idArray);
+            statement.setArray(2, countArray);
+            statement.executeUpdate();
+        }
+    }
+
+    // После загрузки с явными id последовательности должны продолжать с максимума, иначе приложение получит дубликаты
+    private void resetSequences() throws SQLException {
+        for (String table : List.of("post", "tag", "comment")) {
+            execute("SELECT setval(pg_get_serial_sequence('%1$s', 'id'), COALESCE(MAX(id), 0) + 1, false) FROM %1$s"
+                    .formatted(table));
+        }
+    }
+
+    private void createIndexes(Map<String, String> indexes) throws SQLException {
+        for (Map.Entry<String, String> index : indexes.entrySet()) {
+            long started = System.nanoTime();
+            execute(index.getValue());
+            log.info("Created index {} in {} ms", index.getKey(), Duration.ofNanos(System.nanoTime() - started).toMillis());
+        }
+    }
+
+    private void execute(String sql) throws SQLException {
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement()) {
+            statement.execute(sql);
+        }
+    }
+
+    private int chunkCount() {
+        return Math.toIntExact((spec.posts() + spec.chunkSize() - 1) / spec.chunkSize());
+    }
+
+    private int chunkSize(int chunk) {
+        return (int) Math.min(spec.chunkSize(), spec.posts() - (long) chunk * spec.chunkSize());
+    }
+
+    private static boolean contains(int[] values, int length, int value) {
+        for (int i = 0; i < length; i++) {
+            if (values[i] == value) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static double elapsedSeconds(long startedNanos) {
+        return Math.max(1e-3, (System.nanoTime() - startedNanos) / 1e9);
+    }
+
+    private static String requiredEnv(String name) {
+        String value = System.getenv(name);
+        if (value == null || value.isBlank()) {
+            throw new IllegalStateException("Environment variable " + name + " is not set");
+        }
+        return value;
+    }
+}
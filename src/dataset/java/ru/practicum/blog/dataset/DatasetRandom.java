@@ -0,0 +1,66 @@
+package ru.practicum.blog.dataset;
+
+import java.util.SplittableRandom;
+
+// Генератор случайных чисел для одной сущности: зерно выводится из общего seed, потока (посты, комментарии...) и id,
+// поэтому содержимое строки не зависит ни от порядка загрузки, ни от числа потоков
+final class DatasetRandom {
+
+    static final long POSTS = 1;
+    static final long COMMENT_COUNTS = 2;
+    static final long COMMENTS = 3;
+
+    private final SplittableRandom random;
+
+    private DatasetRandom(long seed) {
+        this.random = new SplittableRandom(seed);
+    }
+
+    static DatasetRandom of(long seed, long stream, long id) {
+        return new DatasetRandom(mix(seed ^ mix(stream * 0x9E3779B97F4A7C15L + id)));
+    }
+
+    int nextInt(int bound) {
+        return random.nextInt(bound);
+    }
+
+    double nextDouble() {
+        return random.nextDouble();
+    }
+
+    // Экспоненциальное распределение со средним mean
+    double exponential(double mean) {
+        return -mean * Math.log(1 - random.nextDouble());
+    }
+
+    // Биномиальное число успехов из n попыток с вероятностью p; n здесь — единицы, поэтому считаем в лоб
+    int binomial(int n, double p) {
+        int successes = 0;
+        for (int i = 0; i < n; i++) {
+            if (random.nextDouble() < p) {
+                successes++;
+            }
+        }
+        return successes;
+    }
+
+    // Lomax (Pareto II) со средним mean и хвостом alpha > 1: большинство значений мало, единицы — огромны
+    long lomax(double mean, double alpha, long max) {
+        double scale = mean * (alpha - 1);
+        double value = scale * (Math.pow(1 - random.nextDouble(), -1 / alpha) - 1);
+        return (long) Math.min(max, value);
+    }
+
+    // Логнормальная длина с заданной медианой, обрезанная до [min, max]
+    int logNormal(int median, double sigma, int min, int max) {
+        double value = median * Math.exp(sigma * random.nextGaussian());
+        return (int) Math.max(min, Math.min(max, value));
+    }
+
+    // Финализатор SplitMix64: соседние id дают независимые зёрна
+    private static long mix(long value) {
+        value = (value ^ (value >>> 30)) * 0xBF58476D1CE4E5B9L;
+        value = (value ^ (value >>> 27)) * 0x94D049BB133111EBL;
+        return value ^ (value >>> 31);
+    }
+}
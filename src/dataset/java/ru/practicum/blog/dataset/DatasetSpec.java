@@ -0,0 +1,95 @@
+package ru.practicum.blog.dataset;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+
+// Параметры набора данных; аргументы командной строки вида --posts=10000000, неуказанные берутся по умолчанию
+public record DatasetSpec(
+        long seed,
+        long posts,
+        int tags,
+        double tagZipfExponent, // перекос популярности тегов: ранг r выбирается с вероятностью ~ 1 / r^s
+        double avgTagsPerPost,
+        int maxTagsPerPost,
+        double avgComments,
+        double commentsTailIndex, // хвост распределения числа комментариев (Lomax): чем меньше, тем тяжелее
+        int maxComments,
+        double avgLikes,
+        int postTextMedian, // длина текста в символах: логнормальное распределение с медианой и sigma
+        double postTextSigma,
+        int commentTextMedian,
+        double commentTextSigma,
+        LocalDateTime startAt, // даты создания постов равномерно растут с id в пределах [startAt, startAt + days]
+        int days,
+        int chunkSize, // постов в одной транзакции загрузки
+        int threads,
+        boolean truncate
+) {
+
+    public static DatasetSpec parse(String[] args) {
+        Map<String, String> values = new HashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Expected --name=value, got: " + arg);
+            }
+            int separator = arg.indexOf('=');
+            values.put(arg.substring(2, separator), arg.substring(separator + 1));
+        }
+
+        DatasetSpec spec = new DatasetSpec(
+                longValue(values, "seed", 42),
+                longValue(values, "posts", 100_000),
+                (int) longValue(values, "tags", 20_000),
+                doubleValue(values, "tag-zipf", 1.07),
+                doubleValue(values, "avg-tags", 2.5),
+                (int) longValue(values, "max-tags", 8),
+                doubleValue(values, "avg-comments", 4),
+                doubleValue(values, "comments-tail", 1.6),
+                (int) longValue(values, "max-comments", 5_000),
+                doubleValue(values, "avg-likes", 15),
+                (int) longValue(values, "post-text-median", 900),
+                doubleValue(values, "post-text-sigma", 0.8),
+                (int) longValue(values, "comment-text-median", 120),
+                doubleValue(values, "comment-text-sigma", 0.9),
+                LocalDateTime.parse(stringValue(values, "start-at", "2022-01-01T00:00:00")),
+                (int) longValue(values, "days", 3 * 365),
+                (int) longValue(values, "chunk-size", 20_000),
+                (int) longValue(values, "threads", Math.max(1, Math.min(4, Runtime.getRuntime().availableProcessors()))),
+                Boolean.parseBoolean(stringValue(values, "truncate", "false"))
+        );
+        if (!values.isEmpty()) {
+            throw new IllegalArgumentException("Unknown options: " + values.keySet());
+        }
+        return spec.validate();
+    }
+
+    private DatasetSpec validate() {
+        if (posts <= 0 || tags <= 0 || chunkSize <= 0 || threads <= 0 || days <= 0) {
+            throw new IllegalArgumentException("posts, tags, chunk-size, threads and days must be positive");
+        }
+        if (avgTagsPerPost < 0 || avgTagsPerPost > maxTagsPerPost || maxTagsPerPost > tags) {
+            throw new IllegalArgumentException("Expected 0 <= avg-tags <= max-tags <= tags");
+        }
+        if (commentsTailIndex <= 1) {
+            throw new IllegalArgumentException("comments-tail must be greater than 1, otherwise the mean is infinite");
+        }
+        return this;
+    }
+
+    // Прочитанные параметры удаляются, оставшиеся в конце — неизвестные
+    private static long longValue(Map<String, String> values, String name, long defaultValue) {
+        String value = values.remove(name);
+        return value == null ? defaultValue : Long.parseLong(value.replace("_", ""));
+    }
+
+    private static String stringValue(Map<String, String> values, String name, String defaultValue) {
+        String value = values.remove(name);
+        return value == null ? defaultValue : value;
+    }
+
+    private static double doubleValue(Map<String, String> values, String name, double defaultValue) {
+        String value = values.remove(name);
+        return value == null ? defaultValue : Double.parseDouble(value);
+    }
+}
@@ -0,0 +1,86 @@
+package ru.practicum.blog.dataset;
+
+// Псевдотекст из слогов: словарь фиксирован, частоты слов — по Ципфу, как в естественном языке,
+// поэтому частые слова короче, а поиск по подстроке заголовка находит реалистичную долю постов
+final class TextGenerator {
+
+    private static final String[] SYLLABLES = {
+            "ba", "ve", "go", "da", "le", "mi", "no", "pa", "ro", "su", "ta", "fe", "ka", "zo", "ni", "lu",
+            "ri", "sa", "to", "ne", "ma", "ko", "vi", "de", "po", "li", "ra", "se", "mo", "tu", "ga", "dy"
+    };
+    private static final int VOCABULARY_SIZE = 20_000;
+    private static final double WORD_ZIPF_EXPONENT = 1.0;
+
+    private final String[] words = new String[VOCABULARY_SIZE];
+    private final ZipfDistribution wordRanks = new ZipfDistribution(VOCABULARY_SIZE, WORD_ZIPF_EXPONENT);
+
+    TextGenerator() {
+        for (int rank = 0; rank < VOCABULARY_SIZE; rank++) {
+            words[rank] = word(rank);
+        }
+    }
+
+    // Имена тегов уникальны: слово словаря, а после его исчерпания — слово с номером круга
+    String tagName(int rank) {
+        String base = words[rank % VOCABULARY_SIZE];
+        return rank < VOCABULARY_SIZE ? base : base + "-" + rank / VOCABULARY_SIZE;
+    }
+
+    String title(DatasetRandom random) {
+        StringBuilder title = new StringBuilder();
+        int wordCount = 2 + random.nextInt(8);
+        for (int i = 0; i < wordCount; i++) {
+            if (i > 0) {
+                title.append(' ');
+            }
+            appendWord(title, random, i == 0);
+        }
+        return title.toString();
+    }
+
+    // Предложения по 4–18 слов, абзацы по 2–6 предложений; текст заканчивается на первом конце предложения после length
+    String text(DatasetRandom random, int length) {
+        StringBuilder text = new StringBuilder(length + 128);
+        int sentencesLeftInParagraph = 2 + random.nextInt(5);
+        while (text.length() < length) {
+            int wordCount = 4 + random.nextInt(15);
+            for (int i = 0; i < wordCount; i++) {
+                if (i > 0) {
+                    text.append(random.nextInt(12) == 0 ? ", " : " ");
+                }
+                appendWord(text, random, i == 0);
+            }
+            text.append('.');
+            if (text.length() >= length) {
+                break;
+            }
+            if (--sentencesLeftInParagraph == 0) {
+                text.append("\n\n");
+                sentencesLeftInParagraph = 2 + random.nextInt(5);
+            } else {
+                text.append(' ');
+            }
+        }
+        return text.toString();
+    }
+
+    private void appendWord(StringBuilder target, DatasetRandom random, boolean capitalize) {
+        String word = words[wordRanks.sample(random)];
+        if (capitalize) {
+            target.append(Character.toUpperCase(word.charAt(0))).append(word, 1, word.length());
+        } else {
+            target.append(word);
+        }
+    }
+
+    // Номер слова в системе счисления по числу слогов: разные номера дают разные слова, младшие — короче
+    private static String word(int rank) {
+        StringBuilder word = new StringBuilder();
+        int value = rank;
+        do {
+            word.append(SYLLABLES[value % SYLLABLES.length]);
+            value = value / SYLLABLES.length - 1;
+        } while (value >= 0);
+        return word.toString();
+    }
+}
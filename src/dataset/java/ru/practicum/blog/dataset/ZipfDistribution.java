@@ -0,0 +1,32 @@
+package ru.practicum.blog.dataset;
+
+import java.util.Arrays;
+
+// Распределение Ципфа на рангах 0..n-1: ранг r выпадает с вероятностью ~ 1 / (r + 1)^s.
+// Функция распределения считается один раз, выборка — двоичный поиск по ней
+final class ZipfDistribution {
+
+    private final double[] cumulative;
+
+    ZipfDistribution(int n, double exponent) {
+        cumulative = new double[n];
+        double sum = 0;
+        for (int rank = 0; rank < n; rank++) {
+            sum += 1 / Math.pow(rank + 1, exponent);
+            cumulative[rank] = sum;
+        }
+        for (int rank = 0; rank < n; rank++) {
+            cumulative[rank] /= sum;
+        }
+    }
+
+    int sample(DatasetRandom random) {
+        int index = Arrays.binarySearch(cumulative, random.nextDouble());
+        int rank = index >= 0 ? index : -index - 1;
+        return Math.min(rank, cumulative.length - 1);
+    }
+
+    int size() {
+        return cumulative.length;
+    }
+}
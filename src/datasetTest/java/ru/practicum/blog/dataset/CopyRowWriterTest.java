@@ -0,0 +1,44 @@
+package ru.practicum.blog.dataset;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.StringWriter;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@DisplayName("CopyRowWriterTest")
+class CopyRowWriterTest {
+
+    private final StringWriter output = new StringWriter();
+
+    private final CopyRowWriter copyRowWriter = new CopyRowWriter(output);
+
+    @Test
+    @DisplayName("should escape backslash, tab, newline and carriage return")
+    void shouldEscapeSpecialCharacters() throws Exception {
+        copyRowWriter.field("a\\b\tc\nd\re").endRow();
+
+        assertEquals("a\\\\b\\tc\\nd\\re\n", output.toString());
+    }
+
+    @Test
+    @DisplayName("should write null as \\N and keep a literal \\N distinguishable")
+    void shouldWriteNull() throws Exception {
+        copyRowWriter.field((String) null).field("\\N").endRow();
+
+        assertEquals("\\N\t\\\\N\n", output.toString());
+    }
+
+    @Test
+    @DisplayName("should separate fields with tabs and count rows")
+    void shouldSeparateFieldsAndCountRows() throws Exception {
+        copyRowWriter.field(7).field(LocalDateTime.of(2024, 1, 2, 3, 4, 5)).array(List.of("java", "spring")).endRow();
+        copyRowWriter.field("").endRow();
+
+        assertEquals("7\t2024-01-02T03:04:05\t{java,spring}\n\n", output.toString());
+        assertEquals(2, copyRowWriter.rows());
+    }
+}
@@ -0,0 +1,37 @@
+package ru.practicum.blog.dataset;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+@DisplayName("DatasetRandomTest")
+class DatasetRandomTest {
+
+    @Test
+    @DisplayName("should produce the same sequence for the same seed, stream and id")
+    void shouldBeReproducible() {
+        assertArrayEquals(sample(DatasetRandom.of(7, DatasetRandom.POSTS, 42)),
+                sample(DatasetRandom.of(7, DatasetRandom.POSTS, 42)));
+    }
+
+    @Test
+    @DisplayName("should produce different sequences when seed, stream or id differ")
+    void shouldDependOnSeedStreamAndId() {
+        long[] base = sample(DatasetRandom.of(7, DatasetRandom.POSTS, 42));
+
+        assertFalse(Arrays.equals(base, sample(DatasetRandom.of(8, DatasetRandom.POSTS, 42))));
+        assertFalse(Arrays.equals(base, sample(DatasetRandom.of(7, DatasetRandom.COMMENTS, 42))));
+        assertFalse(Arrays.equals(base, sample(DatasetRandom.of(7, DatasetRandom.POSTS, 43))));
+    }
+
+    private static long[] sample(DatasetRandom random) {
+        return IntStream.range(0, 16)
+                .mapToLong(i -> random.nextInt(1_000_000) + random.lomax(10, 2.5, 1_000_000))
+                .toArray();
+    }
+}
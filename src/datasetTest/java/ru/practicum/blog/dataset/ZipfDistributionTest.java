@@ -0,0 +1,44 @@
+package ru.practicum.blog.dataset;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DisplayName("ZipfDistributionTest")
+class ZipfDistributionTest {
+
+    private static final int SAMPLES = 100_000;
+
+    @Test
+    @DisplayName("should keep samples in range with rank 0 the most frequent")
+    void shouldFavourLowRanks() {
+        ZipfDistribution distribution = new ZipfDistribution(50, 1.1);
+        DatasetRandom random = DatasetRandom.of(7, DatasetRandom.POSTS, 1);
+        int[] counts = new int[distribution.size()];
+
+        for (int i = 0; i < SAMPLES; i++) {
+            int rank = distribution.sample(random);
+            assertTrue(rank >= 0 && rank < distribution.size(), "rank out of range: " + rank);
+            counts[rank]++;
+        }
+
+        for (int rank = 1; rank < counts.length; rank++) {
+            assertTrue(counts[0] > counts[rank], "rank " + rank + " is sampled more often than rank 0");
+        }
+        // При s = 1.1 на первый ранг приходится около 26% выборки
+        assertEquals(0.26, (double) counts[0] / SAMPLES, 0.02);
+    }
+
+    @Test
+    @DisplayName("should always return rank 0 for a single-element distribution")
+    void shouldHandleSingleRank() {
+        ZipfDistribution distribution = new ZipfDistribution(1, 1.1);
+        DatasetRandom random = DatasetRandom.of(7, DatasetRandom.POSTS, 1);
+
+        for (int i = 0; i < 1_000; i++) {
+            assertEquals(0, distribution.sample(random));
+        }
+    }
+}
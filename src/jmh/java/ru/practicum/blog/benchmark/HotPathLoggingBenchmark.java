@@ -0,0 +1,105 @@
+package ru.practicum.blog.benchmark;
+
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.apache.logging.log4j.core.config.Configurator;
+import org.apache.logging.log4j.core.config.builder.api.ConfigurationBuilder;
+import org.apache.logging.log4j.core.config.builder.api.ConfigurationBuilderFactory;
+import org.apache.logging.log4j.core.config.builder.api.LoggerComponentBuilder;
+import org.apache.logging.log4j.core.config.builder.impl.BuiltConfiguration;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import ru.practicum.blog.domain.model.PostField;
+import ru.practicum.blog.domain.model.PostInclude;
+import ru.practicum.blog.service.logging.LogSampler;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.EnumSet;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+// Цена debug-сообщения из PostServiceImpl.getPost для потока запроса: синхронная запись в файл против асинхронного
+// логгера с ожиданием (Default) или отбрасыванием (Discard) при переполненном буфере, с выборкой и без
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Threads(4)
+@Fork(1)
+public class HotPathLoggingBenchmark {
+
+    private static final String LOGGER_NAME = "ru.practicum.blog.benchmark.hotpath";
+    private static final String LOG_PATTERN = "[%d{dd-MM-yyyy HH:mm:ss.SSS}] %-5level [%t] %logger{36} - %msg%n";
+    private static final Set<PostField> FIELDS = EnumSet.of(PostField.TITLE, PostField.TEXT, PostField.TAGS);
+    private static final Set<PostInclude> INCLUDES = EnumSet.of(PostInclude.COMMENTS);
+
+    @Param({"sync", "async-block", "async-discard"})
+    private String mode;
+
+    @Param({"1", "100"})
+    private int sampleRate;
+
+    private Path logDir;
+    private Logger log;
+    private LogSampler sampler;
+
+    @Setup
+    public void setUp() throws IOException {
+        // Каждая комбинация параметров идёт в своём форке, так что политику можно задать до старта буфера
+        if (mode.startsWith("async")) {
+            System.setProperty("log4j2.asyncQueueFullPolicy", mode.equals("async-discard") ? "Discard" : "Default");
+            System.setProperty("log4j2.discardThreshold", "DEBUG");
+        }
+        logDir = Files.createTempDirectory("hot-path-logging");
+
+        ConfigurationBuilder<BuiltConfiguration> builder = ConfigurationBuilderFactory.newConfigurationBuilder();
+        builder.setStatusLevel(Level.ERROR);
+        builder.add(builder.newAppender("File", "File")
+                .addAttribute("fileName", logDir.resolve("application.log").toString())
+                .add(builder.newLayout("PatternLayout").addAttribute("pattern", LOG_PATTERN)));
+        LoggerComponentBuilder logger = mode.startsWith("async")
+                ? builder.newAsyncLogger(LOGGER_NAME, Level.DEBUG)
+                : builder.newLogger(LOGGER_NAME, Level.DEBUG);
+        builder.add(logger.add(builder.newAppenderRef("File")).addAttribute("additivity", false));
+        builder.add(builder.newRootLogger(Level.WARN));
+        Configurator.reconfigure(builder.build());
+
+        log = LogManager.getLogger(LOGGER_NAME);
+        sampler = LogSampler.oneIn(sampleRate);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        LogManager.shutdown();
+        try (Stream<Path> files = Files.walk(logDir)) {
+            for (Path file : files.sorted((a, b) -> b.compareTo(a)).toList()) {
+                Files.delete(file);
+            }
+        }
+    }
+
+    @Benchmark
+    public void fetchPostDebug() {
+        long id = ThreadLocalRandom.current().nextLong(1, 100_000);
+        if (sampler.sampleDebug(log)) {
+            log.debug("Fetching post with id={}, fields={}, includes={}", id, FIELDS, INCLUDES);
+        }
+    }
+}
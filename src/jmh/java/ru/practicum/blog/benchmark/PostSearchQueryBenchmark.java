@@ -0,0 +1,33 @@
+package ru.practicum.blog.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import ru.practicum.blog.service.feed.PostSearchQuery;
+
+import java.util.concurrent.TimeUnit;
+
+// Разбор строки поиска ленты из PostServiceImpl.getPosts: разбиение по пробелам, теги, нижний регистр
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PostSearchQueryBenchmark {
+
+    @Param({"", "Spring Guide", "  spring   boot #Java #jdbc guide  ", "#java #spring #jdbc #postgres #virtual-threads"})
+    private String search;
+
+    @Benchmark
+    public PostSearchQuery parse() {
+        return PostSearchQuery.parse(search);
+    }
+}
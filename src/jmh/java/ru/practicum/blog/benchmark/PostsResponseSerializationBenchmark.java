@@ -0,0 +1,89 @@
+package ru.practicum.blog.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import ru.practicum.blog.web.dto.PostResponseDto;
+import ru.practicum.blog.web.dto.PostsResponseDto;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+// Сравнивает JSON, CBOR и Smile на странице ленты; размер полезной нагрузки пишется в лог при подготовке
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PostsResponseSerializationBenchmark {
+
+    private static final Logger log = LogManager.getLogger(PostsResponseSerializationBenchmark.class);
+
+    @Param({"json", "cbor", "smile"})
+    private String format;
+
+    @Param({"1", "10", "50", "100"})
+    private int pageSize;
+
+    private ObjectMapper objectMapper;
+    private PostsResponseDto page;
+    private byte[] encoded;
+
+    @Setup
+    public void setUp() throws IOException {
+        objectMapper = switch (format) {
+            case "json" -> Jackson2ObjectMapperBuilder.json().build();
+            case "cbor" -> Jackson2ObjectMapperBuilder.cbor().build();
+            case "smile" -> Jackson2ObjectMapperBuilder.smile().build();
+            default -> throw new IllegalArgumentException("Unknown format: " + format);
+        };
+        page = new PostsResponseDto(
+                IntStream.range(0, pageSize).mapToObj(PostsResponseSerializationBenchmark::post).toList(),
+                false,
+                true,
+                20
+        );
+        encoded = objectMapper.writeValueAsBytes(page);
+        log.info("{} payload for {} posts: {} bytes", format, pageSize, encoded.length);
+    }
+
+    @Benchmark
+    public byte[] encode() throws IOException {
+        return objectMapper.writeValueAsBytes(page);
+    }
+
+    @Benchmark
+    public PostsResponseDto decode() throws IOException {
+        return objectMapper.readValue(encoded, PostsResponseDto.class);
+    }
+
+    // Текст поста уже обрезан до превью, как в ответе ленты
+    private static PostResponseDto post(int i) {
+        return new PostResponseDto(
+                (long) i,
+                "Post title number " + i,
+                "Lorem ipsum dolor sit amet, consectetur adipiscing elit, sed do eiusmod tempor incididunt ut "
+                        + "labore et dolore magna aliqua. Ut enim ad minim veniam, quis nostrud…",
+                List.of("java", "spring", "tag" + (i % 7)),
+                i * 3,
+                i % 5,
+                1L,
+                null
+        );
+    }
+}
@@ -0,0 +1,95 @@
+package ru.practicum.blog.repository.impl;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.jdbc.core.RowMapper;
+import ru.practicum.blog.domain.model.Post;
+
+import java.lang.reflect.Proxy;
+import java.sql.Array;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+// Мапперы строк JdbcPostRepositoryImpl на странице ленты. ResultSet — динамический прокси над массивами значений:
+// накладные расходы прокси одинаковы между коммитами, так что сравнение результатов остаётся честным
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PostRowMapperBenchmark {
+
+    @Param({"10", "50"})
+    private int pageSize;
+
+    private Map<String, Object>[] rows;
+
+    @Setup
+    @SuppressWarnings("unchecked")
+    public void setUp() {
+        rows = new Map[pageSize];
+        for (int i = 0; i < pageSize; i++) {
+            rows[i] = Map.of(
+                    "id", (long) i,
+                    "title", "Post title number " + i,
+                    "text", "Lorem ipsum dolor sit amet, consectetur adipiscing elit. ".repeat(20),
+                    "preview", "Lorem ipsum dolor sit amet, consectetur adipiscing elit…",
+                    "tags", new String[]{"java", "spring", "tag" + (i % 7)},
+                    "likes_count", i * 3,
+                    "comments_count", i % 5,
+                    "version", 1L
+            );
+        }
+    }
+
+    @Benchmark
+    public void postRowMapper(Blackhole blackhole) throws SQLException {
+        mapAll(JdbcPostRepositoryImpl.POST_ROW_MAPPER, blackhole);
+    }
+
+    @Benchmark
+    public void feedPostRowMapper(Blackhole blackhole) throws SQLException {
+        mapAll(JdbcPostRepositoryImpl.FEED_POST_ROW_MAPPER, blackhole);
+    }
+
+    private void mapAll(RowMapper<Post> rowMapper, Blackhole blackhole) throws SQLException {
+        int[] cursor = {-1};
+        ResultSet resultSet = resultSet(cursor);
+        while (resultSet.next()) {
+            blackhole.consume(rowMapper.mapRow(resultSet, cursor[0]));
+        }
+    }
+
+    private ResultSet resultSet(int[] cursor) {
+        return (ResultSet) Proxy.newProxyInstance(ResultSet.class.getClassLoader(), new Class<?>[]{ResultSet.class},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "next" -> ++cursor[0] < rows.length;
+                    case "getLong", "getInt", "getString" -> rows[cursor[0]].get((String) args[0]);
+                    case "getArray" -> array((String[]) rows[cursor[0]].get((String) args[0]));
+                    case "wasNull" -> false;
+                    default -> throw new UnsupportedOperationException(method.getName());
+                });
+    }
+
+    private static Array array(String[] values) {
+        return (Array) Proxy.newProxyInstance(Array.class.getClassLoader(), new Class<?>[]{Array.class},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "getArray" -> values;
+                    case "free" -> null;
+                    default -> throw new UnsupportedOperationException(method.getName());
+                });
+    }
+}
@@ -0,0 +1,90 @@
+package ru.practicum.blog.web.mapper;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import ru.practicum.blog.domain.model.Comment;
+import ru.practicum.blog.domain.model.Post;
+import ru.practicum.blog.domain.model.PostField;
+import ru.practicum.blog.domain.model.Tag;
+import ru.practicum.blog.web.dto.CommentResponseDto;
+import ru.practicum.blog.web.dto.PostsResponseDto;
+
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+// Лежит в пакете маперов, чтобы измерять truncateWithEllipsis напрямую.
+// Лента приходит из БД с готовым превью, полный текст обрезается в Java только для постов вне ленты
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MapperBenchmark {
+
+    private static final Set<PostField> ALL_FIELDS = EnumSet.allOf(PostField.class);
+    private static final String LONG_TEXT = "Lorem ipsum dolor sit amet, consectetur adipiscing elit — ".repeat(40);
+    private static final String CYRILLIC_TEXT = "Съешь же ещё этих мягких французских булок, да выпей чаю. ".repeat(40);
+
+    @Param({"10", "50"})
+    private int pageSize;
+
+    private List<Post> feedPosts;
+    private List<Post> fullTextPosts;
+    private List<Comment> comments;
+
+    @Setup
+    public void setUp() {
+        feedPosts = IntStream.range(0, pageSize)
+                .mapToObj(i -> post(i).preview(LONG_TEXT.substring(0, 128) + "…").build())
+                .toList();
+        fullTextPosts = IntStream.range(0, pageSize)
+                .mapToObj(i -> post(i).text(i % 2 == 0 ? LONG_TEXT : CYRILLIC_TEXT).build())
+                .toList();
+        comments = IntStream.range(0, pageSize)
+                .mapToObj(i -> Comment.builder().id((long) i).text("Comment " + i).postId(1L).version(0L).build())
+                .toList();
+    }
+
+    @Benchmark
+    public PostsResponseDto feedPageWithPreview() {
+        return PostMapper.toPostsResponseDto(feedPosts, false, true, 10, ALL_FIELDS);
+    }
+
+    @Benchmark
+    public PostsResponseDto pageWithTruncation() {
+        return PostMapper.toPostsResponseDto(fullTextPosts, false, true, 10, ALL_FIELDS);
+    }
+
+    @Benchmark
+    public String truncateWithEllipsis() {
+        return PostMapper.truncateWithEllipsis(CYRILLIC_TEXT);
+    }
+
+    @Benchmark
+    public List<CommentResponseDto> commentList() {
+        return CommentMapper.toCommentDtoList(comments);
+    }
+
+    private static Post.PostBuilder post(int i) {
+        return Post.builder()
+                .id((long) i)
+                .title("Post title number " + i)
+                .tags(List.of(Tag.builder().name("java").build(), Tag.builder().name("tag" + (i % 7)).build()))
+                .likesCount(i * 3)
+                .commentsCount(i % 5)
+                .version(1L);
+    }
+}
@@ -0,0 +1,36 @@
+package ru.practicum.blog.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+import ru.practicum.blog.repository.jdbc.DbRequestStats;
+
+@Configuration
+public class AsyncConfiguration implements WebMvcConfigurer {
+
+    private final long requestTimeoutMs;
+
+    public AsyncConfiguration(@Value("${blog.async.request-timeout-ms:30000}") long requestTimeoutMs) {
+        this.requestTimeoutMs = requestTimeoutMs;
+    }
+
+    // Каждая задача получает свой виртуальный поток, поэтому блокирующий JDBC не занимает потоки Tomcat
+    @Bean
+    public AsyncTaskExecutor virtualThreadTaskExecutor() {
+        SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("blog-vt-");
+        executor.setVirtualThreads(true);
+        // Счётчик запросов к БД текущего HTTP-запроса переходит в задачу вместе с ней
+        executor.setTaskDecorator(DbRequestStats::propagate);
+        return executor;
+    }
+
+    @Override
+    public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+        configurer.setTaskExecutor(virtualThreadTaskExecutor());
+        configurer.setDefaultTimeout(requestTimeoutMs);
+    }
+}
@@ -14,19 +14,25 @@ import org.springframework.jdbc.datasource.DriverManagerDataSource;
 import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
 import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.EnableTransactionManagement;
+import ru.practicum.blog.repository.datasource.ConcurrencyLimitingDataSource;
+import ru.practicum.blog.repository.jdbc.InstrumentedNamedParameterJdbcTemplate;
+import ru.practicum.blog.repository.jdbc.JdbcStatementMetrics;
+import ru.practicum.blog.repository.jdbc.SlowQueryLog;
 
 import javax.sql.DataSource;
 
 @Configuration
 @EnableTransactionManagement
-@Profile("!test")
+@Profile("!test & !inmemory")
 public class DataSourceConfiguration {
 
     @Bean
     public DataSource dataSource(
             @Value("${spring.datasource.url}") String url,
             @Value("${spring.datasource.username}") String username,
-            @Value("${spring.datasource.password}") String password
+            @Value("${spring.datasource.password}") String password,
+            @Value("${blog.db.max-connections:20}") int maxConnections,
+            @Value("${blog.db.acquire-timeout-ms:10000}") long acquireTimeoutMs
     ) {
         DriverManagerDataSource dataSource = new DriverManagerDataSource();
         dataSource.setDriverClassName(Driver.class.getName());
@@ -34,12 +40,18 @@ public class DataSourceConfiguration {
         dataSource.setUsername(username);
         dataSource.setPassword(password);
 
-        return dataSource;
+        // Запросы теперь обрабатываются на виртуальных потоках, и их число не ограничено пулом Tomcat
+        return new ConcurrencyLimitingDataSource(dataSource, maxConnections, acquireTimeoutMs);
     }
 
+    // Время и число строк каждого запроса из SqlConstants попадают в метрики blog.db.statement.*, медленные — в SlowQueryLog
     @Bean
-    public NamedParameterJdbcTemplate jdbcTemplate(DataSource dataSource) {
-        return new NamedParameterJdbcTemplate(dataSource);
+    public NamedParameterJdbcTemplate jdbcTemplate(
+            DataSource dataSource,
+            JdbcStatementMetrics statementMetrics,
+            SlowQueryLog slowQueryLog
+    ) {
+        return new InstrumentedNamedParameterJdbcTemplate(dataSource, statementMetrics, slowQueryLog);
     }
 
     @Bean
@@ -0,0 +1,20 @@
+package ru.practicum.blog.config;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.EnableTransactionManagement;
+import ru.practicum.blog.repository.inmemory.InMemoryTransactionManager;
+
+// Режим без БД (профиль inmemory): репозитории из repository.inmemory вместо JDBC, данные живут до остановки приложения
+@Configuration
+@EnableTransactionManagement
+@Profile("inmemory")
+public class InMemoryConfiguration {
+
+    @Bean
+    public PlatformTransactionManager transactionManager() {
+        return new InMemoryTransactionManager();
+    }
+}
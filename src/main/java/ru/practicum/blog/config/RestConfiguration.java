@@ -1,15 +1,49 @@
 package ru.practicum.blog.config;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.AbstractJackson2HttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
 import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.List;
 
 @Configuration
-public class RestConfiguration {
+public class RestConfiguration implements WebMvcConfigurer {
+
+    @Bean
+    public ObjectMapper objectMapper() {
+        return Jackson2ObjectMapperBuilder.json().build();
+    }
+
+    @Bean
+    public HttpMessageConverter<Object> objectHttpMessageConverter(ObjectMapper objectMapper) {
+        return new MappingJackson2HttpMessageConverter(objectMapper);
+    }
+
+    // Бинарные форматы для мобильных клиентов выбираются по заголовку Accept: application/cbor
+    @Bean
+    public HttpMessageConverter<Object> cborHttpMessageConverter() {
+        return new MappingJackson2CborHttpMessageConverter(Jackson2ObjectMapperBuilder.cbor().build());
+    }
 
+    // ... или application/x-jackson-smile
     @Bean
-    public HttpMessageConverter<Object> objectHttpMessageConverter() {
-        return new MappingJackson2HttpMessageConverter();
+    public HttpMessageConverter<Object> smileHttpMessageConverter() {
+        return new MappingJackson2SmileHttpMessageConverter(Jackson2ObjectMapperBuilder.smile().build());
+    }
+
+    // Заменяем Jackson-конвертеры по умолчанию своими; JSON идёт первым и остаётся форматом для Accept: */*
+    @Override
+    public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+        converters.removeIf(AbstractJackson2HttpMessageConverter.class::isInstance);
+        converters.add(objectHttpMessageConverter(objectMapper()));
+        converters.add(cborHttpMessageConverter());
+        converters.add(smileHttpMessageConverter());
     }
 }
@@ -0,0 +1,24 @@
+package ru.practicum.blog.domain.event;
+
+import ru.practicum.blog.domain.model.Tag;
+
+import java.util.List;
+
+// Публикуется репозиториями после изменения счётчиков использования тегов или удаления тегов
+public record TagsChangedEvent(
+        List<Tag> updatedTags, // теги с новыми значениями usageCount
+        List<String> removedTagNames // имена удалённых тегов
+) {
+    public TagsChangedEvent {
+        updatedTags = List.copyOf(updatedTags);
+        removedTagNames = List.copyOf(removedTagNames);
+    }
+
+    public static TagsChangedEvent updated(List<Tag> tags) {
+        return new TagsChangedEvent(tags, List.of());
+    }
+
+    public static TagsChangedEvent removed(List<String> tagNames) {
+        return new TagsChangedEvent(List.of(), tagNames);
+    }
+}
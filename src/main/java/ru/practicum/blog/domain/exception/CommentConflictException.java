@@ -0,0 +1,7 @@
+package ru.practicum.blog.domain.exception;
+
+public class CommentConflictException extends RuntimeException {
+    public CommentConflictException(String message) {
+        super(message);
+    }
+}
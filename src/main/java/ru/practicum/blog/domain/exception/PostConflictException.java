@@ -0,0 +1,7 @@
+package ru.practicum.blog.domain.exception;
+
+public class PostConflictException extends RuntimeException {
+    public PostConflictException(String message) {
+        super(message);
+    }
+}
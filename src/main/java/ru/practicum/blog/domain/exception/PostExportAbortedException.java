@@ -0,0 +1,7 @@
+package ru.practicum.blog.domain.exception;
+
+public class PostExportAbortedException extends RuntimeException {
+    public PostExportAbortedException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
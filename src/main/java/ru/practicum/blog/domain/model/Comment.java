@@ -14,5 +14,6 @@ public class Comment {
     Long id;
     String text;
     Long postId;
+    Long version;
     LocalDateTime createdAt;
 }
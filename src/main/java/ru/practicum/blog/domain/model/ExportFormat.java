@@ -0,0 +1,23 @@
+package ru.practicum.blog.domain.model;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import ru.practicum.blog.domain.exception.PostBadRequestException;
+
+import java.util.Arrays;
+
+@Getter
+@RequiredArgsConstructor
+public enum ExportFormat {
+    NDJSON("ndjson"),
+    CSV("csv");
+
+    private final String fileExtension;
+
+    public static ExportFormat from(String value) {
+        return Arrays.stream(values())
+                .filter(format -> format.fileExtension.equalsIgnoreCase(value.trim()))
+                .findFirst()
+                .orElseThrow(() -> new PostBadRequestException("Unsupported export format: " + value));
+    }
+}
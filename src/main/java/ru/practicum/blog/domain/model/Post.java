@@ -15,9 +15,12 @@ public class Post {
     Long id;
     String title;
     String text;
+    String preview;
     Integer likesCount;
     Integer commentsCount;
     byte[] image;
     List<Tag> tags;
+    Long version;
     LocalDateTime createdAt;
+    List<Comment> comments; // первая страница комментариев, только если её запросили
 }
@@ -0,0 +1,23 @@
+package ru.practicum.blog.domain.model;
+
+import lombok.AccessLevel;
+import lombok.Builder;
+import lombok.Data;
+import lombok.experimental.FieldDefaults;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@Builder
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class PostExportRow {
+    Long id;
+    String title;
+    String text;
+    Integer likesCount;
+    Integer commentsCount;
+    LocalDateTime createdAt;
+    List<String> tags;
+    String commentsJson; // комментарии поста уже собраны БД в JSON-массив
+}
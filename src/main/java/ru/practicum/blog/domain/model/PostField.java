@@ -0,0 +1,46 @@
+package ru.practicum.blog.domain.model;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import ru.practicum.blog.domain.exception.PostBadRequestException;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Set;
+
+// Поля поста, которые клиент может запросить через fields=; имена совпадают с полями PostResponseDto
+@Getter
+@RequiredArgsConstructor
+public enum PostField {
+    ID("id"),
+    TITLE("title"),
+    TEXT("text"),
+    TAGS("tags"),
+    LIKES_COUNT("likesCount"),
+    COMMENTS_COUNT("commentsCount"),
+    VERSION("version");
+
+    public static final Set<PostField> ALL = Collections.unmodifiableSet(EnumSet.allOf(PostField.class));
+
+    private final String jsonName;
+
+    // Пустой параметр — все поля; id возвращается всегда, иначе клиенту не с чем сопоставить пост
+    public static Set<PostField> parse(String fields) {
+        if (fields == null || fields.isBlank()) {
+            return ALL;
+        }
+        EnumSet<PostField> result = EnumSet.of(ID);
+        for (String name : fields.split(",")) {
+            String trimmed = name.trim();
+            if (trimmed.isEmpty()) {
+                continue;
+            }
+            result.add(Arrays.stream(values())
+                    .filter(field -> field.jsonName.equals(trimmed))
+                    .findFirst()
+                    .orElseThrow(() -> new PostBadRequestException("Unknown post field: " + trimmed)));
+        }
+        return Collections.unmodifiableSet(result);
+    }
+}
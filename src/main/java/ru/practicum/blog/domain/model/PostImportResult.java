@@ -0,0 +1,14 @@
+package ru.practicum.blog.domain.model;
+
+import lombok.AccessLevel;
+import lombok.Builder;
+import lombok.Data;
+import lombok.experimental.FieldDefaults;
+
+@Data
+@Builder
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class PostImportResult {
+    long importedPosts;
+    long linkedTags;
+}
@@ -0,0 +1,37 @@
+package ru.practicum.blog.domain.model;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import ru.practicum.blog.domain.exception.PostBadRequestException;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Set;
+
+// Связанные данные, которые клиент может получить вместе с постом через include=
+@Getter
+@RequiredArgsConstructor
+public enum PostInclude {
+    COMMENTS("comments");
+
+    private final String paramName;
+
+    public static Set<PostInclude> parse(String include) {
+        if (include == null || include.isBlank()) {
+            return Collections.emptySet();
+        }
+        EnumSet<PostInclude> result = EnumSet.noneOf(PostInclude.class);
+        for (String name : include.split(",")) {
+            String trimmed = name.trim();
+            if (trimmed.isEmpty()) {
+                continue;
+            }
+            result.add(Arrays.stream(values())
+                    .filter(value -> value.paramName.equals(trimmed))
+                    .findFirst()
+                    .orElseThrow(() -> new PostBadRequestException("Unknown post include: " + trimmed)));
+        }
+        return Collections.unmodifiableSet(result);
+    }
+}
@@ -11,4 +11,6 @@ import lombok.experimental.FieldDefaults;
 public class Tag {
     Long id;
     String name;
+    Integer usageCount;
+    Long usageVersion; // растёт с каждым изменением usageCount
 }
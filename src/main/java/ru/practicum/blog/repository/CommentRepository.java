@@ -14,7 +14,7 @@ public interface CommentRepository {
 
     boolean existsById(long postId, long commentId);
 
-    Comment updateComment(long postId, long commentId, String text);
+    Comment updateComment(long postId, long commentId, Long expectedVersion, String text);
 
     void deleteComment(long postId, long commentId);
 }
@@ -0,0 +1,17 @@
+package ru.practicum.blog.repository;
+
+import ru.practicum.blog.domain.model.Post;
+import ru.practicum.blog.domain.model.PostExportRow;
+import ru.practicum.blog.domain.model.PostImportResult;
+
+import java.util.Iterator;
+import java.util.function.Consumer;
+
+public interface PostBulkRepository {
+
+    // Забирает из итератора не более maxRows постов; должен вызываться внутри транзакции
+    PostImportResult importPosts(Iterator<Post> posts, int maxRows);
+
+    // Отдаёт посты по одному через курсор на стороне сервера; должен вызываться внутри транзакции
+    void exportPosts(int fetchSize, Consumer<PostExportRow> consumer);
+}
@@ -1,6 +1,7 @@
 package ru.practicum.blog.repository;
 
 import ru.practicum.blog.domain.model.Post;
+import ru.practicum.blog.domain.model.PostField;
 
 import java.util.List;
 import java.util.Optional;
@@ -8,15 +9,24 @@ import java.util.Set;
 
 public interface PostRepository {
 
-    List<Post> findPosts(Set<String> tags, String titleSubstring, int pageSize, long offset);
+    // fields сужает выборку: без TEXT не читается текст
+    List<Post> findPosts(Set<String> tags, String titleSubstring, int pageSize, long offset, Set<PostField> fields);
 
-    Optional<Post> findPostById(long id);
+    // Части findPosts по отдельности, для параллельной загрузки ленты
+    List<Long> findPostIds(Set<String> tags, String titleSubstring, int pageSize, long offset);
+
+    List<Post> findPostsByIds(List<Long> postIds, Set<PostField> fields);
+
+    Optional<Post> findPostById(long id, Set<PostField> fields);
+
+    // То же вместе с первыми commentsLimit комментариями (новые первыми) в Post.comments — одним чтением
+    Optional<Post> findPostWithComments(long id, Set<PostField> fields, int commentsLimit);
 
     long countPosts(Set<String> tags, String titleSubstring);
 
     Post createPost(String title, String text, List<String> tags);
 
-    Post updatePost(long id, String title, String text, List<String> updatedTagNames);
+    Post updatePost(long id, Long expectedVersion, String title, String text, List<String> updatedTagNames);
 
     void deletePost(long id);
 
@@ -31,4 +41,11 @@ public interface PostRepository {
     void incrementComments(long postId);
 
     void decrementComments(long postId);
+
+    // Сверка денормализованной копии post.tags с post_tag
+    long findMaxPostId();
+
+    List<Long> findPostIdsWithInconsistentTags(long fromId, long toId);
+
+    int repairTags(List<Long> postIds);
 }
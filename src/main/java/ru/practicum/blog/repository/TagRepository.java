@@ -0,0 +1,15 @@
+package ru.practicum.blog.repository;
+
+import ru.practicum.blog.domain.model.Tag;
+
+import java.util.List;
+
+public interface TagRepository {
+
+    // Все теги, включая неиспользуемые, со счётчиками и их версиями
+    List<Tag> findAllTags();
+
+    List<Tag> findPopularTags(int limit);
+
+    int deleteUnusedTags(int batchSize);
+}
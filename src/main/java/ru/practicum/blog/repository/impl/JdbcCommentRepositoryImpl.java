@@ -1,22 +1,35 @@
 package ru.practicum.blog.repository.impl;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
 import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
 import org.springframework.stereotype.Repository;
+import ru.practicum.blog.domain.exception.CommentConflictException;
 import ru.practicum.blog.domain.exception.CommentDbException;
 import ru.practicum.blog.domain.exception.CommentNotFoundException;
 import ru.practicum.blog.domain.model.Comment;
 import ru.practicum.blog.repository.CommentRepository;
 import ru.practicum.blog.repository.util.SqlConstants;
 
+import java.sql.Types;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 
 @Repository
+@Profile("!inmemory")
 @RequiredArgsConstructor
 public class JdbcCommentRepositoryImpl implements CommentRepository {
 
+    private static final RowMapper<Comment> COMMENT_ROW_MAPPER = (resultSet, rowNum) -> Comment.builder()
+            .id(resultSet.getLong("id"))
+            .text(resultSet.getString("text"))
+            .postId(resultSet.getLong("post_id"))
+            .version(resultSet.getLong("version"))
+            .build();
+
     private final NamedParameterJdbcTemplate jdbcTemplate;
 
     @Override
@@ -24,11 +37,7 @@ public class JdbcCommentRepositoryImpl implements CommentRepository {
         return jdbcTemplate.query(
                 SqlConstants.FIND_COMMENTS_BY_POST_ID,
                 Map.of("postId", postId),
-                (resultSet, rowNum) -> Comment.builder()
-                        .id(resultSet.getLong("id"))
-                        .text(resultSet.getString("text"))
-                        .postId(resultSet.getLong("post_id"))
-                        .build()
+                COMMENT_ROW_MAPPER
         );
     }
 
@@ -37,11 +46,7 @@ public class JdbcCommentRepositoryImpl implements CommentRepository {
         return jdbcTemplate.query(
                 SqlConstants.FIND_COMMENT_BY_ID,
                 Map.of("commentId", commentId, "postId", postId),
-                (resultSet, rowNum) -> Comment.builder()
-                        .id(resultSet.getLong("id"))
-                        .text(resultSet.getString("text"))
-                        .postId(resultSet.getLong("post_id"))
-                        .build()
+                COMMENT_ROW_MAPPER
         ).stream().findFirst();
     }
 
@@ -50,11 +55,7 @@ public class JdbcCommentRepositoryImpl implements CommentRepository {
         return jdbcTemplate.query(
                 SqlConstants.CREATE_COMMENT,
                 Map.of("text", text, "postId", postId),
-                (resultSet, rowNum) -> Comment.builder()
-                        .id(resultSet.getLong("id"))
-                        .text(resultSet.getString("text"))
-                        .postId(resultSet.getLong("post_id"))
-                        .build()
+                COMMENT_ROW_MAPPER
         ).stream().findFirst().orElseThrow(() -> new CommentDbException("Failed to create comment."));
     }
 
@@ -69,16 +70,16 @@ public class JdbcCommentRepositoryImpl implements CommentRepository {
     }
 
     @Override
-    public Comment updateComment(long postId, long commentId, String text) {
+    public Comment updateComment(long postId, long commentId, Long expectedVersion, String text) {
+        MapSqlParameterSource params = new MapSqlParameterSource(
+                Map.of("text", text, "commentId", commentId, "postId", postId))
+                // Тип указываем явно: иначе PostgreSQL не сможет вывести тип для NULL
+                .addValue("version", expectedVersion, Types.BIGINT);
         return jdbcTemplate.query(
                 SqlConstants.UPDATE_COMMENT,
-                Map.of("text", text, "commentId", commentId, "postId", postId),
-                (resultSet, rowNum) -> Comment.builder()
-                        .id(resultSet.getLong("id"))
-                        .text(resultSet.getString("text"))
-                        .postId(resultSet.getLong("post_id"))
-                        .build()
-        ).stream().findFirst().orElseThrow(() -> new CommentDbException("Failed to update comment."));
+                params,
+                COMMENT_ROW_MAPPER
+        ).stream().findFirst().orElseThrow(() -> updateFailure(postId, commentId, expectedVersion));
     }
 
     @Override
@@ -92,4 +93,15 @@ public class JdbcCommentRepositoryImpl implements CommentRepository {
                     .formatted(commentId, postId));
         }
     }
+
+    // Существование проверяем только после неудачного UPDATE, чтобы отличить 404 от конфликта версий
+    private RuntimeException updateFailure(long postId, long commentId, Long expectedVersion) {
+        if (existsById(postId, commentId)) {
+            return new CommentConflictException(
+                    "Comment with id = %d for post with id = %d was modified concurrently, expected version %d is outdated."
+                            .formatted(commentId, postId, expectedVersion));
+        }
+        return new CommentNotFoundException("Comment with id = %d for post with id = %d was not found."
+                .formatted(commentId, postId));
+    }
 }
@@ -0,0 +1,163 @@
+package ru.practicum.blog.repository.impl;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.PGCopyOutputStream;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+import ru.practicum.blog.domain.event.TagsChangedEvent;
+import ru.practicum.blog.domain.exception.PostDbException;
+import ru.practicum.blog.domain.model.Post;
+import ru.practicum.blog.domain.model.PostExportRow;
+import ru.practicum.blog.domain.model.PostImportResult;
+import ru.practicum.blog.domain.model.Tag;
+import ru.practicum.blog.repository.PostBulkRepository;
+import ru.practicum.blog.repository.util.SqlConstants;
+
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.Array;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+@Repository
+@Profile("!inmemory")
+@RequiredArgsConstructor
+public class JdbcPostBulkRepositoryImpl implements PostBulkRepository {
+
+    private static final int COPY_BUFFER_SIZE = 64 * 1024;
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Override
+    public PostImportResult importPosts(Iterator<Post> posts, int maxRows) {
+        // Временная таблица живёт до конца текущей транзакции
+        jdbcTemplate.update(SqlConstants.CREATE_POST_IMPORT_TABLE, Map.of());
+
+        long copiedRows = copyToImportTable(posts, maxRows);
+        if (copiedRows == 0) {
+            return PostImportResult.builder().build();
+        }
+
+        // Дальше всё делается набором: посты, недостающие теги, связи и счётчики тегов
+        int importedPosts = jdbcTemplate.update(SqlConstants.INSERT_IMPORTED_POSTS, Map.of());
+        jdbcTemplate.update(SqlConstants.UPSERT_IMPORTED_TAGS, Map.of());
+
+        long[] linkedTags = {0};
+        List<Tag> changedTags = jdbcTemplate.query(
+                SqlConstants.LINK_IMPORTED_POST_TAGS,
+                (resultSet, rowNum) -> {
+                    linkedTags[0] += resultSet.getLong("links");
+                    return Tag.builder()
+                            .id(resultSet.getLong("id"))
+                            .name(resultSet.getString("name"))
+                            .usageCount(resultSet.getInt("usage_count"))
+                            .usageVersion(resultSet.getLong("usage_version"))
+                            .build();
+                }
+        );
+        eventPublisher.publishEvent(TagsChangedEvent.updated(changedTags));
+
+        return PostImportResult.builder()
+                .importedPosts(importedPosts)
+                .linkedTags(linkedTags[0])
+                .build();
+    }
+
+    @Override
+    public void exportPosts(int fetchSize, Consumer<PostExportRow> consumer) {
+        // PostgreSQL читает порциями по fetchSize только при выключенном autocommit и курсоре только-вперёд
+        jdbcTemplate.getJdbcOperations().query(
+                connection -> {
+                    PreparedStatement statement = connection.prepareStatement(
+                            SqlConstants.EXPORT_POSTS,
+                            ResultSet.TYPE_FORWARD_ONLY,
+                            ResultSet.CONCUR_READ_ONLY
+                    );
+                    statement.setFetchSize(fetchSize);
+                    return statement;
+                },
+                (RowCallbackHandler) resultSet -> consumer.accept(mapExportRow(resultSet))
+        );
+    }
+
+    private static PostExportRow mapExportRow(ResultSet resultSet) throws SQLException {
+        Array tags = resultSet.getArray("tags");
+        try {
+            return PostExportRow.builder()
+                    .id(resultSet.getLong("id"))
+                    .title(resultSet.getString("title"))
+                    .text(resultSet.getString("text"))
+                    .likesCount(resultSet.getInt("likes_count"))
+                    .commentsCount(resultSet.getInt("comments_count"))
+                    .createdAt(resultSet.getTimestamp("created_at").toLocalDateTime())
+                    .tags(List.of((String[]) tags.getArray()))
+                    .commentsJson(resultSet.getString("comments"))
+                    .build();
+        } finally {
+            tags.free();
+        }
+    }
+
+    private long copyToImportTable(Iterator<Post> posts, int maxRows) {
+        Long copiedRows = jdbcTemplate.getJdbcOperations().execute((ConnectionCallback<Long>) connection -> {
+            PGConnection pgConnection = connection.unwrap(PGConnection.class);
+            long rows = 0;
+            try (Writer writer = new OutputStreamWriter(
+                    new PGCopyOutputStream(pgConnection, SqlConstants.COPY_POST_IMPORT, COPY_BUFFER_SIZE),
+                    StandardCharsets.UTF_8
+            )) {
+                while (rows < maxRows && posts.hasNext()) {
+                    writeCopyRow(writer, posts.next());
+                    rows++;
+                }
+            } catch (IOException ex) {
+                throw new PostDbException("Failed to stream posts into import table: " + ex.getMessage());
+            }
+            return rows;
+        });
+        return copiedRows == null ? 0 : copiedRows;
+    }
+
+    // Строка в текстовом формате COPY: поля через табуляцию, спецсимволы экранируются обратным слешем
+    private void writeCopyRow(Writer writer, Post post) throws IOException {
+        writeCopyField(writer, post.getTitle());
+        writer.write('\t');
+        writeCopyField(writer, post.getText());
+        writer.write('\t');
+        writeCopyField(writer, toJsonArray(post.getTags()));
+        writer.write('\n');
+    }
+
+    private String toJsonArray(List<Tag> tags) throws JsonProcessingException {
+        return objectMapper.writeValueAsString(tags.stream().map(Tag::getName).toList());
+    }
+
+    private static void writeCopyField(Writer writer, String value) throws IOException {
+        for (int i = 0; i < value.length(); i++) {
+            char ch = value.charAt(i);
+            switch (ch) {
+                case '\\' -> writer.write("\\\\");
+                case '\t' -> writer.write("\\t");
+                case '\n' -> writer.write("\\n");
+                case '\r' -> writer.write("\\r");
+                default -> writer.write(ch);
+            }
+        }
+    }
+}
@@ -1,171 +1,213 @@
 package ru.practicum.blog.repository.impl;
 
 import lombok.RequiredArgsConstructor;
-import org.apache.logging.log4j.LogManager;
-import org.apache.logging.log4j.Logger;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.core.RowMapper;
 import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
 import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
-import org.springframework.jdbc.core.namedparam.SqlParameterSource;
-import org.springframework.jdbc.core.namedparam.SqlParameterSourceUtils;
-import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Repository;
+import ru.practicum.blog.domain.event.TagsChangedEvent;
+import ru.practicum.blog.domain.exception.PostConflictException;
 import ru.practicum.blog.domain.exception.PostDbException;
 import ru.practicum.blog.domain.exception.PostImageException;
 import ru.practicum.blog.domain.exception.PostNotFoundException;
+import ru.practicum.blog.domain.model.Comment;
 import ru.practicum.blog.domain.model.Post;
+import ru.practicum.blog.domain.model.PostField;
 import ru.practicum.blog.domain.model.Tag;
 import ru.practicum.blog.repository.PostRepository;
 import ru.practicum.blog.repository.util.SqlConstants;
 
+import java.sql.Array;
+import java.sql.SQLException;
+import java.sql.Types;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Repository
+@Profile("!inmemory")
 @RequiredArgsConstructor
 public class JdbcPostRepositoryImpl implements PostRepository {
 
-    private static final Logger log = LogManager.getLogger(JdbcPostRepositoryImpl.class);
+    // Мапперы строк с пакетной видимостью измеряет бенчмарк в src/jmh
+    static final RowMapper<Post> POST_ROW_MAPPER = (resultSet, rowNum) -> Post.builder()
+            .id(resultSet.getLong("id"))
+            .title(resultSet.getString("title"))
+            .text(resultSet.getString("text"))
+            .tags(toTags(resultSet.getArray("tags")))
+            .likesCount(resultSet.getInt("likes_count"))
+            .commentsCount(resultSet.getInt("comments_count"))
+            .version(resultSet.getLong("version"))
+            .build();
+
+    static final RowMapper<Post> FEED_POST_ROW_MAPPER = (resultSet, rowNum) -> Post.builder()
+            .id(resultSet.getLong("id"))
+            .title(resultSet.getString("title"))
+            .preview(resultSet.getString("preview"))
+            .tags(toTags(resultSet.getArray("tags")))
+            .likesCount(resultSet.getInt("likes_count"))
+            .commentsCount(resultSet.getInt("comments_count"))
+            .version(resultSet.getLong("version"))
+            .build();
+
+    private static final RowMapper<Post> POST_WITH_COMMENTS_ROW_MAPPER = (resultSet, rowNum) -> {
+        Post post = POST_ROW_MAPPER.mapRow(resultSet, rowNum);
+        post.setComments(toComments(
+                post.getId(),
+                resultSet.getArray("comment_ids"),
+                resultSet.getArray("comment_texts"),
+                resultSet.getArray("comment_versions")
+        ));
+        return post;
+    };
+
+    private static final RowMapper<Tag> TAG_ROW_MAPPER = (resultSet, rowNum) -> Tag.builder()
+            .id(resultSet.getLong("id"))
+            .name(resultSet.getString("name"))
+            .build();
+
+    private static final RowMapper<Tag> TAG_USAGE_ROW_MAPPER = (resultSet, rowNum) -> Tag.builder()
+            .id(resultSet.getLong("id"))
+            .name(resultSet.getString("name"))
+            .usageCount(resultSet.getInt("usage_count"))
+            .usageVersion(resultSet.getLong("usage_version"))
+            .build();
 
     private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Override
-    public List<Post> findPosts(Set<String> tags, String titleSubstring, int pageSize, long offset) {
+    public List<Post> findPosts(Set<String> tags, String titleSubstring, int pageSize, long offset, Set<PostField> fields) {
         List<Long> postIds = findPostIds(tags, titleSubstring, pageSize, offset);
 
         if (postIds.isEmpty()) {
             return Collections.emptyList();
         }
 
-        List<Post> posts = jdbcTemplate.query(
-                SqlConstants.FIND_POSTS_BY_IDS,
+        return findPostsByIds(postIds, fields);
+    }
+
+    @Override
+    public List<Post> findPostsByIds(List<Long> postIds, Set<PostField> fields) {
+        return jdbcTemplate.query(
+                fields.contains(PostField.TEXT) ? SqlConstants.FIND_POSTS_BY_IDS : SqlConstants.FIND_POSTS_BY_IDS_WITHOUT_TEXT,
                 Map.of("postIds", postIds),
-                (resultSet, rowNum) -> Post.builder()
-                        .id(resultSet.getLong("id"))
-                        .title(resultSet.getString("title"))
-                        .text(resultSet.getString("text"))
-                        .likesCount(resultSet.getInt("likes_count"))
-                        .commentsCount(resultSet.getInt("comments_count"))
-                        .build()
+                FEED_POST_ROW_MAPPER
         );
-
-        Map<Long, List<Tag>> tagsPost = findTagsByPostIds(postIds);
-
-        for (Post post : posts) {
-            List<Tag> tagsForPosts = Optional.ofNullable(tagsPost.get(post.getId())).orElse(Collections.emptyList());
-            post.setTags(tagsForPosts);
-        }
-
-        return posts;
     }
 
     @Override
-    public Optional<Post> findPostById(long id) {
-        Post post = jdbcTemplate.query(
-                SqlConstants.FIND_POST_BY_ID,
+    public Optional<Post> findPostById(long id, Set<PostField> fields) {
+        return jdbcTemplate.query(
+                fields.contains(PostField.TEXT) ? SqlConstants.FIND_POST_BY_ID : SqlConstants.FIND_POST_BY_ID_WITHOUT_TEXT,
                 Map.of("postId", id),
-                (resultSet, rowNum) -> Post.builder()
-                        .id(resultSet.getLong("id"))
-                        .title(resultSet.getString("title"))
-                        .text(resultSet.getString("text"))
-                        .likesCount(resultSet.getInt("likes_count"))
-                        .commentsCount(resultSet.getInt("comments_count"))
-                        .build()
-        ).stream().findFirst().orElse(null);
-
-        if (post == null) {
-            return Optional.empty();
-        }
-
-        List<Tag> tags = findTagsByPostId(id);
-        post.setTags(tags);
+                POST_ROW_MAPPER
+        ).stream().findFirst();
+    }
 
-        return Optional.of(post);
+    @Override
+    public Optional<Post> findPostWithComments(long id, Set<PostField> fields, int commentsLimit) {
+        return jdbcTemplate.query(
+                fields.contains(PostField.TEXT)
+                        ? SqlConstants.FIND_POST_WITH_COMMENTS_BY_ID
+                        : SqlConstants.FIND_POST_WITH_COMMENTS_BY_ID_WITHOUT_TEXT,
+                Map.of("postId", id, "limit", commentsLimit),
+                POST_WITH_COMMENTS_ROW_MAPPER
+        ).stream().findFirst();
     }
 
     @Override
     public Post createPost(String title, String text, List<String> tagNames) {
-        // Сохраняем новый пост
-        Long postId = jdbcTemplate.queryForObject(
+        // Сохраняем новый пост вместе с копией имён тегов, всё нужное для ответа возвращает сам INSERT
+        Post post = jdbcTemplate.query(
                 SqlConstants.CREATE_POST,
-                Map.of("title", title, "text", text),
-                Long.class
-        );
+                Map.of("title", title, "text", text, "tags", toTagArray(tagNames)),
+                POST_ROW_MAPPER
+        ).stream().findFirst().orElseThrow(() -> new PostDbException("Failed to create post."));
 
-        if (postId == null) {
-            throw new PostDbException("Failed to create post.");
+        if (tagNames.isEmpty()) {
+            post.setTags(Collections.emptyList());
+            return post;
         }
 
-        if (!tagNames.isEmpty()) {
-            // Сохраняем новые теги
-            insertBatchTags(tagNames);
-
-            // Получаем id всех тегов нового поста
-            List<Long> tagIds = findTagIdsByNames(tagNames);
+        // Сохраняем новые теги и получаем id и имена всех тегов нового поста
+        List<Tag> tags = upsertTags(tagNames);
 
-            // Сохраняем все связи пост тег
-            insertPostIdTagIds(tagIds, postId);
-        }
+        // Сохраняем все связи пост тег и увеличиваем счётчики использования тегов
+        List<Tag> changedTags = linkPostTags(post.getId(), tags);
+        eventPublisher.publishEvent(TagsChangedEvent.updated(changedTags));
 
-        return findPostById(postId).orElseThrow(() -> new PostDbException("Failed to create post."));
+        post.setTags(tags);
+        return post;
     }
 
     @Override
-    public Post updatePost(long postId, String title, String text, List<String> updatedTagNames) {
+    public Post updatePost(long postId, Long expectedVersion, String title, String text, List<String> updatedTagNames) {
         MapSqlParameterSource parameterSourceForUpdatePost = new MapSqlParameterSource(
-                Map.of("title", title, "text", text, "postId", postId));
-        //Обновляем сам пост
-        jdbcTemplate.update(SqlConstants.UPDATE_POST, parameterSourceForUpdatePost);
+                Map.of("title", title, "text", text, "tags", toTagArray(updatedTagNames), "postId", postId))
+                // Тип указываем явно: иначе PostgreSQL не сможет вывести тип для NULL
+                .addValue("version", expectedVersion, Types.BIGINT);
+        //Обновляем сам пост и копию имён тегов, UPDATE сразу возвращает его актуальное состояние вместе со счётчиками
+        Post post = jdbcTemplate.query(SqlConstants.UPDATE_POST, parameterSourceForUpdatePost, POST_ROW_MAPPER)
+                .stream()
+                .findFirst()
+                .orElseThrow(() -> updateFailure(postId, expectedVersion));
 
         // Если в обновлённом посте тегов нет, то очищаем все теги поста
         if (updatedTagNames.isEmpty()) {
             deleteTagsForPost(postId);
-        } else {
-            // Если в обновлённом посте есть теги, то сохраняем новые теги (старые просто проигнорируются)
-            insertBatchTags(updatedTagNames);
+            post.setTags(Collections.emptyList());
+            return post;
+        }
 
-            // Получаем tagIds всех новых тегов
-            List<Long> updatedTagIds = findTagIdsByNames(updatedTagNames);
+        // Если в обновлённом посте есть теги, то сохраняем новые теги и получаем id и имена всех тегов поста
+        List<Tag> updatedTags = upsertTags(updatedTagNames);
+        List<Long> updatedTagIds = updatedTags.stream().map(Tag::getId).toList();
 
-            // Удаляем неиспользуемые теги
-            jdbcTemplate.update(
-                    SqlConstants.DELETE_UNUSED_TAGS,
-                    Map.of("postId", postId, "tagIds", updatedTagIds)
-            );
+        // Удаляем связи с тегами, которых больше нет в посте, и уменьшаем их счётчики
+        List<Tag> changedTags = new ArrayList<>(jdbcTemplate.query(
+                SqlConstants.UNLINK_POST_TAGS_EXCEPT,
+                Map.of("postId", postId, "tagIds", updatedTagIds),
+                TAG_USAGE_ROW_MAPPER
+        ));
 
-            // Добавляем связи для новых тегов в обновлённом посте
-            insertPostIdTagIds(updatedTagIds, postId);
-        }
+        // Добавляем связи для новых тегов в обновлённом посте
+        changedTags.addAll(linkPostTags(postId, updatedTags));
+        eventPublisher.publishEvent(TagsChangedEvent.updated(changedTags));
 
-        return findPostById(postId).orElseThrow(() -> new PostDbException("Failed to update post."));
+        post.setTags(updatedTags);
+        return post;
     }
 
     @Override
     public void deletePost(long id) {
+        // Связи удаляем до самого поста, иначе каскад уберёт их без уменьшения счётчиков тегов
+        deleteTagsForPost(id);
         int deleted = jdbcTemplate.update(SqlConstants.DELETE_POST, Map.of("id", id));
         if (deleted == 0) {
             throw new PostNotFoundException("Пост с id = %d не существует.".formatted(id));
         }
-        deleteTagsForPost(id);
     }
 
     @Override
     public long countPosts(Set<String> tags, String titleSubstring) {
-        int tagsCount = tags.size();
         var params = new MapSqlParameterSource()
                 .addValue("title", titleSubstring);
         String sql;
-        if (tagsCount == 0) {
+        if (tags.isEmpty()) {
             sql = SqlConstants.COUNT_POSTS_NO_TAGS;
         } else {
             sql = SqlConstants.COUNT_POSTS_WITH_TAGS;
-            params.addValue("tags", tags);
-            params.addValue("tagsCount", tagsCount);
+            params.addValue("tags", tags.toArray(String[]::new));
         }
 
         Long countPosts = jdbcTemplate.queryForObject(sql, params, Long.class);
@@ -217,24 +259,24 @@ public class JdbcPostRepositoryImpl implements PostRepository {
         jdbcTemplate.update(SqlConstants.DECREMENT_COMMENTS, Map.of("postId", postId));
     }
 
-    private List<Long> findPostIds(
+    @Override
+    public List<Long> findPostIds(
             Set<String> tags,
             String titleSubstring,
             int limit,
             long offset
     ) {
-        int tagsCount = tags.size();
         var params = new MapSqlParameterSource()
                 .addValue("title", titleSubstring)
                 .addValue("limit", limit)
                 .addValue("offset", offset);
         String sql;
-        if (tagsCount == 0) {
+        if (tags.isEmpty()) {
             sql = SqlConstants.FIND_POST_IDS_NO_TAGS;
         } else {
+            // Все теги фильтра должны быть у поста: tags @> :tags по GIN-индексу
             sql = SqlConstants.FIND_POST_IDS_WITH_TAGS;
-            params.addValue("tags", tags);
-            params.addValue("tagsCount", tagsCount);
+            params.addValue("tags", tags.toArray(String[]::new));
         }
 
         return jdbcTemplate.query(
@@ -244,88 +286,114 @@ public class JdbcPostRepositoryImpl implements PostRepository {
         );
     }
 
-    private List<Tag> findTagsByPostId(long id) {
-        List<Tag> tags = jdbcTemplate.query(
-                SqlConstants.FIND_TAGS_BY_POST_ID,
-                Map.of("postId", id),
-                (resultSet, rowNum) -> Tag.builder()
-                        .id(resultSet.getLong("id"))
-                        .name(resultSet.getString("name"))
-                        .build()
+    @Override
+    public long findMaxPostId() {
+        Long maxId = jdbcTemplate.queryForObject(SqlConstants.FIND_MAX_POST_ID, Map.of(), Long.class);
+        return maxId != null ? maxId : 0;
+    }
+
+    @Override
+    public List<Long> findPostIdsWithInconsistentTags(long fromId, long toId) {
+        return jdbcTemplate.query(
+                SqlConstants.FIND_POSTS_WITH_INCONSISTENT_TAGS,
+                Map.of("fromId", fromId, "toId", toId),
+                (resultSet, rowNum) -> resultSet.getLong("id")
         );
+    }
 
-        if (tags.isEmpty()) {
+    @Override
+    public int repairTags(List<Long> postIds) {
+        if (postIds.isEmpty()) {
+            return 0;
+        }
+        return jdbcTemplate.update(SqlConstants.REPAIR_POST_TAGS, Map.of("postIds", postIds));
+    }
+
+    // В строке поста хранятся только имена тегов; id нужны лишь при записи связей, там теги читаются из tag
+    private static List<Tag> toTags(Array array) throws SQLException {
+        if (array == null) {
             return Collections.emptyList();
         }
-        return tags;
+        try {
+            return Arrays.stream((String[]) array.getArray())
+                    .map(name -> Tag.builder().name(name).build())
+                    .toList();
+        } finally {
+            array.free();
+        }
     }
 
-    private Map<Long, List<Tag>> findTagsByPostIds(List<Long> postIds) {
-        return jdbcTemplate.query(
-                SqlConstants.FIND_TAGS_BY_POST_IDS,
-                Map.of("postIds", postIds),
-                resultSet -> {
-                    Map<Long, List<Tag>> result = new HashMap<>();
-
-                    while (resultSet.next()) {
-                        long postId = resultSet.getLong("post_id");
-                        Tag tag = Tag.builder()
-                                .id(resultSet.getLong("id"))
-                                .name(resultSet.getString("name"))
-                                .build();
-
-                        result.computeIfAbsent(postId, k -> new ArrayList<>()).add(tag);
-                    }
-                    return result;
-                }
-        );
+    // Три массива собраны по одной выборке комментариев в одном порядке; у поста без комментариев все три NULL
+    private static List<Comment> toComments(long postId, Array ids, Array texts, Array versions) throws SQLException {
+        if (ids == null) {
+            return Collections.emptyList();
+        }
+        try {
+            Long[] commentIds = (Long[]) ids.getArray();
+            String[] commentTexts = (String[]) texts.getArray();
+            Long[] commentVersions = (Long[]) versions.getArray();
+            List<Comment> comments = new ArrayList<>(commentIds.length);
+            for (int i = 0; i < commentIds.length; i++) {
+                comments.add(Comment.builder()
+                        .id(commentIds[i])
+                        .text(commentTexts[i])
+                        .postId(postId)
+                        .version(commentVersions[i])
+                        .build());
+            }
+            return comments;
+        } finally {
+            ids.free();
+            texts.free();
+            versions.free();
+        }
     }
 
-    private void insertBatchTags(List<String> tagNames) {
-        SqlParameterSource[] tagsForBatch = SqlParameterSourceUtils.createBatch(
-                tagNames.stream()
-                        .map(tag -> Map.<String, Object>of("name", tag))
-                        .map(Map.class::cast)
-                        .toArray()
-        );
-        // Сохраняем все новые теги в таблицу тегов
-        jdbcTemplate.batchUpdate(SqlConstants.INSERT_TAG, tagsForBatch);
+    // Повторы убираем так же, как upsertTags, чтобы копия совпадала со связями в post_tag
+    private static String[] toTagArray(List<String> tagNames) {
+        return tagNames.stream().distinct().toArray(String[]::new);
     }
 
-    private List<Long> findTagIdsByNames(List<String> tagNames) {
-        return jdbcTemplate.query(
-                SqlConstants.FIND_TAG_IDS_BY_NAMES,
-                Map.of("names", tagNames),
-                (resultSet, rowNum) -> resultSet.getLong("id")
-        );
+    // Существование проверяем только после неудачного UPDATE, чтобы отличить 404 от конфликта версий
+    private RuntimeException updateFailure(long postId, Long expectedVersion) {
+        if (existsById(postId)) {
+            return new PostConflictException("Post with id = %d was modified concurrently, expected version %d is outdated."
+                    .formatted(postId, expectedVersion));
+        }
+        return new PostNotFoundException("Post with id = %d was not found.".formatted(postId));
     }
 
-    private void insertPostIdTagIds(List<Long> tagIds, long postId) {
-        SqlParameterSource[] postTagForBatch = SqlParameterSourceUtils.createBatch(
-                tagIds.stream()
-                        .map(tagId -> Map.<String, Object>of("postId", postId, "tagId", tagId))
-                        .map(Map.class::cast)
-                        .toArray()
-        );
-        jdbcTemplate.batchUpdate(SqlConstants.INSERT_POST_TAG, postTagForBatch);
+    private List<Tag> upsertTags(List<String> tagNames) {
+        List<String> distinctNames = tagNames.stream().distinct().toList();
+        List<Object[]> names = distinctNames.stream()
+                .map(name -> new Object[]{name})
+                .toList();
+        // Сохраняем все новые теги в таблицу тегов и получаем id как новых, так и уже существующих
+        Map<String, Tag> tagsByName = jdbcTemplate.query(
+                        SqlConstants.UPSERT_TAGS,
+                        Map.of("names", names),
+                        TAG_ROW_MAPPER
+                ).stream()
+                .collect(Collectors.toMap(Tag::getName, Function.identity()));
+
+        // Порядок тегов в ответе совпадает с порядком в запросе
+        return distinctNames.stream().map(tagsByName::get).toList();
     }
 
-    private void deleteTagsForPost(long postId) {
-        jdbcTemplate.update(
-                SqlConstants.DELETE_POST_TAGS,
-                Map.of("postId", postId)
+    private List<Tag> linkPostTags(long postId, List<Tag> tags) {
+        return jdbcTemplate.query(
+                SqlConstants.LINK_POST_TAGS,
+                Map.of("postId", postId, "tagIds", tags.stream().map(Tag::getId).toList()),
+                TAG_USAGE_ROW_MAPPER
         );
     }
 
-    @Scheduled(cron = "0 0 0 * * 1") // каждый понедельник в 00:00
-    private void cleanupUnusedTags() {
-        log.info("Starting scheduled cleanup of unused tags");
-        int deletedTags = jdbcTemplate.update(SqlConstants.CLEANUP_UNUSED_TAGS, Map.of());
-
-        if (deletedTags > 0) {
-            log.info("Cleanup finished, removed {} unused tags", deletedTags);
-        } else {
-            log.debug("Cleanup finished, no unused tags were removed");
-        }
+    private void deleteTagsForPost(long postId) {
+        List<Tag> changedTags = jdbcTemplate.query(
+                SqlConstants.UNLINK_POST_TAGS,
+                Map.of("postId", postId),
+                TAG_USAGE_ROW_MAPPER
+        );
+        eventPublisher.publishEvent(TagsChangedEvent.updated(changedTags));
     }
 }
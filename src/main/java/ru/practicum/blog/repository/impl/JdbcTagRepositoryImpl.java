@@ -0,0 +1,54 @@
+package ru.practicum.blog.repository.impl;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+import ru.practicum.blog.domain.event.TagsChangedEvent;
+import ru.practicum.blog.domain.model.Tag;
+import ru.practicum.blog.repository.TagRepository;
+import ru.practicum.blog.repository.util.SqlConstants;
+
+import java.util.List;
+import java.util.Map;
+
+@Repository
+@Profile("!inmemory")
+@RequiredArgsConstructor
+public class JdbcTagRepositoryImpl implements TagRepository {
+
+    private static final RowMapper<Tag> TAG_USAGE_ROW_MAPPER = (resultSet, rowNum) -> Tag.builder()
+            .id(resultSet.getLong("id"))
+            .name(resultSet.getString("name"))
+            .usageCount(resultSet.getInt("usage_count"))
+            .usageVersion(resultSet.getLong("usage_version"))
+            .build();
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Override
+    public List<Tag> findAllTags() {
+        return jdbcTemplate.query(SqlConstants.FIND_ALL_TAGS, TAG_USAGE_ROW_MAPPER);
+    }
+
+    @Override
+    public List<Tag> findPopularTags(int limit) {
+        return jdbcTemplate.query(SqlConstants.FIND_POPULAR_TAGS, Map.of("limit", limit), TAG_USAGE_ROW_MAPPER);
+    }
+
+    @Override
+    public int deleteUnusedTags(int batchSize) {
+        List<String> deletedTagNames = jdbcTemplate.query(
+                SqlConstants.DELETE_UNUSED_TAGS,
+                Map.of("batchSize", batchSize),
+                (resultSet, rowNum) -> resultSet.getString("name")
+        );
+        if (!deletedTagNames.isEmpty()) {
+            eventPublisher.publishEvent(TagsChangedEvent.removed(deletedTagNames));
+        }
+        return deletedTagNames.size();
+    }
+}
@@ -0,0 +1,367 @@
+package ru.practicum.blog.repository.inmemory;
+
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+import ru.practicum.blog.domain.exception.PostConflictException;
+import ru.practicum.blog.domain.exception.PostDbException;
+import ru.practicum.blog.domain.exception.PostNotFoundException;
+import ru.practicum.blog.domain.model.Tag;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.NavigableSet;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Supplier;
+
+// Общее хранилище in-memory репозиториев: посты по id, индекс ленты (createdAt, id), битовые множества постов
+// по тегам и комментарии внутри поста. Чтение одного поста и счётчики обходятся без блокировок; изменения,
+// затрагивающие несколько структур сразу (лента, теги), идут под блокировкой записи, выборки ленты — под блокировкой чтения
+@Component
+@Profile("inmemory")
+public class InMemoryBlogStore {
+
+    // Те же правила, что у вычисляемой колонки post.preview (schema.sql)
+    private static final int PREVIEW_LENGTH = 128;
+    private static final String ELLIPSIS = "…";
+
+    // Порядок ленты, как ORDER BY created_at DESC, id DESC
+    static final Comparator<PostEntry> FEED_ORDER = Comparator.comparing((PostEntry post) -> post.createdAt)
+            .thenComparingLong(post -> post.id)
+            .reversed();
+
+    // Порядок популярных тегов, как ORDER BY usage_count DESC, name
+    static final Comparator<TagEntry> POPULAR_ORDER = Comparator.comparingInt((TagEntry tag) -> tag.usageCount)
+            .reversed()
+            .thenComparing(tag -> tag.name);
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final Map<Long, PostEntry> posts = new ConcurrentHashMap<>();
+    private final NavigableSet<PostEntry> feed = new ConcurrentSkipListSet<>(FEED_ORDER);
+    // Меняется только под блокировкой записи
+    private final Map<String, TagEntry> tags = new HashMap<>();
+
+    private final AtomicLong postIds = new AtomicLong();
+    private final AtomicLong commentIds = new AtomicLong();
+    private final AtomicLong tagIds = new AtomicLong();
+
+    private LocalDateTime lastCreatedAt = LocalDateTime.MIN;
+
+    PostEntry post(long id) {
+        return posts.get(id);
+    }
+
+    long nextCommentId() {
+        return commentIds.incrementAndGet();
+    }
+
+    <T> T read(Supplier<T> action) {
+        return locked(lock.readLock(), action);
+    }
+
+    <T> T write(Supplier<T> action) {
+        return locked(lock.writeLock(), action);
+    }
+
+    // Далее методы вызываются под блокировкой: изменения — под блокировкой записи, выборки — хотя бы чтения
+
+    // Возвращает пост и теги, у которых изменился счётчик использования
+    PostChange insertPost(String title, String text, List<String> tagNames) {
+        long id = postIds.incrementAndGet();
+        // Битовые множества тегов адресуются int
+        if (id > Integer.MAX_VALUE) {
+            throw new PostDbException("Failed to create post: in-memory store is limited to %d posts."
+                    .formatted(Integer.MAX_VALUE));
+        }
+        List<String> distinctNames = distinct(tagNames);
+        PostEntry post = new PostEntry(id, nextCreatedAt(), PostContent.of(title, text, distinctNames));
+
+        List<Tag> changedTags = new ArrayList<>(distinctNames.size());
+        for (String name : distinctNames) {
+            changedTags.add(link(tag(name), id));
+        }
+        posts.put(id, post);
+        feed.add(post);
+        return new PostChange(post, changedTags);
+    }
+
+    // Без ожидаемой версии пост обновляется безусловно
+    PostChange updatePost(long id, Long expectedVersion, String title, String text, List<String> tagNames) {
+        PostEntry post = posts.get(id);
+        if (post == null) {
+            throw new PostNotFoundException("Post with id = %d was not found.".formatted(id));
+        }
+        PostContent current = post.content;
+        if (expectedVersion != null && expectedVersion != post.version.get()) {
+            throw new PostConflictException("Post with id = %d was modified concurrently, expected version %d is outdated."
+                    .formatted(id, expectedVersion));
+        }
+
+        List<String> distinctNames = distinct(tagNames);
+        Set<String> updatedNames = Set.copyOf(distinctNames);
+        Set<String> currentNames = Set.copyOf(current.tagNames());
+        List<Tag> changedTags = new ArrayList<>();
+        for (String name : current.tagNames()) {
+            if (!updatedNames.contains(name)) {
+                changedTags.add(unlink(tags.get(name), id));
+            }
+        }
+        for (String name : distinctNames) {
+            if (!currentNames.contains(name)) {
+                changedTags.add(link(tag(name), id));
+            }
+        }
+        post.content = PostContent.of(title, text, distinctNames);
+        post.version.incrementAndGet();
+        return new PostChange(post, changedTags);
+    }
+
+    // Комментарии уходят вместе с постом, как при ON DELETE CASCADE; null — поста нет
+    PostChange removePost(long id) {
+        PostEntry post = posts.remove(id);
+        if (post == null) {
+            return null;
+        }
+        feed.remove(post);
+        List<Tag> changedTags = new ArrayList<>();
+        for (String name : post.content.tagNames()) {
+            changedTags.add(unlink(tags.get(name), id));
+        }
+        return new PostChange(post, changedTags);
+    }
+
+    // Все теги фильтра должны быть у поста; подстрока заголовка уже в нижнем регистре
+    List<PostEntry> findFeed(Set<String> tagNames, String titleSubstring, int limit, long offset) {
+        List<PostEntry> page = new ArrayList<>(Math.min(limit, posts.size()));
+        long skipped = 0;
+        Iterator<PostEntry> candidates = candidates(tagNames);
+        while (page.size() < limit && candidates.hasNext()) {
+            PostEntry post = candidates.next();
+            if (!post.content.matchesTitle(titleSubstring)) {
+                continue;
+            }
+            if (skipped < offset) {
+                skipped++;
+                continue;
+            }
+            page.add(post);
+        }
+        return page;
+    }
+
+    long count(Set<String> tagNames, String titleSubstring) {
+        if (titleSubstring.isEmpty()) {
+            if (tagNames.isEmpty()) {
+                return posts.size();
+            }
+            BitSet matching = matchingPosts(tagNames);
+            return matching == null ? 0 : matching.cardinality();
+        }
+        long count = 0;
+        Iterator<PostEntry> candidates = candidates(tagNames);
+        while (candidates.hasNext()) {
+            if (candidates.next().content.matchesTitle(titleSubstring)) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    // Время создания растёт вместе с id, поэтому самый новый пост ленты — он же с наибольшим id
+    long maxPostId() {
+        return feed.isEmpty() ? 0 : feed.first().id;
+    }
+
+    // Для экспорта: посты по возрастанию id
+    Iterator<PostEntry> postsById() {
+        return feed.descendingIterator();
+    }
+
+    Collection<TagEntry> tags() {
+        return tags.values();
+    }
+
+    // Тег удаляется, только если его счётчик обнулился
+    List<String> removeUnusedTags(int batchSize) {
+        List<String> removed = new ArrayList<>();
+        Iterator<TagEntry> iterator = tags.values().iterator();
+        while (removed.size() < batchSize && iterator.hasNext()) {
+            TagEntry tag = iterator.next();
+            if (tag.usageCount == 0) {
+                iterator.remove();
+                removed.add(tag.name);
+            }
+        }
+        return removed;
+    }
+
+    Long tagId(String name) {
+        TagEntry tag = tags.get(name);
+        return tag == null ? null : tag.id;
+    }
+
+    // Без фильтра по тегам идём по индексу ленты. С фильтром обходим пересечение битовых множеств от больших id
+    // к меньшим: время создания выдаётся не убывающим вместе с id, и этот порядок совпадает с порядком ленты
+    private Iterator<PostEntry> candidates(Set<String> tagNames) {
+        if (tagNames.isEmpty()) {
+            return feed.iterator();
+        }
+        BitSet matching = matchingPosts(tagNames);
+        if (matching == null) {
+            return Collections.emptyIterator();
+        }
+        return new Iterator<>() {
+            private int nextId = matching.length() - 1;
+
+            @Override
+            public boolean hasNext() {
+                return nextId >= 0;
+            }
+
+            @Override
+            public PostEntry next() {
+                if (nextId < 0) {
+                    throw new NoSuchElementException();
+                }
+                PostEntry post = posts.get((long) nextId);
+                nextId = nextId == 0 ? -1 : matching.previousSetBit(nextId - 1);
+                return post;
+            }
+        };
+    }
+
+    // Копия пересечения; null — какого-то тега нет вовсе
+    private BitSet matchingPosts(Set<String> tagNames) {
+        BitSet matching = null;
+        for (String name : tagNames) {
+            TagEntry tag = tags.get(name);
+            if (tag == null) {
+                return null;
+            }
+            if (matching == null) {
+                matching = (BitSet) tag.posts.clone();
+            } else {
+                matching.and(tag.posts);
+            }
+        }
+        return matching;
+    }
+
+    private TagEntry tag(String name) {
+        return tags.computeIfAbsent(name, key -> new TagEntry(tagIds.incrementAndGet(), key));
+    }
+
+    private static Tag link(TagEntry tag, long postId) {
+        tag.posts.set((int) postId);
+        tag.usageCount++;
+        tag.usageVersion++;
+        return tag.toTag();
+    }
+
+    private static Tag unlink(TagEntry tag, long postId) {
+        tag.posts.clear((int) postId);
+        tag.usageCount--;
+        tag.usageVersion++;
+        return tag.toTag();
+    }
+
+    private LocalDateTime nextCreatedAt() {
+        LocalDateTime now = LocalDateTime.now();
+        if (now.isAfter(lastCreatedAt)) {
+            lastCreatedAt = now;
+        }
+        return lastCreatedAt;
+    }
+
+    private static List<String> distinct(List<String> names) {
+        return List.copyOf(new LinkedHashSet<>(names));
+    }
+
+    private static <T> T locked(Lock lock, Supplier<T> action) {
+        lock.lock();
+        try {
+            return action.get();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    static String preview(String text) {
+        if (text.codePointCount(0, text.length()) <= PREVIEW_LENGTH) {
+            return text;
+        }
+        return text.substring(0, text.offsetByCodePoints(0, PREVIEW_LENGTH)) + ELLIPSIS;
+    }
+
+    // Содержимое поста заменяется целиком, поэтому читатель всегда видит согласованные заголовок, текст и теги.
+    // Версия растёт при любом видимом изменении и только после него: читатель берёт её первой, и полученные
+    // следом поля не бывают старше версии — по ней можно строить ETag
+    static final class PostEntry {
+        final long id;
+        final LocalDateTime createdAt;
+        final AtomicLong version = new AtomicLong();
+        final AtomicInteger likes = new AtomicInteger();
+        final AtomicInteger comments = new AtomicInteger();
+        final NavigableMap<Long, CommentEntry> commentsById = new ConcurrentSkipListMap<>();
+        volatile PostContent content;
+        volatile byte[] image;
+
+        PostEntry(long id, LocalDateTime createdAt, PostContent content) {
+            this.id = id;
+            this.createdAt = createdAt;
+            this.content = content;
+        }
+    }
+
+    record PostContent(String title, String lowerTitle, String text, String preview, List<String> tagNames) {
+
+        static PostContent of(String title, String text, List<String> tagNames) {
+            return new PostContent(title, title.toLowerCase(), text, InMemoryBlogStore.preview(text), tagNames);
+        }
+
+        boolean matchesTitle(String titleSubstring) {
+            return titleSubstring.isEmpty() || lowerTitle.contains(titleSubstring);
+        }
+    }
+
+    record CommentEntry(long id, String text, long version, LocalDateTime createdAt) {
+    }
+
+    record PostChange(PostEntry post, List<Tag> changedTags) {
+    }
+
+    static final class TagEntry {
+        final long id;
+        final String name;
+        final BitSet posts = new BitSet();
+        int usageCount;
+        long usageVersion;
+
+        TagEntry(long id, String name) {
+            this.id = id;
+            this.name = name;
+        }
+
+        Tag toTag() {
+            return Tag.builder().id(id).name(name).usageCount(usageCount).usageVersion(usageVersion).build();
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package ru.practicum.blog.repository.inmemory;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Repository;
+import ru.practicum.blog.domain.exception.CommentConflictException;
+import ru.practicum.blog.domain.exception.CommentDbException;
+import ru.practicum.blog.domain.exception.CommentNotFoundException;
+import ru.practicum.blog.domain.model.Comment;
+import ru.practicum.blog.repository.CommentRepository;
+import ru.practicum.blog.repository.inmemory.InMemoryBlogStore.CommentEntry;
+import ru.practicum.blog.repository.inmemory.InMemoryBlogStore.PostEntry;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+// Комментарии хранятся внутри поста; изменения идут под блокировкой чтения хранилища,
+// чтобы не пересечься с удалением самого поста, а между собой разводятся атомарными операциями над картой
+@Repository
+@Profile("inmemory")
+@RequiredArgsConstructor
+public class InMemoryCommentRepositoryImpl implements CommentRepository {
+
+    private final InMemoryBlogStore store;
+
+    // id растут вместе со временем создания, поэтому обратный порядок id — это ORDER BY created_at DESC, id DESC
+    @Override
+    public List<Comment> findCommentsByPostId(long postId) {
+        PostEntry post = store.post(postId);
+        if (post == null) {
+            return List.of();
+        }
+        return post.commentsById.descendingMap().values().stream()
+                .map(comment -> toComment(postId, comment))
+                .toList();
+    }
+
+    @Override
+    public Optional<Comment> findCommentById(long postId, long commentId) {
+        PostEntry post = store.post(postId);
+        if (post == null) {
+            return Optional.empty();
+        }
+        return Optional.ofNullable(post.commentsById.get(commentId)).map(comment -> toComment(postId, comment));
+    }
+
+    @Override
+    public Comment createComment(long postId, String text) {
+        CommentEntry created = store.read(() -> {
+            PostEntry post = store.post(postId);
+            if (post == null) {
+                return null;
+            }
+            CommentEntry comment = new CommentEntry(store.nextCommentId(), text, 0, LocalDateTime.now());
+            post.commentsById.put(comment.id(), comment);
+            return comment;
+        });
+        if (created == null) {
+            throw new CommentDbException("Failed to create comment.");
+        }
+        return toComment(postId, created);
+    }
+
+    @Override
+    public boolean existsById(long postId, long commentId) {
+        PostEntry post = store.post(postId);
+        return post != null && post.commentsById.containsKey(commentId);
+    }
+
+    // Без ожидаемой версии комментарий обновляется безусловно
+    @Override
+    public Comment updateComment(long postId, long commentId, Long expectedVersion, String text) {
+        CommentEntry updated = store.read(() -> {
+            PostEntry post = store.post(postId);
+            if (post == null) {
+                return null;
+            }
+            while (true) {
+                CommentEntry current = post.commentsById.get(commentId);
+                if (current == null) {
+                    return null;
+                }
+                if (expectedVersion != null && expectedVersion != current.version()) {
+                    throw new CommentConflictException(
+                            "Comment with id = %d for post with id = %d was modified concurrently, expected version %d is outdated."
+                                    .formatted(commentId, postId, expectedVersion));
+                }
+                CommentEntry next = new CommentEntry(commentId, text, current.version() + 1, current.createdAt());
+                if (post.commentsById.replace(commentId, current, next)) {
+                    return next;
+                }
+            }
+        });
+        if (updated == null) {
+            throw new CommentNotFoundException("Comment with id = %d for post with id = %d was not found."
+                    .formatted(commentId, postId));
+        }
+        return toComment(postId, updated);
+    }
+
+    @Override
+    public void deleteComment(long postId, long commentId) {
+        boolean deleted = store.read(() -> {
+            PostEntry post = store.post(postId);
+            return post != null && post.commentsById.remove(commentId) != null;
+        });
+        if (!deleted) {
+            throw new CommentNotFoundException("Comment with id = %d for post with id = %d does not exist."
+                    .formatted(commentId, postId));
+        }
+    }
+
+    private static Comment toComment(long postId, CommentEntry comment) {
+        return Comment.builder()
+                .id(comment.id())
+                .text(comment.text())
+                .postId(postId)
+                .version(comment.version())
+                .build();
+    }
+}
@@ -0,0 +1,110 @@
+package ru.practicum.blog.repository.inmemory;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Repository;
+import ru.practicum.blog.domain.event.TagsChangedEvent;
+import ru.practicum.blog.domain.exception.PostDbException;
+import ru.practicum.blog.domain.model.Post;
+import ru.practicum.blog.domain.model.PostExportRow;
+import ru.practicum.blog.domain.model.PostImportResult;
+import ru.practicum.blog.domain.model.Tag;
+import ru.practicum.blog.repository.PostBulkRepository;
+import ru.practicum.blog.repository.inmemory.InMemoryBlogStore.CommentEntry;
+import ru.practicum.blog.repository.inmemory.InMemoryBlogStore.PostContent;
+import ru.practicum.blog.repository.inmemory.InMemoryBlogStore.PostEntry;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+@Repository
+@Profile("inmemory")
+@RequiredArgsConstructor
+public class InMemoryPostBulkRepositoryImpl implements PostBulkRepository {
+
+    private final InMemoryBlogStore store;
+    private final ObjectMapper objectMapper;
+    private final ApplicationEventPublisher eventPublisher;
+
+    // Итератор лениво читает тело запроса, поэтому пачка сначала разбирается без блокировки,
+    // а вставляется уже целиком под одной блокировкой записи; в событие попадает итоговый счётчик каждого тега
+    @Override
+    public PostImportResult importPosts(Iterator<Post> posts, int maxRows) {
+        List<Post> batch = new ArrayList<>();
+        while (batch.size() < maxRows && posts.hasNext()) {
+            batch.add(posts.next());
+        }
+        if (batch.isEmpty()) {
+            return PostImportResult.builder().build();
+        }
+
+        long[] linkedTags = {0};
+        Map<String, Tag> changedTags = store.write(() -> {
+            Map<String, Tag> changed = new LinkedHashMap<>();
+            for (Post post : batch) {
+                List<String> tagNames = post.getTags().stream().map(Tag::getName).toList();
+                for (Tag tag : store.insertPost(post.getTitle(), post.getText(), tagNames).changedTags()) {
+                    changed.put(tag.getName(), tag);
+                    linkedTags[0]++;
+                }
+            }
+            return changed;
+        });
+        eventPublisher.publishEvent(TagsChangedEvent.updated(List.copyOf(changedTags.values())));
+
+        return PostImportResult.builder()
+                .importedPosts(batch.size())
+                .linkedTags(linkedTags[0])
+                .build();
+    }
+
+    // Индекс ленты обходится без блокировки: медленный получатель не должен задерживать запись
+    @Override
+    public void exportPosts(int fetchSize, Consumer<PostExportRow> consumer) {
+        Iterator<PostEntry> posts = store.postsById();
+        while (posts.hasNext()) {
+            consumer.accept(toExportRow(posts.next()));
+        }
+    }
+
+    private PostExportRow toExportRow(PostEntry post) {
+        PostContent content = post.content;
+        return PostExportRow.builder()
+                .id(post.id)
+                .title(content.title())
+                .text(content.text())
+                .likesCount(post.likes.get())
+                .commentsCount(post.comments.get())
+                .createdAt(post.createdAt)
+                .tags(content.tagNames().stream().sorted().toList())
+                .commentsJson(toCommentsJson(post))
+                .build();
+    }
+
+    // Тот же JSON-массив, что собирает EXPORT_POSTS: комментарии по возрастанию id
+    private String toCommentsJson(PostEntry post) {
+        List<CommentJson> comments = post.commentsById.values().stream()
+                .map(CommentJson::of)
+                .toList();
+        try {
+            return objectMapper.writeValueAsString(comments);
+        } catch (JsonProcessingException ex) {
+            throw new PostDbException("Failed to serialize comments of post with id = %d: %s"
+                    .formatted(post.id, ex.getMessage()));
+        }
+    }
+
+    private record CommentJson(long id, String text, String createdAt) {
+
+        static CommentJson of(CommentEntry comment) {
+            return new CommentJson(comment.id(), comment.text(), comment.createdAt().toString());
+        }
+    }
+}
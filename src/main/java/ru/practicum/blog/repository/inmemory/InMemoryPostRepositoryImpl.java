@@ -0,0 +1,250 @@
+package ru.practicum.blog.repository.inmemory;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Repository;
+import ru.practicum.blog.domain.event.TagsChangedEvent;
+import ru.practicum.blog.domain.exception.PostImageException;
+import ru.practicum.blog.domain.exception.PostNotFoundException;
+import ru.practicum.blog.domain.model.Comment;
+import ru.practicum.blog.domain.model.Post;
+import ru.practicum.blog.domain.model.PostField;
+import ru.practicum.blog.domain.model.Tag;
+import ru.practicum.blog.repository.PostRepository;
+import ru.practicum.blog.repository.inmemory.InMemoryBlogStore.PostChange;
+import ru.practicum.blog.repository.inmemory.InMemoryBlogStore.PostContent;
+import ru.practicum.blog.repository.inmemory.InMemoryBlogStore.PostEntry;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+
+@Repository
+@Profile("inmemory")
+@RequiredArgsConstructor
+public class InMemoryPostRepositoryImpl implements PostRepository {
+
+    private final InMemoryBlogStore store;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Override
+    public List<Post> findPosts(Set<String> tags, String titleSubstring, int pageSize, long offset, Set<PostField> fields) {
+        boolean withText = fields.contains(PostField.TEXT);
+        return store.read(() -> store.findFeed(tags, titleSubstring, pageSize, offset)).stream()
+                .map(post -> toFeedPost(post, withText))
+                .toList();
+    }
+
+    @Override
+    public List<Long> findPostIds(Set<String> tags, String titleSubstring, int pageSize, long offset) {
+        return store.read(() -> store.findFeed(tags, titleSubstring, pageSize, offset)).stream()
+                .map(post -> post.id)
+                .toList();
+    }
+
+    // Порядок ленты, а не порядок переданных id, — как у FIND_POSTS_BY_IDS
+    @Override
+    public List<Post> findPostsByIds(List<Long> postIds, Set<PostField> fields) {
+        boolean withText = fields.contains(PostField.TEXT);
+        return postIds.stream()
+                .distinct()
+                .map(store::post)
+                .filter(Objects::nonNull)
+                .sorted(InMemoryBlogStore.FEED_ORDER)
+                .map(post -> toFeedPost(post, withText))
+                .toList();
+    }
+
+    @Override
+    public Optional<Post> findPostById(long id, Set<PostField> fields) {
+        PostEntry post = store.post(id);
+        if (post == null) {
+            return Optional.empty();
+        }
+        return Optional.of(toPost(post, fields));
+    }
+
+    // id комментариев растут вместе со временем создания: обратный порядок id — новые первыми
+    @Override
+    public Optional<Post> findPostWithComments(long id, Set<PostField> fields, int commentsLimit) {
+        PostEntry entry = store.post(id);
+        if (entry == null) {
+            return Optional.empty();
+        }
+        Post post = toPost(entry, fields);
+        post.setComments(entry.commentsById.descendingMap().values().stream()
+                .limit(commentsLimit)
+                .map(comment -> Comment.builder()
+                        .id(comment.id())
+                        .text(comment.text())
+                        .postId(id)
+                        .version(comment.version())
+                        .build())
+                .toList());
+        return Optional.of(post);
+    }
+
+    @Override
+    public long countPosts(Set<String> tags, String titleSubstring) {
+        return store.read(() -> store.count(tags, titleSubstring));
+    }
+
+    @Override
+    public Post createPost(String title, String text, List<String> tagNames) {
+        Written created = store.write(() -> written(store.insertPost(title, text, tagNames)));
+        if (!created.changedTags().isEmpty()) {
+            eventPublisher.publishEvent(TagsChangedEvent.updated(created.changedTags()));
+        }
+        return created.toPost();
+    }
+
+    @Override
+    public Post updatePost(long id, Long expectedVersion, String title, String text, List<String> updatedTagNames) {
+        Written updated = store.write(() -> written(store.updatePost(id, expectedVersion, title, text, updatedTagNames)));
+        eventPublisher.publishEvent(TagsChangedEvent.updated(updated.changedTags()));
+        return updated.toPost();
+    }
+
+    @Override
+    public void deletePost(long id) {
+        PostChange removed = store.write(() -> store.removePost(id));
+        if (removed == null) {
+            throw new PostNotFoundException("Пост с id = %d не существует.".formatted(id));
+        }
+        eventPublisher.publishEvent(TagsChangedEvent.updated(removed.changedTags()));
+    }
+
+    @Override
+    public boolean existsById(long id) {
+        return store.post(id) != null;
+    }
+
+    @Override
+    public int incrementLikes(long id) {
+        PostEntry post = store.post(id);
+        if (post == null) {
+            throw new PostNotFoundException("Post with id = %d does not exist.".formatted(id));
+        }
+        int likes = post.likes.incrementAndGet();
+        post.version.incrementAndGet();
+        return likes;
+    }
+
+    @Override
+    public boolean updateImage(long id, byte[] image) {
+        PostEntry post = store.post(id);
+        if (post == null) {
+            return false;
+        }
+        post.image = image;
+        post.version.incrementAndGet();
+        return true;
+    }
+
+    @Override
+    public byte[] getImage(long id) {
+        PostEntry post = store.post(id);
+        byte[] image = post == null ? null : post.image;
+        if (image == null) {
+            throw new PostImageException("Image for post with id = %d is not available.".formatted(id));
+        }
+        return image;
+    }
+
+    @Override
+    public void incrementComments(long postId) {
+        PostEntry post = store.post(postId);
+        if (post != null) {
+            post.comments.incrementAndGet();
+            post.version.incrementAndGet();
+        }
+    }
+
+    @Override
+    public void decrementComments(long postId) {
+        PostEntry post = store.post(postId);
+        if (post != null) {
+            post.comments.decrementAndGet();
+            post.version.incrementAndGet();
+        }
+    }
+
+    @Override
+    public long findMaxPostId() {
+        return store.read(store::maxPostId);
+    }
+
+    // Имена тегов поста и битовые множества меняются под одной блокировкой, расхождений здесь не бывает
+    @Override
+    public List<Long> findPostIdsWithInconsistentTags(long fromId, long toId) {
+        return List.of();
+    }
+
+    @Override
+    public int repairTags(List<Long> postIds) {
+        return 0;
+    }
+
+    private static Post toPost(PostEntry post, Set<PostField> fields) {
+        long version = post.version.get();
+        PostContent content = post.content;
+        return Post.builder()
+                .id(post.id)
+                .title(content.title())
+                .text(fields.contains(PostField.TEXT) ? content.text() : null)
+                .tags(toTags(content.tagNames()))
+                .likesCount(post.likes.get())
+                .commentsCount(post.comments.get())
+                .version(version)
+                .build();
+    }
+
+    private static Post toFeedPost(PostEntry post, boolean withText) {
+        long version = post.version.get();
+        PostContent content = post.content;
+        return Post.builder()
+                .id(post.id)
+                .title(content.title())
+                .preview(withText ? content.preview() : null)
+                .tags(toTags(content.tagNames()))
+                .likesCount(post.likes.get())
+                .commentsCount(post.comments.get())
+                .version(version)
+                .build();
+    }
+
+    // Как и в строке post, при чтении у тегов есть только имена
+    private static List<Tag> toTags(List<String> tagNames) {
+        return tagNames.stream()
+                .map(name -> Tag.builder().name(name).build())
+                .toList();
+    }
+
+    // Снимок берётся под блокировкой записи: id тегов ещё не могла удалить очистка, а содержимое — перезаписать другое обновление
+    private Written written(PostChange change) {
+        PostEntry post = change.post();
+        long version = post.version.get();
+        PostContent content = post.content;
+        List<Tag> tags = content.tagNames().stream()
+                .map(name -> Tag.builder().id(store.tagId(name)).name(name).build())
+                .toList();
+        return new Written(post, version, content, tags, change.changedTags());
+    }
+
+    private record Written(PostEntry post, long version, PostContent content, List<Tag> tags, List<Tag> changedTags) {
+
+        Post toPost() {
+            return Post.builder()
+                    .id(post.id)
+                    .title(content.title())
+                    .text(content.text())
+                    .tags(tags)
+                    .likesCount(post.likes.get())
+                    .commentsCount(post.comments.get())
+                    .version(version)
+                    .build();
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package ru.practicum.blog.repository.inmemory;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Repository;
+import ru.practicum.blog.domain.event.TagsChangedEvent;
+import ru.practicum.blog.domain.model.Tag;
+import ru.practicum.blog.repository.TagRepository;
+import ru.practicum.blog.repository.inmemory.InMemoryBlogStore.TagEntry;
+
+import java.util.List;
+
+@Repository
+@Profile("inmemory")
+@RequiredArgsConstructor
+public class InMemoryTagRepositoryImpl implements TagRepository {
+
+    private final InMemoryBlogStore store;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Override
+    public List<Tag> findAllTags() {
+        return store.read(() -> store.tags().stream()
+                .map(TagEntry::toTag)
+                .toList());
+    }
+
+    @Override
+    public List<Tag> findPopularTags(int limit) {
+        return store.read(() -> store.tags().stream()
+                .filter(tag -> tag.usageCount > 0)
+                .sorted(InMemoryBlogStore.POPULAR_ORDER)
+                .limit(limit)
+                .map(TagEntry::toTag)
+                .toList());
+    }
+
+    @Override
+    public int deleteUnusedTags(int batchSize) {
+        List<String> deletedTagNames = store.write(() -> store.removeUnusedTags(batchSize));
+        if (!deletedTagNames.isEmpty()) {
+            eventPublisher.publishEvent(TagsChangedEvent.removed(deletedTagNames));
+        }
+        return deletedTagNames.size();
+    }
+}
@@ -0,0 +1,37 @@
+package ru.practicum.blog.repository.inmemory;
+
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.AbstractPlatformTransactionManager;
+import org.springframework.transaction.support.DefaultTransactionStatus;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+// Транзакции без ресурса: границы @Transactional и TransactionTemplate соблюдаются, синхронизации и
+// @TransactionalEventListener срабатывают, но откат не отменяет уже сделанных изменений — каждое изменение
+// хранилища атомарно само по себе, а целостность между вызовами репозиториев не гарантируется
+public class InMemoryTransactionManager extends AbstractPlatformTransactionManager {
+
+    @Override
+    protected Object doGetTransaction() {
+        return new InMemoryTransaction(TransactionSynchronizationManager.isActualTransactionActive());
+    }
+
+    @Override
+    protected boolean isExistingTransaction(Object transaction) {
+        return ((InMemoryTransaction) transaction).existing();
+    }
+
+    @Override
+    protected void doBegin(Object transaction, TransactionDefinition definition) {
+    }
+
+    @Override
+    protected void doCommit(DefaultTransactionStatus status) {
+    }
+
+    @Override
+    protected void doRollback(DefaultTransactionStatus status) {
+    }
+
+    private record InMemoryTransaction(boolean existing) {
+    }
+}
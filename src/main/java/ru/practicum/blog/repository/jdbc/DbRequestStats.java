@@ -0,0 +1,63 @@
+package ru.practicum.blog.repository.jdbc;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Число запросов к БД и их суммарное время в рамках одного HTTP-запроса.
+// Привязка к потоку переносится на задачи virtualThreadTaskExecutor через propagate, поэтому учитываются
+// и Callable контроллера, и параллельная загрузка ленты
+public final class DbRequestStats {
+
+    private static final ThreadLocal<DbRequestStats> CURRENT = new ThreadLocal<>();
+
+    private final AtomicInteger statements = new AtomicInteger();
+    private final AtomicLong elapsedNanos = new AtomicLong();
+
+    public static DbRequestStats current() {
+        return CURRENT.get();
+    }
+
+    // Возвращает предыдущую привязку, чтобы её можно было вернуть через restore
+    public static DbRequestStats bind(DbRequestStats stats) {
+        DbRequestStats previous = CURRENT.get();
+        CURRENT.set(stats);
+        return previous;
+    }
+
+    public static void restore(DbRequestStats previous) {
+        if (previous == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(previous);
+        }
+    }
+
+    // TaskDecorator: задача видит счётчик потока, который её отправил
+    public static Runnable propagate(Runnable task) {
+        DbRequestStats stats = CURRENT.get();
+        if (stats == null) {
+            return task;
+        }
+        return () -> {
+            DbRequestStats previous = bind(stats);
+            try {
+                task.run();
+            } finally {
+                restore(previous);
+            }
+        };
+    }
+
+    public void record(long statementNanos) {
+        statements.incrementAndGet();
+        elapsedNanos.addAndGet(statementNanos);
+    }
+
+    public int statements() {
+        return statements.get();
+    }
+
+    public long elapsedNanos() {
+        return elapsedNanos.get();
+    }
+}
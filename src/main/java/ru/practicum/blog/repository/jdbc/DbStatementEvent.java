@@ -0,0 +1,36 @@
+package ru.practicum.blog.repository.jdbc;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+// Выключено по умолчанию: включается профилем из resources/jfr или настройками записи
+@Name(DbStatementEvent.NAME)
+@Label("DB Statement")
+@Category({"Blog", "Database"})
+@Description("Statement executed through the instrumented JDBC template")
+@Enabled(false)
+@StackTrace(false)
+public class DbStatementEvent extends Event {
+
+    public static final String NAME = "ru.practicum.blog.DbStatement";
+
+    @Label("Statement")
+    @Description("SqlConstants field name or OTHER")
+    String statement;
+
+    @Label("Post Id")
+    @Description("Value of the :postId parameter, -1 when the statement has none")
+    long postId;
+
+    @Label("Rows")
+    @Description("Rows read or affected, -1 when unknown")
+    long rows;
+
+    @Label("Batch Size")
+    int batchSize;
+}
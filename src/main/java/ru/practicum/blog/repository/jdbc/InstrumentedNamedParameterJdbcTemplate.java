@@ -0,0 +1,201 @@
+package ru.practicum.blog.repository.jdbc;
+
+import org.springframework.jdbc.core.PreparedStatementCallback;
+import org.springframework.jdbc.core.ResultSetExtractor;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.jdbc.support.rowset.SqlRowSet;
+
+import javax.sql.DataSource;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Supplier;
+import java.util.function.ToLongFunction;
+import java.util.stream.Stream;
+
+// Переопределены только «листовые» методы: перегрузки с Map и без параметров сводятся к ним, и вызов не считается дважды.
+// Работа напрямую через getJdbcOperations() (COPY импорта, курсор экспорта) сюда не попадает
+public class InstrumentedNamedParameterJdbcTemplate extends NamedParameterJdbcTemplate {
+
+    private static final ToLongFunction<Object> UNKNOWN_ROWS = result -> -1;
+    private static final String POST_ID_PARAMETER = "postId";
+    private static final long NO_POST = -1;
+    // Общий экземпляр только для проверки isEnabled(): пока событие выключено, на запрос его не создаём
+    private static final DbStatementEvent EVENT_PROBE = new DbStatementEvent();
+
+    private final JdbcStatementMetrics statementMetrics;
+    private final SlowQueryLog slowQueryLog;
+
+    public InstrumentedNamedParameterJdbcTemplate(
+            DataSource dataSource,
+            JdbcStatementMetrics statementMetrics,
+            SlowQueryLog slowQueryLog
+    ) {
+        super(dataSource);
+        this.statementMetrics = statementMetrics;
+        this.slowQueryLog = slowQueryLog;
+    }
+
+    @Override
+    public <T> T execute(String sql, SqlParameterSource paramSource, PreparedStatementCallback<T> action) {
+        return timed(sql, paramSource, () -> super.execute(sql, paramSource, action), UNKNOWN_ROWS);
+    }
+
+    @Override
+    public <T> T query(String sql, SqlParameterSource paramSource, ResultSetExtractor<T> rse) {
+        return timed(sql, paramSource, () -> super.query(sql, paramSource, rse), UNKNOWN_ROWS);
+    }
+
+    @Override
+    public void query(String sql, SqlParameterSource paramSource, RowCallbackHandler rch) {
+        long[] rows = new long[1];
+        DbStatementEvent event = beginEvent();
+        long startedAt = System.nanoTime();
+        boolean completed = false;
+        try {
+            super.query(sql, paramSource, resultSet -> {
+                rows[0]++;
+                rch.processRow(resultSet);
+            });
+            completed = true;
+        } finally {
+            finish(sql, paramSource, startedAt, completed ? rows[0] : -1, event);
+        }
+    }
+
+    @Override
+    public <T> List<T> query(String sql, SqlParameterSource paramSource, RowMapper<T> rowMapper) {
+        return timed(sql, paramSource, () -> super.query(sql, paramSource, rowMapper), List::size);
+    }
+
+    // Поток читается уже после возврата, поэтому учитывается только время открытия курсора
+    @Override
+    public <T> Stream<T> queryForStream(String sql, SqlParameterSource paramSource, RowMapper<T> rowMapper) {
+        return timed(sql, paramSource, () -> super.queryForStream(sql, paramSource, rowMapper), UNKNOWN_ROWS);
+    }
+
+    @Override
+    public <T> T queryForObject(String sql, SqlParameterSource paramSource, RowMapper<T> rowMapper) {
+        return timed(sql, paramSource, () -> super.queryForObject(sql, paramSource, rowMapper), result -> 1);
+    }
+
+    @Override
+    public SqlRowSet queryForRowSet(String sql, SqlParameterSource paramSource) {
+        return timed(sql, paramSource, () -> super.queryForRowSet(sql, paramSource), UNKNOWN_ROWS);
+    }
+
+    @Override
+    public int update(String sql, SqlParameterSource paramSource) {
+        return timed(sql, paramSource, () -> super.update(sql, paramSource), Integer::longValue);
+    }
+
+    @Override
+    public int update(String sql, SqlParameterSource paramSource, KeyHolder generatedKeyHolder, String[] keyColumnNames) {
+        return timed(sql, paramSource, () -> super.update(sql, paramSource, generatedKeyHolder, keyColumnNames), Integer::longValue);
+    }
+
+    @Override
+    public int[] batchUpdate(String sql, SqlParameterSource[] batchArgs) {
+        return timedBatch(sql, batchArgs, () -> super.batchUpdate(sql, batchArgs));
+    }
+
+    @Override
+    public int[] batchUpdate(
+            String sql,
+            SqlParameterSource[] batchArgs,
+            KeyHolder generatedKeyHolder,
+            String[] keyColumnNames
+    ) {
+        return timedBatch(sql, batchArgs, () -> super.batchUpdate(sql, batchArgs, generatedKeyHolder, keyColumnNames));
+    }
+
+    private <T> T timed(String sql, SqlParameterSource paramSource, Supplier<T> call, ToLongFunction<? super T> rows) {
+        DbStatementEvent event = beginEvent();
+        long startedAt = System.nanoTime();
+        T result = null;
+        boolean completed = false;
+        try {
+            result = call.get();
+            completed = true;
+            return result;
+        } finally {
+            finish(sql, paramSource, startedAt, completed ? rows.applyAsLong(result) : -1, event);
+        }
+    }
+
+    private int[] timedBatch(String sql, SqlParameterSource[] batchArgs, Supplier<int[]> call) {
+        DbStatementEvent event = beginEvent();
+        long startedAt = System.nanoTime();
+        int[] counts = null;
+        try {
+            counts = call.get();
+            return counts;
+        } finally {
+            long elapsedNanos = System.nanoTime() - startedAt;
+            long rows = counts == null ? -1 : affectedRows(counts);
+            statementMetrics.record(sql, elapsedNanos, rows);
+            countForRequest(elapsedNanos);
+            commitEvent(event, sql, null, rows, batchArgs.length);
+            if (slowQueryLog.isSlow(elapsedNanos)) {
+                slowQueryLog.logSlowBatch(sql, batchArgs, elapsedNanos);
+            }
+        }
+    }
+
+    private void finish(String sql, SqlParameterSource paramSource, long startedAt, long rows, DbStatementEvent event) {
+        long elapsedNanos = System.nanoTime() - startedAt;
+        statementMetrics.record(sql, elapsedNanos, rows);
+        countForRequest(elapsedNanos);
+        commitEvent(event, sql, paramSource, rows, 1);
+        if (slowQueryLog.isSlow(elapsedNanos)) {
+            slowQueryLog.logSlow(sql, paramSource, elapsedNanos);
+        }
+    }
+
+    private static DbStatementEvent beginEvent() {
+        if (!EVENT_PROBE.isEnabled()) {
+            return null;
+        }
+        DbStatementEvent event = new DbStatementEvent();
+        event.begin();
+        return event;
+    }
+
+    // Ниже порога shouldCommit() ложно и имя запроса даже не вычисляется.
+    // У пакетных запросов параметров много, поэтому id поста в событии нет
+    private void commitEvent(DbStatementEvent event, String sql, SqlParameterSource paramSource, long rows, int batchSize) {
+        if (event == null) {
+            return;
+        }
+        event.end();
+        if (event.shouldCommit()) {
+            event.statement = statementMetrics.statementName(sql);
+            event.postId = paramSource == null ? NO_POST : postId(paramSource);
+            event.rows = rows;
+            event.batchSize = batchSize;
+            event.commit();
+        }
+    }
+
+    private static long postId(SqlParameterSource paramSource) {
+        if (paramSource.hasValue(POST_ID_PARAMETER) && paramSource.getValue(POST_ID_PARAMETER) instanceof Number id) {
+            return id.longValue();
+        }
+        return NO_POST;
+    }
+
+    private static void countForRequest(long elapsedNanos) {
+        DbRequestStats requestStats = DbRequestStats.current();
+        if (requestStats != null) {
+            requestStats.record(elapsedNanos);
+        }
+    }
+
+    // Драйвер может вернуть SUCCESS_NO_INFO (-2) вместо числа строк — такие элементы не суммируем
+    private static long affectedRows(int[] counts) {
+        return Arrays.stream(counts).filter(count -> count >= 0).asLongStream().sum();
+    }
+}
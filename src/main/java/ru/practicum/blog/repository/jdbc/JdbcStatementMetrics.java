@@ -0,0 +1,121 @@
+package ru.practicum.blog.repository.jdbc;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+import org.springframework.stereotype.Component;
+import ru.practicum.blog.repository.util.SqlConstants;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+// Время и число строк по каждому логическому запросу; имя запроса — имя его константы в SqlConstants
+@Component
+public class JdbcStatementMetrics {
+
+    public static final String OTHER_STATEMENT = "OTHER";
+
+    private static final double[] PERCENTILES = {0.5, 0.99};
+
+    private final MeterRegistry meterRegistry;
+    private final Map<String, String> statementNames;
+    private final ConcurrentMap<String, StatementMeters> meters = new ConcurrentHashMap<>();
+
+    public JdbcStatementMetrics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+        this.statementNames = collectStatementNames(SqlConstants.class);
+    }
+
+    // Репозитории передают сами константы, поэтому поиск в HashMap обходится без сравнения текста запроса
+    public String statementName(String sql) {
+        return statementNames.getOrDefault(sql, OTHER_STATEMENT);
+    }
+
+    // rows < 0 — число строк неизвестно (экстрактор, курсор, ошибка), тогда пишется только время
+    public void record(String sql, long elapsedNanos, long rows) {
+        StatementMeters statementMeters = meters.computeIfAbsent(statementName(sql), this::registerMeters);
+        statementMeters.duration().record(elapsedNanos, TimeUnit.NANOSECONDS);
+        if (rows >= 0) {
+            statementMeters.rows().record(rows);
+        }
+    }
+
+    // Запросы по убыванию суммарного времени; перцентили и максимум — за скользящее окно Micrometer
+    public List<StatementStats> snapshot() {
+        return meters.entrySet().stream()
+                .map(entry -> toStats(entry.getKey(), entry.getValue()))
+                .sorted(Comparator.comparingDouble(StatementStats::totalMs).reversed())
+                .toList();
+    }
+
+    private StatementMeters registerMeters(String statement) {
+        Timer duration = Timer.builder("blog.db.statement.duration")
+                .description("Execution time of a named SQL statement")
+                .tag("statement", statement)
+                .publishPercentiles(PERCENTILES)
+                .register(meterRegistry);
+        DistributionSummary rows = DistributionSummary.builder("blog.db.statement.rows")
+                .description("Rows returned or affected by a named SQL statement")
+                .tag("statement", statement)
+                .register(meterRegistry);
+        return new StatementMeters(duration, rows);
+    }
+
+    private static StatementStats toStats(String statement, StatementMeters statementMeters) {
+        Timer duration = statementMeters.duration();
+        double p50 = 0;
+        double p99 = 0;
+        for (ValueAtPercentile value : duration.takeSnapshot().percentileValues()) {
+            if (value.percentile() == 0.5) {
+                p50 = value.value(TimeUnit.MILLISECONDS);
+            } else if (value.percentile() == 0.99) {
+                p99 = value.value(TimeUnit.MILLISECONDS);
+            }
+        }
+        return new StatementStats(
+                statement,
+                duration.count(),
+                duration.totalTime(TimeUnit.MILLISECONDS),
+                p50,
+                p99,
+                duration.max(TimeUnit.MILLISECONDS),
+                statementMeters.rows().mean()
+        );
+    }
+
+    private static Map<String, String> collectStatementNames(Class<?> constantsHolder) {
+        Map<String, String> names = new HashMap<>();
+        for (Field field : constantsHolder.getDeclaredFields()) {
+            if (Modifier.isStatic(field.getModifiers()) && field.getType() == String.class) {
+                try {
+                    names.put((String) field.get(null), field.getName());
+                } catch (IllegalAccessException e) {
+                    throw new IllegalStateException("Cannot read SQL constant " + field.getName(), e);
+                }
+            }
+        }
+        return Map.copyOf(names);
+    }
+
+    private record StatementMeters(Timer duration, DistributionSummary rows) {
+    }
+
+    public record StatementStats(
+            String statement,
+            long calls,
+            double totalMs,
+            double p50Ms,
+            double p99Ms,
+            double maxMs,
+            double meanRows
+    ) {
+    }
+}
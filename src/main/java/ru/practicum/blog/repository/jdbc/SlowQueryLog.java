@@ -0,0 +1,147 @@
+package ru.practicum.blog.repository.jdbc;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.StringJoiner;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+// Лог медленных запросов: имя запроса, параметры (секретные скрыты) и план EXPLAIN, снятый в фоне не чаще раза за интервал
+@Component
+@Profile("!inmemory")
+public class SlowQueryLog {
+
+    private static final Logger log = LogManager.getLogger(SlowQueryLog.class);
+
+    private static final String REDACTED = "***";
+    private static final int MAX_VALUE_LENGTH = 100;
+
+    private final JdbcStatementMetrics statementMetrics;
+    private final NamedParameterJdbcTemplate explainTemplate;
+    private final TransactionTemplate readOnlyTransaction;
+    private final AsyncTaskExecutor executor;
+    private final long thresholdNanos;
+    private final boolean explain;
+    private final long explainIntervalNanos;
+    private final Set<String> redactedParameters;
+    private final ConcurrentMap<String, Long> lastExplainedAt = new ConcurrentHashMap<>();
+
+    public SlowQueryLog(
+            JdbcStatementMetrics statementMetrics,
+            DataSource dataSource,
+            PlatformTransactionManager transactionManager,
+            @Qualifier("virtualThreadTaskExecutor") AsyncTaskExecutor executor,
+            @Value("${blog.db.slow-query.threshold-ms:500}") long thresholdMs,
+            @Value("${blog.db.slow-query.explain:true}") boolean explain,
+            @Value("${blog.db.slow-query.explain-interval-ms:600000}") long explainIntervalMs,
+            @Value("${blog.db.slow-query.redact:text,title,image}") String redactedParameters
+    ) {
+        this.statementMetrics = statementMetrics;
+        // Обычный шаблон: EXPLAIN не должен сам попадать в метрики и в этот же лог
+        this.explainTemplate = new NamedParameterJdbcTemplate(dataSource);
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.executor = executor;
+        this.thresholdNanos = thresholdMs > 0 ? TimeUnit.MILLISECONDS.toNanos(thresholdMs) : Long.MAX_VALUE;
+        this.explain = explain;
+        this.explainIntervalNanos = TimeUnit.MILLISECONDS.toNanos(explainIntervalMs);
+        this.redactedParameters = Arrays.stream(redactedParameters.split(","))
+                .map(String::trim)
+                .filter(name -> !name.isEmpty())
+                .collect(Collectors.toUnmodifiableSet());
+    }
+
+    // На пути каждого запроса — одно сравнение; всё остальное только для медленных
+    public boolean isSlow(long elapsedNanos) {
+        return elapsedNanos >= thresholdNanos;
+    }
+
+    public void logSlow(String sql, SqlParameterSource paramSource, long elapsedNanos) {
+        String statement = statementMetrics.statementName(sql);
+        log.warn("Slow SQL statement {} took {} ms, params: {}",
+                statement, TimeUnit.NANOSECONDS.toMillis(elapsedNanos), describeParameters(paramSource));
+        if (explain && claimExplain(statement)) {
+            executor.execute(() -> explain(statement, sql, paramSource));
+        }
+    }
+
+    public void logSlowBatch(String sql, SqlParameterSource[] batchArgs, long elapsedNanos) {
+        log.warn("Slow SQL batch {} of {} statements took {} ms, first params: {}",
+                statementMetrics.statementName(sql),
+                batchArgs.length,
+                TimeUnit.NANOSECONDS.toMillis(elapsedNanos),
+                batchArgs.length == 0 ? "{}" : describeParameters(batchArgs[0]));
+    }
+
+    String describeParameters(SqlParameterSource paramSource) {
+        String[] names = paramSource == null ? null : paramSource.getParameterNames();
+        if (names == null) {
+            return "{}";
+        }
+        StringJoiner joiner = new StringJoiner(", ", "{", "}");
+        for (String name : names) {
+            String value = redactedParameters.contains(name) ? REDACTED : describeValue(paramSource.getValue(name));
+            joiner.add(name + "=" + value);
+        }
+        return joiner.toString();
+    }
+
+    // Один план на запрос за интервал: EXPLAIN ANALYZE повторяет медленный запрос и сам нагружает БД
+    private boolean claimExplain(String statement) {
+        long now = System.nanoTime();
+        Long previous = lastExplainedAt.get(statement);
+        if (previous != null && now - previous < explainIntervalNanos) {
+            return false;
+        }
+        return previous == null
+                ? lastExplainedAt.putIfAbsent(statement, now) == null
+                : lastExplainedAt.replace(statement, previous, now);
+    }
+
+    private void explain(String statement, String sql, SqlParameterSource paramSource) {
+        try {
+            List<String> plan = capturePlan(sql, paramSource);
+            log.warn("Plan for slow SQL statement {}:{}{}",
+                    statement, System.lineSeparator(), String.join(System.lineSeparator(), plan));
+        } catch (RuntimeException ex) {
+            log.warn("Failed to capture plan for slow SQL statement {}: {}", statement, ex.getMessage());
+        }
+    }
+
+    // ANALYZE выполняет запрос, поэтому он только для SELECT и в откатываемой read-only транзакции; остальное — план без выполнения
+    List<String> capturePlan(String sql, SqlParameterSource paramSource) {
+        boolean analyze = sql.stripLeading().toUpperCase(Locale.ROOT).startsWith("SELECT");
+        String explainSql = (analyze ? "EXPLAIN (ANALYZE, BUFFERS) " : "EXPLAIN ") + sql;
+        return readOnlyTransaction.execute(status -> {
+            status.setRollbackOnly();
+            return explainTemplate.queryForList(explainSql, paramSource, String.class);
+        });
+    }
+
+    private static String describeValue(Object value) {
+        String text = switch (value) {
+            case null -> "null";
+            case byte[] bytes -> "<" + bytes.length + " bytes>";
+            case Object[] array -> Arrays.toString(array);
+            default -> String.valueOf(value);
+        };
+        return text.length() > MAX_VALUE_LENGTH ? text.substring(0, MAX_VALUE_LENGTH) + "…" : text;
+    }
+}
@@ -6,28 +6,92 @@ import lombok.experimental.UtilityClass;
 public class SqlConstants {
 
     // === POST ===
+    // Лента читает только превью: объём чтения не зависит от длины статей.
+    // Имена тегов лежат в самой строке поста (post.tags), без JOIN с post_tag и tag
     public static final String FIND_POSTS_BY_IDS = """
-            SELECT id, title, text, likes_count, comments_count
+            SELECT id, title, preview, tags, likes_count, comments_count, version
+            FROM post
+            WHERE id IN (:postIds)
+            ORDER BY created_at DESC, id DESC
+            """;
+
+    public static final String FIND_POSTS_BY_IDS_WITHOUT_TEXT = """
+            SELECT id, title, NULL AS preview, tags, likes_count, comments_count, version
             FROM post
             WHERE id IN (:postIds)
             ORDER BY created_at DESC, id DESC
             """;
 
     public static final String FIND_POST_BY_ID = """
-            SELECT id, title, text, likes_count, comments_count
+            SELECT id, title, text, tags, likes_count, comments_count, version
             FROM post
             WHERE id = :postId
             """;
 
-    public static final String CREATE_POST =
-            "INSERT INTO post (title, text) VALUES(:title, :text) RETURNING id";
+    // Без text: длинный текст хранится в TOAST и читается отдельно, если клиент его не запросил
+    public static final String FIND_POST_BY_ID_WITHOUT_TEXT = """
+            SELECT id, title, NULL AS text, tags, likes_count, comments_count, version
+            FROM post
+            WHERE id = :postId
+            """;
+
+    // Пост и первая страница комментариев одним запросом: оба читаются из одного снимка, поэтому comments
+    // согласованы с comments_count. Агрегаты по одной выборке идут в одном порядке, без комментариев — NULL
+    public static final String FIND_POST_WITH_COMMENTS_BY_ID = """
+            SELECT p.id, p.title, p.text, p.tags, p.likes_count, p.comments_count, p.version,
+                   c.ids AS comment_ids, c.texts AS comment_texts, c.versions AS comment_versions
+            FROM post p
+            CROSS JOIN LATERAL (
+                SELECT array_agg(fc.id ORDER BY fc.created_at DESC, fc.id DESC) AS ids,
+                       array_agg(fc.text ORDER BY fc.created_at DESC, fc.id DESC) AS texts,
+                       array_agg(fc.version ORDER BY fc.created_at DESC, fc.id DESC) AS versions
+                FROM (
+                    SELECT id, text, version, created_at
+                    FROM comment
+                    WHERE post_id = p.id
+                    ORDER BY created_at DESC, id DESC
+                    LIMIT :limit
+                ) fc
+            ) c
+            WHERE p.id = :postId
+            """;
+
+    public static final String FIND_POST_WITH_COMMENTS_BY_ID_WITHOUT_TEXT = """
+            SELECT p.id, p.title, NULL AS text, p.tags, p.likes_count, p.comments_count, p.version,
+                   c.ids AS comment_ids, c.texts AS comment_texts, c.versions AS comment_versions
+            FROM post p
+            CROSS JOIN LATERAL (
+                SELECT array_agg(fc.id ORDER BY fc.created_at DESC, fc.id DESC) AS ids,
+                       array_agg(fc.text ORDER BY fc.created_at DESC, fc.id DESC) AS texts,
+                       array_agg(fc.version ORDER BY fc.created_at DESC, fc.id DESC) AS versions
+                FROM (
+                    SELECT id, text, version, created_at
+                    FROM comment
+                    WHERE post_id = p.id
+                    ORDER BY created_at DESC, id DESC
+                    LIMIT :limit
+                ) fc
+            ) c
+            WHERE p.id = :postId
+            """;
 
+    public static final String CREATE_POST = """
+            INSERT INTO post (title, text, tags)
+            VALUES(:title, :text, :tags)
+            RETURNING id, title, text, tags, likes_count, comments_count, version
+            """;
+
+    // Без ожидаемой версии (:version IS NULL) пост обновляется безусловно
     public static final String UPDATE_POST = """
             UPDATE post
             SET title = :title,
                 text = :text,
+                tags = :tags,
+                version = version + 1,
                 updated_at = CURRENT_TIMESTAMP
             WHERE id = :postId
+                AND (:version IS NULL OR version = :version)
+            RETURNING id, title, text, tags, likes_count, comments_count, version
             """;
 
     public static final String DELETE_POST =
@@ -36,16 +100,19 @@ public class SqlConstants {
     public static final String EXISTS_BY_ID =
             "SELECT EXISTS(SELECT 1 FROM post WHERE id = :id)";
 
+    // version — версия всей видимой строки: её поднимает любое изменение поста, включая лайки, счётчик комментариев
+    // и картинку, поэтому по ней можно строить ETag
     public static final String INCREMENT_LIKES = """
             UPDATE post
             SET likes_count = (likes_count + 1),
+                version = version + 1,
                 updated_at = CURRENT_TIMESTAMP
             WHERE id = :postId
             RETURNING likes_count
             """;
 
     public static final String UPDATE_IMAGE =
-            "UPDATE post SET image = :image WHERE id = :id";
+            "UPDATE post SET image = :image, version = version + 1 WHERE id = :id";
 
     public static final String GET_IMAGE =
             "SELECT image FROM post WHERE id = :id";
@@ -53,6 +120,7 @@ public class SqlConstants {
     public static final String INCREMENT_COMMENTS = """
             UPDATE post
             SET comments_count = (comments_count + 1),
+                version = version + 1,
                 updated_at = CURRENT_TIMESTAMP
             WHERE id = :postId
             """;
@@ -60,49 +128,124 @@ public class SqlConstants {
     public static final String DECREMENT_COMMENTS = """
             UPDATE post
             SET comments_count = (comments_count - 1),
+                version = version + 1,
                 updated_at = CURRENT_TIMESTAMP
             WHERE id = :postId
             """;
 
     // === TAG ===
-    public static final String INSERT_TAG =
-            "INSERT INTO tag (name) VALUES(:name) ON CONFLICT (name) DO NOTHING";
+    // Фиктивное обновление при конфликте блокирует строку тега до конца транзакции,
+    // чтобы фоновая очистка не удалила тег, который сейчас привязывается к посту
+    public static final String UPSERT_TAGS = """
+            INSERT INTO tag (name)
+            VALUES :names
+            ON CONFLICT (name) DO UPDATE SET name = EXCLUDED.name
+            RETURNING id, name
+            """;
 
-    public static final String FIND_TAG_IDS_BY_NAMES =
-            "SELECT id FROM tag WHERE name IN (:names)";
+    public static final String DELETE_UNUSED_TAGS = """
+            DELETE FROM tag
+            WHERE id IN (
+                SELECT t.id
+                FROM tag t
+                WHERE t.usage_count = 0
+                  AND NOT EXISTS (
+                      SELECT 1 FROM post_tag pt
+                      WHERE pt.tag_id = t.id
+                  )
+                LIMIT :batchSize
+                FOR UPDATE SKIP LOCKED
+            )
+            RETURNING name
+            """;
 
-    public static final String DELETE_UNUSED_TAGS =
-            "DELETE FROM post_tag WHERE post_id = :postId AND tag_id NOT IN (:tagIds)";
+    // Вместе с неиспользуемыми: их версии нужны индексу подсказок, чтобы не воскресить тег запоздавшим событием
+    public static final String FIND_ALL_TAGS =
+            "SELECT id, name, usage_count, usage_version FROM tag";
 
-    public static final String CLEANUP_UNUSED_TAGS = """
-            DELETE FROM tag t
-            WHERE NOT EXISTS (
-              SELECT 1 FROM post_tag pt
-              WHERE pt.tag_id = t.id
-            )
+    public static final String FIND_POPULAR_TAGS = """
+            SELECT id, name, usage_count, usage_version
+            FROM tag
+            WHERE usage_count > 0
+            ORDER BY usage_count DESC, name
+            LIMIT :limit
             """;
 
     // === POST_TAG ===
-    public static final String INSERT_POST_TAG =
-            "INSERT INTO post_tag (post_id, tag_id) VALUES(:postId, :tagId) ON CONFLICT DO NOTHING";
+    public static final String LINK_POST_TAGS = """
+            WITH linked AS (
+                INSERT INTO post_tag (post_id, tag_id)
+                SELECT :postId, id FROM tag WHERE id IN (:tagIds)
+                ON CONFLICT DO NOTHING
+                RETURNING tag_id
+            )
+            UPDATE tag
+            SET usage_count = usage_count + 1,
+                usage_version = usage_version + 1
+            WHERE id IN (SELECT tag_id FROM linked)
+            RETURNING id, name, usage_count, usage_version
+            """;
 
-    public static final String DELETE_POST_TAGS =
-            "DELETE FROM post_tag WHERE post_id = :postId";
+    public static final String UNLINK_POST_TAGS_EXCEPT = """
+            WITH unlinked AS (
+                DELETE FROM post_tag
+                WHERE post_id = :postId AND tag_id NOT IN (:tagIds)
+                RETURNING tag_id
+            )
+            UPDATE tag
+            SET usage_count = usage_count - 1,
+                usage_version = usage_version + 1
+            WHERE id IN (SELECT tag_id FROM unlinked)
+            RETURNING id, name, usage_count, usage_version
+            """;
+
+    public static final String UNLINK_POST_TAGS = """
+            WITH unlinked AS (
+                DELETE FROM post_tag
+                WHERE post_id = :postId
+                RETURNING tag_id
+            )
+            UPDATE tag
+            SET usage_count = usage_count - 1,
+                usage_version = usage_version + 1
+            WHERE id IN (SELECT tag_id FROM unlinked)
+            RETURNING id, name, usage_count, usage_version
+            """;
 
-    public static final String FIND_TAGS_BY_POST_ID = """
-            SELECT pt.post_id, t.id, t.name
-            FROM tag t
-            JOIN post_tag pt ON t.id = pt.tag_id
-            WHERE pt.post_id = :postId
+    // === POST.TAGS CONSISTENCY ===
+    // post.tags — денормализованная копия, источник истины — post_tag; сравниваем как множества и по количеству
+    public static final String FIND_POSTS_WITH_INCONSISTENT_TAGS = """
+            SELECT p.id
+            FROM post p
+            CROSS JOIN LATERAL (
+                SELECT ARRAY(
+                    SELECT t.name::TEXT
+                    FROM post_tag pt
+                    JOIN tag t ON t.id = pt.tag_id
+                    WHERE pt.post_id = p.id
+                ) AS names
+            ) n
+            WHERE p.id >= :fromId AND p.id < :toId
+              AND (cardinality(p.tags) <> cardinality(n.names) OR NOT (p.tags @> n.names AND p.tags <@ n.names))
+            ORDER BY p.id
             """;
 
-    public static final String FIND_TAGS_BY_POST_IDS = """
-            SELECT pt.post_id, t.id, t.name
-            FROM tag t
-            JOIN post_tag pt ON t.id = pt.tag_id
-            WHERE pt.post_id IN (:postIds)
+    public static final String REPAIR_POST_TAGS = """
+            UPDATE post p
+            SET version = version + 1,
+                tags = ARRAY(
+                    SELECT t.name
+                    FROM post_tag pt
+                    JOIN tag t ON t.id = pt.tag_id
+                    WHERE pt.post_id = p.id
+                    ORDER BY t.name
+                )
+            WHERE p.id IN (:postIds)
             """;
 
+    public static final String FIND_MAX_POST_ID =
+            "SELECT COALESCE(MAX(id), 0) FROM post";
+
     // === FILTERING & COUNT ===
     public static final String COUNT_POSTS_NO_TAGS = """
             SELECT COUNT(*)
@@ -114,14 +257,7 @@ public class SqlConstants {
             SELECT COUNT(*)
             FROM post
             WHERE (:title = '' OR LOWER(title) LIKE CONCAT('%', :title, '%'))
-              AND id IN (
-                  SELECT pt.post_id
-                  FROM post_tag pt
-                  JOIN tag t ON t.id = pt.tag_id
-                  WHERE t.name IN (:tags)
-                  GROUP BY pt.post_id
-                  HAVING COUNT(t.name) = :tagsCount
-              )
+              AND tags @> CAST(:tags AS TEXT[])
             """;
 
     public static final String FIND_POST_IDS_NO_TAGS = """
@@ -136,35 +272,31 @@ public class SqlConstants {
             SELECT id
             FROM post
             WHERE (:title = '' OR LOWER(title) LIKE CONCAT('%', :title, '%'))
-              AND id IN (
-                  SELECT pt.post_id
-                  FROM post_tag pt
-                  JOIN tag t ON t.id = pt.tag_id
-                  WHERE t.name IN (:tags)
-                  GROUP BY pt.post_id
-                  HAVING COUNT(t.name) = :tagsCount
-              )
+              AND tags @> CAST(:tags AS TEXT[])
             ORDER BY created_at DESC, id DESC
             LIMIT :limit OFFSET :offset
             """;
 
     // === COMMENTS ===
     public static final String FIND_COMMENTS_BY_POST_ID =
-            "SELECT id, text, post_id FROM comment WHERE post_id = :postId ORDER BY created_at DESC, id DESC";
+            "SELECT id, text, post_id, version FROM comment WHERE post_id = :postId ORDER BY created_at DESC, id DESC";
 
     public static final String FIND_COMMENT_BY_ID =
-            "SELECT id, text, post_id FROM comment WHERE id = :commentId AND post_id = :postId";
+            "SELECT id, text, post_id, version FROM comment WHERE id = :commentId AND post_id = :postId";
 
     public static final String CREATE_COMMENT =
-            "INSERT INTO comment (text, post_id) VALUES(:text, :postId) RETURNING id, text, post_id";
+            "INSERT INTO comment (text, post_id) VALUES(:text, :postId) RETURNING id, text, post_id, version";
 
+    // Без ожидаемой версии (:version IS NULL) комментарий обновляется безусловно
     public static final String UPDATE_COMMENT = """
             UPDATE comment
             SET text = :text,
+            version = version + 1,
             updated_at = CURRENT_TIMESTAMP
             WHERE id = :commentId
                 AND post_id = :postId
-            RETURNING id, text, post_id
+                AND (:version IS NULL OR version = :version)
+            RETURNING id, text, post_id, version
             """;
 
     public static final String DELETE_COMMENT =
@@ -172,4 +304,68 @@ public class SqlConstants {
 
     public static final String EXISTS_COMMENT =
             "SELECT EXISTS(SELECT 1 FROM comment WHERE id = :commentId AND post_id = :postId)";
+
+    // === IMPORT ===
+    // id постов выдаются из последовательности post прямо при COPY, в порядке строк входного файла
+    public static final String CREATE_POST_IMPORT_TABLE = """
+            CREATE TEMPORARY TABLE post_import
+            (
+                post_id BIGINT NOT NULL DEFAULT nextval(pg_get_serial_sequence('post', 'id')),
+                title   TEXT   NOT NULL,
+                text    TEXT   NOT NULL,
+                tags    JSONB  NOT NULL
+            ) ON COMMIT DROP
+            """;
+
+    public static final String COPY_POST_IMPORT =
+            "COPY post_import (title, text, tags) FROM STDIN";
+
+    public static final String INSERT_IMPORTED_POSTS = """
+            INSERT INTO post (id, title, text, tags)
+            SELECT post_id, title, text, ARRAY(SELECT jsonb_array_elements_text(tags))
+            FROM post_import
+            ORDER BY post_id
+            """;
+
+    // Как и UPSERT_TAGS, блокирует строки тегов, чтобы фоновая очистка не удалила их до привязки
+    public static final String UPSERT_IMPORTED_TAGS = """
+            INSERT INTO tag (name)
+            SELECT DISTINCT n.name
+            FROM post_import pi
+            CROSS JOIN LATERAL jsonb_array_elements_text(pi.tags) AS n(name)
+            ON CONFLICT (name) DO UPDATE SET name = EXCLUDED.name
+            """;
+
+    public static final String LINK_IMPORTED_POST_TAGS = """
+            WITH linked AS (
+                INSERT INTO post_tag (post_id, tag_id)
+                SELECT DISTINCT pi.post_id, t.id
+                FROM post_import pi
+                CROSS JOIN LATERAL jsonb_array_elements_text(pi.tags) AS n(name)
+                JOIN tag t ON t.name = n.name
+                ON CONFLICT DO NOTHING
+                RETURNING tag_id
+            )
+            UPDATE tag t
+            SET usage_count = t.usage_count + c.links,
+                usage_version = t.usage_version + 1
+            FROM (SELECT tag_id, COUNT(*) AS links FROM linked GROUP BY tag_id) c
+            WHERE t.id = c.tag_id
+            RETURNING t.id, t.name, t.usage_count, t.usage_version, c.links
+            """;
+
+    // === EXPORT ===
+
+    // Теги и комментарии собираются коррелированными подзапросами по индексам, без JOIN с размножением строк
+    public static final String EXPORT_POSTS = """
+            SELECT p.id, p.title, p.text, p.likes_count, p.comments_count, p.created_at,
+                   ARRAY(SELECT name FROM unnest(p.tags) AS name ORDER BY name) AS tags,
+                   COALESCE((
+                       SELECT json_agg(json_build_object('id', c.id, 'text', c.text, 'createdAt', c.created_at) ORDER BY c.id)
+                       FROM comment c
+                       WHERE c.post_id = p.id
+                   ), '[]') AS comments
+            FROM post p
+            ORDER BY p.id
+            """;
 }
@@ -0,0 +1,13 @@
+package ru.practicum.blog.service;
+
+import ru.practicum.blog.domain.model.ExportFormat;
+import ru.practicum.blog.web.dto.PostImportResponseDto;
+
+import java.io.InputStream;
+import java.io.OutputStream;
+
+public interface PostBulkService {
+    PostImportResponseDto importPosts(InputStream ndjson);
+
+    void exportPosts(ExportFormat format, OutputStream output);
+}
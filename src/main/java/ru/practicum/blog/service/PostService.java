@@ -1,14 +1,22 @@
 package ru.practicum.blog.service;
 
 import org.springframework.web.multipart.MultipartFile;
+import ru.practicum.blog.domain.model.PostField;
+import ru.practicum.blog.domain.model.PostInclude;
+import ru.practicum.blog.service.batch.PostsBatch;
 import ru.practicum.blog.web.dto.PostRequestDto;
 import ru.practicum.blog.web.dto.PostResponseDto;
 import ru.practicum.blog.web.dto.PostsResponseDto;
 
+import java.util.List;
+import java.util.Set;
+
 public interface PostService {
-    PostsResponseDto getPosts(String search, int pageNumber, int pageSize);
+    PostsResponseDto getPosts(String search, int pageNumber, int pageSize, Set<PostField> fields);
+
+    PostResponseDto getPost(long id, Set<PostField> fields, Set<PostInclude> includes);
 
-    PostResponseDto getPost(long id);
+    PostsBatch getPostsBatch(List<Long> ids, Set<PostField> fields);
 
     PostResponseDto createPost(PostRequestDto postRequestDto);
 
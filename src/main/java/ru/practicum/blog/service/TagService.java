@@ -0,0 +1,11 @@
+package ru.practicum.blog.service;
+
+import ru.practicum.blog.web.dto.TagResponseDto;
+
+import java.util.List;
+
+public interface TagService {
+    List<TagResponseDto> getPopularTags(int limit);
+
+    List<TagResponseDto> suggestTags(String prefix, int limit);
+}
@@ -0,0 +1,10 @@
+package ru.practicum.blog.service.batch;
+
+import ru.practicum.blog.web.dto.PostsBatchResponseDto;
+
+// Ответ пакетного чтения вместе с его ETag: тег считается по версиям постов, а не по сериализованному телу
+public record PostsBatch(
+        PostsBatchResponseDto response,
+        String etag
+) {
+}
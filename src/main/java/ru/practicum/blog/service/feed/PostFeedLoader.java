@@ -0,0 +1,123 @@
+package ru.practicum.blog.service.feed;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.blog.domain.exception.PostDbException;
+import ru.practicum.blog.domain.model.Post;
+import ru.practicum.blog.domain.model.PostField;
+import ru.practicum.blog.repository.PostRepository;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+// Загружает страницу ленты: последовательно в одной транзакции или параллельно на отдельных соединениях
+@Component
+public class PostFeedLoader {
+
+    private static final Logger log = LogManager.getLogger(PostFeedLoader.class);
+
+    private final PostRepository postRepository;
+    private final PlatformTransactionManager transactionManager;
+    private final AsyncTaskExecutor executor;
+    private final boolean parallel;
+    private final long timeoutMs;
+
+    public PostFeedLoader(
+            PostRepository postRepository,
+            PlatformTransactionManager transactionManager,
+            @Qualifier("virtualThreadTaskExecutor") AsyncTaskExecutor executor,
+            @Value("${blog.posts.feed.parallel:false}") boolean parallel,
+            @Value("${blog.posts.feed.timeout-ms:5000}") long timeoutMs
+    ) {
+        this.postRepository = postRepository;
+        this.transactionManager = transactionManager;
+        this.executor = executor;
+        this.parallel = parallel;
+        this.timeoutMs = timeoutMs;
+    }
+
+    public PostFeedPage load(Set<String> tags, String titleSubstring, int pageSize, long offset, Set<PostField> fields) {
+        if (parallel) {
+            return loadInParallel(tags, titleSubstring, pageSize, offset, fields);
+        }
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.setReadOnly(true);
+        return transaction.execute(status -> new PostFeedPage(
+                postRepository.findPosts(tags, titleSubstring, pageSize, offset, fields),
+                postRepository.countPosts(tags, titleSubstring)
+        ));
+    }
+
+    // Подсчёт параллельно с id страницы, затем строки постов (теги лежат в них же): время страницы ≈ самый медленный запрос
+    private PostFeedPage loadInParallel(
+            Set<String> tags,
+            String titleSubstring,
+            int pageSize,
+            long offset,
+            Set<PostField> fields
+    ) {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMs);
+
+        Future<Long> count = submit(deadline, () -> postRepository.countPosts(tags, titleSubstring));
+        Future<List<Long>> ids = submit(deadline, () -> postRepository.findPostIds(tags, titleSubstring, pageSize, offset));
+        List<Long> postIds = await(ids, deadline, count);
+
+        if (postIds.isEmpty()) {
+            return new PostFeedPage(Collections.emptyList(), await(count, deadline));
+        }
+
+        Future<List<Post>> rows = submit(deadline, () -> postRepository.findPostsByIds(postIds, fields));
+        List<Post> posts = await(rows, deadline, count);
+        return new PostFeedPage(posts, await(count, deadline));
+    }
+
+    // Каждая часть в своей read-only транзакции: таймаут транзакции ограничивает и сами SQL-запросы
+    private <T> Future<T> submit(long deadline, Supplier<T> query) {
+        long remainingMs = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.setReadOnly(true);
+        transaction.setTimeout((int) Math.max(1, Math.ceilDiv(remainingMs, 1000)));
+        return executor.submit(() -> transaction.execute(status -> query.get()));
+    }
+
+    // При ошибке или истечении срока отменяем остальные ещё выполняющиеся части
+    private <T> T await(Future<T> future, long deadline, Future<?>... others) {
+        try {
+            return future.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException ex) {
+            cancel(future, others);
+            throw new QueryTimeoutException("Feed queries did not complete within %d ms".formatted(timeoutMs));
+        } catch (ExecutionException ex) {
+            cancel(future, others);
+            if (ex.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new PostDbException("Failed to load posts: " + ex.getCause().getMessage());
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            cancel(future, others);
+            throw new PostDbException("Interrupted while loading posts.");
+        }
+    }
+
+    private void cancel(Future<?> failed, Future<?>... others) {
+        failed.cancel(true);
+        for (Future<?> other : others) {
+            other.cancel(true);
+        }
+        log.warn("Parallel feed loading aborted, {} pending queries cancelled", others.length);
+    }
+}
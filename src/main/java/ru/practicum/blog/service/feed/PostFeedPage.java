@@ -0,0 +1,14 @@
+package ru.practicum.blog.service.feed;
+
+import ru.practicum.blog.domain.model.Post;
+
+import java.util.List;
+
+public record PostFeedPage(
+        List<Post> posts,
+        long totalCount
+) {
+    public PostFeedPage {
+        posts = List.copyOf(posts);
+    }
+}
@@ -0,0 +1,35 @@
+package ru.practicum.blog.service.feed;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.StringJoiner;
+import java.util.regex.Pattern;
+
+// Строка поиска ленты: слова с # — теги, остальные через пробел — подстрока названия
+public record PostSearchQuery(
+        Set<String> tags,
+        String titleSubstring
+) {
+
+    private static final String TAG_PREFIX = "#";
+    private static final String TITLE_DELIMITER = " ";
+    // String.split компилирует регулярку на каждом вызове, если разделитель длиннее одного символа
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    public PostSearchQuery {
+        tags = Set.copyOf(tags);
+    }
+
+    public static PostSearchQuery parse(String search) {
+        Set<String> tags = new HashSet<>();
+        StringJoiner titleJoiner = new StringJoiner(TITLE_DELIMITER);
+        for (String word : WHITESPACE.split(search.trim())) {
+            if (word.startsWith(TAG_PREFIX) && word.length() > TAG_PREFIX.length()) {
+                tags.add(word.substring(TAG_PREFIX.length()).toLowerCase());
+            } else {
+                titleJoiner.add(word.toLowerCase());
+            }
+        }
+        return new PostSearchQuery(tags, titleJoiner.toString());
+    }
+}
@@ -12,6 +12,7 @@ import ru.practicum.blog.domain.model.Comment;
 import ru.practicum.blog.repository.CommentRepository;
 import ru.practicum.blog.repository.PostRepository;
 import ru.practicum.blog.service.CommentService;
+import ru.practicum.blog.service.logging.LogSampler;
 import ru.practicum.blog.web.dto.CommentRequestDto;
 import ru.practicum.blog.web.dto.CommentResponseDto;
 import ru.practicum.blog.web.mapper.CommentMapper;
@@ -23,6 +24,7 @@ import java.util.List;
 public class CommentServiceImpl implements CommentService {
 
     private static final Logger log = LogManager.getLogger(CommentServiceImpl.class);
+    private static final LogSampler READ_LOG_SAMPLER = LogSampler.withDefaultRate();
 
     private final CommentRepository commentRepository;
     private final PostRepository postRepository;
@@ -30,18 +32,25 @@ public class CommentServiceImpl implements CommentService {
     @Override
     @Transactional(readOnly = true)
     public List<CommentResponseDto> getComments(long postId) {
-        log.debug("Fetching comments for postId={}", postId);
+        boolean sampled = READ_LOG_SAMPLER.sampleDebug(log);
+        if (sampled) {
+            log.debug("Fetching comments for postId={}", postId);
+        }
         checkExistencePost(postId);
 
         List<Comment> comments = commentRepository.findCommentsByPostId(postId);
-        log.debug("Found {} comments for postId={}", comments.size(), postId);
+        if (sampled) {
+            log.debug("Found {} comments for postId={}", comments.size(), postId);
+        }
         return CommentMapper.toCommentDtoList(comments);
     }
 
     @Override
     @Transactional(readOnly = true)
     public CommentResponseDto getComment(long postId, long commentId) {
-        log.debug("Fetching comment with id={} for postId={}", commentId, postId);
+        if (READ_LOG_SAMPLER.sampleDebug(log)) {
+            log.debug("Fetching comment with id={} for postId={}", commentId, postId);
+        }
         checkExistencePost(postId);
 
         Comment comment = commentRepository.findCommentById(postId, commentId)
@@ -80,10 +89,13 @@ public class CommentServiceImpl implements CommentService {
         }
 
         log.info("Updating comment with id={} for postId={}", commentId, postId);
-        checkExistencePost(postId);
-        checkExistenceComment(postId, commentId);
-
-        Comment comment = commentRepository.updateComment(postId, commentId, commentRequestDto.text());
+        // Существование комментария и его версию проверяет сам UPDATE
+        Comment comment = commentRepository.updateComment(
+                postId,
+                commentId,
+                commentRequestDto.version(),
+                commentRequestDto.text()
+        );
 
         log.debug("Comment with id={} updated for postId={}", commentId, postId);
         return CommentMapper.toCommentDto(comment);
@@ -102,12 +114,4 @@ public class CommentServiceImpl implements CommentService {
             throw new PostNotFoundException("Post with id = %d was not found.".formatted(postId));
         }
     }
-
-    private void checkExistenceComment(long postId, long commentId) {
-        if (!commentRepository.existsById(postId, commentId)) {
-            throw new CommentNotFoundException("Comment with id = %d for post with id = %d was not found."
-                    .formatted(commentId, postId)
-            );
-        }
-    }
 }
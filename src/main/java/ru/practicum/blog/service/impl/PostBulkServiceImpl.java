@@ -0,0 +1,401 @@
+package ru.practicum.blog.service.impl;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.blog.domain.exception.PostBadRequestException;
+import ru.practicum.blog.domain.exception.PostDbException;
+import ru.practicum.blog.domain.model.ExportFormat;
+import ru.practicum.blog.domain.model.Post;
+import ru.practicum.blog.domain.model.PostExportRow;
+import ru.practicum.blog.domain.model.PostImportResult;
+import ru.practicum.blog.domain.model.Tag;
+import ru.practicum.blog.repository.PostBulkRepository;
+import ru.practicum.blog.service.PostBulkService;
+import ru.practicum.blog.web.dto.PostImportResponseDto;
+import ru.practicum.blog.web.dto.PostRequestDto;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.function.Consumer;
+import java.util.zip.GZIPOutputStream;
+
+@Service
+public class PostBulkServiceImpl implements PostBulkService {
+
+    // Ограничения колонок post.title и tag.name
+    private static final int MAX_TITLE_LENGTH = 256;
+    private static final int MAX_TAG_LENGTH = 256;
+
+    private static final int READ_BUFFER_SIZE = 8 * 1024;
+    private static final int EXPORT_BUFFER_SIZE = 64 * 1024;
+    private static final String CSV_HEADER = "id,title,text,likes_count,comments_count,created_at,tags,comments";
+
+    private static final Logger log = LogManager.getLogger(PostBulkServiceImpl.class);
+
+    private final PostBulkRepository postBulkRepository;
+    private final ObjectMapper objectMapper;
+    private final ObjectReader postReader;
+    private final TransactionTemplate transactionTemplate;
+    private final int chunkSize;
+    private final int maxLineLength;
+    private final int fetchSize;
+
+    public PostBulkServiceImpl(
+            PostBulkRepository postBulkRepository,
+            ObjectMapper objectMapper,
+            PlatformTransactionManager transactionManager,
+            @Value("${blog.posts.import.chunk-size:50000}") int chunkSize,
+            @Value("${blog.posts.import.max-line-length:1048576}") int maxLineLength,
+            @Value("${blog.posts.export.fetch-size:1000}") int fetchSize
+    ) {
+        this.postBulkRepository = postBulkRepository;
+        this.objectMapper = objectMapper;
+        this.postReader = objectMapper.readerFor(PostRequestDto.class);
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.chunkSize = chunkSize;
+        this.maxLineLength = maxLineLength;
+        this.fetchSize = fetchSize;
+    }
+
+    @Override
+    public PostImportResponseDto importPosts(InputStream ndjson) {
+        log.info("Starting bulk import of posts");
+        long startedAt = System.nanoTime();
+        NdjsonPostIterator posts = new NdjsonPostIterator(new InputStreamReader(ndjson, StandardCharsets.UTF_8));
+
+        long imported = 0;
+        long linkedTags = 0;
+        // Каждая порция — отдельная транзакция: данные не копятся ни в памяти, ни в одной огромной транзакции
+        while (posts.hasNext()) {
+            PostImportResult chunk;
+            try {
+                chunk = transactionTemplate.execute(status -> postBulkRepository.importPosts(posts, chunkSize));
+            } catch (UncheckedIOException ex) {
+                throw new PostBadRequestException("Failed to read import data after %d imported posts: %s"
+                        .formatted(imported, ex.getMessage()));
+            } catch (RuntimeException ex) {
+                log.error("Bulk import failed after {} imported posts", imported, ex);
+                throw new PostDbException("Import failed after %d imported posts: %s".formatted(imported, ex.getMessage()));
+            }
+            if (chunk != null) {
+                imported += chunk.getImportedPosts();
+                linkedTags += chunk.getLinkedTags();
+            }
+            log.info("Bulk import progress: {} posts imported, {} lines rejected", imported, posts.getRejected());
+        }
+
+        long durationMs = (System.nanoTime() - startedAt) / 1_000_000;
+        log.info("Bulk import finished: received={}, imported={}, rejected={}, linkedTags={}, durationMs={}",
+                posts.getReceived(), imported, posts.getRejected(), linkedTags, durationMs);
+        return new PostImportResponseDto(posts.getReceived(), imported, posts.getRejected(), linkedTags, durationMs);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void exportPosts(ExportFormat format, OutputStream output) {
+        log.info("Starting export of posts as {}", format);
+        long startedAt = System.nanoTime();
+        long[] exported = {0};
+
+        // Сжимаем на лету: в памяти держатся только буферы, а не весь набор данных
+        ExportGzipOutputStream gzip = null;
+        try {
+            gzip = new ExportGzipOutputStream(output);
+            Writer writer = new OutputStreamWriter(gzip, StandardCharsets.UTF_8);
+            Consumer<PostExportRow> rowWriter = switch (format) {
+                case NDJSON -> ndjsonRowWriter(writer);
+                case CSV -> csvRowWriter(writer);
+            };
+            postBulkRepository.exportPosts(fetchSize, row -> {
+                rowWriter.accept(row);
+                exported[0]++;
+            });
+            // Хвост gzip (CRC и длина) пишется только после последней строки: при ошибке поток не завершается,
+            // и клиент распознаёт оборванную выгрузку, а не получает усечённый, но корректный архив
+            writer.close();
+        } catch (IOException | UncheckedIOException ex) {
+            log.warn("Export of posts aborted after {} posts: {}", exported[0], ex.getMessage());
+            throw new PostDbException("Export aborted after %d posts: %s".formatted(exported[0], ex.getMessage()));
+        } finally {
+            // При любом сбое (в том числе DataAccessException из курсора) поток не закрывается,
+            // но нативную память zlib отдаём сразу, а не когда до Deflater доберётся сборщик мусора
+            if (gzip != null) {
+                gzip.releaseDeflater();
+            }
+        }
+
+        log.info("Export of posts finished: format={}, exported={}, durationMs={}",
+                format, exported[0], (System.nanoTime() - startedAt) / 1_000_000);
+    }
+
+    private Consumer<PostExportRow> ndjsonRowWriter(Writer writer) throws IOException {
+        JsonGenerator generator = objectMapper.getFactory().createGenerator(writer);
+        // Генератор пишет в общий буфер: не закрываем и не сбрасываем поток после каждой строки
+        generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        generator.disable(JsonGenerator.Feature.FLUSH_PASSED_TO_STREAM);
+        generator.setRootValueSeparator(null);
+        return row -> {
+            try {
+                generator.writeStartObject();
+                generator.writeNumberField("id", row.getId());
+                generator.writeStringField("title", row.getTitle());
+                generator.writeStringField("text", row.getText());
+                generator.writeNumberField("likesCount", row.getLikesCount());
+                generator.writeNumberField("commentsCount", row.getCommentsCount());
+                generator.writeStringField("createdAt", row.getCreatedAt().toString());
+                generator.writeArrayFieldStart("tags");
+                for (String tag : row.getTags()) {
+                    generator.writeString(tag);
+                }
+                generator.writeEndArray();
+                generator.writeFieldName("comments");
+                generator.writeRawValue(row.getCommentsJson());
+                generator.writeEndObject();
+                generator.writeRaw('\n');
+                generator.flush();
+            } catch (IOException ex) {
+                throw new UncheckedIOException(ex);
+            }
+        };
+    }
+
+    private Consumer<PostExportRow> csvRowWriter(Writer writer) throws IOException {
+        writer.write(CSV_HEADER);
+        writer.write("\r\n");
+        return row -> {
+            try {
+                writer.write(String.valueOf(row.getId()));
+                writer.write(',');
+                writer.write(csvField(row.getTitle()));
+                writer.write(',');
+                writer.write(csvField(row.getText()));
+                writer.write(',');
+                writer.write(String.valueOf(row.getLikesCount()));
+                writer.write(',');
+                writer.write(String.valueOf(row.getCommentsCount()));
+                writer.write(',');
+                writer.write(row.getCreatedAt().toString());
+                writer.write(',');
+                writer.write(csvField(objectMapper.writeValueAsString(row.getTags())));
+                writer.write(',');
+                writer.write(csvField(row.getCommentsJson()));
+                writer.write("\r\n");
+            } catch (IOException ex) {
+                throw new UncheckedIOException(ex);
+            }
+        };
+    }
+
+    // Экранирование по RFC 4180: поле в кавычках, если содержит разделитель, кавычку или перевод строки
+    private static String csvField(String value) {
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+
+    // Закрытие пишет хвост gzip, поэтому при сбое вместо close() вызывается releaseDeflater()
+    private static final class ExportGzipOutputStream extends GZIPOutputStream {
+
+        private ExportGzipOutputStream(OutputStream output) throws IOException {
+            super(output, EXPORT_BUFFER_SIZE);
+        }
+
+        // Повторный end() после close() ничего не делает
+        private void releaseDeflater() {
+            def.end();
+        }
+    }
+
+    // Читает NDJSON построчно и отдаёт только корректные посты, некорректные строки пропускает и считает.
+    // Строка длиннее maxLineLength в память не копится: её остаток пропускается до перевода строки
+    private final class NdjsonPostIterator implements Iterator<Post> {
+
+        private final Reader reader;
+        private final char[] buffer = new char[READ_BUFFER_SIZE];
+        private final StringBuilder line = new StringBuilder();
+        private int position;
+        private int limit;
+        private boolean lineTooLong;
+        private Post next;
+        private long lineNumber;
+        private long received;
+        private long rejected;
+
+        private NdjsonPostIterator(Reader reader) {
+            this.reader = reader;
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (next == null) {
+                next = readNextValid();
+            }
+            return next != null;
+        }
+
+        @Override
+        public Post next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            Post post = next;
+            next = null;
+            return post;
+        }
+
+        long getReceived() {
+            return received;
+        }
+
+        long getRejected() {
+            return rejected;
+        }
+
+        private Post readNextValid() {
+            try {
+                String line;
+                while ((line = readLine()) != null) {
+                    lineNumber++;
+                    if (lineTooLong) {
+                        log.debug("Import line {} rejected: longer than {} characters", lineNumber, maxLineLength);
+                        received++;
+                        rejected++;
+                        continue;
+                    }
+                    if (line.isBlank()) {
+                        continue;
+                    }
+                    received++;
+                    Post post = toPost(line);
+                    if (post != null) {
+                        return post;
+                    }
+                    rejected++;
+                }
+                return null;
+            } catch (IOException ex) {
+                throw new UncheckedIOException(ex);
+            }
+        }
+
+        // Строка без завершающего \n (и \r перед ним); null — конец ввода
+        private String readLine() throws IOException {
+            line.setLength(0);
+            lineTooLong = false;
+            boolean read = false;
+            while (true) {
+                if (position == limit && !fill()) {
+                    return read ? endLine() : null;
+                }
+                read = true;
+                int start = position;
+                while (position < limit && buffer[position] != '\n') {
+                    position++;
+                }
+                append(start, position);
+                if (position < limit) {
+                    position++;
+                    return endLine();
+                }
+            }
+        }
+
+        private boolean fill() throws IOException {
+            int count = reader.read(buffer);
+            position = 0;
+            limit = Math.max(count, 0);
+            return count > 0;
+        }
+
+        private void append(int start, int end) {
+            if (lineTooLong) {
+                return;
+            }
+            if (line.length() + end - start > maxLineLength + 1) {
+                lineTooLong = true;
+                line.setLength(0);
+                return;
+            }
+            line.append(buffer, start, end - start);
+        }
+
+        private String endLine() {
+            int length = line.length();
+            if (length > 0 && line.charAt(length - 1) == '\r') {
+                line.setLength(--length);
+            }
+            if (length > maxLineLength) {
+                lineTooLong = true;
+            }
+            return line.toString();
+        }
+
+        private Post toPost(String line) {
+            PostRequestDto dto;
+            try {
+                dto = postReader.readValue(line);
+            } catch (JsonProcessingException ex) {
+                log.debug("Import line {} rejected: malformed JSON", lineNumber);
+                return null;
+            }
+            // Литерал null — корректный JSON, но не пост
+            if (dto == null) {
+                log.debug("Import line {} rejected: not a JSON object", lineNumber);
+                return null;
+            }
+
+            if (!isValidText(dto.title(), MAX_TITLE_LENGTH) || !isValidText(dto.text(), Integer.MAX_VALUE)) {
+                log.debug("Import line {} rejected: title or text is blank or too long", lineNumber);
+                return null;
+            }
+
+            List<String> tagNames = dto.tags() == null ? Collections.emptyList() : dto.tags();
+            if (!tagNames.stream().allMatch(tag -> isValidText(tag, MAX_TAG_LENGTH))) {
+                log.debug("Import line {} rejected: invalid tag", lineNumber);
+                return null;
+            }
+
+            List<Tag> tags = tagNames.stream()
+                    .map(String::trim)
+                    .map(String::toLowerCase)
+                    .distinct()
+                    .map(name -> Tag.builder().name(name).build())
+                    .toList();
+
+            return Post.builder()
+                    .title(dto.title())
+                    .text(dto.text())
+                    .tags(tags)
+                    .build();
+        }
+
+        // PostgreSQL не хранит символ \0 в текстовых полях, такая строка сорвала бы весь COPY
+        private boolean isValidText(String value, int maxLength) {
+            return value != null
+                    && !value.isBlank()
+                    && value.length() <= maxLength
+                    && value.indexOf('\0') < 0;
+        }
+    }
+}
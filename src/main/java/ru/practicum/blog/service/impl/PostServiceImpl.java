@@ -1,67 +1,86 @@
 package ru.practicum.blog.service.impl;
 
-import lombok.RequiredArgsConstructor;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.DigestUtils;
 import org.springframework.web.multipart.MultipartFile;
 import ru.practicum.blog.domain.exception.PostBadRequestException;
 import ru.practicum.blog.domain.exception.PostImageException;
 import ru.practicum.blog.domain.exception.PostNotFoundException;
 import ru.practicum.blog.domain.model.Post;
+import ru.practicum.blog.domain.model.PostField;
+import ru.practicum.blog.domain.model.PostInclude;
 import ru.practicum.blog.repository.PostRepository;
 import ru.practicum.blog.service.PostService;
+import ru.practicum.blog.service.batch.PostsBatch;
+import ru.practicum.blog.service.feed.PostFeedLoader;
+import ru.practicum.blog.service.feed.PostFeedPage;
+import ru.practicum.blog.service.feed.PostSearchQuery;
+import ru.practicum.blog.service.logging.LogSampler;
 import ru.practicum.blog.web.dto.PostRequestDto;
 import ru.practicum.blog.web.dto.PostResponseDto;
 import ru.practicum.blog.web.dto.PostsResponseDto;
 import ru.practicum.blog.web.mapper.PostMapper;
 
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.util.Collections;
 import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 import java.util.Set;
-import java.util.StringJoiner;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
-@RequiredArgsConstructor
 public class PostServiceImpl implements PostService {
 
-    private static final String TAG_PREFIX = "#";
-    private static final String TITLE_DELIMITER = " ";
-
     private static final Logger log = LogManager.getLogger(PostServiceImpl.class);
+    // Чтение постов — самый частый запрос, в debug попадает только выборка
+    private static final LogSampler READ_LOG_SAMPLER = LogSampler.withDefaultRate();
 
     private final PostRepository postRepository;
+    private final PostFeedLoader postFeedLoader;
+    private final int batchMaxSize;
+    private final int includedCommentsLimit;
+
+    public PostServiceImpl(
+            PostRepository postRepository,
+            PostFeedLoader postFeedLoader,
+            @Value("${blog.posts.batch.max-size:100}") int batchMaxSize,
+            @Value("${blog.posts.include.comments-limit:20}") int includedCommentsLimit
+    ) {
+        this.postRepository = postRepository;
+        this.postFeedLoader = postFeedLoader;
+        this.batchMaxSize = batchMaxSize;
+        this.includedCommentsLimit = includedCommentsLimit;
+    }
 
+    // Транзакциями управляет PostFeedLoader: в параллельном режиме внешняя транзакция держала бы лишнее соединение
     @Override
-    @Transactional(readOnly = true)
-    public PostsResponseDto getPosts(String search, int pageNumber, int pageSize) {
-        log.debug("Searching posts with query='{}', pageNumber={}, pageSize={}", search, pageNumber, pageSize);
-        List<String> wordsForSearch = List.of(search.trim().split("\\s+"));
-
-        Set<String> tags = new HashSet<>();
-
-        StringJoiner titleJoiner = new StringJoiner(TITLE_DELIMITER);
-        for (String word : wordsForSearch) {
-            if (word.startsWith(TAG_PREFIX) && word.length() > TAG_PREFIX.length()) {
-                tags.add(word.substring(TAG_PREFIX.length()).toLowerCase());
-            } else {
-                titleJoiner.add(word.toLowerCase());
-            }
+    public PostsResponseDto getPosts(String search, int pageNumber, int pageSize, Set<PostField> fields) {
+        boolean sampled = READ_LOG_SAMPLER.sampleDebug(log);
+        if (sampled) {
+            log.debug("Searching posts with query='{}', pageNumber={}, pageSize={}", search, pageNumber, pageSize);
         }
-        String titleSubstring = titleJoiner.toString();
+        PostSearchQuery query = PostSearchQuery.parse(search);
         long offset = (long) (pageNumber - 1) * pageSize;
 
-        List<Post> posts = postRepository.findPosts(
-                tags,
-                titleSubstring,
+        PostFeedPage page = postFeedLoader.load(
+                query.tags(),
+                query.titleSubstring(),
                 pageSize,
-                offset
+                offset,
+                fields
         );
+        List<Post> posts = page.posts();
 
-        long countPosts = postRepository.countPosts(tags, titleSubstring);
+        long countPosts = page.totalCount();
         int lastPage;
         if (countPosts == 0) {
             lastPage = 1;
@@ -76,22 +95,66 @@ public class PostServiceImpl implements PostService {
         }
 
         if (posts.isEmpty()) {
-            log.debug("No posts found for query='{}'", search);
+            if (sampled) {
+                log.debug("No posts found for query='{}'", search);
+            }
             return new PostsResponseDto(Collections.emptyList(), hasPrev, hasNext, lastPage);
         }
 
-        log.debug("Found {} posts for query='{}'", posts.size(), search);
-        return PostMapper.toPostsResponseDto(posts, hasPrev, hasNext, lastPage);
+        if (sampled) {
+            log.debug("Found {} posts for query='{}'", posts.size(), search);
+        }
+        return PostMapper.toPostsResponseDto(posts, hasPrev, hasNext, lastPage, fields);
     }
 
+    // С include=comments пост и первая страница комментариев читаются одним запросом, то есть из одного снимка:
+    // comments согласованы с commentsCount. Найденный пост заменяет проверку существования
     @Override
     @Transactional(readOnly = true)
-    public PostResponseDto getPost(long id) {
-        log.debug("Fetching post with id={}", id);
-        Post post = postRepository.findPostById(id)
-                .orElseThrow(() -> new PostNotFoundException("Post with id = %d was not found.".formatted(id)));
+    public PostResponseDto getPost(long id, Set<PostField> fields, Set<PostInclude> includes) {
+        if (READ_LOG_SAMPLER.sampleDebug(log)) {
+            log.debug("Fetching post with id={}, fields={}, includes={}", id, fields, includes);
+        }
+        Optional<Post> found = includes.contains(PostInclude.COMMENTS)
+                ? postRepository.findPostWithComments(id, fields, includedCommentsLimit)
+                : postRepository.findPostById(id, fields);
+        Post post = found.orElseThrow(() -> new PostNotFoundException("Post with id = %d was not found.".formatted(id)));
 
-        return PostMapper.toPostResponseDto(post, post.getText());
+        return PostMapper.toPostResponseDto(post, post.getText(), fields, post.getComments());
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public PostsBatch getPostsBatch(List<Long> ids, Set<PostField> fields) {
+        if (ids.isEmpty()) {
+            throw new PostBadRequestException("At least one post id must be requested.");
+        }
+        if (ids.size() > batchMaxSize) {
+            throw new PostBadRequestException("Batch size must not exceed %d posts.".formatted(batchMaxSize));
+        }
+        // Пустой элемент списка (ids=1,,2) приходит как null
+        for (Long id : ids) {
+            if (id == null || id <= 0) {
+                throw new PostBadRequestException("Post ids must be positive numbers, got %s.".formatted(id));
+            }
+        }
+        boolean sampled = READ_LOG_SAMPLER.sampleDebug(log);
+        if (sampled) {
+            log.debug("Fetching batch of {} posts, fields={}", ids.size(), fields);
+        }
+
+        // Повторяющиеся id читаем один раз, но в ответе каждый остаётся на своей позиции
+        List<Long> distinctIds = List.copyOf(new LinkedHashSet<>(ids));
+        Map<Long, Post> postsById = postRepository.findPostsByIds(distinctIds, fields).stream()
+                .collect(Collectors.toMap(Post::getId, Function.identity()));
+        if (sampled) {
+            log.debug("Found {} of {} requested posts", postsById.size(), distinctIds.size());
+        }
+
+        return new PostsBatch(
+                PostMapper.toPostsBatchResponseDto(ids, postsById, fields),
+                toBatchEtag(ids, postsById)
+        );
     }
 
     @Override
@@ -115,11 +178,12 @@ public class PostServiceImpl implements PostService {
         }
 
         log.info("Updating post with id={}", id);
-        checkExistencePost(id);
         List<String> updatedTagNames = getNormalizedTags(postRequestDto.tags());
 
+        // Существование поста и его версию проверяет сам UPDATE
         Post post = postRepository.updatePost(
                 id,
+                postRequestDto.version(),
                 postRequestDto.title(),
                 postRequestDto.text(),
                 updatedTagNames
@@ -183,6 +247,16 @@ public class PostServiceImpl implements PostService {
                 .toList();
     }
 
+    // Любое видимое изменение поста поднимает version, поэтому тегу достаточно id и версий в порядке запроса
+    private String toBatchEtag(List<Long> ids, Map<Long, Post> postsById) {
+        StringBuilder state = new StringBuilder();
+        for (Long id : ids) {
+            Post post = postsById.get(id);
+            state.append(id).append(':').append(post == null ? "-" : post.getVersion()).append(';');
+        }
+        return "W/\"" + DigestUtils.md5DigestAsHex(state.toString().getBytes(StandardCharsets.UTF_8)) + "\"";
+    }
+
     private void checkExistencePost(long postId) {
         if (!postRepository.existsById(postId)) {
             throw new PostNotFoundException("Post with id = %d was not found.".formatted(postId));
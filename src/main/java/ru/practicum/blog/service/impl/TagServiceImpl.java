@@ -0,0 +1,49 @@
+package ru.practicum.blog.service.impl;
+
+import lombok.RequiredArgsConstructor;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.blog.domain.model.Tag;
+import ru.practicum.blog.repository.TagRepository;
+import ru.practicum.blog.service.TagService;
+import ru.practicum.blog.service.index.TagSuggestionIndex;
+import ru.practicum.blog.web.dto.TagResponseDto;
+import ru.practicum.blog.web.mapper.TagMapper;
+
+import java.util.Collections;
+import java.util.List;
+
+@Service
+@RequiredArgsConstructor
+public class TagServiceImpl implements TagService {
+
+    private static final String TAG_PREFIX = "#";
+
+    private static final Logger log = LogManager.getLogger(TagServiceImpl.class);
+
+    private final TagRepository tagRepository;
+    private final TagSuggestionIndex tagSuggestionIndex;
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<TagResponseDto> getPopularTags(int limit) {
+        log.debug("Fetching {} most popular tags", limit);
+        List<Tag> tags = tagRepository.findPopularTags(limit);
+        return TagMapper.toTagDtoList(tags);
+    }
+
+    @Override
+    public List<TagResponseDto> suggestTags(String prefix, int limit) {
+        // Префикс может прийти прямо из строки поиска вместе с "#", как в PostServiceImpl.getPosts
+        String normalizedPrefix = prefix.trim().toLowerCase();
+        if (normalizedPrefix.startsWith(TAG_PREFIX)) {
+            normalizedPrefix = normalizedPrefix.substring(TAG_PREFIX.length());
+        }
+        if (normalizedPrefix.isEmpty()) {
+            return Collections.emptyList();
+        }
+        return TagMapper.toTagDtoList(tagSuggestionIndex.suggest(normalizedPrefix, limit));
+    }
+}
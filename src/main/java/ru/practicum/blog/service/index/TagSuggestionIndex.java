@@ -0,0 +1,170 @@
+package ru.practicum.blog.service.index;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import ru.practicum.blog.domain.event.TagsChangedEvent;
+import ru.practicum.blog.domain.model.Tag;
+import ru.practicum.blog.repository.TagRepository;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+// Индекс имён используемых тегов в памяти для автодополнения по префиксу без обращения к БД.
+// Имена хранятся в отсортированной карте: диапазон по префиксу находится за O(log n),
+// внутри диапазона отбираются limit самых используемых тегов.
+// События после коммита могут прийти не по порядку, поэтому у каждого тега хранится версия его счётчика
+// (id, затем usage_version) и более старое значение не затирает новое; обнулённые теги остаются в карте
+// с нулевым счётчиком, пока их не удалит очистка, чтобы запоздавшее событие не вернуло их в подсказки
+@Component
+public class TagSuggestionIndex {
+
+    private static final Logger log = LogManager.getLogger(TagSuggestionIndex.class);
+
+    // Сначала более популярные, при равенстве — по алфавиту
+    private static final Comparator<Map.Entry<String, Integer>> RANKING =
+            Map.Entry.<String, Integer>comparingByValue().reversed()
+                    .thenComparing(Map.Entry.comparingByKey());
+
+    private final TagRepository tagRepository;
+
+    // Защищает смену карты и список событий, пришедших во время перезагрузки
+    private final Object swapLock = new Object();
+
+    private volatile ConcurrentSkipListMap<String, TagUsage> usageByName;
+    private List<TagsChangedEvent> pendingEvents;
+
+    public TagSuggestionIndex(TagRepository tagRepository) {
+        this.tagRepository = tagRepository;
+    }
+
+    public List<Tag> suggest(String prefix, int limit) {
+        NavigableMap<String, TagUsage> range = prefixRange(loadedIndex(), prefix);
+        if (range.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        // Куча на limit элементов: в вершине худший из отобранных тегов
+        PriorityQueue<Map.Entry<String, Integer>> best = new PriorityQueue<>(limit + 1, RANKING.reversed());
+        for (Map.Entry<String, TagUsage> entry : range.entrySet()) {
+            int usageCount = entry.getValue().usageCount();
+            if (usageCount == 0) {
+                continue;
+            }
+            best.offer(Map.entry(entry.getKey(), usageCount));
+            if (best.size() > limit) {
+                best.poll();
+            }
+        }
+
+        List<Map.Entry<String, Integer>> ranked = new ArrayList<>(best);
+        ranked.sort(RANKING);
+        return ranked.stream()
+                .map(entry -> Tag.builder().name(entry.getKey()).usageCount(entry.getValue()).build())
+                .toList();
+    }
+
+    // Полная перезагрузка лечит расхождения, например изменения, сделанные другими экземплярами приложения.
+    // События, пришедшие пока читается БД, копятся и применяются к новой карте: версии отсеют уже учтённые
+    @Scheduled(
+            initialDelayString = "${blog.tags.suggest.reload-ms:600000}",
+            fixedDelayString = "${blog.tags.suggest.reload-ms:600000}"
+    )
+    public synchronized void reload() {
+        synchronized (swapLock) {
+            pendingEvents = new ArrayList<>();
+        }
+        ConcurrentSkipListMap<String, TagUsage> index = new ConcurrentSkipListMap<>();
+        try {
+            for (Tag tag : tagRepository.findAllTags()) {
+                index.put(tag.getName(), TagUsage.of(tag));
+            }
+        } catch (RuntimeException ex) {
+            synchronized (swapLock) {
+                pendingEvents = null;
+            }
+            throw ex;
+        }
+        synchronized (swapLock) {
+            pendingEvents.forEach(event -> apply(index, event));
+            pendingEvents = null;
+            usageByName = index;
+        }
+        log.debug("Tag suggestion index loaded with {} tags", index.size());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTagsChanged(TagsChangedEvent event) {
+        ConcurrentSkipListMap<String, TagUsage> index;
+        synchronized (swapLock) {
+            if (pendingEvents != null) {
+                pendingEvents.add(event);
+            }
+            index = usageByName;
+        }
+        // Индекс ещё не загружен: при загрузке изменения будут прочитаны из БД
+        if (index != null) {
+            apply(index, event);
+        }
+    }
+
+    private static void apply(ConcurrentSkipListMap<String, TagUsage> index, TagsChangedEvent event) {
+        for (Tag tag : event.updatedTags()) {
+            index.merge(tag.getName(), TagUsage.of(tag), (current, update) -> update.isNewerThan(current) ? update : current);
+        }
+        // Удаляются только обнулённые теги: запоздавшее удаление не должно стереть тег, созданный заново
+        for (String name : event.removedTagNames()) {
+            index.computeIfPresent(name, (key, usage) -> usage.usageCount() == 0 ? null : usage);
+        }
+    }
+
+    private ConcurrentSkipListMap<String, TagUsage> loadedIndex() {
+        ConcurrentSkipListMap<String, TagUsage> index = usageByName;
+        if (index == null) {
+            synchronized (this) {
+                if (usageByName == null) {
+                    reload();
+                }
+                index = usageByName;
+            }
+        }
+        return index;
+    }
+
+    private static NavigableMap<String, TagUsage> prefixRange(NavigableMap<String, TagUsage> index, String prefix) {
+        if (prefix.isEmpty()) {
+            return index;
+        }
+        // Все строки с данным префиксом лежат в полуинтервале [prefix, prefix с увеличенным последним символом)
+        int last = prefix.length() - 1;
+        if (prefix.charAt(last) == Character.MAX_VALUE) {
+            return index.tailMap(prefix, true);
+        }
+        String upperBound = prefix.substring(0, last) + (char) (prefix.charAt(last) + 1);
+        return index.subMap(prefix, true, upperBound, false);
+    }
+
+    // Тег, удалённый и созданный заново, получает больший id, поэтому сравниваем сначала id, затем версию
+    private record TagUsage(long id, int usageCount, long version) {
+
+        static TagUsage of(Tag tag) {
+            return new TagUsage(
+                    tag.getId() == null ? 0 : tag.getId(),
+                    tag.getUsageCount(),
+                    tag.getUsageVersion() == null ? 0 : tag.getUsageVersion()
+            );
+        }
+
+        boolean isNewerThan(TagUsage other) {
+            return id != other.id ? id > other.id : version > other.version;
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package ru.practicum.blog.service.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+// Выключено по умолчанию: включается профилем из resources/jfr или настройками записи
+@Name(ServiceCallEvent.NAME)
+@Label("Service Call")
+@Category({"Blog", "Service"})
+@Description("Call of a PostService or CommentService method")
+@Enabled(false)
+@StackTrace(false)
+public class ServiceCallEvent extends Event {
+
+    public static final String NAME = "ru.practicum.blog.ServiceCall";
+
+    @Label("Operation")
+    String operation;
+
+    @Label("Post Id")
+    @Description("Post the call is about, -1 when the method has no single post")
+    long postId;
+
+    @Label("Rows")
+    @Description("Number of items in the result")
+    long rows;
+
+    @Label("Failed")
+    boolean failed;
+}
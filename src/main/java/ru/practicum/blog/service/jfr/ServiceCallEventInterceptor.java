@@ -0,0 +1,63 @@
+package ru.practicum.blog.service.jfr;
+
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import ru.practicum.blog.service.batch.PostsBatch;
+import ru.practicum.blog.web.dto.PostsResponseDto;
+
+import java.lang.reflect.Method;
+import java.util.Collection;
+
+class ServiceCallEventInterceptor implements MethodInterceptor {
+
+    private static final long NO_POST = -1;
+    // Общий экземпляр только для проверки isEnabled(): пока событие выключено, на вызов его не создаём
+    private static final ServiceCallEvent EVENT_PROBE = new ServiceCallEvent();
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        // Пока событие не включено в записи, вызов идёт напрямую
+        if (!EVENT_PROBE.isEnabled()) {
+            return invocation.proceed();
+        }
+
+        ServiceCallEvent event = new ServiceCallEvent();
+        event.begin();
+        Object result = null;
+        boolean failed = true;
+        try {
+            result = invocation.proceed();
+            failed = false;
+            return result;
+        } finally {
+            event.end();
+            if (event.shouldCommit()) {
+                Method method = invocation.getMethod();
+                event.operation = method.getDeclaringClass().getSimpleName() + "." + method.getName();
+                event.postId = postId(method, invocation.getArguments());
+                event.rows = failed ? 0 : rows(result);
+                event.failed = failed;
+                event.commit();
+            }
+        }
+    }
+
+    // В PostService и CommentService id поста, если он есть, — первый параметр типа long
+    private static long postId(Method method, Object[] arguments) {
+        Class<?>[] parameterTypes = method.getParameterTypes();
+        if (parameterTypes.length > 0 && parameterTypes[0] == long.class) {
+            return (Long) arguments[0];
+        }
+        return NO_POST;
+    }
+
+    private static long rows(Object result) {
+        return switch (result) {
+            case null -> 0;
+            case Collection<?> collection -> collection.size();
+            case PostsResponseDto page -> page.posts().size();
+            case PostsBatch batch -> batch.response().posts().size();
+            default -> 1;
+        };
+    }
+}
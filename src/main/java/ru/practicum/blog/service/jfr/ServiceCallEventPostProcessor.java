@@ -0,0 +1,26 @@
+package ru.practicum.blog.service.jfr;
+
+import org.springframework.aop.ClassFilter;
+import org.springframework.aop.framework.autoproxy.AbstractBeanFactoryAwareAdvisingPostProcessor;
+import org.springframework.aop.support.ClassFilters;
+import org.springframework.aop.support.ComposablePointcut;
+import org.springframework.aop.support.DefaultPointcutAdvisor;
+import org.springframework.aop.support.RootClassFilter;
+import org.springframework.stereotype.Component;
+import ru.practicum.blog.service.CommentService;
+import ru.practicum.blog.service.PostService;
+
+// Добавляет ServiceCallEventInterceptor к бинам PostService и CommentService. Перехватчик ставится перед
+// транзакционным, так что длительность события включает и открытие транзакции, и коммит
+@Component
+public class ServiceCallEventPostProcessor extends AbstractBeanFactoryAwareAdvisingPostProcessor {
+
+    public ServiceCallEventPostProcessor() {
+        ClassFilter services = ClassFilters.union(
+                new RootClassFilter(PostService.class),
+                new RootClassFilter(CommentService.class)
+        );
+        this.advisor = new DefaultPointcutAdvisor(new ComposablePointcut(services), new ServiceCallEventInterceptor());
+        setBeforeExistingAdvisors(true);
+    }
+}
@@ -0,0 +1,52 @@
+package ru.practicum.blog.service.job;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import ru.practicum.blog.repository.jdbc.JdbcStatementMetrics;
+import ru.practicum.blog.repository.jdbc.JdbcStatementMetrics.StatementStats;
+
+import java.util.List;
+
+@Component
+public class JdbcStatementReportJob {
+
+    private static final Logger log = LogManager.getLogger(JdbcStatementReportJob.class);
+
+    private final JdbcStatementMetrics statementMetrics;
+    private final int top;
+
+    public JdbcStatementReportJob(
+            JdbcStatementMetrics statementMetrics,
+            @Value("${blog.db.statements.report-top:10}") int top
+    ) {
+        this.statementMetrics = statementMetrics;
+        this.top = top;
+    }
+
+    @Scheduled(
+            initialDelayString = "${blog.db.statements.report-interval-ms:300000}",
+            fixedDelayString = "${blog.db.statements.report-interval-ms:300000}"
+    )
+    // Сводка в лог: запросы, на которые ушло больше всего времени БД с момента старта
+    public void report() {
+        List<StatementStats> stats = statementMetrics.snapshot();
+        if (stats.isEmpty()) {
+            return;
+        }
+        StringBuilder summary = new StringBuilder();
+        stats.stream().limit(top).forEach(stat -> summary.append(System.lineSeparator()).append(
+                "  %s: calls=%d total=%.1fms p50=%.2fms p99=%.2fms max=%.2fms rows/call=%.1f".formatted(
+                        stat.statement(),
+                        stat.calls(),
+                        stat.totalMs(),
+                        stat.p50Ms(),
+                        stat.p99Ms(),
+                        stat.maxMs(),
+                        stat.meanRows()
+                )));
+        log.info("Top {} of {} SQL statements by total time:{}", Math.min(top, stats.size()), stats.size(), summary);
+    }
+}
@@ -0,0 +1,75 @@
+package ru.practicum.blog.service.job;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import ru.practicum.blog.repository.PostRepository;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Component
+public class PostTagsConsistencyJob {
+
+    private static final Logger log = LogManager.getLogger(PostTagsConsistencyJob.class);
+    private static final int LOGGED_IDS_LIMIT = 20;
+
+    private final PostRepository postRepository;
+    private final int batchSize;
+    private final boolean repair;
+    private final Counter inconsistentPosts;
+    private final Counter repairedPosts;
+
+    public PostTagsConsistencyJob(
+            PostRepository postRepository,
+            MeterRegistry meterRegistry,
+            @Value("${blog.posts.tags-check.batch-size:1000}") int batchSize,
+            @Value("${blog.posts.tags-check.repair:false}") boolean repair
+    ) {
+        this.postRepository = postRepository;
+        this.batchSize = batchSize;
+        this.repair = repair;
+        this.inconsistentPosts = Counter.builder("blog.posts.tags.inconsistent")
+                .description("Posts whose tags column disagrees with post_tag")
+                .register(meterRegistry);
+        this.repairedPosts = Counter.builder("blog.posts.tags.repaired")
+                .description("Posts whose tags column was rebuilt from post_tag")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(
+            initialDelayString = "${blog.posts.tags-check.delay-ms:3600000}",
+            fixedDelayString = "${blog.posts.tags-check.delay-ms:3600000}"
+    )
+    // Проходим посты диапазонами id: каждый диапазон — отдельный короткий запрос, без долгой транзакции на всю таблицу
+    public void checkPostTags() {
+        long maxId = postRepository.findMaxPostId();
+        List<Long> sampleIds = new ArrayList<>();
+        long inconsistent = 0;
+        int repaired = 0;
+
+        for (long fromId = 1; fromId <= maxId; fromId += batchSize) {
+            List<Long> batch = postRepository.findPostIdsWithInconsistentTags(fromId, fromId + batchSize);
+            inconsistent += batch.size();
+            batch.stream().limit(LOGGED_IDS_LIMIT - sampleIds.size()).forEach(sampleIds::add);
+            // Источник истины — post_tag: по нему пересобираем копию
+            if (repair) {
+                repaired += postRepository.repairTags(batch);
+            }
+        }
+
+        inconsistentPosts.increment(inconsistent);
+        repairedPosts.increment(repaired);
+
+        if (inconsistent == 0) {
+            log.debug("Post tags check finished, tags column agrees with post_tag up to post id={}", maxId);
+        } else {
+            log.warn("Post tags check found {} posts with inconsistent tags column (repaired {}), first ids: {}",
+                    inconsistent, repaired, sampleIds);
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package ru.practicum.blog.service.job;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import ru.practicum.blog.repository.TagRepository;
+
+import java.util.concurrent.TimeUnit;
+
+@Component
+public class TagCleanupJob {
+
+    private static final Logger log = LogManager.getLogger(TagCleanupJob.class);
+
+    private final TagRepository tagRepository;
+    private final int batchSize;
+    private final int maxBatches;
+    private final Counter reclaimedTags;
+    private final Timer cleanupDuration;
+
+    public TagCleanupJob(
+            TagRepository tagRepository,
+            MeterRegistry meterRegistry,
+            @Value("${blog.tags.cleanup.batch-size:500}") int batchSize,
+            @Value("${blog.tags.cleanup.max-batches:20}") int maxBatches
+    ) {
+        this.tagRepository = tagRepository;
+        this.batchSize = batchSize;
+        this.maxBatches = maxBatches;
+        this.reclaimedTags = Counter.builder("blog.tags.cleanup.reclaimed")
+                .description("Number of unused tags removed by the cleanup job")
+                .register(meterRegistry);
+        this.cleanupDuration = Timer.builder("blog.tags.cleanup.duration")
+                .description("Duration of a single cleanup job run")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(
+            initialDelayString = "${blog.tags.cleanup.delay-ms:60000}",
+            fixedDelayString = "${blog.tags.cleanup.delay-ms:60000}"
+    )
+    // Удаляем теги с нулевым счётчиком использования небольшими пакетами, каждый пакет — отдельная транзакция
+    public void cleanupUnusedTags() {
+        long startedAt = System.nanoTime();
+        int reclaimed = 0;
+        int batches = 0;
+        try {
+            int deleted;
+            // Продолжаем, пока пакеты заполнены целиком, но не дольше maxBatches за один запуск
+            do {
+                deleted = tagRepository.deleteUnusedTags(batchSize);
+                reclaimed += deleted;
+                batches++;
+            } while (deleted == batchSize && batches < maxBatches);
+        } finally {
+            reclaimedTags.increment(reclaimed);
+            cleanupDuration.record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+        }
+
+        if (reclaimed > 0) {
+            log.info("Tag cleanup finished, removed {} unused tags in {} batches", reclaimed, batches);
+        } else {
+            log.debug("Tag cleanup finished, no unused tags were removed");
+        }
+    }
+}
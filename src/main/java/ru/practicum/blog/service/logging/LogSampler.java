@@ -0,0 +1,38 @@
+package ru.practicum.blog.service.logging;
+
+import org.apache.logging.log4j.Logger;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+// Выборка для debug-сообщений, которые пишутся на каждый запрос: в лог попадает примерно одно событие из rate.
+// Частота по умолчанию задаётся системным свойством blog.logging.debug-sample-rate, 1 — писать всё
+public final class LogSampler {
+
+    public static final String SAMPLE_RATE_PROPERTY = "blog.logging.debug-sample-rate";
+
+    private static final int DEFAULT_SAMPLE_RATE = 100;
+
+    private final int rate;
+
+    private LogSampler(int rate) {
+        this.rate = Math.max(1, rate);
+    }
+
+    public static LogSampler withDefaultRate() {
+        return oneIn(Integer.getInteger(SAMPLE_RATE_PROPERTY, DEFAULT_SAMPLE_RATE));
+    }
+
+    public static LogSampler oneIn(int rate) {
+        return new LogSampler(rate);
+    }
+
+    public int rate() {
+        return rate;
+    }
+
+    // Уровень проверяем первым: при выключенном debug выборка ничего не стоит.
+    // Случайное решение вместо общего счётчика — потоки не конкурируют за одну ячейку памяти
+    public boolean sampleDebug(Logger log) {
+        return log.isDebugEnabled() && (rate == 1 || ThreadLocalRandom.current().nextInt(rate) == 0);
+    }
+}
@@ -7,17 +7,21 @@ import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
 import ru.practicum.blog.domain.exception.CommentBadRequestException;
+import ru.practicum.blog.domain.exception.CommentConflictException;
 import ru.practicum.blog.domain.exception.CommentDbException;
 import ru.practicum.blog.domain.exception.CommentNotFoundException;
 import ru.practicum.blog.domain.exception.PostBadRequestException;
+import ru.practicum.blog.domain.exception.PostConflictException;
 import ru.practicum.blog.domain.exception.PostDbException;
+import ru.practicum.blog.domain.exception.PostExportAbortedException;
 import ru.practicum.blog.domain.exception.PostImageException;
 import ru.practicum.blog.domain.exception.PostNotFoundException;
 import ru.practicum.blog.web.advice.model.ErrorResponse;
 import ru.practicum.blog.web.controller.CommentController;
 import ru.practicum.blog.web.controller.PostController;
+import ru.practicum.blog.web.controller.TagController;
 
-@RestControllerAdvice(assignableTypes = {PostController.class, CommentController.class})
+@RestControllerAdvice(assignableTypes = {PostController.class, CommentController.class, TagController.class})
 public class DefaultExceptionHandler {
 
     @ExceptionHandler
@@ -62,6 +66,19 @@ public class DefaultExceptionHandler {
         return new ErrorResponse(e.getMessage());
     }
 
+    // Ответ уже отправлен: тело ошибки испортило бы поток, поэтому исключение уходит в контейнер,
+    // и тот закрывает соединение
+    @ExceptionHandler
+    public void postExportAbortedException(PostExportAbortedException e) {
+        throw e;
+    }
+
+    @ExceptionHandler
+    @ResponseStatus(HttpStatus.CONFLICT)
+    public ErrorResponse postConflictException(PostConflictException e) {
+        return new ErrorResponse(e.getMessage());
+    }
+
     @ExceptionHandler
     @ResponseStatus(HttpStatus.BAD_REQUEST)
     public ErrorResponse commentBadRequestException(CommentBadRequestException e) {
@@ -79,4 +96,10 @@ public class DefaultExceptionHandler {
     public ErrorResponse commentDbException(CommentDbException e) {
         return new ErrorResponse(e.getMessage());
     }
+
+    @ExceptionHandler
+    @ResponseStatus(HttpStatus.CONFLICT)
+    public ErrorResponse commentConflictException(CommentConflictException e) {
+        return new ErrorResponse(e.getMessage());
+    }
 }
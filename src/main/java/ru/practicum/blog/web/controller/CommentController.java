@@ -15,6 +15,7 @@ import ru.practicum.blog.web.dto.CommentRequestDto;
 import ru.practicum.blog.web.dto.CommentResponseDto;
 
 import java.util.List;
+import java.util.concurrent.Callable;
 
 @RestController
 @RequestMapping("api/posts/{postId}/comments")
@@ -24,42 +25,45 @@ public class CommentController {
     private final CommentService commentService;
 
     @GetMapping
-    public List<CommentResponseDto> getComments(
+    public Callable<List<CommentResponseDto>> getComments(
             @PathVariable("postId") long postId
     ) {
-        return commentService.getComments(postId);
+        return () -> commentService.getComments(postId);
     }
 
     @GetMapping("/{commentId}")
-    public CommentResponseDto getComment(
+    public Callable<CommentResponseDto> getComment(
             @PathVariable("postId") long postId,
             @PathVariable("commentId") long commentId
     ) {
-        return commentService.getComment(postId, commentId);
+        return () -> commentService.getComment(postId, commentId);
     }
 
     @PostMapping
-    public CommentResponseDto createComment(
+    public Callable<CommentResponseDto> createComment(
             @PathVariable("postId") long postId,
             @RequestBody @Valid CommentRequestDto commentRequestDto
     ) {
-        return commentService.createComment(postId, commentRequestDto);
+        return () -> commentService.createComment(postId, commentRequestDto);
     }
 
     @PutMapping("/{commentId}")
-    public CommentResponseDto updateComment(
+    public Callable<CommentResponseDto> updateComment(
             @PathVariable("postId") long postId,
             @PathVariable("commentId") long commentId,
             @RequestBody @Valid CommentRequestDto commentRequestDto
     ) {
-        return commentService.updateComment(postId, commentId, commentRequestDto);
+        return () -> commentService.updateComment(postId, commentId, commentRequestDto);
     }
 
     @DeleteMapping("/{commentId}")
-    public void deleteComment(
+    public Callable<Void> deleteComment(
             @PathVariable("postId") long postId,
             @PathVariable("commentId") long commentId
     ) {
-        commentService.deleteComment(postId, commentId);
+        return () -> {
+            commentService.deleteComment(postId, commentId);
+            return null;
+        };
     }
 }
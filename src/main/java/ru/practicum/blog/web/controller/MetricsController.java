@@ -0,0 +1,21 @@
+package ru.practicum.blog.web.controller;
+
+import io.micrometer.prometheusmetrics.PrometheusMeterRegistry;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequiredArgsConstructor
+public class MetricsController {
+
+    private static final String PROMETHEUS_TEXT_FORMAT = "text/plain;version=0.0.4;charset=utf-8";
+
+    private final PrometheusMeterRegistry meterRegistry;
+
+    // Снимок метрик в памяти без обращения к БД, поэтому отдаём синхронно
+    @GetMapping(path = "/metrics", produces = PROMETHEUS_TEXT_FORMAT)
+    public String scrape() {
+        return meterRegistry.scrape();
+    }
+}
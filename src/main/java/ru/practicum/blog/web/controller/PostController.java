@@ -1,11 +1,18 @@
 package ru.practicum.blog.web.controller;
 
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotNull;
 import lombok.RequiredArgsConstructor;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -13,67 +20,174 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RequestPart;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.multipart.MultipartFile;
+import ru.practicum.blog.domain.exception.PostExportAbortedException;
+import ru.practicum.blog.domain.model.ExportFormat;
+import ru.practicum.blog.domain.model.PostField;
+import ru.practicum.blog.domain.model.PostInclude;
+import ru.practicum.blog.service.PostBulkService;
 import ru.practicum.blog.service.PostService;
+import ru.practicum.blog.service.batch.PostsBatch;
+import ru.practicum.blog.web.dto.PostImportResponseDto;
 import ru.practicum.blog.web.dto.PostRequestDto;
 import ru.practicum.blog.web.dto.PostResponseDto;
+import ru.practicum.blog.web.dto.PostsBatchResponseDto;
 import ru.practicum.blog.web.dto.PostsResponseDto;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+
 @RestController
 @RequestMapping("/api/posts")
 @RequiredArgsConstructor
 @Validated
 public class PostController {
 
+    private static final Logger log = LogManager.getLogger(PostController.class);
+
     private final PostService postService;
+    private final PostBulkService postBulkService;
 
     @GetMapping
-    public PostsResponseDto getPosts(
+    public Callable<PostsResponseDto> getPosts(
             @RequestParam("search") @NotNull String search,
             @RequestParam("pageNumber") @Min(1) int pageNumber,
-            @RequestParam("pageSize") @Min(1) int pageSize
+            @RequestParam("pageSize") @Min(1) int pageSize,
+            @RequestParam(name = "fields", required = false) String fields
     ) {
-        return postService.getPosts(search, pageNumber, pageSize);
+        Set<PostField> postFields = PostField.parse(fields);
+        return () -> postService.getPosts(search, pageNumber, pageSize, postFields);
+    }
+
+    // Импорт и экспорт синхронные: они долгие и не должны упираться в таймаут асинхронных запросов
+    @PostMapping(path = "/import", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+    public PostImportResponseDto importPosts(InputStream ndjson) {
+        return postBulkService.importPosts(ndjson);
+    }
+
+    // Ошибка до отправки первых байт возвращается обычным ответом с кодом ошибки. Если ответ 200 уже ушёл клиенту,
+    // статус не поменять: ошибка пишется в лог, gzip не завершается, а соединение обрывается контейнером —
+    // клиент видит незавершённую передачу, а не усечённый архив, похожий на полный
+    @GetMapping("/export")
+    public void exportPosts(
+            @RequestParam(name = "format", defaultValue = "ndjson") String format,
+            HttpServletResponse response
+    ) throws IOException {
+        ExportFormat exportFormat = ExportFormat.from(format);
+        response.setContentType("application/gzip");
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                .filename("posts." + exportFormat.getFileExtension() + ".gz")
+                .build()
+                .toString());
+        try {
+            postBulkService.exportPosts(exportFormat, response.getOutputStream());
+        } catch (RuntimeException ex) {
+            if (!response.isCommitted()) {
+                // Сбрасываем заголовки выгрузки и начало gzip из буфера, чтобы тело ошибки было обычным JSON
+                response.reset();
+                throw ex;
+            }
+            log.error("Export of posts failed after the response was committed, aborting the connection", ex);
+            throw new PostExportAbortedException("Export aborted after the response was committed", ex);
+        }
+    }
+
+    // Кэш клиента переспрашивает сервер (no-cache), а при совпавшем ETag получает 304 без тела
+    @GetMapping("/batch")
+    public Callable<ResponseEntity<PostsBatchResponseDto>> getPostsBatch(
+            @RequestParam("ids") List<Long> ids,
+            @RequestParam(name = "fields", required = false) String fields,
+            @RequestHeader(name = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch
+    ) {
+        Set<PostField> postFields = PostField.parse(fields);
+        return () -> {
+            PostsBatch batch = postService.getPostsBatch(ids, postFields);
+            if (etagMatches(ifNoneMatch, batch.etag())) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                        .eTag(batch.etag())
+                        .cacheControl(CacheControl.noCache())
+                        .build();
+            }
+            return ResponseEntity.ok()
+                    .eTag(batch.etag())
+                    .cacheControl(CacheControl.noCache())
+                    .body(batch.response());
+        };
     }
 
     @GetMapping("/{id}")
-    public PostResponseDto getPost(@PathVariable("id") long id) {
-        return postService.getPost(id);
+    public Callable<PostResponseDto> getPost(
+            @PathVariable("id") long id,
+            @RequestParam(name = "fields", required = false) String fields,
+            @RequestParam(name = "include", required = false) String include
+    ) {
+        Set<PostField> postFields = PostField.parse(fields);
+        Set<PostInclude> includes = PostInclude.parse(include);
+        return () -> postService.getPost(id, postFields, includes);
     }
 
     @PostMapping
     @ResponseStatus(HttpStatus.CREATED)
-    public PostResponseDto createPost(@RequestBody @Valid PostRequestDto postRequestDto) {
-        return postService.createPost(postRequestDto);
+    public Callable<PostResponseDto> createPost(@RequestBody @Valid PostRequestDto postRequestDto) {
+        return () -> postService.createPost(postRequestDto);
     }
 
     @PutMapping("/{id}")
-    public PostResponseDto updatePost(@PathVariable("id") long id, @RequestBody @Valid PostRequestDto postRequestDto) {
-        return postService.updatePost(id, postRequestDto);
+    public Callable<PostResponseDto> updatePost(
+            @PathVariable("id") long id,
+            @RequestBody @Valid PostRequestDto postRequestDto
+    ) {
+        return () -> postService.updatePost(id, postRequestDto);
     }
 
     @DeleteMapping("/{id}")
-    public void deletePost(@PathVariable("id") long id) {
-        postService.deletePost(id);
+    public Callable<Void> deletePost(@PathVariable("id") long id) {
+        return () -> {
+            postService.deletePost(id);
+            return null;
+        };
     }
 
     @PostMapping("/{id}/likes")
-    public int incrementLikes(@PathVariable("id") long id) {
-        return postService.incrementLikes(id);
+    public Callable<Integer> incrementLikes(@PathVariable("id") long id) {
+        return () -> postService.incrementLikes(id);
     }
 
     @PutMapping(path = "/{id}/image", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
-    public void updateImage(@PathVariable("id") long id, @RequestPart("image") MultipartFile image) {
-        postService.updateImage(id, image);
+    public Callable<Void> updateImage(@PathVariable("id") long id, @RequestPart("image") MultipartFile image) {
+        return () -> {
+            postService.updateImage(id, image);
+            return null;
+        };
     }
 
     @GetMapping(path = "/{id}/image", produces = {MediaType.IMAGE_JPEG_VALUE, MediaType.IMAGE_PNG_VALUE})
-    public byte[] getImage(@PathVariable("id") long id) {
-        return postService.getImage(id);
+    public Callable<byte[]> getImage(@PathVariable("id") long id) {
+        return () -> postService.getImage(id);
+    }
+
+    // Для If-None-Match сравнение слабое: префикс W/ не учитывается
+    private static boolean etagMatches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        String opaqueTag = stripWeakPrefix(etag);
+        return Arrays.stream(ifNoneMatch.split(","))
+                .map(String::trim)
+                .anyMatch(candidate -> candidate.equals("*") || stripWeakPrefix(candidate).equals(opaqueTag));
+    }
+
+    private static String stripWeakPrefix(String etag) {
+        return etag.startsWith("W/") ? etag.substring(2) : etag;
     }
 }
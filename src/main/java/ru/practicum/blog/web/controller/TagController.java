@@ -0,0 +1,39 @@
+package ru.practicum.blog.web.controller;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import lombok.RequiredArgsConstructor;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import ru.practicum.blog.service.TagService;
+import ru.practicum.blog.web.dto.TagResponseDto;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/tags")
+@RequiredArgsConstructor
+@Validated
+public class TagController {
+
+    private final TagService tagService;
+
+    @GetMapping("/popular")
+    public List<TagResponseDto> getPopularTags(
+            @RequestParam(value = "limit", defaultValue = "20") @Min(1) @Max(100) int limit
+    ) {
+        return tagService.getPopularTags(limit);
+    }
+
+    @GetMapping("/suggest")
+    public List<TagResponseDto> suggestTags(
+            @RequestParam("prefix") @NotNull String prefix,
+            @RequestParam(value = "limit", defaultValue = "10") @Min(1) @Max(50) int limit
+    ) {
+        return tagService.suggestTags(prefix, limit);
+    }
+}
@@ -7,6 +7,7 @@ import jakarta.validation.constraints.Positive;
 public record CommentRequestDto(
         Long id,
         @NotBlank String text,
-        @NotNull @Positive Long postId
+        @NotNull @Positive Long postId,
+        Long version // ожидаемая версия комментария при редактировании, без неё комментарий обновляется безусловно
 ) {
 }
@@ -3,6 +3,7 @@ package ru.practicum.blog.web.dto;
 public record CommentResponseDto(
         Long id,
         String text,
-        Long postId
+        Long postId,
+        Long version
 ) {
 }
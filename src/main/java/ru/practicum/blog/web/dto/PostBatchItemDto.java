@@ -0,0 +1,12 @@
+package ru.practicum.blog.web.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+// Элемент пакетной выдачи: для ненайденного id post отсутствует, а found = false
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record PostBatchItemDto(
+        Long id,
+        boolean found,
+        PostResponseDto post
+) {
+}
@@ -0,0 +1,10 @@
+package ru.practicum.blog.web.dto;
+
+public record PostImportResponseDto(
+        long received, // количество непустых строк во входных данных
+        long imported, // количество сохранённых постов
+        long rejected, // количество строк, не прошедших проверку
+        long linkedTags, // количество созданных связей пост-тег
+        long durationMs
+) {
+}
@@ -9,6 +9,7 @@ public record PostRequestDto(
         Long id,
         @NotBlank String title,
         @NotBlank String text,
-        @NotNull List<@NotBlank String> tags
+        @NotNull List<@NotBlank String> tags,
+        Long version // ожидаемая версия поста при редактировании, без неё пост обновляется безусловно
 ) {
 }
@@ -1,16 +1,23 @@
 package ru.practicum.blog.web.dto;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
+
 import java.util.List;
 
+// Поля, не запрошенные через fields=, равны null и не сериализуются
+@JsonInclude(JsonInclude.Include.NON_NULL)
 public record PostResponseDto(
         Long id,
         String title,
         String text,
         List<String> tags,
         Integer likesCount,
-        Integer commentsCount
+        Integer commentsCount,
+        Long version,
+        List<CommentResponseDto> comments // только при include=comments: первая страница комментариев
 ) {
     public PostResponseDto {
-        tags = List.copyOf(tags); // Иммутабельность для неиммутабельного поля
+        tags = tags == null ? null : List.copyOf(tags); // Иммутабельность для неиммутабельного поля
+        comments = comments == null ? null : List.copyOf(comments);
     }
 }
@@ -0,0 +1,11 @@
+package ru.practicum.blog.web.dto;
+
+import java.util.List;
+
+public record PostsBatchResponseDto(
+        List<PostBatchItemDto> posts // в порядке запрошенных id
+) {
+    public PostsBatchResponseDto {
+        posts = List.copyOf(posts); // Иммутабельность для неиммутабельного поля
+    }
+}
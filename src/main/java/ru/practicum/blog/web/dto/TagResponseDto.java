@@ -0,0 +1,7 @@
+package ru.practicum.blog.web.dto;
+
+public record TagResponseDto(
+        String name,
+        Integer usageCount // количество постов с этим тегом
+) {
+}
@@ -0,0 +1,131 @@
+package ru.practicum.blog.web.filter;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.WebUtils;
+
+import java.io.IOException;
+import java.util.Locale;
+
+// Сжимает ответы gzip по Accept-Encoding; регистрируется в web.xml через DelegatingFilterProxy
+@Component("compressionFilter")
+public class CompressionFilter extends OncePerRequestFilter {
+
+    private final DeflaterPool deflaterPool;
+    private final int minSize;
+    private final boolean enabled;
+    private final DistributionSummary compressionRatio;
+    private final Counter originalBytes;
+    private final Counter compressedBytes;
+
+    public CompressionFilter(
+            MeterRegistry meterRegistry,
+            @Value("${blog.http.compression.enabled:true}") boolean enabled,
+            @Value("${blog.http.compression.min-size:1024}") int minSize,
+            @Value("${blog.http.compression.level:6}") int level,
+            @Value("${blog.http.compression.pool-size:32}") int poolSize
+    ) {
+        this.enabled = enabled;
+        this.minSize = minSize;
+        this.deflaterPool = new DeflaterPool(poolSize, level);
+        this.compressionRatio = DistributionSummary.builder("blog.http.compression.ratio")
+                .description("Ratio of original to gzip-compressed response body size")
+                .register(meterRegistry);
+        this.originalBytes = Counter.builder("blog.http.compression.bytes")
+                .description("Response body bytes passed through the compression filter")
+                .tag("stage", "original")
+                .register(meterRegistry);
+        this.compressedBytes = Counter.builder("blog.http.compression.bytes")
+                .description("Response body bytes passed through the compression filter")
+                .tag("stage", "compressed")
+                .register(meterRegistry);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !enabled
+                || HttpMethod.HEAD.matches(request.getMethod())
+                || request.getHeader(HttpHeaders.RANGE) != null
+                || !acceptsGzip(request.getHeader(HttpHeaders.ACCEPT_ENCODING));
+    }
+
+    // Тело Callable-ответа пишется при асинхронной диспетчеризации в ту же обёртку — там её и завершаем
+    @Override
+    protected boolean shouldNotFilterAsyncDispatch() {
+        return false;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        GzipResponseWrapper wrapper = WebUtils.getNativeResponse(response, GzipResponseWrapper.class);
+        if (wrapper == null) {
+            wrapper = new GzipResponseWrapper(response, deflaterPool, minSize);
+        }
+        try {
+            chain.doFilter(request, wrapper);
+        } catch (IOException | ServletException | RuntimeException ex) {
+            wrapper.releaseDeflater();
+            throw ex;
+        }
+        if (!isAsyncStarted(request)) {
+            wrapper.finish();
+            recordMetrics(wrapper);
+        }
+    }
+
+    @Override
+    public void destroy() {
+        deflaterPool.close();
+    }
+
+    private void recordMetrics(GzipResponseWrapper wrapper) {
+        if (!wrapper.isCompressed()) {
+            return;
+        }
+        originalBytes.increment(wrapper.getOriginalBytes());
+        compressedBytes.increment(wrapper.getCompressedBytes());
+        compressionRatio.record((double) wrapper.getOriginalBytes() / wrapper.getCompressedBytes());
+    }
+
+    // gzip принимается, если указан явно с ненулевым q; «*» учитывается, только когда gzip не указан (RFC 9110, 12.5.3)
+    static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        Boolean wildcard = null;
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.trim().split(";");
+            String name = parts[0].trim().toLowerCase(Locale.ROOT);
+            boolean accepted = parts.length < 2 || !isZeroQuality(parts[1].trim());
+            if (name.equals("gzip")) {
+                return accepted;
+            }
+            if (name.equals("*") && wildcard == null) {
+                wildcard = accepted;
+            }
+        }
+        return Boolean.TRUE.equals(wildcard);
+    }
+
+    private static boolean isZeroQuality(String parameter) {
+        if (!parameter.startsWith("q=")) {
+            return false;
+        }
+        try {
+            return Double.parseDouble(parameter.substring(2)) == 0;
+        } catch (NumberFormatException ex) {
+            return true;
+        }
+    }
+}
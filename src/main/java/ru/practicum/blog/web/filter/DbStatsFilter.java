@@ -0,0 +1,61 @@
+package ru.practicum.blog.web.filter;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.WebUtils;
+import ru.practicum.blog.repository.jdbc.DbRequestStats;
+
+import java.io.IOException;
+
+// Отдаёт в заголовках X-DB-Queries и X-DB-Time число запросов к БД за HTTP-запрос и их суммарное время в мс
+@Component("dbStatsFilter")
+public class DbStatsFilter extends OncePerRequestFilter {
+
+    private static final String STATS_ATTRIBUTE = DbStatsFilter.class.getName() + ".STATS";
+
+    private final boolean enabled;
+
+    public DbStatsFilter(@Value("${blog.http.db-stats.enabled:false}") boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !enabled;
+    }
+
+    // Запросы Callable выполняются уже после исходной диспетчеризации — тело и заголовки пишутся в асинхронной
+    @Override
+    protected boolean shouldNotFilterAsyncDispatch() {
+        return false;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        DbRequestStats stats = (DbRequestStats) request.getAttribute(STATS_ATTRIBUTE);
+        if (stats == null) {
+            stats = new DbRequestStats();
+            request.setAttribute(STATS_ATTRIBUTE, stats);
+        }
+        DbStatsResponseWrapper wrapper = WebUtils.getNativeResponse(response, DbStatsResponseWrapper.class);
+        if (wrapper == null) {
+            wrapper = new DbStatsResponseWrapper(response, stats);
+        }
+
+        DbRequestStats previous = DbRequestStats.bind(stats);
+        try {
+            chain.doFilter(request, wrapper);
+        } finally {
+            DbRequestStats.restore(previous);
+        }
+        if (!isAsyncStarted(request)) {
+            wrapper.writeHeaders();
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package ru.practicum.blog.web.filter;
+
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import ru.practicum.blog.repository.jdbc.DbRequestStats;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+// Заголовки нужно выставить до фиксации ответа: делаем это, как только начинается запись тела
+class DbStatsResponseWrapper extends HttpServletResponseWrapper {
+
+    static final String QUERIES_HEADER = "X-DB-Queries";
+    static final String TIME_HEADER = "X-DB-Time";
+
+    private final DbRequestStats stats;
+
+    private boolean headersWritten;
+
+    DbStatsResponseWrapper(HttpServletResponse response, DbRequestStats stats) {
+        super(response);
+        this.stats = stats;
+    }
+
+    @Override
+    public ServletOutputStream getOutputStream() throws IOException {
+        writeHeaders();
+        return super.getOutputStream();
+    }
+
+    @Override
+    public PrintWriter getWriter() throws IOException {
+        writeHeaders();
+        return super.getWriter();
+    }
+
+    @Override
+    public void flushBuffer() throws IOException {
+        writeHeaders();
+        super.flushBuffer();
+    }
+
+    @Override
+    public void sendError(int sc, String msg) throws IOException {
+        writeHeaders();
+        super.sendError(sc, msg);
+    }
+
+    @Override
+    public void sendError(int sc) throws IOException {
+        writeHeaders();
+        super.sendError(sc);
+    }
+
+    @Override
+    public void sendRedirect(String location) throws IOException {
+        writeHeaders();
+        super.sendRedirect(location);
+    }
+
+    // Ответ без тела (204, 304) — заголовки ставит фильтр после завершения обработки
+    void writeHeaders() {
+        if (headersWritten || isCommitted()) {
+            return;
+        }
+        headersWritten = true;
+        setHeader(QUERIES_HEADER, Integer.toString(stats.statements()));
+        setHeader(TIME_HEADER, String.format(Locale.ROOT, "%.3f",
+                stats.elapsedNanos() / (double) TimeUnit.MILLISECONDS.toNanos(1)));
+    }
+}
@@ -0,0 +1,41 @@
+package ru.practicum.blog.web.filter;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.zip.Deflater;
+
+// Deflater держит нативную память zlib: переиспользуем экземпляры, а лишние сразу освобождаем через end()
+class DeflaterPool {
+
+    private final BlockingQueue<Deflater> deflaters;
+    private final int level;
+
+    DeflaterPool(int capacity, int level) {
+        this.deflaters = new ArrayBlockingQueue<>(capacity);
+        this.level = level;
+    }
+
+    Deflater borrow() {
+        Deflater deflater = deflaters.poll();
+        // nowrap, как у GZIPOutputStream: обёртку gzip пишет он сам
+        return deflater != null ? deflater : new Deflater(level, true);
+    }
+
+    void release(Deflater deflater) {
+        deflater.reset();
+        if (!deflaters.offer(deflater)) {
+            deflater.end();
+        }
+    }
+
+    void close() {
+        Deflater deflater;
+        while ((deflater = deflaters.poll()) != null) {
+            deflater.end();
+        }
+    }
+
+    int size() {
+        return deflaters.size();
+    }
+}
@@ -0,0 +1,327 @@
+package ru.practicum.blog.web.filter;
+
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.io.UncheckedIOException;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPOutputStream;
+
+// Накапливает начало ответа и включает gzip, только если тело больше порога и тип ответа сжимаемый
+class GzipResponseWrapper extends HttpServletResponseWrapper {
+
+    private static final int GZIP_BUFFER_SIZE = 8 * 1024;
+
+    private static final List<MediaType> COMPRESSIBLE_TYPES = List.of(
+            MediaType.APPLICATION_JSON,
+            MediaType.APPLICATION_NDJSON,
+            MediaType.APPLICATION_PROBLEM_JSON,
+            MediaType.APPLICATION_XML,
+            MediaType.valueOf("application/*+json"),
+            MediaType.valueOf("text/*")
+    );
+
+    private enum State { BUFFERING, COMPRESSING, PASS_THROUGH, FINISHED }
+
+    private final DeflaterPool deflaterPool;
+    private final int minSize;
+    private final ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+
+    private State state = State.BUFFERING;
+    private boolean compressed;
+    private Deflater deflater;
+    private GZIPOutputStream gzip;
+    private ServletOutputStream outputStream;
+    private PrintWriter writer;
+    private long contentLength = -1;
+    private long originalBytes;
+    private long compressedBytes;
+
+    GzipResponseWrapper(HttpServletResponse response, DeflaterPool deflaterPool, int minSize) {
+        super(response);
+        this.deflaterPool = deflaterPool;
+        this.minSize = minSize;
+    }
+
+    @Override
+    public ServletOutputStream getOutputStream() {
+        if (writer != null) {
+            throw new IllegalStateException("getWriter() has already been called for this response");
+        }
+        if (outputStream == null) {
+            outputStream = new GzipServletOutputStream();
+        }
+        return outputStream;
+    }
+
+    @Override
+    public PrintWriter getWriter() {
+        if (outputStream != null && writer == null) {
+            throw new IllegalStateException("getOutputStream() has already been called for this response");
+        }
+        if (writer == null) {
+            outputStream = new GzipServletOutputStream();
+            writer = new PrintWriter(new OutputStreamWriter(outputStream, responseCharset()));
+        }
+        return writer;
+    }
+
+    // Длину тела знаем только после решения о сжатии
+    @Override
+    public void setContentLength(int length) {
+        setContentLengthLong(length);
+    }
+
+    @Override
+    public void setContentLengthLong(long length) {
+        if (state == State.PASS_THROUGH) {
+            super.setContentLengthLong(length);
+        } else {
+            contentLength = length;
+        }
+    }
+
+    @Override
+    public void setHeader(String name, String value) {
+        if (HttpHeaders.CONTENT_LENGTH.equalsIgnoreCase(name)) {
+            setContentLengthLong(Long.parseLong(value));
+        } else {
+            super.setHeader(name, value);
+        }
+    }
+
+    @Override
+    public void addHeader(String name, String value) {
+        if (HttpHeaders.CONTENT_LENGTH.equalsIgnoreCase(name)) {
+            setContentLengthLong(Long.parseLong(value));
+        } else {
+            super.addHeader(name, value);
+        }
+    }
+
+    @Override
+    public void flushBuffer() throws IOException {
+        if (writer != null) {
+            writer.flush();
+        }
+        if (state != State.BUFFERING) {
+            super.flushBuffer();
+        }
+    }
+
+    @Override
+    public void resetBuffer() {
+        if (state != State.BUFFERING) {
+            throw new IllegalStateException("Response body has already been committed");
+        }
+        buffer.reset();
+        super.resetBuffer();
+    }
+
+    @Override
+    public void reset() {
+        resetBuffer();
+        contentLength = -1;
+        super.reset();
+    }
+
+    boolean isCompressed() {
+        return compressed;
+    }
+
+    long getOriginalBytes() {
+        return originalBytes;
+    }
+
+    long getCompressedBytes() {
+        return compressedBytes;
+    }
+
+    // Дописывает остаток: короткие ответы уходят как есть, сжатые получают хвост gzip
+    void finish() throws IOException {
+        if (state == State.FINISHED) {
+            return;
+        }
+        if (writer != null) {
+            writer.flush();
+        }
+        try {
+            if (state == State.BUFFERING) {
+                passThrough();
+            } else if (state == State.COMPRESSING) {
+                gzip.finish();
+            }
+        } finally {
+            releaseDeflater();
+            state = State.FINISHED;
+        }
+    }
+
+    // Вызывается, если обработка прервалась исключением: нативная память не должна утекать
+    void releaseDeflater() {
+        if (deflater != null) {
+            deflaterPool.release(deflater);
+            deflater = null;
+        }
+    }
+
+    private void write(byte[] bytes, int offset, int length) throws IOException {
+        originalBytes += length;
+        switch (state) {
+            case BUFFERING -> {
+                buffer.write(bytes, offset, length);
+                if (buffer.size() >= minSize) {
+                    if (isCompressible()) {
+                        startCompression();
+                    } else {
+                        passThrough();
+                    }
+                }
+            }
+            case COMPRESSING -> gzip.write(bytes, offset, length);
+            case PASS_THROUGH -> getResponse().getOutputStream().write(bytes, offset, length);
+            case FINISHED -> throw new IOException("Response has already been finished");
+        }
+    }
+
+    private void flush() throws IOException {
+        if (state == State.COMPRESSING) {
+            // Потоковые ответы должны доходить до клиента по мере записи: gzip создан с SYNC_FLUSH
+            gzip.flush();
+        } else if (state == State.PASS_THROUGH) {
+            getResponse().getOutputStream().flush();
+        }
+    }
+
+    private boolean isCompressible() {
+        if (getHeader(HttpHeaders.CONTENT_ENCODING) != null || getContentType() == null) {
+            return false;
+        }
+        MediaType contentType = MediaType.parseMediaType(getContentType());
+        return COMPRESSIBLE_TYPES.stream().anyMatch(type -> type.includes(contentType));
+    }
+
+    private void startCompression() throws IOException {
+        state = State.COMPRESSING;
+        compressed = true;
+        HttpServletResponse response = (HttpServletResponse) getResponse();
+        response.setHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+        response.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        deflater = deflaterPool.borrow();
+        gzip = new PooledGzipOutputStream(new CompressedOutputStream(response.getOutputStream()), deflater);
+        buffer.writeTo(gzip);
+        buffer.reset();
+    }
+
+    private void passThrough() throws IOException {
+        state = State.PASS_THROUGH;
+        if (contentLength >= 0) {
+            super.setContentLengthLong(contentLength);
+        }
+        if (buffer.size() > 0) {
+            buffer.writeTo(getResponse().getOutputStream());
+            buffer.reset();
+        }
+    }
+
+    private Charset responseCharset() {
+        String encoding = getCharacterEncoding();
+        return encoding != null ? Charset.forName(encoding) : StandardCharsets.ISO_8859_1;
+    }
+
+    // Заголовок, CRC и хвост gzip пишет сам GZIPOutputStream. Собственный Deflater он создаёт в конструкторе —
+    // сразу освобождаем его и работаем на экземпляре из пула. close() не вызывается: он освободил бы и пуловый
+    // Deflater, поток завершается через finish()
+    private static final class PooledGzipOutputStream extends GZIPOutputStream {
+
+        private PooledGzipOutputStream(OutputStream out, Deflater pooled) throws IOException {
+            super(out, GZIP_BUFFER_SIZE, true);
+            def.end();
+            def = pooled;
+        }
+    }
+
+    // Считает сжатые байты, ушедшие в исходный поток ответа
+    private final class CompressedOutputStream extends OutputStream {
+
+        private final OutputStream target;
+
+        private CompressedOutputStream(OutputStream target) {
+            this.target = target;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            target.write(b);
+            compressedBytes++;
+        }
+
+        @Override
+        public void write(byte[] bytes, int offset, int length) throws IOException {
+            target.write(bytes, offset, length);
+            compressedBytes += length;
+        }
+
+        @Override
+        public void flush() throws IOException {
+            target.flush();
+        }
+    }
+
+    private class GzipServletOutputStream extends ServletOutputStream {
+
+        @Override
+        public void write(int b) throws IOException {
+            GzipResponseWrapper.this.write(new byte[]{(byte) b}, 0, 1);
+        }
+
+        @Override
+        public void write(byte[] bytes, int offset, int length) throws IOException {
+            GzipResponseWrapper.this.write(bytes, offset, length);
+        }
+
+        @Override
+        public void flush() throws IOException {
+            GzipResponseWrapper.this.flush();
+        }
+
+        @Override
+        public boolean isReady() {
+            return state == State.BUFFERING || delegateReady();
+        }
+
+        // Неблокирующая запись не совместима с накоплением начала ответа: такой ответ уходит без сжатия,
+        // а слушатель регистрируется на исходном потоке
+        @Override
+        public void setWriteListener(WriteListener writeListener) {
+            try {
+                if (state == State.BUFFERING) {
+                    passThrough();
+                }
+                getResponse().getOutputStream().setWriteListener(writeListener);
+            } catch (IOException ex) {
+                throw new UncheckedIOException(ex);
+            }
+        }
+
+        private boolean delegateReady() {
+            try {
+                return getResponse().getOutputStream().isReady();
+            } catch (IOException ex) {
+                return false;
+            }
+        }
+    }
+}
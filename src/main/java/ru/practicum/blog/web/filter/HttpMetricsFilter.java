@@ -0,0 +1,156 @@
+package ru.practicum.blog.web.filter;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+import org.springframework.web.util.pattern.PathPattern;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Время, статус и объём запросов по маршрутам; стоит в web.xml перед сжатием, чтобы считать отправленные байты
+@Component("httpMetricsFilter")
+public class HttpMetricsFilter extends OncePerRequestFilter {
+
+    static final String UNMATCHED_ROUTE = "UNMATCHED";
+    static final String OTHER_METHOD = "OTHER";
+
+    private static final String EXCHANGE_ATTRIBUTE = HttpMetricsFilter.class.getName() + ".EXCHANGE";
+
+    private final boolean enabled;
+    private final HttpRouteMeters routeMeters;
+    private final AtomicInteger activeRequests = new AtomicInteger();
+
+    public HttpMetricsFilter(
+            MeterRegistry meterRegistry,
+            @Value("${blog.http.metrics.enabled:true}") boolean enabled
+    ) {
+        this.enabled = enabled;
+        this.routeMeters = new HttpRouteMeters(meterRegistry);
+        Gauge.builder("blog.http.server.requests.active", activeRequests, AtomicInteger::get)
+                .description("HTTP requests currently in flight, including pending async ones")
+                .register(meterRegistry);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !enabled;
+    }
+
+    // Асинхронный запрос завершается уже после фильтра, поэтому и при повторной диспетчеризации нужна та же обёртка
+    @Override
+    protected boolean shouldNotFilterAsyncDispatch() {
+        return false;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        Exchange exchange = (Exchange) request.getAttribute(EXCHANGE_ATTRIBUTE);
+        if (exchange == null) {
+            exchange = new Exchange(response, System.nanoTime());
+            request.setAttribute(EXCHANGE_ATTRIBUTE, exchange);
+            activeRequests.incrementAndGet();
+        }
+        try {
+            chain.doFilter(request, exchange);
+        } catch (IOException | ServletException | RuntimeException ex) {
+            finishDispatch(request, exchange, HttpServletResponse.SC_INTERNAL_SERVER_ERROR);
+            throw ex;
+        }
+        finishDispatch(request, exchange, exchange.getStatus());
+    }
+
+    // Синхронный запрос записываем сразу, асинхронный — один раз из слушателя, когда контейнер его закроет
+    private void finishDispatch(HttpServletRequest request, Exchange exchange, int status) {
+        if (request.isAsyncStarted()) {
+            exchange.listenTo(request);
+        } else if (!exchange.listening) {
+            record(request, exchange, status);
+        }
+    }
+
+    private void record(HttpServletRequest request, Exchange exchange, int status) {
+        if (exchange.recorded) {
+            return;
+        }
+        exchange.recorded = true;
+        activeRequests.decrementAndGet();
+
+        HttpRouteMeters.EndpointMeters meters = routeMeters.get(route(request), method(request.getMethod()));
+        meters.duration(status).record(System.nanoTime() - exchange.startedAt, TimeUnit.NANOSECONDS);
+        long requestBytes = request.getContentLengthLong();
+        if (requestBytes >= 0) {
+            meters.requestBytes().record(requestBytes);
+        }
+        meters.responseBytes().record(exchange.getResponseBytes());
+    }
+
+    // Шаблон маршрута, а не путь: /api/posts/{id} — одна серия на все id; без обработчика — общая серия
+    private static String route(HttpServletRequest request) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        if (pattern instanceof PathPattern pathPattern) {
+            return pathPattern.getPatternString();
+        }
+        return pattern instanceof String patternString ? patternString : UNMATCHED_ROUTE;
+    }
+
+    // Произвольные методы от клиентов не должны плодить серии
+    private static String method(String method) {
+        return switch (method) {
+            case "GET", "HEAD", "POST", "PUT", "PATCH", "DELETE", "OPTIONS" -> method;
+            default -> OTHER_METHOD;
+        };
+    }
+
+    // Один объект на запрос: обёртка ответа, состояние между диспетчеризациями и слушатель завершения.
+    // Контейнер вызывает onComplete при любом исходе — после обычного завершения, после onTimeout и onError,
+    // при обрыве соединения, — и только к этому моменту статус ответа окончателен, поэтому записываем здесь
+    private final class Exchange extends CountingResponseWrapper implements AsyncListener {
+
+        private final long startedAt;
+        private volatile boolean listening;
+        private volatile boolean recorded;
+
+        private Exchange(HttpServletResponse response, long startedAt) {
+            super(response);
+            this.startedAt = startedAt;
+        }
+
+        private void listenTo(HttpServletRequest request) {
+            if (!listening) {
+                listening = true;
+                request.getAsyncContext().addListener(this);
+            }
+        }
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            record((HttpServletRequest) event.getAsyncContext().getRequest(), this, getStatus());
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+        }
+
+        // Новый асинхронный цикл сбрасывает слушателей — регистрируемся снова
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+            event.getAsyncContext().addListener(this);
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package ru.practicum.blog.web.filter;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import java.time.Duration;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+// Кэш метрик по маршруту, методу и статусу: после первого запроса — только чтение из map и массива, без сборки тегов
+class HttpRouteMeters {
+
+    private static final int STATUS_SLOTS = 600;
+
+    private final MeterRegistry meterRegistry;
+    private final ConcurrentMap<String, ConcurrentMap<String, EndpointMeters>> metersByRoute = new ConcurrentHashMap<>();
+
+    HttpRouteMeters(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    // Сначала get: захватывающая лямбда computeIfAbsent создавалась бы на каждом вызове
+    EndpointMeters get(String route, String method) {
+        ConcurrentMap<String, EndpointMeters> metersByMethod = metersByRoute.get(route);
+        if (metersByMethod == null) {
+            metersByMethod = metersByRoute.computeIfAbsent(route, key -> new ConcurrentHashMap<>());
+        }
+        EndpointMeters meters = metersByMethod.get(method);
+        if (meters == null) {
+            meters = metersByMethod.computeIfAbsent(method, key -> new EndpointMeters(route, key));
+        }
+        return meters;
+    }
+
+    final class EndpointMeters {
+
+        private final String route;
+        private final String method;
+        private final AtomicReferenceArray<Timer> durationsByStatus = new AtomicReferenceArray<>(STATUS_SLOTS);
+        private final DistributionSummary requestBytes;
+        private final DistributionSummary responseBytes;
+
+        private EndpointMeters(String route, String method) {
+            this.route = route;
+            this.method = method;
+            this.requestBytes = DistributionSummary.builder("blog.http.server.request.bytes")
+                    .description("Request body size per route")
+                    .baseUnit("bytes")
+                    .tags("route", route, "method", method)
+                    .register(meterRegistry);
+            this.responseBytes = DistributionSummary.builder("blog.http.server.response.bytes")
+                    .description("Response body bytes written per route, after compression")
+                    .baseUnit("bytes")
+                    .tags("route", route, "method", method)
+                    .register(meterRegistry);
+        }
+
+        Timer duration(int status) {
+            int slot = status >= 0 && status < STATUS_SLOTS ? status : 0;
+            Timer timer = durationsByStatus.get(slot);
+            if (timer == null) {
+                // Повторная регистрация в реестре вернёт тот же таймер, поэтому гонка здесь безвредна
+                timer = Timer.builder("blog.http.server.requests")
+                        .description("HTTP request latency per route and status")
+                        .tags("route", route, "method", method, "status", Integer.toString(slot))
+                        .publishPercentileHistogram()
+                        .minimumExpectedValue(Duration.ofMillis(1))
+                        .maximumExpectedValue(Duration.ofSeconds(30))
+                        .register(meterRegistry);
+                durationsByStatus.set(slot, timer);
+            }
+            return timer;
+        }
+
+        DistributionSummary requestBytes() {
+            return requestBytes;
+        }
+
+        DistributionSummary responseBytes() {
+            return responseBytes;
+        }
+    }
+}
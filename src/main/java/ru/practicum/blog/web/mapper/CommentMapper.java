@@ -17,6 +17,6 @@ public class CommentMapper {
     }
 
     public static CommentResponseDto toCommentDto(Comment comment) {
-        return new CommentResponseDto(comment.getId(), comment.getText(), comment.getPostId());
+        return new CommentResponseDto(comment.getId(), comment.getText(), comment.getPostId(), comment.getVersion());
     }
 }
@@ -1,16 +1,23 @@
 package ru.practicum.blog.web.mapper;
 
 import lombok.experimental.UtilityClass;
+import ru.practicum.blog.domain.model.Comment;
 import ru.practicum.blog.domain.model.Post;
+import ru.practicum.blog.domain.model.PostField;
 import ru.practicum.blog.domain.model.Tag;
+import ru.practicum.blog.web.dto.PostBatchItemDto;
 import ru.practicum.blog.web.dto.PostResponseDto;
+import ru.practicum.blog.web.dto.PostsBatchResponseDto;
 import ru.practicum.blog.web.dto.PostsResponseDto;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 @UtilityClass
 public class PostMapper {
+    // Те же правила зашиты в вычисляемую колонку post.preview (schema.sql)
     private static final int PREVIEW_LIMIT = 128;
     private static final String ELLIPSIS = "…";
 
@@ -18,12 +25,12 @@ public class PostMapper {
             List<Post> posts,
             boolean hasPrev,
             boolean hasNext,
-            int lastPage
+            int lastPage,
+            Set<PostField> fields
     ) {
         List<PostResponseDto> postDtos = new ArrayList<>();
         for (Post post : posts) {
-            String truncateText = truncateWithEllipsis(post.getText());
-            postDtos.add(toPostResponseDto(post, truncateText));
+            postDtos.add(toPostResponseDto(post, toPreview(post), fields));
         }
 
         return new PostsResponseDto(
@@ -34,23 +41,67 @@ public class PostMapper {
         );
     }
 
+    // Порядок ответа — порядок запрошенных id, ненайденные отмечаются явно, а не пропадают из выдачи
+    public static PostsBatchResponseDto toPostsBatchResponseDto(
+            List<Long> requestedIds,
+            Map<Long, Post> postsById,
+            Set<PostField> fields
+    ) {
+        List<PostBatchItemDto> items = new ArrayList<>(requestedIds.size());
+        for (Long id : requestedIds) {
+            Post post = postsById.get(id);
+            items.add(post == null
+                    ? new PostBatchItemDto(id, false, null)
+                    : new PostBatchItemDto(id, true, toPostResponseDto(post, toPreview(post), fields)));
+        }
+        return new PostsBatchResponseDto(items);
+    }
+
     public static PostResponseDto toPostResponseDto(Post post, String text) {
-        List<String> tagNames = post.getTags().stream().map(Tag::getName).toList();
+        return toPostResponseDto(post, text, PostField.ALL);
+    }
+
+    public static PostResponseDto toPostResponseDto(Post post, String text, Set<PostField> fields) {
+        return toPostResponseDto(post, text, fields, null);
+    }
+
+    // Незапрошенные поля остаются null и не попадают в JSON
+    public static PostResponseDto toPostResponseDto(
+            Post post,
+            String text,
+            Set<PostField> fields,
+            List<Comment> comments
+    ) {
+        List<String> tagNames = fields.contains(PostField.TAGS)
+                ? post.getTags().stream().map(Tag::getName).toList()
+                : null;
 
         return new PostResponseDto(
                 post.getId(),
-                post.getTitle(),
-                text,
+                fields.contains(PostField.TITLE) ? post.getTitle() : null,
+                fields.contains(PostField.TEXT) ? text : null,
                 tagNames,
-                post.getLikesCount(),
-                post.getCommentsCount());
+                fields.contains(PostField.LIKES_COUNT) ? post.getLikesCount() : null,
+                fields.contains(PostField.COMMENTS_COUNT) ? post.getCommentsCount() : null,
+                fields.contains(PostField.VERSION) ? post.getVersion() : null,
+                comments == null ? null : CommentMapper.toCommentDtoList(comments));
+    }
+
+    // Превью из ленты уже посчитано в БД (колонка post.preview), иначе обрезаем полный текст так же
+    private static String toPreview(Post post) {
+        if (post.getPreview() != null) {
+            return post.getPreview();
+        }
+        return post.getText() == null ? null : truncateWithEllipsis(post.getText());
     }
 
-    private static String truncateWithEllipsis(String text) {
-        if (text.length() <= PREVIEW_LIMIT) {
+    // Считаем символы, а не char: так же, как char_length/left в колонке post.preview, и без разрыва суррогатных пар.
+    // Видимость пакетная — для бенчмарка в src/jmh
+    static String truncateWithEllipsis(String text) {
+        if (text.codePointCount(0, text.length()) <= PREVIEW_LIMIT) {
             return text;
         } else {
-            return text.substring(0, PREVIEW_LIMIT) + ELLIPSIS;
+            return text.substring(0, text.offsetByCodePoints(0, PREVIEW_LIMIT)) + ELLIPSIS;
         }
     }
 }
@@ -0,0 +1,24 @@
+package ru.practicum.blog.web.mapper;
+
+import lombok.experimental.UtilityClass;
+import ru.practicum.blog.domain.model.Tag;
+import ru.practicum.blog.web.dto.TagResponseDto;
+
+import java.util.Collections;
+import java.util.List;
+
+@UtilityClass
+public class TagMapper {
+    public static List<TagResponseDto> toTagDtoList(List<Tag> tags) {
+        if (tags.isEmpty()) {
+            return Collections.emptyList();
+        }
+        return tags.stream()
+                .map(TagMapper::toTagDto)
+                .toList();
+    }
+
+    public static TagResponseDto toTagDto(Tag tag) {
+        return new TagResponseDto(tag.getName(), tag.getUsageCount());
+    }
+}
@@ -2,8 +2,11 @@ CREATE SCHEMA IF NOT EXISTS blog_app;
 
 CREATE TABLE IF NOT EXISTS tag
 (
-    id   BIGSERIAL PRIMARY KEY,
-    name VARCHAR(256) NOT NULL UNIQUE CHECK (name = lower(name))
+    id            BIGSERIAL PRIMARY KEY,
+    name          VARCHAR(256) NOT NULL UNIQUE CHECK (name = lower(name)),
+    usage_count   INTEGER      NOT NULL DEFAULT 0 CHECK (usage_count >= 0),
+    -- Растёт при каждом изменении usage_count: по нему индекс подсказок отбрасывает устаревшие события
+    usage_version BIGINT       NOT NULL DEFAULT 0
 );
 
 CREATE TABLE IF NOT EXISTS post
@@ -11,9 +14,15 @@ CREATE TABLE IF NOT EXISTS post
     id             BIGSERIAL PRIMARY KEY,
     title          VARCHAR(256) NOT NULL,
     text           TEXT         NOT NULL,
+    -- Превью для ленты, по тем же правилам, что PostMapper: 128 символов и многоточие
+    preview        TEXT GENERATED ALWAYS AS (
+        CASE WHEN char_length(text) <= 128 THEN text ELSE left(text, 128) || '…' END
+        ) STORED,
+    tags           TEXT[]       NOT NULL DEFAULT '{}',
     likes_count    INTEGER      NOT NULL DEFAULT 0 CHECK (likes_count >= 0),
     comments_count INTEGER      NOT NULL DEFAULT 0 CHECK (comments_count >= 0),
     image          BYTEA,
+    version        BIGINT       NOT NULL DEFAULT 0,
     updated_at     TIMESTAMP    NOT NULL DEFAULT CURRENT_TIMESTAMP,
     created_at     TIMESTAMP    NOT NULL DEFAULT CURRENT_TIMESTAMP
 );
@@ -23,6 +32,7 @@ CREATE TABLE IF NOT EXISTS comment
     id         BIGSERIAL PRIMARY KEY,
     text       TEXT      NOT NULL,
     post_id    BIGINT    NOT NULL REFERENCES post (id) ON DELETE CASCADE,
+    version    BIGINT    NOT NULL DEFAULT 0,
     updated_at     TIMESTAMP    NOT NULL DEFAULT CURRENT_TIMESTAMP,
     created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
 );
@@ -37,3 +47,43 @@ CREATE TABLE IF NOT EXISTS post_tag
 CREATE INDEX IF NOT EXISTS idx_comment_post_id ON comment (post_id);
 CREATE INDEX IF NOT EXISTS idx_post_created_at_id ON post (created_at DESC, id DESC);
 CREATE INDEX IF NOT EXISTS idx_post_title_lower ON post ((lower(title)));
+CREATE INDEX IF NOT EXISTS idx_post_tag_tag_id ON post_tag (tag_id);
+
+-- Счётчик использований тегов для баз, созданных до его появления: добавляем колонку и один раз заполняем по post_tag
+ALTER TABLE tag ADD COLUMN IF NOT EXISTS usage_count INTEGER;
+UPDATE tag t
+SET usage_count = (SELECT COUNT(*) FROM post_tag pt WHERE pt.tag_id = t.id)
+WHERE t.usage_count IS NULL;
+ALTER TABLE tag ALTER COLUMN usage_count SET DEFAULT 0;
+ALTER TABLE tag ALTER COLUMN usage_count SET NOT NULL;
+
+-- Частичный индекс по неиспользуемым тегам для пакетной очистки
+CREATE INDEX IF NOT EXISTS idx_tag_unused ON tag (id) WHERE usage_count = 0;
+
+-- Индекс для выборки самых популярных тегов без сортировки всей таблицы
+CREATE INDEX IF NOT EXISTS idx_tag_usage_count ON tag (usage_count DESC, name);
+
+-- Версии для оптимистической блокировки в базах, созданных до их появления
+ALTER TABLE post ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE comment ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE tag ADD COLUMN IF NOT EXISTS usage_version BIGINT NOT NULL DEFAULT 0;
+
+-- Превью текста для баз, созданных до его появления: добавление вычисляемой колонки заполняет её для всех постов
+ALTER TABLE post ADD COLUMN IF NOT EXISTS preview TEXT GENERATED ALWAYS AS (
+    CASE WHEN char_length(text) <= 128 THEN text ELSE left(text, 128) || '…' END
+    ) STORED;
+
+-- Денормализованные имена тегов поста для баз, созданных до их появления: один раз заполняем по post_tag
+ALTER TABLE post ADD COLUMN IF NOT EXISTS tags TEXT[];
+UPDATE post p
+SET tags = ARRAY(
+    SELECT t.name
+    FROM post_tag pt
+    JOIN tag t ON t.id = pt.tag_id
+    WHERE pt.post_id = p.id
+    ORDER BY t.name
+)
+WHERE p.tags IS NULL;
+ALTER TABLE post ALTER COLUMN tags SET DEFAULT '{}';
+ALTER TABLE post ALTER COLUMN tags SET NOT NULL;
+CREATE INDEX IF NOT EXISTS idx_post_tags ON post USING GIN (tags);
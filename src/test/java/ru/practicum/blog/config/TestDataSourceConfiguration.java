@@ -1,7 +1,9 @@
 package ru.practicum.blog.config;
 
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
 import org.springframework.context.event.ContextRefreshedEvent;
 import org.springframework.context.event.EventListener;
 import org.springframework.core.io.ClassPathResource;
@@ -13,11 +15,16 @@ import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.EnableTransactionManagement;
 import org.testcontainers.containers.PostgreSQLContainer;
 import org.testcontainers.utility.DockerImageName;
+import ru.practicum.blog.repository.jdbc.InstrumentedNamedParameterJdbcTemplate;
+import ru.practicum.blog.repository.jdbc.JdbcStatementMetrics;
+import ru.practicum.blog.repository.jdbc.SlowQueryLog;
 
 import javax.sql.DataSource;
 
 @Configuration
 @EnableTransactionManagement
+// Контекст профиля inmemory сканирует тестовые классы вместе с основными, БД ему не нужна
+@Profile("!inmemory")
 public class TestDataSourceConfiguration {
 
     @Bean(initMethod = "start", destroyMethod = "stop")
@@ -35,9 +42,18 @@ public class TestDataSourceConfiguration {
         return dataSource;
     }
 
+    // Контексты репозиторных тестов собираются без метрик — там шаблон обычный
     @Bean
-    public NamedParameterJdbcTemplate jdbcTemplate(DataSource dataSource) {
-        return new NamedParameterJdbcTemplate(dataSource);
+    public NamedParameterJdbcTemplate jdbcTemplate(
+            DataSource dataSource,
+            ObjectProvider<JdbcStatementMetrics> statementMetrics,
+            ObjectProvider<SlowQueryLog> slowQueryLog
+    ) {
+        JdbcStatementMetrics metrics = statementMetrics.getIfAvailable();
+        SlowQueryLog slowLog = slowQueryLog.getIfAvailable();
+        return metrics == null || slowLog == null
+                ? new NamedParameterJdbcTemplate(dataSource)
+                : new InstrumentedNamedParameterJdbcTemplate(dataSource, metrics, slowLog);
     }
 
     @Bean
@@ -4,8 +4,10 @@ import org.springframework.context.annotation.ComponentScan;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.FilterType;
 import org.springframework.context.annotation.Import;
+import org.springframework.context.annotation.Profile;
 
 @Configuration
+@Profile("!inmemory")
 @Import({TestDataSourceConfiguration.class, RestConfiguration.class, MultipartConfiguration.class, WebCorsConfiguration.class})
 @ComponentScan(
         basePackages = "ru.practicum.blog",
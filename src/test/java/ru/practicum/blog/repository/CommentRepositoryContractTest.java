@@ -0,0 +1,145 @@
+package ru.practicum.blog.repository;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import ru.practicum.blog.domain.exception.CommentConflictException;
+import ru.practicum.blog.domain.exception.CommentNotFoundException;
+import ru.practicum.blog.domain.model.Comment;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Общий контракт CommentRepository: наследники подставляют реализации и очищают их хранилище
+public abstract class CommentRepositoryContractTest {
+
+    private long postId;
+
+    protected abstract void clearStorage();
+
+    protected abstract PostRepository postRepository();
+
+    protected abstract CommentRepository commentRepository();
+
+    @BeforeEach
+    void setUp() {
+        clearStorage();
+        postId = postRepository().createPost("Post", "Body", List.of()).getId();
+    }
+
+    @Nested
+    @DisplayName("createComment")
+    class CreateComment {
+
+        @Test
+        @DisplayName("should return new comment with initial version")
+        void shouldReturnNewComment() {
+            Comment comment = commentRepository().createComment(postId, "Text");
+
+            assertEquals("Text", comment.getText());
+            assertEquals(postId, comment.getPostId());
+            assertEquals(0L, comment.getVersion());
+            assertTrue(commentRepository().existsById(postId, comment.getId()));
+        }
+    }
+
+    @Nested
+    @DisplayName("findCommentsByPostId")
+    class FindCommentsByPostId {
+
+        @Test
+        @DisplayName("should return newest comments first")
+        void shouldReturnNewestFirst() {
+            long first = commentRepository().createComment(postId, "First").getId();
+            long second = commentRepository().createComment(postId, "Second").getId();
+            long third = commentRepository().createComment(postId, "Third").getId();
+
+            assertEquals(List.of(third, second, first), ids(commentRepository().findCommentsByPostId(postId)));
+        }
+
+        @Test
+        @DisplayName("should not mix comments of different posts")
+        void shouldNotMixPosts() {
+            long otherPostId = postRepository().createPost("Other", "Body", List.of()).getId();
+            long commentId = commentRepository().createComment(otherPostId, "Other").getId();
+
+            assertEquals(List.of(), commentRepository().findCommentsByPostId(postId));
+            assertTrue(commentRepository().findCommentById(postId, commentId).isEmpty());
+            assertFalse(commentRepository().existsById(postId, commentId));
+            assertEquals("Other", commentRepository().findCommentById(otherPostId, commentId).orElseThrow().getText());
+        }
+
+        @Test
+        @DisplayName("should drop comments together with post")
+        void shouldDropWithPost() {
+            long commentId = commentRepository().createComment(postId, "Text").getId();
+
+            postRepository().deletePost(postId);
+
+            assertEquals(List.of(), commentRepository().findCommentsByPostId(postId));
+            assertFalse(commentRepository().existsById(postId, commentId));
+        }
+    }
+
+    @Nested
+    @DisplayName("updateComment")
+    class UpdateComment {
+
+        @Test
+        @DisplayName("should update comment and bump version")
+        void shouldUpdateComment() {
+            long commentId = commentRepository().createComment(postId, "Text").getId();
+
+            Comment updated = commentRepository().updateComment(postId, commentId, 0L, "Updated");
+
+            assertEquals("Updated", updated.getText());
+            assertEquals(1L, updated.getVersion());
+            assertEquals("Updated", commentRepository().findCommentById(postId, commentId).orElseThrow().getText());
+        }
+
+        @Test
+        @DisplayName("should reject outdated version and update unconditionally without it")
+        void shouldCheckVersion() {
+            long commentId = commentRepository().createComment(postId, "Text").getId();
+            commentRepository().updateComment(postId, commentId, 0L, "Second");
+
+            assertThrows(CommentConflictException.class,
+                    () -> commentRepository().updateComment(postId, commentId, 0L, "Stale"));
+            assertEquals(2L, commentRepository().updateComment(postId, commentId, null, "Third").getVersion());
+        }
+
+        @Test
+        @DisplayName("should throw when comment does not exist")
+        void shouldThrowWhenMissing() {
+            assertThrows(CommentNotFoundException.class,
+                    () -> commentRepository().updateComment(postId, 999L, 0L, "Text"));
+            assertThrows(CommentNotFoundException.class,
+                    () -> commentRepository().updateComment(postId, 999L, null, "Text"));
+        }
+    }
+
+    @Nested
+    @DisplayName("deleteComment")
+    class DeleteComment {
+
+        @Test
+        @DisplayName("should delete comment")
+        void shouldDeleteComment() {
+            long commentId = commentRepository().createComment(postId, "Text").getId();
+
+            commentRepository().deleteComment(postId, commentId);
+
+            assertFalse(commentRepository().existsById(postId, commentId));
+            assertThrows(CommentNotFoundException.class, () -> commentRepository().deleteComment(postId, commentId));
+        }
+    }
+
+    private static List<Long> ids(List<Comment> comments) {
+        return comments.stream().map(Comment::getId).toList();
+    }
+}
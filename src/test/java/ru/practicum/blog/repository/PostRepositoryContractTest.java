@@ -0,0 +1,362 @@
+package ru.practicum.blog.repository;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import ru.practicum.blog.domain.exception.PostConflictException;
+import ru.practicum.blog.domain.exception.PostImageException;
+import ru.practicum.blog.domain.exception.PostNotFoundException;
+import ru.practicum.blog.domain.model.Comment;
+import ru.practicum.blog.domain.model.Post;
+import ru.practicum.blog.domain.model.PostField;
+import ru.practicum.blog.domain.model.Tag;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Общий контракт PostRepository: наследники подставляют реализацию и очищают её хранилище
+public abstract class PostRepositoryContractTest {
+
+    private static final Set<PostField> WITHOUT_TEXT = Set.of(PostField.ID, PostField.TITLE);
+
+    protected abstract void clearStorage();
+
+    protected abstract PostRepository postRepository();
+
+    protected abstract CommentRepository commentRepository();
+
+    @BeforeEach
+    void setUp() {
+        clearStorage();
+    }
+
+    @Nested
+    @DisplayName("createPost")
+    class CreatePost {
+
+        @Test
+        @DisplayName("should return new post with distinct tags in request order")
+        void shouldReturnNewPostWithDistinctTags() {
+            Post post = postRepository().createPost("Title", "Text", List.of("java", "spring", "java"));
+
+            assertNotNull(post.getId());
+            assertEquals("Title", post.getTitle());
+            assertEquals("Text", post.getText());
+            assertEquals(0, post.getLikesCount());
+            assertEquals(0, post.getCommentsCount());
+            assertEquals(0L, post.getVersion());
+            assertEquals(List.of("java", "spring"), tagNames(post));
+            assertTrue(post.getTags().stream().allMatch(tag -> tag.getId() != null));
+        }
+
+        @Test
+        @DisplayName("should reuse tag ids across posts")
+        void shouldReuseTagIds() {
+            Post first = postRepository().createPost("First", "Text", List.of("java"));
+            Post second = postRepository().createPost("Second", "Text", List.of("java"));
+
+            assertEquals(first.getTags().getFirst().getId(), second.getTags().getFirst().getId());
+        }
+    }
+
+    @Nested
+    @DisplayName("findPostById")
+    class FindPostById {
+
+        @Test
+        @DisplayName("should return post with tags and text")
+        void shouldReturnPost() {
+            long id = postRepository().createPost("Title", "Text", List.of("java")).getId();
+
+            Post post = postRepository().findPostById(id, PostField.ALL).orElseThrow();
+
+            assertEquals("Title", post.getTitle());
+            assertEquals("Text", post.getText());
+            assertEquals(List.of("java"), tagNames(post));
+            assertEquals(0L, post.getVersion());
+        }
+
+        @Test
+        @DisplayName("should skip text when it is not requested")
+        void shouldSkipText() {
+            long id = postRepository().createPost("Title", "Text", List.of()).getId();
+
+            assertNull(postRepository().findPostById(id, WITHOUT_TEXT).orElseThrow().getText());
+        }
+
+        @Test
+        @DisplayName("should return empty for missing post")
+        void shouldReturnEmpty() {
+            assertTrue(postRepository().findPostById(999L, PostField.ALL).isEmpty());
+            assertFalse(postRepository().existsById(999L));
+        }
+    }
+
+    @Nested
+    @DisplayName("findPostWithComments")
+    class FindPostWithComments {
+
+        @Test
+        @DisplayName("should return post with the newest comments up to limit")
+        void shouldReturnNewestCommentsUpToLimit() {
+            long id = postRepository().createPost("Title", "Text", List.of("java")).getId();
+            commentRepository().createComment(id, "First");
+            long second = commentRepository().createComment(id, "Second").getId();
+            long third = commentRepository().createComment(id, "Third").getId();
+
+            Post post = postRepository().findPostWithComments(id, PostField.ALL, 2).orElseThrow();
+
+            assertEquals("Text", post.getText());
+            assertEquals(List.of("java"), tagNames(post));
+            assertEquals(List.of(third, second), post.getComments().stream().map(Comment::getId).toList());
+            assertEquals("Third", post.getComments().getFirst().getText());
+            assertEquals(id, post.getComments().getFirst().getPostId());
+            assertEquals(0L, post.getComments().getFirst().getVersion());
+        }
+
+        @Test
+        @DisplayName("should return empty comments and skip text when not requested")
+        void shouldReturnEmptyCommentsWithoutText() {
+            long id = postRepository().createPost("Title", "Text", List.of()).getId();
+
+            Post post = postRepository().findPostWithComments(id, WITHOUT_TEXT, 2).orElseThrow();
+
+            assertNull(post.getText());
+            assertEquals(List.of(), post.getComments());
+        }
+
+        @Test
+        @DisplayName("should return empty for missing post")
+        void shouldReturnEmpty() {
+            assertTrue(postRepository().findPostWithComments(999L, PostField.ALL, 2).isEmpty());
+        }
+    }
+
+    @Nested
+    @DisplayName("findPosts")
+    class FindPosts {
+
+        @Test
+        @DisplayName("should page newest posts first")
+        void shouldPageNewestFirst() {
+            long first = postRepository().createPost("First", "Text", List.of()).getId();
+            long second = postRepository().createPost("Second", "Text", List.of()).getId();
+            long third = postRepository().createPost("Third", "Text", List.of()).getId();
+
+            assertEquals(List.of(third, second), postRepository().findPostIds(Set.of(), "", 2, 0));
+            assertEquals(List.of(first), postRepository().findPostIds(Set.of(), "", 2, 2));
+            assertEquals(List.of(third, second, first), postRepository().findPosts(Set.of(), "", 10, 0, PostField.ALL)
+                    .stream().map(Post::getId).toList());
+            assertEquals(3, postRepository().countPosts(Set.of(), ""));
+        }
+
+        @Test
+        @DisplayName("should require all tags of the filter")
+        void shouldRequireAllTags() {
+            long both = postRepository().createPost("Both", "Text", List.of("java", "spring")).getId();
+            postRepository().createPost("Java", "Text", List.of("java"));
+            postRepository().createPost("None", "Text", List.of());
+
+            assertEquals(List.of(both), postRepository().findPostIds(Set.of("java", "spring"), "", 10, 0));
+            assertEquals(1, postRepository().countPosts(Set.of("java", "spring"), ""));
+            assertEquals(2, postRepository().countPosts(Set.of("java"), ""));
+            assertEquals(List.of(), postRepository().findPostIds(Set.of("unknown"), "", 10, 0));
+            assertEquals(0, postRepository().countPosts(Set.of("unknown"), ""));
+        }
+
+        @Test
+        @DisplayName("should filter by lower-case title substring together with tags")
+        void shouldFilterByTitle() {
+            long guide = postRepository().createPost("Spring Guide", "Text", List.of("java")).getId();
+            postRepository().createPost("Spring News", "Text", List.of());
+            postRepository().createPost("Other Guide", "Text", List.of("kotlin"));
+
+            assertEquals(List.of(guide), postRepository().findPostIds(Set.of("java"), "guide", 10, 0));
+            assertEquals(2, postRepository().countPosts(Set.of(), "spring"));
+            assertEquals(1, postRepository().countPosts(Set.of("java"), "guide"));
+        }
+
+        @Test
+        @DisplayName("should follow tag changes on update and delete")
+        void shouldFollowTagChanges() {
+            long id = postRepository().createPost("Title", "Text", List.of("java")).getId();
+            postRepository().updatePost(id, null, "Title", "Text", List.of("spring"));
+
+            assertEquals(List.of(), postRepository().findPostIds(Set.of("java"), "", 10, 0));
+            assertEquals(List.of(id), postRepository().findPostIds(Set.of("spring"), "", 10, 0));
+
+            postRepository().deletePost(id);
+
+            assertEquals(List.of(), postRepository().findPostIds(Set.of("spring"), "", 10, 0));
+            assertEquals(0, postRepository().countPosts(Set.of(), ""));
+        }
+    }
+
+    @Nested
+    @DisplayName("findPostsByIds")
+    class FindPostsByIds {
+
+        @Test
+        @DisplayName("should return feed previews ordered newest first")
+        void shouldReturnPreviews() {
+            String longText = "a".repeat(200);
+            long first = postRepository().createPost("First", longText, List.of("java")).getId();
+            long second = postRepository().createPost("Second", "Short", List.of()).getId();
+
+            List<Post> posts = postRepository().findPostsByIds(List.of(first, second, 999L), PostField.ALL);
+
+            assertEquals(List.of(second, first), posts.stream().map(Post::getId).toList());
+            assertEquals("Short", posts.getFirst().getPreview());
+            assertEquals("a".repeat(128) + "…", posts.get(1).getPreview());
+            assertNull(posts.get(1).getText());
+            assertEquals(List.of("java"), tagNames(posts.get(1)));
+        }
+
+        @Test
+        @DisplayName("should skip preview when text is not requested")
+        void shouldSkipPreview() {
+            long id = postRepository().createPost("Title", "Text", List.of()).getId();
+
+            assertNull(postRepository().findPostsByIds(List.of(id), WITHOUT_TEXT).getFirst().getPreview());
+        }
+    }
+
+    @Nested
+    @DisplayName("updatePost")
+    class UpdatePost {
+
+        @Test
+        @DisplayName("should update post and bump version")
+        void shouldUpdatePost() {
+            long id = postRepository().createPost("Title", "Text", List.of("java", "spring")).getId();
+
+            Post updated = postRepository().updatePost(id, 0L, "New", "New text", List.of("spring", "kotlin"));
+
+            assertEquals("New", updated.getTitle());
+            assertEquals("New text", updated.getText());
+            assertEquals(1L, updated.getVersion());
+            assertEquals(List.of("spring", "kotlin"), tagNames(updated));
+            assertEquals(List.of("spring", "kotlin"), tagNames(postRepository().findPostById(id, PostField.ALL).orElseThrow()));
+        }
+
+        @Test
+        @DisplayName("should reject outdated version")
+        void shouldRejectOutdatedVersion() {
+            long id = postRepository().createPost("Title", "Text", List.of()).getId();
+            postRepository().updatePost(id, 0L, "New", "Text", List.of());
+
+            assertThrows(PostConflictException.class, () -> postRepository().updatePost(id, 0L, "Stale", "Text", List.of()));
+            assertEquals("New", postRepository().findPostById(id, PostField.ALL).orElseThrow().getTitle());
+        }
+
+        @Test
+        @DisplayName("should update unconditionally without expected version")
+        void shouldUpdateWithoutVersion() {
+            long id = postRepository().createPost("Title", "Text", List.of()).getId();
+            postRepository().updatePost(id, null, "Second", "Text", List.of());
+
+            assertEquals(2L, postRepository().updatePost(id, null, "Third", "Text", List.of()).getVersion());
+        }
+
+        @Test
+        @DisplayName("should throw when post does not exist")
+        void shouldThrowWhenMissing() {
+            assertThrows(PostNotFoundException.class, () -> postRepository().updatePost(999L, 0L, "Title", "Text", List.of()));
+            assertThrows(PostNotFoundException.class, () -> postRepository().updatePost(999L, null, "Title", "Text", List.of()));
+        }
+    }
+
+    @Nested
+    @DisplayName("deletePost")
+    class DeletePost {
+
+        @Test
+        @DisplayName("should delete post")
+        void shouldDeletePost() {
+            long id = postRepository().createPost("Title", "Text", List.of("java")).getId();
+
+            postRepository().deletePost(id);
+
+            assertFalse(postRepository().existsById(id));
+            assertTrue(postRepository().findPostById(id, PostField.ALL).isEmpty());
+        }
+
+        @Test
+        @DisplayName("should throw when post does not exist")
+        void shouldThrowWhenMissing() {
+            assertThrows(PostNotFoundException.class, () -> postRepository().deletePost(999L));
+        }
+    }
+
+    @Nested
+    @DisplayName("counters and image")
+    class CountersAndImage {
+
+        @Test
+        @DisplayName("should increment likes and track comments count")
+        void shouldUpdateCounters() {
+            long id = postRepository().createPost("Title", "Text", List.of()).getId();
+
+            assertEquals(1, postRepository().incrementLikes(id));
+            assertEquals(2, postRepository().incrementLikes(id));
+            postRepository().incrementComments(id);
+            postRepository().incrementComments(id);
+            postRepository().decrementComments(id);
+
+            Post post = postRepository().findPostById(id, PostField.ALL).orElseThrow();
+            assertEquals(2, post.getLikesCount());
+            assertEquals(1, post.getCommentsCount());
+            assertThrows(PostNotFoundException.class, () -> postRepository().incrementLikes(999L));
+        }
+
+        @Test
+        @DisplayName("should bump version on likes, comments count and image")
+        void shouldBumpVersionOnCountersAndImage() {
+            long id = postRepository().createPost("Title", "Text", List.of()).getId();
+
+            postRepository().incrementLikes(id);
+            postRepository().incrementComments(id);
+            postRepository().decrementComments(id);
+            postRepository().updateImage(id, new byte[]{1});
+
+            assertEquals(4L, postRepository().findPostById(id, PostField.ALL).orElseThrow().getVersion());
+            assertThrows(PostConflictException.class,
+                    () -> postRepository().updatePost(id, 0L, "Second", "Text", List.of()));
+        }
+
+        @Test
+        @DisplayName("should store and return image")
+        void shouldStoreImage() {
+            long id = postRepository().createPost("Title", "Text", List.of()).getId();
+
+            assertThrows(PostImageException.class, () -> postRepository().getImage(id));
+            assertTrue(postRepository().updateImage(id, new byte[]{1, 2, 3}));
+            assertArrayEquals(new byte[]{1, 2, 3}, postRepository().getImage(id));
+            assertFalse(postRepository().updateImage(999L, new byte[]{1}));
+        }
+
+        @Test
+        @DisplayName("should return max post id")
+        void shouldReturnMaxPostId() {
+            assertEquals(0, postRepository().findMaxPostId());
+
+            postRepository().createPost("First", "Text", List.of());
+            long second = postRepository().createPost("Second", "Text", List.of()).getId();
+
+            assertEquals(second, postRepository().findMaxPostId());
+        }
+    }
+
+    private static List<String> tagNames(Post post) {
+        return post.getTags().stream().map(Tag::getName).toList();
+    }
+}
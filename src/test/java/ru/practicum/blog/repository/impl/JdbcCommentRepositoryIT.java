@@ -10,6 +10,8 @@ import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
 import org.springframework.test.context.TestPropertySource;
 import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
 import ru.practicum.blog.config.TestDataSourceConfiguration;
+import ru.practicum.blog.domain.exception.CommentConflictException;
+import ru.practicum.blog.domain.exception.CommentNotFoundException;
 import ru.practicum.blog.domain.model.Comment;
 import ru.practicum.blog.repository.CommentRepository;
 
@@ -17,6 +19,7 @@ import java.util.List;
 import java.util.Map;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 @SpringJUnitConfig(classes = {TestDataSourceConfiguration.class, JdbcCommentRepositoryImpl.class})
@@ -96,9 +99,32 @@ class JdbcCommentRepositoryIT {
         @Test
         @DisplayName("should update comment text")
         void shouldUpdateCommentText() {
-            Comment updated = commentRepository.updateComment(1L, 5L, "Updated");
+            Comment updated = commentRepository.updateComment(1L, 5L, null, "Updated");
 
             assertEquals("Updated", updated.getText());
+            assertEquals(1L, updated.getVersion());
+        }
+
+        @Test
+        @DisplayName("should update comment when expected version matches")
+        void shouldUpdateCommentWhenVersionMatches() {
+            Comment updated = commentRepository.updateComment(1L, 5L, 0L, "Updated");
+
+            assertEquals(1L, updated.getVersion());
+        }
+
+        @Test
+        @DisplayName("should report conflict when expected version is outdated")
+        void shouldReportConflictWhenVersionOutdated() {
+            commentRepository.updateComment(1L, 5L, 0L, "First");
+
+            assertThrows(CommentConflictException.class, () -> commentRepository.updateComment(1L, 5L, 0L, "Second"));
+        }
+
+        @Test
+        @DisplayName("should report not found when comment is missing")
+        void shouldReportNotFoundWhenCommentMissing() {
+            assertThrows(CommentNotFoundException.class, () -> commentRepository.updateComment(1L, 999L, 0L, "Updated"));
         }
     }
 
@@ -0,0 +1,46 @@
+package ru.practicum.blog.repository.impl;
+
+import org.junit.jupiter.api.DisplayName;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
+import ru.practicum.blog.config.TestDataSourceConfiguration;
+import ru.practicum.blog.repository.CommentRepository;
+import ru.practicum.blog.repository.PostRepository;
+import ru.practicum.blog.repository.PostRepositoryContractTest;
+
+import java.util.Map;
+
+@SpringJUnitConfig(classes = {TestDataSourceConfiguration.class, JdbcPostRepositoryImpl.class, JdbcCommentRepositoryImpl.class})
+@TestPropertySource(locations = "classpath:test-application.properties")
+@DisplayName("JdbcPostRepositoryContractIT")
+class JdbcPostRepositoryContractIT extends PostRepositoryContractTest {
+
+    @Autowired
+    private NamedParameterJdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PostRepository postRepository;
+
+    @Autowired
+    private CommentRepository commentRepository;
+
+    @Override
+    protected void clearStorage() {
+        jdbcTemplate.update("DELETE FROM post_tag", Map.of());
+        jdbcTemplate.update("DELETE FROM comment", Map.of());
+        jdbcTemplate.update("DELETE FROM post", Map.of());
+        jdbcTemplate.update("DELETE FROM tag", Map.of());
+    }
+
+    @Override
+    protected PostRepository postRepository() {
+        return postRepository;
+    }
+
+    @Override
+    protected CommentRepository commentRepository() {
+        return commentRepository;
+    }
+}
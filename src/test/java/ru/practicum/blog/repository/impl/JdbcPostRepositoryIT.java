@@ -10,7 +10,10 @@ import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
 import org.springframework.test.context.TestPropertySource;
 import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
 import ru.practicum.blog.config.TestDataSourceConfiguration;
+import ru.practicum.blog.domain.exception.PostConflictException;
+import ru.practicum.blog.domain.exception.PostNotFoundException;
 import ru.practicum.blog.domain.model.Post;
+import ru.practicum.blog.domain.model.PostField;
 import ru.practicum.blog.domain.model.Tag;
 import ru.practicum.blog.repository.PostRepository;
 
@@ -20,6 +23,8 @@ import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 @SpringJUnitConfig(classes = {TestDataSourceConfiguration.class, JdbcPostRepositoryImpl.class})
@@ -66,25 +71,19 @@ class JdbcPostRepositoryIT {
         );
 
         long springTagId = jdbcTemplate.queryForObject(
-                "INSERT INTO tag (name) VALUES(:name) RETURNING id",
+                "INSERT INTO tag (name, usage_count) VALUES(:name, 1) RETURNING id",
                 Map.of("name", "spring"),
                 Long.class
         );
 
         long javaTagId = jdbcTemplate.queryForObject(
-                "INSERT INTO tag (name) VALUES(:name) RETURNING id",
+                "INSERT INTO tag (name, usage_count) VALUES(:name, 1) RETURNING id",
                 Map.of("name", "java"),
                 Long.class
         );
 
-        jdbcTemplate.update(
-                "INSERT INTO post_tag (post_id, tag_id) VALUES(:postId, :tagId)",
-                Map.of("postId", post1Id, "tagId", springTagId)
-        );
-        jdbcTemplate.update(
-                "INSERT INTO post_tag (post_id, tag_id) VALUES(:postId, :tagId)",
-                Map.of("postId", post2Id, "tagId", javaTagId)
-        );
+        linkPostTag(post1Id, springTagId);
+        linkPostTag(post2Id, javaTagId);
     }
 
     @Nested
@@ -93,7 +92,7 @@ class JdbcPostRepositoryIT {
         @Test
         @DisplayName("should filter posts by title and tags")
         void shouldFilterPostsByTitleAndTags() {
-            List<Post> posts = postRepository.findPosts(Set.of("spring"), "guide", 10, 0L);
+            List<Post> posts = postRepository.findPosts(Set.of("spring"), "guide", 10, 0L, PostField.ALL);
 
             assertEquals(1, posts.size());
             Post post = posts.getFirst();
@@ -104,6 +103,29 @@ class JdbcPostRepositoryIT {
             assertEquals(List.of("spring"),
                     post.getTags().stream().map(Tag::getName).toList());
         }
+
+        @Test
+        @DisplayName("should read stored preview instead of full text")
+        void shouldReadStoredPreview() {
+            Post created = postRepository.createPost("Long read", "ж".repeat(200), List.of());
+
+            Post post = postRepository.findPostsByIds(List.of(created.getId()), PostField.ALL).getFirst();
+
+            assertNull(post.getText());
+            assertEquals("ж".repeat(128) + "…", post.getPreview());
+        }
+
+        @Test
+        @DisplayName("should skip text when not requested but keep in-row tags")
+        void shouldSkipTextWhenNotRequested() {
+            List<Post> posts = postRepository.findPosts(Set.of("spring"), "guide", 10, 0L, PostField.parse("title"));
+
+            assertEquals(1, posts.size());
+            assertEquals("Spring Guide", posts.getFirst().getTitle());
+            assertNull(posts.getFirst().getText());
+            assertNull(posts.getFirst().getPreview());
+            assertEquals(List.of("spring"), posts.getFirst().getTags().stream().map(Tag::getName).toList());
+        }
     }
 
     @Nested
@@ -125,6 +147,26 @@ class JdbcPostRepositoryIT {
             );
             assertEquals(1L, count);
         }
+
+        @Test
+        @DisplayName("should return counters and tags in request order")
+        void shouldReturnCountersAndTagsInRequestOrder() {
+            Post post = postRepository.createPost("New", "Body", List.of("jdbc", "spring", "jdbc"));
+
+            assertEquals(0, post.getLikesCount());
+            assertEquals(0, post.getCommentsCount());
+            assertEquals(List.of("jdbc", "spring"), post.getTags().stream().map(Tag::getName).toList());
+            assertTrue(post.getTags().stream().allMatch(tag -> tag.getId() != null));
+        }
+
+        @Test
+        @DisplayName("should increment usage counters of linked tags")
+        void shouldIncrementUsageCountersOfLinkedTags() {
+            postRepository.createPost("New", "Body", List.of("spring", "jdbc", "jdbc"));
+
+            assertEquals(2, usageCount("spring"));
+            assertEquals(1, usageCount("jdbc"));
+        }
     }
 
     @Nested
@@ -133,7 +175,7 @@ class JdbcPostRepositoryIT {
         @Test
         @DisplayName("should update post and replace tags")
         void shouldUpdatePostAndReplaceTags() {
-            Post post = postRepository.updatePost(post1Id, "Updated", "Content", List.of("java"));
+            Post post = postRepository.updatePost(post1Id, null, "Updated", "Content", List.of("java"));
 
             assertEquals("Updated", post.getTitle());
             assertEquals(List.of("java"), post.getTags().stream().map(Tag::getName).toList());
@@ -145,6 +187,44 @@ class JdbcPostRepositoryIT {
             );
             assertEquals(1L, count);
         }
+
+        @Test
+        @DisplayName("should keep likes and comments counters in result")
+        void shouldKeepCountersInResult() {
+            Post post = postRepository.updatePost(post1Id, null, "Updated", "Content", List.of());
+
+            assertEquals(2, post.getLikesCount());
+            assertEquals(1, post.getCommentsCount());
+            assertTrue(post.getTags().isEmpty());
+        }
+
+        @Test
+        @DisplayName("should increment version and report conflict for outdated version")
+        void shouldReportConflictForOutdatedVersion() {
+            Post post = postRepository.updatePost(post1Id, 0L, "Updated", "Content", List.of("java"));
+
+            assertEquals(1L, post.getVersion());
+            assertThrows(PostConflictException.class,
+                    () -> postRepository.updatePost(post1Id, 0L, "Stale", "Content", List.of("java")));
+            assertEquals(2, usageCount("java")); // неудачное обновление не трогает связи и счётчики тегов
+        }
+
+        @Test
+        @DisplayName("should throw when post does not exist")
+        void shouldThrowWhenPostDoesNotExist() {
+            assertThrows(PostNotFoundException.class,
+                    () -> postRepository.updatePost(-1L, null, "Updated", "Content", List.of("java")));
+        }
+
+        @Test
+        @DisplayName("should adjust usage counters of replaced tags")
+        void shouldAdjustUsageCountersOfReplacedTags() {
+            postRepository.updatePost(post1Id, null, "Updated", "Content", List.of("java", "jdbc"));
+
+            assertEquals(0, usageCount("spring"));
+            assertEquals(2, usageCount("java"));
+            assertEquals(1, usageCount("jdbc"));
+        }
     }
 
     @Nested
@@ -167,6 +247,7 @@ class JdbcPostRepositoryIT {
             );
             assertEquals(0L, posts);
             assertEquals(0L, tags);
+            assertEquals(0, usageCount("java"));
         }
     }
 
@@ -196,4 +277,52 @@ class JdbcPostRepositoryIT {
             assertEquals("image", new String(stored));
         }
     }
+
+    @Nested
+    @DisplayName("tagsConsistency")
+    class TagsConsistency {
+
+        @Test
+        @DisplayName("should keep tags column in sync on create and update")
+        void shouldKeepTagsColumnInSync() {
+            Post created = postRepository.createPost("Synced", "Body", List.of("spring", "jdbc", "spring"));
+            postRepository.updatePost(created.getId(), null, "Synced", "Body", List.of("jdbc", "java"));
+
+            assertTrue(postRepository.findPostIdsWithInconsistentTags(1, postRepository.findMaxPostId() + 1).isEmpty());
+            assertEquals(List.of("jdbc", "java"), postRepository.findPostById(created.getId(), PostField.ALL)
+                    .orElseThrow().getTags().stream().map(Tag::getName).toList());
+        }
+
+        @Test
+        @DisplayName("should detect and repair diverged tags column")
+        void shouldDetectAndRepairDivergedTagsColumn() {
+            jdbcTemplate.update("UPDATE post SET tags = '{java,spring}' WHERE id = :id", Map.of("id", post2Id));
+            long toId = postRepository.findMaxPostId() + 1;
+
+            assertEquals(List.of(post2Id), postRepository.findPostIdsWithInconsistentTags(1, toId));
+
+            assertEquals(1, postRepository.repairTags(List.of(post2Id)));
+            assertTrue(postRepository.findPostIdsWithInconsistentTags(1, toId).isEmpty());
+        }
+    }
+
+    // Как и репозиторий, вместе со связью обновляем копию имён тегов в строке поста
+    private void linkPostTag(long postId, long tagId) {
+        jdbcTemplate.update(
+                "INSERT INTO post_tag (post_id, tag_id) VALUES(:postId, :tagId)",
+                Map.of("postId", postId, "tagId", tagId)
+        );
+        jdbcTemplate.update(
+                "UPDATE post SET tags = array_append(tags, (SELECT name FROM tag WHERE id = :tagId)) WHERE id = :postId",
+                Map.of("postId", postId, "tagId", tagId)
+        );
+    }
+
+    private int usageCount(String tagName) {
+        return jdbcTemplate.queryForObject(
+                "SELECT usage_count FROM tag WHERE name = :name",
+                Map.of("name", tagName),
+                Integer.class
+        );
+    }
 }
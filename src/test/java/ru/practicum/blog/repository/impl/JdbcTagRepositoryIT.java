@@ -0,0 +1,150 @@
+package ru.practicum.blog.repository.impl;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
+import ru.practicum.blog.config.TestDataSourceConfiguration;
+import ru.practicum.blog.domain.model.Tag;
+import ru.practicum.blog.repository.TagRepository;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringJUnitConfig(classes = {TestDataSourceConfiguration.class, JdbcTagRepositoryImpl.class})
+@TestPropertySource(locations = "classpath:test-application.properties")
+@DisplayName("JdbcTagRepositoryIT")
+class JdbcTagRepositoryIT {
+
+    @Autowired
+    private NamedParameterJdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TagRepository tagRepository;
+
+    private long postId;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.update("DELETE FROM post_tag", Map.of());
+        jdbcTemplate.update("DELETE FROM comment", Map.of());
+        jdbcTemplate.update("DELETE FROM post", Map.of());
+        jdbcTemplate.update("DELETE FROM tag", Map.of());
+
+        postId = jdbcTemplate.queryForObject(
+                "INSERT INTO post (title, text) VALUES (:title, :text) RETURNING id",
+                new MapSqlParameterSource()
+                        .addValue("title", "Spring Guide")
+                        .addValue("text", "Detailed content"),
+                Long.class
+        );
+    }
+
+    @Nested
+    @DisplayName("findPopularTags")
+    class FindPopularTags {
+
+        @Test
+        @DisplayName("should return used tags ordered by usage count")
+        void shouldReturnUsedTagsOrderedByUsageCount() {
+            insertTag("java", 3);
+            insertTag("spring", 5);
+            insertTag("jdbc", 3);
+            insertTag("unused", 0);
+
+            List<Tag> tags = tagRepository.findPopularTags(3);
+
+            assertEquals(List.of("spring", "java", "jdbc"), tags.stream().map(Tag::getName).toList());
+            assertEquals(List.of(5, 3, 3), tags.stream().map(Tag::getUsageCount).toList());
+        }
+    }
+
+    @Nested
+    @DisplayName("findAllTags")
+    class FindAllTags {
+
+        @Test
+        @DisplayName("should return unused tags with their usage versions")
+        void shouldReturnUnusedTagsWithVersions() {
+            insertTag("java", 3);
+            insertTag("unused", 0);
+
+            List<Tag> tags = tagRepository.findAllTags();
+
+            assertEquals(Set.of("java", "unused"), tags.stream().map(Tag::getName).collect(Collectors.toSet()));
+            assertTrue(tags.stream().allMatch(tag -> tag.getUsageVersion() == 0L));
+        }
+    }
+
+    @Nested
+    @DisplayName("deleteUnusedTags")
+    class DeleteUnusedTags {
+
+        @Test
+        @DisplayName("should remove only tags with zero usage")
+        void shouldRemoveOnlyTagsWithZeroUsage() {
+            long springTagId = insertTag("spring", 1);
+            linkPostTag(springTagId);
+            insertTag("java", 0);
+
+            int deleted = tagRepository.deleteUnusedTags(10);
+
+            assertEquals(1, deleted);
+            assertEquals(List.of("spring"), tagNames());
+        }
+
+        @Test
+        @DisplayName("should not remove linked tag even if counter is stale")
+        void shouldNotRemoveLinkedTagEvenIfCounterIsStale() {
+            long springTagId = insertTag("spring", 0);
+            linkPostTag(springTagId);
+
+            int deleted = tagRepository.deleteUnusedTags(10);
+
+            assertEquals(0, deleted);
+            assertEquals(List.of("spring"), tagNames());
+        }
+
+        @Test
+        @DisplayName("should respect batch size")
+        void shouldRespectBatchSize() {
+            insertTag("java", 0);
+            insertTag("jdbc", 0);
+            insertTag("spring", 0);
+
+            int deleted = tagRepository.deleteUnusedTags(2);
+
+            assertEquals(2, deleted);
+            assertEquals(1, tagNames().size());
+        }
+    }
+
+    private long insertTag(String name, int usageCount) {
+        return jdbcTemplate.queryForObject(
+                "INSERT INTO tag (name, usage_count) VALUES (:name, :usageCount) RETURNING id",
+                new MapSqlParameterSource().addValue("name", name).addValue("usageCount", usageCount),
+                Long.class
+        );
+    }
+
+    private void linkPostTag(long tagId) {
+        jdbcTemplate.update(
+                "INSERT INTO post_tag (post_id, tag_id) VALUES(:postId, :tagId)",
+                new MapSqlParameterSource().addValue("postId", postId).addValue("tagId", tagId)
+        );
+    }
+
+    private List<String> tagNames() {
+        return jdbcTemplate.queryForList("SELECT name FROM tag ORDER BY name", Map.of(), String.class);
+    }
+}
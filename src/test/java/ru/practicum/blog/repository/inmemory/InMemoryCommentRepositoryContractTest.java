@@ -0,0 +1,31 @@
+package ru.practicum.blog.repository.inmemory;
+
+import org.junit.jupiter.api.DisplayName;
+import ru.practicum.blog.repository.CommentRepository;
+import ru.practicum.blog.repository.CommentRepositoryContractTest;
+import ru.practicum.blog.repository.PostRepository;
+
+@DisplayName("InMemoryCommentRepositoryContractTest")
+class InMemoryCommentRepositoryContractTest extends CommentRepositoryContractTest {
+
+    private PostRepository postRepository;
+    private CommentRepository commentRepository;
+
+    @Override
+    protected void clearStorage() {
+        InMemoryBlogStore store = new InMemoryBlogStore();
+        postRepository = new InMemoryPostRepositoryImpl(store, event -> {
+        });
+        commentRepository = new InMemoryCommentRepositoryImpl(store);
+    }
+
+    @Override
+    protected PostRepository postRepository() {
+        return postRepository;
+    }
+
+    @Override
+    protected CommentRepository commentRepository() {
+        return commentRepository;
+    }
+}
@@ -0,0 +1,83 @@
+package ru.practicum.blog.repository.inmemory;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import ru.practicum.blog.domain.model.Post;
+import ru.practicum.blog.domain.model.PostImportResult;
+import ru.practicum.blog.domain.model.Tag;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DisplayName("InMemoryPostBulkRepositoryImplTest")
+class InMemoryPostBulkRepositoryImplTest {
+
+    private InMemoryBlogStore store;
+    private InMemoryPostBulkRepositoryImpl postBulkRepository;
+
+    @BeforeEach
+    void setUp() {
+        store = new InMemoryBlogStore();
+        postBulkRepository = new InMemoryPostBulkRepositoryImpl(store, new ObjectMapper(), event -> {
+        });
+    }
+
+    @Nested
+    @DisplayName("importPosts")
+    class ImportPosts {
+
+        @Test
+        @DisplayName("should read posts without holding the write lock")
+        void shouldReadPostsWithoutWriteLock() {
+            Iterator<Post> posts = List.of(post("First", "java"), post("Second", "java", "spring")).iterator();
+            // Если итератор читают под блокировкой записи, запись из другого потока не дождётся её
+            Iterator<Post> checkingPosts = new Iterator<>() {
+                @Override
+                public boolean hasNext() {
+                    return posts.hasNext();
+                }
+
+                @Override
+                public Post next() {
+                    assertTrue(CompletableFuture.supplyAsync(() -> store.write(() -> true))
+                            .orTimeout(5, TimeUnit.SECONDS)
+                            .join());
+                    return posts.next();
+                }
+            };
+
+            PostImportResult result = postBulkRepository.importPosts(checkingPosts, 10);
+
+            assertEquals(2, result.getImportedPosts());
+            assertEquals(3, result.getLinkedTags());
+        }
+
+        @Test
+        @DisplayName("should stop reading at the row limit")
+        void shouldStopAtRowLimit() {
+            Iterator<Post> posts = List.of(post("First"), post("Second"), post("Third")).iterator();
+
+            PostImportResult result = postBulkRepository.importPosts(posts, 2);
+
+            assertEquals(2, result.getImportedPosts());
+            assertEquals("Third", posts.next().getTitle());
+        }
+    }
+
+    private static Post post(String title, String... tags) {
+        return Post.builder()
+                .title(title)
+                .text("Text")
+                .tags(Arrays.stream(tags).map(name -> Tag.builder().name(name).build()).toList())
+                .build();
+    }
+}
@@ -0,0 +1,106 @@
+package ru.practicum.blog.repository.inmemory;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import ru.practicum.blog.domain.event.TagsChangedEvent;
+import ru.practicum.blog.domain.model.Tag;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DisplayName("InMemoryTagRepositoryImplTest")
+class InMemoryTagRepositoryImplTest {
+
+    private final List<TagsChangedEvent> events = new ArrayList<>();
+
+    private InMemoryPostRepositoryImpl postRepository;
+    private InMemoryTagRepositoryImpl tagRepository;
+
+    @BeforeEach
+    void setUp() {
+        InMemoryBlogStore store = new InMemoryBlogStore();
+        postRepository = new InMemoryPostRepositoryImpl(store, event -> events.add((TagsChangedEvent) event));
+        tagRepository = new InMemoryTagRepositoryImpl(store, event -> events.add((TagsChangedEvent) event));
+    }
+
+    @Nested
+    @DisplayName("findPopularTags")
+    class FindPopularTags {
+
+        @Test
+        @DisplayName("should order used tags by usage and then by name")
+        void shouldOrderByUsageAndName() {
+            postRepository.createPost("First", "Text", List.of("spring", "java"));
+            postRepository.createPost("Second", "Text", List.of("java", "kotlin"));
+            long third = postRepository.createPost("Third", "Text", List.of("jdbc")).getId();
+            postRepository.deletePost(third);
+
+            List<Tag> tags = tagRepository.findPopularTags(10);
+
+            assertEquals(List.of("java", "kotlin", "spring"), tags.stream().map(Tag::getName).toList());
+            assertEquals(2, tags.getFirst().getUsageCount());
+            assertEquals(4, tagRepository.findAllTags().size());
+        }
+    }
+
+    @Nested
+    @DisplayName("findAllTags")
+    class FindAllTags {
+
+        @Test
+        @DisplayName("should bump usage version on every counter change")
+        void shouldBumpUsageVersionOnEveryChange() {
+            long id = postRepository.createPost("Title", "Text", List.of("java")).getId();
+            postRepository.updatePost(id, null, "Title", "Text", List.of("spring"));
+
+            List<Long> javaVersions = events.stream()
+                    .flatMap(event -> event.updatedTags().stream())
+                    .filter(tag -> tag.getName().equals("java"))
+                    .map(Tag::getUsageVersion)
+                    .toList();
+            Tag java = tagRepository.findAllTags().stream()
+                    .filter(tag -> tag.getName().equals("java"))
+                    .findFirst()
+                    .orElseThrow();
+
+            assertEquals(List.of(1L, 2L), javaVersions);
+            assertEquals(0, java.getUsageCount());
+            assertEquals(2L, java.getUsageVersion());
+        }
+    }
+
+    @Nested
+    @DisplayName("deleteUnusedTags")
+    class DeleteUnusedTags {
+
+        @Test
+        @DisplayName("should delete only unused tags and publish their names")
+        void shouldDeleteUnusedTags() {
+            long id = postRepository.createPost("Title", "Text", List.of("java", "spring")).getId();
+            postRepository.updatePost(id, null, "Title", "Text", List.of("spring"));
+            events.clear();
+
+            assertEquals(1, tagRepository.deleteUnusedTags(10));
+            assertEquals(List.of("java"), events.getFirst().removedTagNames());
+            assertEquals(0, tagRepository.deleteUnusedTags(10));
+            assertTrue(postRepository.findPostIds(Set.of("java"), "", 10, 0).isEmpty());
+        }
+
+        @Test
+        @DisplayName("should publish new usage counts on post changes")
+        void shouldPublishUsageCounts() {
+            postRepository.createPost("Title", "Text", List.of("java"));
+            postRepository.createPost("Other", "Text", List.of("java"));
+
+            Tag java = events.getLast().updatedTags().getFirst();
+            assertEquals("java", java.getName());
+            assertEquals(2, java.getUsageCount());
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package ru.practicum.blog.repository.jdbc;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import ru.practicum.blog.repository.util.SqlConstants;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@DisplayName("JdbcStatementMetricsTest")
+class JdbcStatementMetricsTest {
+
+    private MeterRegistry meterRegistry;
+
+    private JdbcStatementMetrics statementMetrics;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        statementMetrics = new JdbcStatementMetrics(meterRegistry);
+    }
+
+    @Test
+    @DisplayName("should name statements after their SqlConstants field")
+    void shouldNameStatementsAfterConstants() {
+        assertEquals("FIND_POST_BY_ID", statementMetrics.statementName(SqlConstants.FIND_POST_BY_ID));
+        assertEquals(JdbcStatementMetrics.OTHER_STATEMENT, statementMetrics.statementName("SELECT 1"));
+    }
+
+    @Test
+    @DisplayName("should record latency and rows per statement")
+    void shouldRecordLatencyAndRowsPerStatement() {
+        statementMetrics.record(SqlConstants.FIND_POST_BY_ID, TimeUnit.MILLISECONDS.toNanos(2), 1);
+        statementMetrics.record(SqlConstants.FIND_POST_BY_ID, TimeUnit.MILLISECONDS.toNanos(4), 0);
+        statementMetrics.record(SqlConstants.FIND_POST_BY_ID, TimeUnit.MILLISECONDS.toNanos(6), -1);
+
+        assertEquals(3L, meterRegistry.get("blog.db.statement.duration")
+                .tag("statement", "FIND_POST_BY_ID").timer().count());
+        assertEquals(2L, meterRegistry.get("blog.db.statement.rows")
+                .tag("statement", "FIND_POST_BY_ID").summary().count());
+    }
+
+    @Test
+    @DisplayName("should order snapshot by total time")
+    void shouldOrderSnapshotByTotalTime() {
+        statementMetrics.record(SqlConstants.FIND_POST_BY_ID, TimeUnit.MILLISECONDS.toNanos(1), 1);
+        statementMetrics.record(SqlConstants.COUNT_POSTS_NO_TAGS, TimeUnit.MILLISECONDS.toNanos(30), 1);
+        statementMetrics.record("SELECT 1", TimeUnit.MILLISECONDS.toNanos(5), 1);
+
+        List<JdbcStatementMetrics.StatementStats> snapshot = statementMetrics.snapshot();
+
+        assertEquals(List.of("COUNT_POSTS_NO_TAGS", JdbcStatementMetrics.OTHER_STATEMENT, "FIND_POST_BY_ID"),
+                snapshot.stream().map(JdbcStatementMetrics.StatementStats::statement).toList());
+        assertEquals(30.0, snapshot.getFirst().maxMs(), 0.001);
+    }
+}
@@ -0,0 +1,86 @@
+package ru.practicum.blog.repository.jdbc;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.task.support.TaskExecutorAdapter;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
+import org.springframework.transaction.PlatformTransactionManager;
+import ru.practicum.blog.config.TestDataSourceConfiguration;
+import ru.practicum.blog.repository.util.SqlConstants;
+
+import javax.sql.DataSource;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringJUnitConfig(classes = TestDataSourceConfiguration.class)
+@TestPropertySource(locations = "classpath:test-application.properties")
+@DisplayName("SlowQueryLogIT")
+class SlowQueryLogIT {
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private NamedParameterJdbcTemplate jdbcTemplate;
+
+    private SlowQueryLog slowQueryLog;
+
+    private long postId;
+
+    @BeforeEach
+    void setUp() {
+        slowQueryLog = new SlowQueryLog(
+                new JdbcStatementMetrics(new SimpleMeterRegistry()),
+                dataSource,
+                transactionManager,
+                new TaskExecutorAdapter(Runnable::run),
+                1,
+                true,
+                60_000,
+                "text"
+        );
+        jdbcTemplate.update("DELETE FROM post_tag", Map.of());
+        jdbcTemplate.update("DELETE FROM comment", Map.of());
+        jdbcTemplate.update("DELETE FROM post", Map.of());
+        postId = jdbcTemplate.queryForObject(
+                "INSERT INTO post (title, text) VALUES ('Plan', 'Body') RETURNING id",
+                Map.of(),
+                Long.class
+        );
+    }
+
+    @Test
+    @DisplayName("should capture analyzed plan for select with expanded bind parameters")
+    void shouldCaptureAnalyzedPlanForSelect() {
+        List<String> plan = slowQueryLog.capturePlan(
+                SqlConstants.FIND_POSTS_BY_IDS,
+                new MapSqlParameterSource("postIds", List.of(postId, postId + 1))
+        );
+
+        assertTrue(plan.stream().anyMatch(line -> line.startsWith("Execution Time")));
+    }
+
+    @Test
+    @DisplayName("should only plan modifying statements without executing them")
+    void shouldNotExecuteModifyingStatements() {
+        List<String> plan = slowQueryLog.capturePlan(SqlConstants.INCREMENT_LIKES, new MapSqlParameterSource("postId", postId));
+
+        assertFalse(plan.isEmpty());
+        assertFalse(plan.stream().anyMatch(line -> line.startsWith("Execution Time")));
+        assertEquals(0, jdbcTemplate.queryForObject(
+                "SELECT likes_count FROM post WHERE id = :id", Map.of("id", postId), Integer.class));
+    }
+}
@@ -0,0 +1,86 @@
+package ru.practicum.blog.repository.jdbc;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.transaction.PlatformTransactionManager;
+import ru.practicum.blog.repository.util.SqlConstants;
+
+import javax.sql.DataSource;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("SlowQueryLogTest")
+class SlowQueryLogTest {
+
+    @Mock
+    private DataSource dataSource;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private AsyncTaskExecutor executor;
+
+    private SlowQueryLog slowQueryLog;
+
+    @BeforeEach
+    void setUp() {
+        slowQueryLog = new SlowQueryLog(
+                new JdbcStatementMetrics(new SimpleMeterRegistry()),
+                dataSource,
+                transactionManager,
+                executor,
+                100,
+                true,
+                60_000,
+                "text, title"
+        );
+    }
+
+    @Test
+    @DisplayName("should treat statements at or above threshold as slow")
+    void shouldCompareWithThreshold() {
+        assertFalse(slowQueryLog.isSlow(TimeUnit.MILLISECONDS.toNanos(99)));
+        assertTrue(slowQueryLog.isSlow(TimeUnit.MILLISECONDS.toNanos(100)));
+    }
+
+    @Test
+    @DisplayName("should redact configured parameters and shorten binary values")
+    void shouldRedactConfiguredParameters() {
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("id", 5L)
+                .addValue("title", "Secret draft")
+                .addValue("image", new byte[2048])
+                .addValue("tags", new String[]{"java", "sql"});
+
+        assertEquals("{id=5, title=***, image=<2048 bytes>, tags=[java, sql]}", slowQueryLog.describeParameters(params));
+    }
+
+    @Test
+    @DisplayName("should capture at most one plan per statement within the interval")
+    void shouldRateLimitPlansPerStatement() {
+        long elapsed = TimeUnit.SECONDS.toNanos(1);
+        MapSqlParameterSource params = new MapSqlParameterSource("postIds", List.of(1L));
+
+        slowQueryLog.logSlow(SqlConstants.FIND_POSTS_BY_IDS, params, elapsed);
+        slowQueryLog.logSlow(SqlConstants.FIND_POSTS_BY_IDS, params, elapsed);
+        slowQueryLog.logSlow(SqlConstants.FIND_POST_BY_ID, new MapSqlParameterSource("postId", 1L), elapsed);
+
+        verify(executor, times(2)).execute(any(Runnable.class));
+    }
+}
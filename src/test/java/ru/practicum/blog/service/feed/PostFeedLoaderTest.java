@@ -0,0 +1,153 @@
+package ru.practicum.blog.service.feed;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+import ru.practicum.blog.domain.exception.PostDbException;
+import ru.practicum.blog.domain.model.Post;
+import ru.practicum.blog.domain.model.PostField;
+import ru.practicum.blog.repository.PostRepository;
+import ru.practicum.blog.util.TestDataFactory;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("PostFeedLoaderTest")
+class PostFeedLoaderTest {
+
+    private static final Set<String> TAGS = Set.of("java");
+    private static final String TITLE = "spring";
+
+    @Mock
+    private PostRepository postRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private final SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("test-vt-");
+
+    @BeforeEach
+    void setUp() {
+        executor.setVirtualThreads(true);
+        lenient().when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+    }
+
+    @Nested
+    @DisplayName("sequential")
+    class Sequential {
+
+        @Test
+        @DisplayName("should load posts and count through repository")
+        void shouldLoadPostsAndCount() {
+            Post post = TestDataFactory.createPost(1L, "Spring", "text", List.of("java"), 0, 0);
+            when(postRepository.findPosts(TAGS, TITLE, 5, 0L, PostField.ALL)).thenReturn(List.of(post));
+            when(postRepository.countPosts(TAGS, TITLE)).thenReturn(1L);
+
+            PostFeedPage page = loader(false, 1000).load(TAGS, TITLE, 5, 0L, PostField.ALL);
+
+            assertEquals(List.of(post), page.posts());
+            assertEquals(1L, page.totalCount());
+            verify(postRepository, never()).findPostIds(any(), any(), anyInt(), anyLong());
+        }
+    }
+
+    @Nested
+    @DisplayName("parallel")
+    class Parallel {
+
+        @Test
+        @DisplayName("should assemble page from independent queries")
+        void shouldAssemblePage() {
+            Post first = TestDataFactory.createPost(1L, "First", "text", List.of("java"), 0, 0);
+            Post second = TestDataFactory.createPost(2L, "Second", "text", List.of(), 0, 0);
+            when(postRepository.countPosts(TAGS, TITLE)).thenReturn(12L);
+            when(postRepository.findPostIds(TAGS, TITLE, 2, 4L)).thenReturn(List.of(1L, 2L));
+            when(postRepository.findPostsByIds(List.of(1L, 2L), PostField.ALL)).thenReturn(List.of(first, second));
+
+            PostFeedPage page = loader(true, 1000).load(TAGS, TITLE, 2, 4L, PostField.ALL);
+
+            assertEquals(12L, page.totalCount());
+            assertEquals(List.of(first, second), page.posts());
+            verify(postRepository, never()).findPosts(any(), any(), anyInt(), anyLong(), any());
+        }
+
+        @Test
+        @DisplayName("should pass requested fields to row query")
+        void shouldPassRequestedFieldsToRowQuery() {
+            Set<PostField> fields = PostField.parse("title,likesCount");
+            Post post = TestDataFactory.createPost(1L, "First", null, List.of(), 0, 0);
+            when(postRepository.countPosts(TAGS, TITLE)).thenReturn(1L);
+            when(postRepository.findPostIds(TAGS, TITLE, 2, 0L)).thenReturn(List.of(1L));
+            when(postRepository.findPostsByIds(List.of(1L), fields)).thenReturn(List.of(post));
+
+            PostFeedPage page = loader(true, 1000).load(TAGS, TITLE, 2, 0L, fields);
+
+            assertEquals(List.of(post), page.posts());
+        }
+
+        @Test
+        @DisplayName("should skip row query for empty page")
+        void shouldSkipRowQueriesForEmptyPage() {
+            when(postRepository.countPosts(TAGS, TITLE)).thenReturn(0L);
+            when(postRepository.findPostIds(TAGS, TITLE, 2, 0L)).thenReturn(List.of());
+
+            PostFeedPage page = loader(true, 1000).load(TAGS, TITLE, 2, 0L, PostField.ALL);
+
+            assertTrue(page.posts().isEmpty());
+            verify(postRepository, never()).findPostsByIds(any(), any());
+        }
+
+        @Test
+        @DisplayName("should propagate failure of one part")
+        void shouldPropagateFailure() {
+            lenient().when(postRepository.countPosts(TAGS, TITLE)).thenReturn(3L);
+            when(postRepository.findPostIds(TAGS, TITLE, 2, 0L)).thenThrow(new PostDbException("boom"));
+
+            assertThrows(PostDbException.class, () -> loader(true, 1000).load(TAGS, TITLE, 2, 0L, PostField.ALL));
+        }
+
+        @Test
+        @DisplayName("should cancel remaining parts when deadline expires")
+        void shouldCancelRemainingPartsOnDeadline() throws InterruptedException {
+            CountDownLatch interrupted = new CountDownLatch(1);
+            when(postRepository.countPosts(TAGS, TITLE)).thenAnswer(invocation -> {
+                try {
+                    Thread.sleep(10_000);
+                } catch (InterruptedException ex) {
+                    interrupted.countDown();
+                }
+                return 0L;
+            });
+            when(postRepository.findPostIds(TAGS, TITLE, 2, 0L)).thenReturn(List.of());
+
+            assertThrows(QueryTimeoutException.class, () -> loader(true, 50).load(TAGS, TITLE, 2, 0L, PostField.ALL));
+            assertTrue(interrupted.await(1, TimeUnit.SECONDS));
+        }
+    }
+
+    private PostFeedLoader loader(boolean parallel, long timeoutMs) {
+        return new PostFeedLoader(postRepository, transactionManager, executor, parallel, timeoutMs);
+    }
+}
@@ -0,0 +1,39 @@
+package ru.practicum.blog.service.feed;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@DisplayName("PostSearchQueryTest")
+class PostSearchQueryTest {
+
+    @Test
+    @DisplayName("should split tags and lowercased title words")
+    void shouldSplitTagsAndTitleWords() {
+        PostSearchQuery query = PostSearchQuery.parse("  Spring \t Guide #Java  #jdbc ");
+
+        assertEquals(Set.of("java", "jdbc"), query.tags());
+        assertEquals("spring guide", query.titleSubstring());
+    }
+
+    @Test
+    @DisplayName("should treat a lone hash as a title word")
+    void shouldTreatLoneHashAsTitleWord() {
+        PostSearchQuery query = PostSearchQuery.parse("# tips");
+
+        assertEquals(Set.of(), query.tags());
+        assertEquals("# tips", query.titleSubstring());
+    }
+
+    @Test
+    @DisplayName("should return empty query for blank search")
+    void shouldReturnEmptyQueryForBlankSearch() {
+        PostSearchQuery query = PostSearchQuery.parse("   ");
+
+        assertEquals(Set.of(), query.tags());
+        assertEquals("", query.titleSubstring());
+    }
+}
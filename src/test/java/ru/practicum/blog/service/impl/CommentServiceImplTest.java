@@ -10,6 +10,7 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import ru.practicum.blog.domain.exception.CommentBadRequestException;
+import ru.practicum.blog.domain.exception.CommentConflictException;
 import ru.practicum.blog.domain.exception.CommentNotFoundException;
 import ru.practicum.blog.domain.exception.PostNotFoundException;
 import ru.practicum.blog.domain.model.Comment;
@@ -142,15 +143,26 @@ class CommentServiceImplTest {
         @Test
         @DisplayName("should update comment when ids valid")
         void shouldUpdateCommentWhenIdsValid() {
-            CommentRequestDto requestDto = TestDataFactory.createCommentRequestDto(2L, "updated", 5L);
+            CommentRequestDto requestDto = TestDataFactory.createCommentRequestDto(2L, "updated", 5L, 4L);
             Comment comment = TestDataFactory.createComment(2L, "updated", 5L);
-            when(postRepository.existsById(5L)).thenReturn(true);
-            when(commentRepository.existsById(5L, 2L)).thenReturn(true);
-            when(commentRepository.updateComment(5L, 2L, "updated")).thenReturn(comment);
+            comment.setVersion(5L);
+            when(commentRepository.updateComment(5L, 2L, 4L, "updated")).thenReturn(comment);
 
             CommentResponseDto dto = commentService.updateComment(5L, 2L, requestDto);
 
             assertEquals("updated", dto.text());
+            assertEquals(5L, dto.version());
+            verify(postRepository, never()).existsById(anyLong());
+        }
+
+        @Test
+        @DisplayName("should propagate version conflict from repository")
+        void shouldPropagateVersionConflict() {
+            CommentRequestDto requestDto = TestDataFactory.createCommentRequestDto(2L, "updated", 5L, 1L);
+            when(commentRepository.updateComment(5L, 2L, 1L, "updated"))
+                    .thenThrow(new CommentConflictException("conflict"));
+
+            assertThrows(CommentConflictException.class, () -> commentService.updateComment(5L, 2L, requestDto));
         }
     }
 
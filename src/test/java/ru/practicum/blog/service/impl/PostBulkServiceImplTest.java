@@ -0,0 +1,204 @@
+package ru.practicum.blog.service.impl;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+import ru.practicum.blog.domain.exception.PostDbException;
+import ru.practicum.blog.domain.model.ExportFormat;
+import ru.practicum.blog.domain.model.Post;
+import ru.practicum.blog.domain.model.PostExportRow;
+import ru.practicum.blog.domain.model.PostImportResult;
+import ru.practicum.blog.domain.model.Tag;
+import ru.practicum.blog.repository.PostBulkRepository;
+import ru.practicum.blog.web.dto.PostImportResponseDto;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("PostBulkServiceImplTest")
+class PostBulkServiceImplTest {
+
+    private static final int MAX_LINE_LENGTH = 64;
+
+    @Mock
+    private PostBulkRepository postBulkRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private final List<List<Post>> chunks = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        // Для пустого входа транзакция не открывается вовсе
+        lenient().when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+    }
+
+    @Test
+    @DisplayName("should split input into chunks and skip invalid lines")
+    void shouldSplitInputIntoChunksAndSkipInvalidLines() {
+        captureChunks();
+        String ndjson = """
+                {"title":"First","text":"One","tags":[" Java ","java"]}
+                {"title":"Second","text":"Two"}
+
+                {"title":"","text":"Blank title"}
+                {"title":"Third","text":"Three","tags":[""]}
+                {broken
+                {"title":"Fourth","text":"Four\\u0000"}
+                {"title":"Fifth","text":"Five","tags":["spring"]}
+                """;
+
+        PostImportResponseDto result = service(2).importPosts(stream(ndjson));
+
+        assertEquals(7, result.received());
+        assertEquals(3, result.imported());
+        assertEquals(4, result.rejected());
+        assertEquals(2, chunks.size());
+        assertEquals(List.of("First", "Second"), chunks.get(0).stream().map(Post::getTitle).toList());
+        assertEquals(List.of("Fifth"), chunks.get(1).stream().map(Post::getTitle).toList());
+        assertEquals(List.of("java"), chunks.get(0).get(0).getTags().stream().map(Tag::getName).toList());
+        verify(transactionManager, times(2)).commit(any());
+    }
+
+    @Test
+    @DisplayName("should reject null lines and lines over the length limit without failing the import")
+    void shouldRejectNullAndTooLongLines() {
+        captureChunks();
+        String ndjson = "null\n"
+                + "{\"title\":\"Long\",\"text\":\"" + "x".repeat(MAX_LINE_LENGTH) + "\"}\n"
+                + "{\"title\":\"Kept\",\"text\":\"Text\"}\r\n"
+                + "{\"title\":\"Last\",\"text\":\"No trailing newline\"}";
+
+        PostImportResponseDto result = service(10).importPosts(stream(ndjson));
+
+        assertEquals(4, result.received());
+        assertEquals(2, result.imported());
+        assertEquals(2, result.rejected());
+        assertEquals(List.of("Kept", "Last"), chunks.getFirst().stream().map(Post::getTitle).toList());
+    }
+
+    @Test
+    @DisplayName("should not touch repository when input is empty")
+    void shouldNotTouchRepositoryWhenInputIsEmpty() {
+        PostImportResponseDto result = service(10).importPosts(stream("\n\n"));
+
+        assertEquals(0, result.received());
+        assertEquals(0, result.imported());
+        verify(postBulkRepository, never()).importPosts(any(), anyInt());
+    }
+
+    @Test
+    @DisplayName("should wrap repository failure into PostDbException")
+    void shouldWrapRepositoryFailure() {
+        when(postBulkRepository.importPosts(any(), anyInt())).thenThrow(new IllegalStateException("copy failed"));
+
+        assertThrows(PostDbException.class,
+                () -> service(10).importPosts(stream("{\"title\":\"A\",\"text\":\"B\"}")));
+        verify(transactionManager).rollback(any());
+    }
+
+    @Test
+    @DisplayName("should write gzipped csv with escaped fields")
+    void shouldWriteGzippedCsvWithEscapedFields() throws Exception {
+        doAnswer(invocation -> {
+            Consumer<PostExportRow> consumer = invocation.getArgument(1);
+            consumer.accept(PostExportRow.builder()
+                    .id(7L)
+                    .title("Hello, \"world\"")
+                    .text("Line 1\nLine 2")
+                    .likesCount(3)
+                    .commentsCount(1)
+                    .createdAt(LocalDateTime.of(2025, 1, 2, 3, 4, 5))
+                    .tags(List.of("java", "spring"))
+                    .commentsJson("[{\"id\": 1, \"text\": \"Nice\"}]")
+                    .build());
+            return null;
+        }).when(postBulkRepository).exportPosts(eq(100), any());
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        service(10).exportPosts(ExportFormat.CSV, output);
+
+        String csv = new String(new GZIPInputStream(new ByteArrayInputStream(output.toByteArray())).readAllBytes(),
+                StandardCharsets.UTF_8);
+        assertEquals("""
+                id,title,text,likes_count,comments_count,created_at,tags,comments\r
+                7,"Hello, ""world""\","Line 1
+                Line 2",3,1,2025-01-02T03:04:05,"[""java"",""spring""]","[{""id"": 1, ""text"": ""Nice""}]"\r
+                """, csv);
+    }
+
+    @Test
+    @DisplayName("should not finish gzip stream when export fails midway")
+    void shouldNotFinishGzipStreamWhenExportFails() {
+        doAnswer(invocation -> {
+            Consumer<PostExportRow> consumer = invocation.getArgument(1);
+            consumer.accept(PostExportRow.builder()
+                    .id(7L)
+                    .title("Title")
+                    .text("Text")
+                    .likesCount(0)
+                    .commentsCount(0)
+                    .createdAt(LocalDateTime.of(2025, 1, 2, 3, 4, 5))
+                    .tags(List.of())
+                    .commentsJson("[]")
+                    .build());
+            throw new IllegalStateException("connection lost");
+        }).when(postBulkRepository).exportPosts(eq(100), any());
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        assertThrows(IllegalStateException.class, () -> service(10).exportPosts(ExportFormat.NDJSON, output));
+        // Без хвоста gzip распаковка обрывается, а не возвращает усечённые данные как полные
+        assertThrows(EOFException.class,
+                () -> new GZIPInputStream(new ByteArrayInputStream(output.toByteArray())).readAllBytes());
+    }
+
+    private PostBulkServiceImpl service(int chunkSize) {
+        return new PostBulkServiceImpl(postBulkRepository, new ObjectMapper(), transactionManager, chunkSize, MAX_LINE_LENGTH, 100);
+    }
+
+    private void captureChunks() {
+        when(postBulkRepository.importPosts(any(), anyInt())).thenAnswer(invocation -> {
+            Iterator<Post> posts = invocation.getArgument(0);
+            int maxRows = invocation.getArgument(1);
+            List<Post> chunk = new ArrayList<>();
+            while (chunk.size() < maxRows && posts.hasNext()) {
+                chunk.add(posts.next());
+            }
+            chunks.add(chunk);
+            return PostImportResult.builder().importedPosts(chunk.size()).build();
+        });
+    }
+
+    private static InputStream stream(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -1,5 +1,6 @@
 package ru.practicum.blog.service.impl;
 
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
@@ -7,15 +8,20 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.CsvSource;
 import org.mockito.ArgumentCaptor;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.web.multipart.MultipartFile;
 import ru.practicum.blog.domain.exception.PostBadRequestException;
 import ru.practicum.blog.domain.exception.PostImageException;
 import ru.practicum.blog.domain.exception.PostNotFoundException;
+import ru.practicum.blog.domain.model.Comment;
 import ru.practicum.blog.domain.model.Post;
+import ru.practicum.blog.domain.model.PostField;
+import ru.practicum.blog.domain.model.PostInclude;
 import ru.practicum.blog.repository.PostRepository;
+import ru.practicum.blog.service.batch.PostsBatch;
+import ru.practicum.blog.service.feed.PostFeedLoader;
+import ru.practicum.blog.service.feed.PostFeedPage;
 import ru.practicum.blog.util.TestDataFactory;
 import ru.practicum.blog.web.dto.PostRequestDto;
 import ru.practicum.blog.web.dto.PostResponseDto;
@@ -28,11 +34,17 @@ import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -43,9 +55,16 @@ class PostServiceImplTest {
     @Mock
     private PostRepository postRepository;
 
-    @InjectMocks
+    @Mock
+    private PostFeedLoader postFeedLoader;
+
     private PostServiceImpl postService;
 
+    @BeforeEach
+    void setUp() {
+        postService = new PostServiceImpl(postRepository, postFeedLoader, 3, 2);
+    }
+
     @Nested
     @DisplayName("getPosts")
     class GetPosts {
@@ -54,14 +73,13 @@ class PostServiceImplTest {
         @DisplayName("should split search query and calculate pagination")
         void shouldSplitSearchQueryAndCalculatePagination() {
             Post post = TestDataFactory.createPost(1L, "Spring", "content", List.of("java"), 2, 1);
-            when(postRepository.findPosts(any(), any(), eq(5), eq(5L))).thenReturn(List.of(post));
-            when(postRepository.countPosts(any(), any())).thenReturn(8L);
+            when(postFeedLoader.load(any(), any(), eq(5), eq(5L), eq(PostField.ALL))).thenReturn(new PostFeedPage(List.of(post), 8L));
 
-            PostsResponseDto responseDto = postService.getPosts("  Spring  #JAVA  ", 2, 5);
+            PostsResponseDto responseDto = postService.getPosts("  Spring  #JAVA  ", 2, 5, PostField.ALL);
 
             ArgumentCaptor<Set<String>> tagsCaptor = ArgumentCaptor.forClass(Set.class);
             ArgumentCaptor<String> titleCaptor = ArgumentCaptor.forClass(String.class);
-            verify(postRepository).findPosts(tagsCaptor.capture(), titleCaptor.capture(), eq(5), eq(5L));
+            verify(postFeedLoader).load(tagsCaptor.capture(), titleCaptor.capture(), eq(5), eq(5L), eq(PostField.ALL));
 
             assertEquals(Set.of("java"), tagsCaptor.getValue());
             assertEquals("spring", titleCaptor.getValue());
@@ -74,10 +92,9 @@ class PostServiceImplTest {
         @Test
         @DisplayName("should throw when requested page exceeds last page")
         void shouldThrowWhenRequestedPageExceedsLastPage() {
-            when(postRepository.findPosts(any(), any(), eq(5), eq(10L))).thenReturn(List.of());
-            when(postRepository.countPosts(any(), any())).thenReturn(10L);
+            when(postFeedLoader.load(any(), any(), eq(5), eq(10L), eq(PostField.ALL))).thenReturn(new PostFeedPage(List.of(), 10L));
 
-            assertThrows(PostBadRequestException.class, () -> postService.getPosts("test", 3, 5));
+            assertThrows(PostBadRequestException.class, () -> postService.getPosts("test", 3, 5, PostField.ALL));
         }
     }
 
@@ -89,20 +106,122 @@ class PostServiceImplTest {
         @DisplayName("should return post response when exists")
         void shouldReturnPostResponseWhenExists() {
             Post post = TestDataFactory.createPost(5L, "Spring", "Full text", List.of("java"), 1, 0);
-            when(postRepository.findPostById(5L)).thenReturn(Optional.of(post));
+            when(postRepository.findPostById(5L, PostField.ALL)).thenReturn(Optional.of(post));
 
-            PostResponseDto dto = postService.getPost(5L);
+            PostResponseDto dto = postService.getPost(5L, PostField.ALL, Set.of());
 
             assertEquals(5L, dto.id());
             assertEquals("Full text", dto.text());
         }
 
+        @Test
+        @DisplayName("should leave out fields that were not requested")
+        void shouldLeaveOutFieldsNotRequested() {
+            Set<PostField> fields = PostField.parse("title,tags");
+            Post post = TestDataFactory.createPost(5L, "Spring", null, List.of("java"), 1, 0);
+            when(postRepository.findPostById(5L, fields)).thenReturn(Optional.of(post));
+
+            PostResponseDto dto = postService.getPost(5L, fields, Set.of());
+
+            assertEquals("Spring", dto.title());
+            assertEquals(List.of("java"), dto.tags());
+            assertNull(dto.text());
+            assertNull(dto.likesCount());
+        }
+
         @Test
         @DisplayName("should throw when post not found")
         void shouldThrowWhenPostNotFound() {
-            when(postRepository.findPostById(10L)).thenReturn(Optional.empty());
+            when(postRepository.findPostWithComments(10L, PostField.ALL, 2)).thenReturn(Optional.empty());
+
+            assertThrows(PostNotFoundException.class, () -> postService.getPost(10L, PostField.ALL, Set.of(PostInclude.COMMENTS)));
+        }
+
+        @Test
+        @DisplayName("should attach first page of comments when included")
+        void shouldAttachCommentsWhenIncluded() {
+            Post post = TestDataFactory.createPost(5L, "Spring", "Full text", List.of(), 1, 3);
+            Comment comment = Comment.builder().id(7L).text("Nice").postId(5L).version(1L).build();
+            post.setComments(List.of(comment));
+            when(postRepository.findPostWithComments(5L, PostField.ALL, 2)).thenReturn(Optional.of(post));
+
+            PostResponseDto dto = postService.getPost(5L, PostField.ALL, Set.of(PostInclude.COMMENTS));
+
+            assertEquals(1, dto.comments().size());
+            assertEquals("Nice", dto.comments().get(0).text());
+        }
+
+        @Test
+        @DisplayName("should not query comments unless included")
+        void shouldNotQueryCommentsUnlessIncluded() {
+            Post post = TestDataFactory.createPost(5L, "Spring", "Full text", List.of(), 1, 3);
+            when(postRepository.findPostById(5L, PostField.ALL)).thenReturn(Optional.of(post));
+
+            PostResponseDto dto = postService.getPost(5L, PostField.ALL, Set.of());
 
-            assertThrows(PostNotFoundException.class, () -> postService.getPost(10L));
+            assertNull(dto.comments());
+            verify(postRepository, never()).findPostWithComments(anyLong(), any(), anyInt());
+        }
+    }
+
+    @Nested
+    @DisplayName("getPostsBatch")
+    class GetPostsBatch {
+
+        @Test
+        @DisplayName("should keep requested order and mark missing posts")
+        void shouldKeepRequestedOrderAndMarkMissingPosts() {
+            Post first = TestDataFactory.createPost(1L, "First", "one", List.of("java"), 0, 0);
+            Post second = TestDataFactory.createPost(2L, "Second", "two", List.of(), 0, 0);
+            when(postRepository.findPostsByIds(List.of(2L, 7L, 1L), PostField.ALL)).thenReturn(List.of(first, second));
+
+            PostsBatch batch = postService.getPostsBatch(List.of(2L, 7L, 1L), PostField.ALL);
+
+            var items = batch.response().posts();
+            assertEquals(List.of(2L, 7L, 1L), items.stream().map(item -> item.id()).toList());
+            assertEquals("Second", items.get(0).post().title());
+            assertFalse(items.get(1).found());
+            assertNull(items.get(1).post());
+            assertEquals("First", items.get(2).post().title());
+        }
+
+        @Test
+        @DisplayName("should read duplicate ids once and return them at every position")
+        void shouldReadDuplicateIdsOnce() {
+            Post post = TestDataFactory.createPost(1L, "First", "one", List.of(), 0, 0);
+            when(postRepository.findPostsByIds(List.of(1L), PostField.ALL)).thenReturn(List.of(post));
+
+            PostsBatch batch = postService.getPostsBatch(List.of(1L, 1L), PostField.ALL);
+
+            assertEquals(2, batch.response().posts().size());
+            assertTrue(batch.response().posts().stream().allMatch(item -> item.found()));
+        }
+
+        @Test
+        @DisplayName("should change etag when post version changes")
+        void shouldChangeEtagWhenVersionChanges() {
+            Post before = TestDataFactory.createPost(1L, "First", "one", List.of(), 1, 0);
+            Post after = TestDataFactory.createPost(1L, "First", "one", List.of(), 2, 0);
+            before.setVersion(3L);
+            after.setVersion(4L);
+            when(postRepository.findPostsByIds(List.of(1L), PostField.ALL))
+                    .thenReturn(List.of(before))
+                    .thenReturn(List.of(before))
+                    .thenReturn(List.of(after));
+
+            String etag = postService.getPostsBatch(List.of(1L), PostField.ALL).etag();
+
+            assertEquals(etag, postService.getPostsBatch(List.of(1L), PostField.ALL).etag());
+            assertNotEquals(etag, postService.getPostsBatch(List.of(1L), PostField.ALL).etag());
+        }
+
+        @Test
+        @DisplayName("should reject empty and oversized batches without querying")
+        void shouldRejectEmptyAndOversizedBatches() {
+            assertThrows(PostBadRequestException.class, () -> postService.getPostsBatch(List.of(), PostField.ALL));
+            assertThrows(PostBadRequestException.class,
+                    () -> postService.getPostsBatch(List.of(1L, 2L, 3L, 4L), PostField.ALL));
+            verify(postRepository, never()).findPostsByIds(any(), any());
         }
     }
 
@@ -142,8 +261,7 @@ class PostServiceImplTest {
         void shouldUpdatePostWhenIdsMatch() {
             PostRequestDto requestDto = TestDataFactory.createPostRequestDto(5L, "Updated", "Text", List.of(" Java ", "SPRING"));
             Post updatedPost = TestDataFactory.createPost(5L, "Updated", "Text", List.of("java", "spring"), 1, 1);
-            when(postRepository.existsById(5L)).thenReturn(true);
-            when(postRepository.updatePost(eq(5L), eq("Updated"), eq("Text"), eq(List.of("java", "spring")))).thenReturn(updatedPost);
+            when(postRepository.updatePost(eq(5L), isNull(), eq("Updated"), eq("Text"), eq(List.of("java", "spring")))).thenReturn(updatedPost);
 
             PostResponseDto dto = postService.updatePost(5L, requestDto);
 
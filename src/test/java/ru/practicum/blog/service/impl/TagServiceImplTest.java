@@ -0,0 +1,88 @@
+package ru.practicum.blog.service.impl;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import ru.practicum.blog.domain.model.Tag;
+import ru.practicum.blog.repository.TagRepository;
+import ru.practicum.blog.service.index.TagSuggestionIndex;
+import ru.practicum.blog.web.dto.TagResponseDto;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("TagServiceImplTest")
+class TagServiceImplTest {
+
+    @Mock
+    private TagRepository tagRepository;
+
+    @Mock
+    private TagSuggestionIndex tagSuggestionIndex;
+
+    @InjectMocks
+    private TagServiceImpl tagService;
+
+    @Nested
+    @DisplayName("getPopularTags")
+    class GetPopularTags {
+
+        @Test
+        @DisplayName("should map tags with usage counts")
+        void shouldMapTagsWithUsageCounts() {
+            when(tagRepository.findPopularTags(2)).thenReturn(List.of(
+                    Tag.builder().id(1L).name("java").usageCount(7).build(),
+                    Tag.builder().id(2L).name("spring").usageCount(3).build()
+            ));
+
+            List<TagResponseDto> tags = tagService.getPopularTags(2);
+
+            assertEquals(List.of(new TagResponseDto("java", 7), new TagResponseDto("spring", 3)), tags);
+        }
+
+        @Test
+        @DisplayName("should return empty list when there are no tags")
+        void shouldReturnEmptyListWhenThereAreNoTags() {
+            when(tagRepository.findPopularTags(5)).thenReturn(List.of());
+
+            assertTrue(tagService.getPopularTags(5).isEmpty());
+        }
+    }
+
+    @Nested
+    @DisplayName("suggestTags")
+    class SuggestTags {
+
+        @Test
+        @DisplayName("should strip tag prefix and lowercase query")
+        void shouldStripTagPrefixAndLowercaseQuery() {
+            when(tagSuggestionIndex.suggest("ja", 5)).thenReturn(List.of(
+                    Tag.builder().name("java").usageCount(4).build()
+            ));
+
+            List<TagResponseDto> tags = tagService.suggestTags(" #JA ", 5);
+
+            assertEquals(List.of(new TagResponseDto("java", 4)), tags);
+        }
+
+        @Test
+        @DisplayName("should not query index for empty prefix")
+        void shouldNotQueryIndexForEmptyPrefix() {
+            assertTrue(tagService.suggestTags("#", 5).isEmpty());
+
+            verify(tagSuggestionIndex, never()).suggest(anyString(), anyInt());
+        }
+    }
+}
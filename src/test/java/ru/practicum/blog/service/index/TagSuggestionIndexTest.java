@@ -0,0 +1,157 @@
+package ru.practicum.blog.service.index;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import ru.practicum.blog.domain.event.TagsChangedEvent;
+import ru.practicum.blog.domain.model.Tag;
+import ru.practicum.blog.repository.TagRepository;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("TagSuggestionIndexTest")
+class TagSuggestionIndexTest {
+
+    @Mock
+    private TagRepository tagRepository;
+
+    private TagSuggestionIndex tagSuggestionIndex;
+
+    @BeforeEach
+    void setUp() {
+        tagSuggestionIndex = new TagSuggestionIndex(tagRepository);
+    }
+
+    @Nested
+    @DisplayName("suggest")
+    class Suggest {
+
+        @Test
+        @DisplayName("should return tags with prefix ranked by usage")
+        void shouldReturnTagsWithPrefixRankedByUsage() {
+            when(tagRepository.findAllTags()).thenReturn(List.of(
+                    tag("java", 5), tag("javascript", 9), tag("jakarta", 5), tag("jdbc", 20), tag("spring", 50)
+            ));
+
+            List<Tag> tags = tagSuggestionIndex.suggest("ja", 2);
+
+            assertEquals(List.of("javascript", "jakarta"), names(tags));
+            assertEquals(9, tags.getFirst().getUsageCount());
+        }
+
+        @Test
+        @DisplayName("should return empty list when nothing matches")
+        void shouldReturnEmptyListWhenNothingMatches() {
+            when(tagRepository.findAllTags()).thenReturn(List.of(tag("java", 5)));
+
+            assertTrue(tagSuggestionIndex.suggest("py", 5).isEmpty());
+        }
+
+        @Test
+        @DisplayName("should load tags from repository only once")
+        void shouldLoadTagsFromRepositoryOnlyOnce() {
+            when(tagRepository.findAllTags()).thenReturn(List.of(tag("java", 5)));
+
+            tagSuggestionIndex.suggest("j", 5);
+            tagSuggestionIndex.suggest("ja", 5);
+
+            verify(tagRepository, times(1)).findAllTags();
+        }
+    }
+
+    @Nested
+    @DisplayName("onTagsChanged")
+    class OnTagsChanged {
+
+        @Test
+        @DisplayName("should apply updated counters and removals")
+        void shouldApplyUpdatedCountersAndRemovals() {
+            when(tagRepository.findAllTags()).thenReturn(List.of(tag("java", 5), tag("jdbc", 3), tag("jakarta", 1)));
+            tagSuggestionIndex.reload();
+
+            tagSuggestionIndex.onTagsChanged(TagsChangedEvent.updated(
+                    List.of(tag("jdbc", 7, 1), tag("jakarta", 0, 1), tag("java", 0, 1))
+            ));
+            tagSuggestionIndex.onTagsChanged(TagsChangedEvent.removed(List.of("java")));
+
+            assertEquals(List.of("jdbc"), names(tagSuggestionIndex.suggest("j", 5)));
+        }
+
+        @Test
+        @DisplayName("should ignore updates older than the indexed counter")
+        void shouldIgnoreStaleUpdates() {
+            when(tagRepository.findAllTags()).thenReturn(List.of(tag("java", 5)));
+            tagSuggestionIndex.reload();
+
+            tagSuggestionIndex.onTagsChanged(TagsChangedEvent.updated(List.of(tag("java", 0, 2))));
+            tagSuggestionIndex.onTagsChanged(TagsChangedEvent.updated(List.of(tag("java", 1, 1))));
+
+            assertTrue(tagSuggestionIndex.suggest("j", 5).isEmpty());
+        }
+
+        @Test
+        @DisplayName("should not remove tag recreated after cleanup")
+        void shouldNotRemoveRecreatedTag() {
+            when(tagRepository.findAllTags()).thenReturn(List.of(tag("java", 0)));
+            tagSuggestionIndex.reload();
+
+            tagSuggestionIndex.onTagsChanged(TagsChangedEvent.updated(List.of(tag(2L, "java", 1, 1))));
+            tagSuggestionIndex.onTagsChanged(TagsChangedEvent.removed(List.of("java")));
+
+            assertEquals(List.of("java"), names(tagSuggestionIndex.suggest("j", 5)));
+        }
+
+        @Test
+        @DisplayName("should keep changes published while the index is reloading")
+        void shouldKeepChangesPublishedDuringReload() {
+            when(tagRepository.findAllTags()).thenAnswer(invocation -> {
+                tagSuggestionIndex.onTagsChanged(TagsChangedEvent.updated(List.of(tag("java", 6, 1), tag("jvm", 1, 1))));
+                return List.of(tag("java", 5), tag("jdbc", 3));
+            });
+
+            tagSuggestionIndex.reload();
+
+            List<Tag> tags = tagSuggestionIndex.suggest("j", 5);
+            assertEquals(List.of("java", "jdbc", "jvm"), names(tags));
+            assertEquals(6, tags.getFirst().getUsageCount());
+        }
+
+        @Test
+        @DisplayName("should add new tags")
+        void shouldAddNewTags() {
+            when(tagRepository.findAllTags()).thenReturn(List.of(tag("java", 5)));
+            tagSuggestionIndex.reload();
+
+            tagSuggestionIndex.onTagsChanged(TagsChangedEvent.updated(List.of(tag("jvm", 1, 1))));
+
+            assertEquals(List.of("java", "jvm"), names(tagSuggestionIndex.suggest("j", 5)));
+        }
+    }
+
+    private static Tag tag(String name, int usageCount) {
+        return tag(name, usageCount, 0);
+    }
+
+    private static Tag tag(String name, int usageCount, long usageVersion) {
+        return tag(1L, name, usageCount, usageVersion);
+    }
+
+    private static Tag tag(long id, String name, int usageCount, long usageVersion) {
+        return Tag.builder().id(id).name(name).usageCount(usageCount).usageVersion(usageVersion).build();
+    }
+
+    private static List<String> names(List<Tag> tags) {
+        return tags.stream().map(Tag::getName).toList();
+    }
+}
@@ -0,0 +1,104 @@
+package ru.practicum.blog.service.jfr;
+
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.aop.framework.ProxyFactory;
+import ru.practicum.blog.domain.exception.PostNotFoundException;
+import ru.practicum.blog.service.CommentService;
+import ru.practicum.blog.web.dto.CommentResponseDto;
+
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Objects;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("ServiceCallEventInterceptorTest")
+class ServiceCallEventInterceptorTest {
+
+    @Mock
+    private CommentService commentService;
+
+    @TempDir
+    private Path tempDir;
+
+    @Test
+    @DisplayName("should record service calls with the shipped profiling settings")
+    void shouldRecordServiceCalls() throws Exception {
+        when(commentService.getComments(7L)).thenReturn(List.of(
+                new CommentResponseDto(1L, "First", 7L, 0L),
+                new CommentResponseDto(2L, "Second", 7L, 0L)
+        ));
+        when(commentService.getComments(8L)).thenThrow(new PostNotFoundException("missing"));
+        CommentService proxy = proxy(commentService);
+
+        List<RecordedEvent> events = record(() -> {
+            proxy.getComments(7L);
+            assertThrows(PostNotFoundException.class, () -> proxy.getComments(8L));
+        });
+
+        assertEquals(2, events.size());
+        RecordedEvent found = events.getFirst();
+        assertEquals("CommentService.getComments", found.getString("operation"));
+        assertEquals(7L, found.getLong("postId"));
+        assertEquals(2L, found.getLong("rows"));
+        assertFalse(found.getBoolean("failed"));
+        assertTrue(events.get(1).getBoolean("failed"));
+    }
+
+    @Test
+    @DisplayName("should not emit events when not enabled")
+    void shouldNotEmitEventsWhenNotEnabled() throws Exception {
+        when(commentService.getComments(7L)).thenReturn(List.of());
+        CommentService proxy = proxy(commentService);
+
+        Path file = tempDir.resolve("disabled.jfr");
+        try (Recording recording = new Recording()) {
+            recording.start();
+            proxy.getComments(7L);
+            recording.stop();
+            recording.dump(file);
+        }
+
+        assertTrue(RecordingFile.readAllEvents(file).stream()
+                .noneMatch(event -> event.getEventType().getName().equals(ServiceCallEvent.NAME)));
+    }
+
+    private List<RecordedEvent> record(Runnable calls) throws Exception {
+        Path file = tempDir.resolve("recording.jfr");
+        try (Reader settings = new InputStreamReader(
+                Objects.requireNonNull(getClass().getResourceAsStream("/jfr/blog-profile.jfc")), StandardCharsets.UTF_8);
+             Recording recording = new Recording(Configuration.create(settings))) {
+            recording.start();
+            calls.run();
+            recording.stop();
+            recording.dump(file);
+        }
+        return RecordingFile.readAllEvents(file).stream()
+                .filter(event -> event.getEventType().getName().equals(ServiceCallEvent.NAME))
+                .toList();
+    }
+
+    private static CommentService proxy(CommentService target) {
+        ProxyFactory proxyFactory = new ProxyFactory(target);
+        proxyFactory.addInterface(CommentService.class);
+        proxyFactory.addAdvice(new ServiceCallEventInterceptor());
+        return (CommentService) proxyFactory.getProxy();
+    }
+}
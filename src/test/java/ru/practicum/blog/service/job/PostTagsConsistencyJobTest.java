@@ -0,0 +1,74 @@
+package ru.practicum.blog.service.job;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import ru.practicum.blog.repository.PostRepository;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("PostTagsConsistencyJobTest")
+class PostTagsConsistencyJobTest {
+
+    private static final int BATCH_SIZE = 10;
+
+    @Mock
+    private PostRepository postRepository;
+
+    private MeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @Test
+    @DisplayName("should scan id ranges and only report when repair is disabled")
+    void shouldScanIdRangesAndReport() {
+        when(postRepository.findMaxPostId()).thenReturn(25L);
+        when(postRepository.findPostIdsWithInconsistentTags(1, 11)).thenReturn(List.of(3L));
+        when(postRepository.findPostIdsWithInconsistentTags(11, 21)).thenReturn(List.of());
+        when(postRepository.findPostIdsWithInconsistentTags(21, 31)).thenReturn(List.of(22L, 25L));
+
+        new PostTagsConsistencyJob(postRepository, meterRegistry, BATCH_SIZE, false).checkPostTags();
+
+        verify(postRepository, never()).repairTags(any());
+        assertEquals(3.0, meterRegistry.get("blog.posts.tags.inconsistent").counter().count());
+        assertEquals(0.0, meterRegistry.get("blog.posts.tags.repaired").counter().count());
+    }
+
+    @Test
+    @DisplayName("should rebuild inconsistent posts when repair is enabled")
+    void shouldRepairInconsistentPosts() {
+        when(postRepository.findMaxPostId()).thenReturn(5L);
+        when(postRepository.findPostIdsWithInconsistentTags(1, 11)).thenReturn(List.of(2L, 4L));
+        when(postRepository.repairTags(List.of(2L, 4L))).thenReturn(2);
+
+        new PostTagsConsistencyJob(postRepository, meterRegistry, BATCH_SIZE, true).checkPostTags();
+
+        assertEquals(2.0, meterRegistry.get("blog.posts.tags.repaired").counter().count());
+    }
+
+    @Test
+    @DisplayName("should do nothing on empty table")
+    void shouldDoNothingOnEmptyTable() {
+        when(postRepository.findMaxPostId()).thenReturn(0L);
+
+        new PostTagsConsistencyJob(postRepository, meterRegistry, BATCH_SIZE, true).checkPostTags();
+
+        verify(postRepository, never()).findPostIdsWithInconsistentTags(anyLong(), anyLong());
+    }
+}
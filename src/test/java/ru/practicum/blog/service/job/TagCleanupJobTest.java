@@ -0,0 +1,60 @@
+package ru.practicum.blog.service.job;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import ru.practicum.blog.repository.TagRepository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("TagCleanupJobTest")
+class TagCleanupJobTest {
+
+    private static final int BATCH_SIZE = 10;
+    private static final int MAX_BATCHES = 3;
+
+    @Mock
+    private TagRepository tagRepository;
+
+    private MeterRegistry meterRegistry;
+
+    private TagCleanupJob tagCleanupJob;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        tagCleanupJob = new TagCleanupJob(tagRepository, meterRegistry, BATCH_SIZE, MAX_BATCHES);
+    }
+
+    @Test
+    @DisplayName("should stop after a partially filled batch")
+    void shouldStopAfterPartiallyFilledBatch() {
+        when(tagRepository.deleteUnusedTags(BATCH_SIZE)).thenReturn(BATCH_SIZE, 4);
+
+        tagCleanupJob.cleanupUnusedTags();
+
+        verify(tagRepository, times(2)).deleteUnusedTags(BATCH_SIZE);
+        assertEquals(14.0, meterRegistry.get("blog.tags.cleanup.reclaimed").counter().count());
+        assertEquals(1L, meterRegistry.get("blog.tags.cleanup.duration").timer().count());
+    }
+
+    @Test
+    @DisplayName("should not exceed max batches per run")
+    void shouldNotExceedMaxBatchesPerRun() {
+        when(tagRepository.deleteUnusedTags(BATCH_SIZE)).thenReturn(BATCH_SIZE);
+
+        tagCleanupJob.cleanupUnusedTags();
+
+        verify(tagRepository, times(MAX_BATCHES)).deleteUnusedTags(BATCH_SIZE);
+        assertEquals(30.0, meterRegistry.get("blog.tags.cleanup.reclaimed").counter().count());
+    }
+}
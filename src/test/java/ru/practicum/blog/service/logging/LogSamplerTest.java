@@ -0,0 +1,57 @@
+package ru.practicum.blog.service.logging;
+
+import org.apache.logging.log4j.Logger;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("LogSamplerTest")
+class LogSamplerTest {
+
+    @Mock
+    private Logger log;
+
+    @Test
+    @DisplayName("should never sample when debug is disabled")
+    void shouldNeverSampleWhenDebugDisabled() {
+        when(log.isDebugEnabled()).thenReturn(false);
+
+        assertFalse(LogSampler.oneIn(1).sampleDebug(log));
+    }
+
+    @Test
+    @DisplayName("should pass every event with rate 1")
+    void shouldPassEveryEventWithRateOne() {
+        when(log.isDebugEnabled()).thenReturn(true);
+        LogSampler sampler = LogSampler.oneIn(1);
+
+        assertTrue(IntStream.range(0, 1_000).allMatch(i -> sampler.sampleDebug(log)));
+    }
+
+    @Test
+    @DisplayName("should pass roughly one event in rate")
+    void shouldPassRoughlyOneEventInRate() {
+        when(log.isDebugEnabled()).thenReturn(true);
+        LogSampler sampler = LogSampler.oneIn(100);
+
+        long sampled = IntStream.range(0, 100_000).filter(i -> sampler.sampleDebug(log)).count();
+
+        assertTrue(sampled > 700 && sampled < 1_300, "sampled " + sampled);
+    }
+
+    @Test
+    @DisplayName("should treat non-positive rate as 1")
+    void shouldTreatNonPositiveRateAsOne() {
+        assertEquals(1, LogSampler.oneIn(0).rate());
+    }
+}
@@ -0,0 +1,24 @@
+package ru.practicum.blog.util;
+
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.RequestBuilder;
+import org.springframework.test.web.servlet.ResultActions;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+
+public final class AsyncMockMvc {
+
+    private AsyncMockMvc() {
+    }
+
+    // Контроллеры возвращают Callable: дожидаемся результата и выполняем повторную диспетчеризацию
+    public static ResultActions perform(MockMvc mockMvc, RequestBuilder requestBuilder) throws Exception {
+        ResultActions actions = mockMvc.perform(requestBuilder);
+        MvcResult result = actions.andReturn();
+        if (result.getRequest().isAsyncStarted()) {
+            return mockMvc.perform(asyncDispatch(result));
+        }
+        return actions;
+    }
+}
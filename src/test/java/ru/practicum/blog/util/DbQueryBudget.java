@@ -0,0 +1,27 @@
+package ru.practicum.blog.util;
+
+import org.springframework.test.web.servlet.ResultMatcher;
+
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Ограничение числа запросов к БД на один вызов эндпоинта: N+1 в ответе ломает сборку.
+// Требует MockMvc с фильтром dbStatsFilter и blog.http.db-stats.enabled=true
+public final class DbQueryBudget {
+
+    public static final String QUERIES_HEADER = "X-DB-Queries";
+
+    private DbQueryBudget() {
+    }
+
+    public static ResultMatcher atMost(int maxStatements) {
+        return result -> {
+            String header = result.getResponse().getHeader(QUERIES_HEADER);
+            assertNotNull(header, "Response has no " + QUERIES_HEADER + " header, is dbStatsFilter registered?");
+            int statements = Integer.parseInt(header);
+            assertTrue(statements <= maxStatements, () -> "Expected at most " + maxStatements
+                    + " DB statements for " + result.getRequest().getMethod() + " "
+                    + result.getRequest().getRequestURI() + ", but was " + statements);
+        };
+    }
+}
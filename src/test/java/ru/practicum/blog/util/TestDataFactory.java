@@ -40,7 +40,7 @@ public final class TestDataFactory {
     }
 
     public static PostRequestDto createPostRequestDto(Long id, String title, String text, List<String> tags) {
-        return new PostRequestDto(id, title, text, tags);
+        return new PostRequestDto(id, title, text, tags, null);
     }
 
     public static Comment createComment(long id, String text, long postId) {
@@ -52,7 +52,11 @@ public final class TestDataFactory {
     }
 
     public static CommentRequestDto createCommentRequestDto(Long id, String text, Long postId) {
-        return new CommentRequestDto(id, text, postId);
+        return createCommentRequestDto(id, text, postId, null);
+    }
+
+    public static CommentRequestDto createCommentRequestDto(Long id, String text, Long postId, Long version) {
+        return new CommentRequestDto(id, text, postId, version);
     }
 
     public static MultipartFile createMultipartFile(String name, byte[] content) {
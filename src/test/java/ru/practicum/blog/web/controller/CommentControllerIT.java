@@ -16,6 +16,9 @@ import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 import org.springframework.web.context.WebApplicationContext;
 import ru.practicum.blog.config.TestWebApplicationConfiguration;
+import ru.practicum.blog.util.AsyncMockMvc;
+import ru.practicum.blog.util.DbQueryBudget;
+import ru.practicum.blog.web.filter.DbStatsFilter;
 
 import java.util.Map;
 
@@ -44,7 +47,9 @@ class CommentControllerIT {
 
     @BeforeEach
     void setUp() {
-        mockMvc = MockMvcBuilders.webAppContextSetup(webApplicationContext).build();
+        mockMvc = MockMvcBuilders.webAppContextSetup(webApplicationContext)
+                .addFilters(webApplicationContext.getBean(DbStatsFilter.class))
+                .build();
         jdbcTemplate.update("DELETE FROM comment", Map.of());
         jdbcTemplate.update("DELETE FROM post", Map.of());
 
@@ -74,8 +79,9 @@ class CommentControllerIT {
         @Test
         @DisplayName("should return comments for post")
         void shouldReturnCommentsForPost() throws Exception {
-            mockMvc.perform(get("/api/posts/{postId}/comments", 1L))
+            AsyncMockMvc.perform(mockMvc, get("/api/posts/{postId}/comments", 1L))
                     .andExpect(status().isOk())
+                    .andExpect(DbQueryBudget.atMost(2))
                     .andExpect(jsonPath("$[0].id").value(12))
                     .andExpect(jsonPath("$[0].text").value("Second"));
         }
@@ -83,7 +89,7 @@ class CommentControllerIT {
         @Test
         @DisplayName("should return 404 when post missing")
         void shouldReturn404WhenPostMissing() throws Exception {
-            mockMvc.perform(get("/api/posts/{postId}/comments", 9L))
+            AsyncMockMvc.perform(mockMvc, get("/api/posts/{postId}/comments", 9L))
                     .andExpect(status().isNotFound());
         }
     }
@@ -95,7 +101,7 @@ class CommentControllerIT {
         @Test
         @DisplayName("should return comment by id")
         void shouldReturnCommentById() throws Exception {
-            mockMvc.perform(get("/api/posts/{postId}/comments/{commentId}", 1L, 11L))
+            AsyncMockMvc.perform(mockMvc, get("/api/posts/{postId}/comments/{commentId}", 1L, 11L))
                     .andExpect(status().isOk())
                     .andExpect(jsonPath("$.text").value("First"));
         }
@@ -103,7 +109,7 @@ class CommentControllerIT {
         @Test
         @DisplayName("should return 404 when comment absent")
         void shouldReturn404WhenCommentAbsent() throws Exception {
-            mockMvc.perform(get("/api/posts/{postId}/comments/{commentId}", 1L, 99L))
+            AsyncMockMvc.perform(mockMvc, get("/api/posts/{postId}/comments/{commentId}", 1L, 99L))
                     .andExpect(status().isNotFound());
         }
     }
@@ -119,10 +125,11 @@ class CommentControllerIT {
                     "\"text\":\"New\"," +
                     "\"postId\":1}";
 
-            mockMvc.perform(post("/api/posts/{postId}/comments", 1L)
+            AsyncMockMvc.perform(mockMvc, post("/api/posts/{postId}/comments", 1L)
                             .contentType(MediaType.APPLICATION_JSON)
                             .content(payload))
                     .andExpect(status().isOk())
+                    .andExpect(DbQueryBudget.atMost(3))
                     .andExpect(jsonPath("$.text").value("New"));
 
             Long count = jdbcTemplate.queryForObject(
@@ -140,7 +147,7 @@ class CommentControllerIT {
                     "\"text\":\"New\"," +
                     "\"postId\":2}";
 
-            mockMvc.perform(post("/api/posts/{postId}/comments", 1L)
+            AsyncMockMvc.perform(mockMvc, post("/api/posts/{postId}/comments", 1L)
                             .contentType(MediaType.APPLICATION_JSON)
                             .content(payload))
                     .andExpect(status().isBadRequest());
@@ -159,10 +166,11 @@ class CommentControllerIT {
                     "\"text\":\"Updated\"," +
                     "\"postId\":1}";
 
-            mockMvc.perform(put("/api/posts/{postId}/comments/{commentId}", 1L, 11L)
+            AsyncMockMvc.perform(mockMvc, put("/api/posts/{postId}/comments/{commentId}", 1L, 11L)
                             .contentType(MediaType.APPLICATION_JSON)
                             .content(payload))
                     .andExpect(status().isOk())
+                    .andExpect(DbQueryBudget.atMost(1))
                     .andExpect(jsonPath("$.text").value("Updated"));
         }
 
@@ -174,7 +182,7 @@ class CommentControllerIT {
                     "\"text\":\"Updated\"," +
                     "\"postId\":1}";
 
-            mockMvc.perform(put("/api/posts/{postId}/comments/{commentId}", 1L, 11L)
+            AsyncMockMvc.perform(mockMvc, put("/api/posts/{postId}/comments/{commentId}", 1L, 11L)
                             .contentType(MediaType.APPLICATION_JSON)
                             .content(payload))
                     .andExpect(status().isBadRequest());
@@ -188,8 +196,9 @@ class CommentControllerIT {
         @Test
         @DisplayName("should delete comment")
         void shouldDeleteComment() throws Exception {
-            mockMvc.perform(delete("/api/posts/{postId}/comments/{commentId}", 1L, 11L))
-                    .andExpect(status().isOk());
+            AsyncMockMvc.perform(mockMvc, delete("/api/posts/{postId}/comments/{commentId}", 1L, 11L))
+                    .andExpect(status().isOk())
+                    .andExpect(DbQueryBudget.atMost(2));
 
             Long count = jdbcTemplate.queryForObject(
                     "SELECT COUNT(*) FROM comment WHERE id = :id",
@@ -0,0 +1,86 @@
+package ru.practicum.blog.web.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
+import org.springframework.test.context.web.WebAppConfiguration;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+import ru.practicum.blog.config.WebConfiguration;
+import ru.practicum.blog.repository.PostRepository;
+import ru.practicum.blog.repository.inmemory.InMemoryPostRepositoryImpl;
+import ru.practicum.blog.util.AsyncMockMvc;
+
+import javax.sql.DataSource;
+
+import static org.hamcrest.Matchers.hasItem;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringJUnitConfig(classes = WebConfiguration.class)
+@TestPropertySource(locations = "classpath:test-application.properties")
+@WebAppConfiguration
+@ActiveProfiles("inmemory")
+@DisplayName("InMemoryProfileIT")
+class InMemoryProfileIT {
+
+    @Autowired
+    private WebApplicationContext webApplicationContext;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        mockMvc = MockMvcBuilders.webAppContextSetup(webApplicationContext).build();
+    }
+
+    @Test
+    @DisplayName("should start without database and serve posts with comments")
+    void shouldServePostsWithoutDatabase() throws Exception {
+        assertInstanceOf(InMemoryPostRepositoryImpl.class, webApplicationContext.getBean(PostRepository.class));
+        assertTrue(webApplicationContext.getBeansOfType(DataSource.class).isEmpty());
+
+        String created = AsyncMockMvc.perform(mockMvc, post("/api/posts")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                                {"title":"In memory","text":"Content","tags":["demo"]}
+                                """))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        long postId = objectMapper.readTree(created).get("id").asLong();
+
+        AsyncMockMvc.perform(mockMvc, post("/api/posts/{postId}/comments", postId)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                                {"text":"Nice","postId":%d}
+                                """.formatted(postId)))
+                .andExpect(status().isOk());
+
+        AsyncMockMvc.perform(mockMvc, get("/api/posts")
+                        .param("search", "#demo")
+                        .param("pageNumber", "1")
+                        .param("pageSize", "10"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.posts[0].id").value(postId))
+                .andExpect(jsonPath("$.posts[0].commentsCount").value(1))
+                .andExpect(jsonPath("$.posts[0].tags", hasItem("demo")));
+
+        AsyncMockMvc.perform(mockMvc, get("/api/posts/{postId}/comments", postId))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].text").value("Nice"));
+    }
+}
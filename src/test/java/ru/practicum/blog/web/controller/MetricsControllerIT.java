@@ -0,0 +1,76 @@
+package ru.practicum.blog.web.controller;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
+import org.springframework.test.context.web.WebAppConfiguration;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+import ru.practicum.blog.config.TestWebApplicationConfiguration;
+import ru.practicum.blog.util.AsyncMockMvc;
+import ru.practicum.blog.web.filter.HttpMetricsFilter;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringJUnitConfig(classes = TestWebApplicationConfiguration.class)
+@TestPropertySource(locations = "classpath:test-application.properties")
+@WebAppConfiguration
+@ActiveProfiles("test")
+@DisplayName("MetricsControllerIT")
+class MetricsControllerIT {
+
+    @Autowired
+    private WebApplicationContext webApplicationContext;
+
+    @Autowired
+    private HttpMetricsFilter httpMetricsFilter;
+
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        mockMvc = MockMvcBuilders.webAppContextSetup(webApplicationContext).build();
+    }
+
+    @Test
+    @DisplayName("should expose per-statement timings in Prometheus format")
+    void shouldExposePerStatementTimings() throws Exception {
+        AsyncMockMvc.perform(mockMvc, get("/api/posts/{id}", 9_999_999L))
+                .andExpect(status().isNotFound());
+
+        mockMvc.perform(get("/metrics"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith("text/plain"))
+                .andExpect(content().string(containsString(
+                        "blog_db_statement_duration_seconds_count{statement=\"FIND_POST_BY_ID\"}")))
+                .andExpect(content().string(containsString(
+                        "blog_db_statement_duration_seconds{statement=\"FIND_POST_BY_ID\",quantile=\"0.99\"}")));
+    }
+
+    @Test
+    @DisplayName("should expose per-route latency of async requests")
+    void shouldExposePerRouteLatency() throws Exception {
+        MockMvc filteredMockMvc = MockMvcBuilders.webAppContextSetup(webApplicationContext)
+                .addFilters(httpMetricsFilter)
+                .build();
+
+        AsyncMockMvc.perform(filteredMockMvc, get("/api/posts/{id}", 9_999_998L))
+                .andExpect(status().isNotFound());
+
+        mockMvc.perform(get("/metrics"))
+                .andExpect(status().isOk())
+                .andExpect(content().string(containsString(
+                        "blog_http_server_requests_seconds_count{method=\"GET\",route=\"/api/posts/{id}\",status=\"404\"}")))
+                .andExpect(content().string(containsString(
+                        "blog_http_server_requests_seconds_bucket{method=\"GET\",route=\"/api/posts/{id}\",status=\"404\"")))
+                .andExpect(content().string(containsString("blog_http_server_requests_active ")));
+    }
+}
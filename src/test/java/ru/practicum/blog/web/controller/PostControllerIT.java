@@ -1,5 +1,7 @@
 package ru.practicum.blog.web.controller;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
@@ -8,6 +10,7 @@ import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.CsvSource;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
 import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
 import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
 import org.springframework.mock.web.MockMultipartFile;
@@ -20,15 +23,38 @@ import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 import org.springframework.web.context.WebApplicationContext;
 import ru.practicum.blog.config.TestWebApplicationConfiguration;
-
+import ru.practicum.blog.domain.exception.PostDbException;
+import ru.practicum.blog.domain.exception.PostExportAbortedException;
+import ru.practicum.blog.service.PostBulkService;
+import ru.practicum.blog.service.PostService;
+import ru.practicum.blog.util.AsyncMockMvc;
+import ru.practicum.blog.util.DbQueryBudget;
+import ru.practicum.blog.web.advice.DefaultExceptionHandler;
+import ru.practicum.blog.web.filter.CompressionFilter;
+import ru.practicum.blog.web.filter.DbStatsFilter;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.OutputStream;
 import java.nio.charset.StandardCharsets;
+import java.util.List;
 import java.util.Map;
+import java.util.stream.LongStream;
+import java.util.zip.GZIPInputStream;
 
 import static org.hamcrest.Matchers.containsInAnyOrder;
 import static org.hamcrest.Matchers.endsWith;
 import static org.hamcrest.Matchers.hasItem;
+import static org.hamcrest.Matchers.startsWith;
 import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
@@ -55,7 +81,9 @@ class PostControllerIT {
 
     @BeforeEach
     void setUp() {
-        mockMvc = MockMvcBuilders.webAppContextSetup(webApplicationContext).build();
+        mockMvc = MockMvcBuilders.webAppContextSetup(webApplicationContext)
+                .addFilters(webApplicationContext.getBean(DbStatsFilter.class))
+                .build();
 
         jdbcTemplate.update("DELETE FROM post_tag", Map.of());
         jdbcTemplate.update("DELETE FROM comment", Map.of());
@@ -83,11 +111,12 @@ class PostControllerIT {
         @Test
         @DisplayName("should return paginated posts with truncation")
         void shouldReturnPaginatedPostsWithTruncation() throws Exception {
-            mockMvc.perform(get("/api/posts")
+            AsyncMockMvc.perform(mockMvc, get("/api/posts")
                             .param("search", "guide #java")
                             .param("pageNumber", "1")
                             .param("pageSize", "2"))
                     .andExpect(status().isOk())
+                    .andExpect(DbQueryBudget.atMost(3))
                     .andExpect(jsonPath("$.posts[0].id").value((int) post1Id))
                     .andExpect(jsonPath("$.posts[0].tags").isArray())
                     .andExpect(jsonPath("$.posts[0].text").value(endsWith("…")))
@@ -96,17 +125,55 @@ class PostControllerIT {
                     .andExpect(jsonPath("$.lastPage").value(1));
         }
 
+        @Test
+        @DisplayName("should be processed asynchronously")
+        void shouldBeProcessedAsynchronously() throws Exception {
+            mockMvc.perform(get("/api/posts")
+                            .param("search", "")
+                            .param("pageNumber", "1")
+                            .param("pageSize", "10"))
+                    .andExpect(request().asyncStarted());
+        }
+
         @ParameterizedTest(name = "page {0}")
         @CsvSource({"1,false", "2,true"})
         @DisplayName("should expose navigation flags")
         void shouldExposeNavigationFlags(int pageNumber, boolean hasPrev) throws Exception {
-            mockMvc.perform(get("/api/posts")
+            AsyncMockMvc.perform(mockMvc, get("/api/posts")
                             .param("search", "#java")
                             .param("pageNumber", String.valueOf(pageNumber))
                             .param("pageSize", "1"))
                     .andExpect(status().isOk())
                     .andExpect(jsonPath("$.hasPrev").value(hasPrev));
         }
+
+        @Test
+        @DisplayName("should return only requested fields")
+        void shouldReturnOnlyRequestedFields() throws Exception {
+            AsyncMockMvc.perform(mockMvc, get("/api/posts")
+                            .param("search", "")
+                            .param("pageNumber", "1")
+                            .param("pageSize", "10")
+                            .param("fields", "title,likesCount"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.posts[1].id").value((int) post1Id))
+                    .andExpect(jsonPath("$.posts[1].title").value("Spring Guide"))
+                    .andExpect(jsonPath("$.posts[1].likesCount").value(1))
+                    .andExpect(jsonPath("$.posts[1].text").doesNotExist())
+                    .andExpect(jsonPath("$.posts[1].tags").doesNotExist())
+                    .andExpect(jsonPath("$.posts[1].commentsCount").doesNotExist());
+        }
+
+        @Test
+        @DisplayName("should return 400 on unknown field")
+        void shouldReturn400OnUnknownField() throws Exception {
+            AsyncMockMvc.perform(mockMvc, get("/api/posts")
+                            .param("search", "")
+                            .param("pageNumber", "1")
+                            .param("pageSize", "10")
+                            .param("fields", "title,image"))
+                    .andExpect(status().isBadRequest());
+        }
     }
 
     @Nested
@@ -116,19 +183,127 @@ class PostControllerIT {
         @Test
         @DisplayName("should return full post information")
         void shouldReturnFullPostInformation() throws Exception {
-            mockMvc.perform(get("/api/posts/{id}", post1Id))
+            AsyncMockMvc.perform(mockMvc, get("/api/posts/{id}", post1Id))
                     .andExpect(status().isOk())
+                    .andExpect(DbQueryBudget.atMost(1))
                     .andExpect(jsonPath("$.id").value((int) post1Id))
                     .andExpect(jsonPath("$.tags", containsInAnyOrder("spring", "java")))
                     .andExpect(jsonPath("$.commentsCount").value(2));
         }
 
+        @Test
+        @DisplayName("should return sparse post with tags but without text")
+        void shouldReturnSparsePost() throws Exception {
+            AsyncMockMvc.perform(mockMvc, get("/api/posts/{id}", post1Id).param("fields", "tags"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.id").value((int) post1Id))
+                    .andExpect(jsonPath("$.tags", containsInAnyOrder("spring", "java")))
+                    .andExpect(jsonPath("$.text").doesNotExist())
+                    .andExpect(jsonPath("$.title").doesNotExist());
+        }
+
         @Test
         @DisplayName("should return 404 when post missing")
         void shouldReturn404WhenPostMissing() throws Exception {
-            mockMvc.perform(get("/api/posts/{id}", 9_999_999L))
+            AsyncMockMvc.perform(mockMvc, get("/api/posts/{id}", 9_999_999L))
                     .andExpect(status().isNotFound());
         }
+
+        @Test
+        @DisplayName("should embed comments when include=comments")
+        void shouldEmbedComments() throws Exception {
+            AsyncMockMvc.perform(mockMvc, get("/api/posts/{id}", post1Id).param("include", "comments"))
+                    .andExpect(status().isOk())
+                    .andExpect(DbQueryBudget.atMost(2))
+                    .andExpect(jsonPath("$.id").value((int) post1Id))
+                    .andExpect(jsonPath("$.comments.length()").value(2))
+                    .andExpect(jsonPath("$.comments[0].text").value("Great"))
+                    .andExpect(jsonPath("$.comments[1].text").value("Nice"));
+        }
+
+        @Test
+        @DisplayName("should omit comments without include")
+        void shouldOmitCommentsWithoutInclude() throws Exception {
+            AsyncMockMvc.perform(mockMvc, get("/api/posts/{id}", post2Id))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.comments").doesNotExist());
+        }
+
+        @Test
+        @DisplayName("should return 400 on unknown include")
+        void shouldReturn400OnUnknownInclude() throws Exception {
+            AsyncMockMvc.perform(mockMvc, get("/api/posts/{id}", post1Id).param("include", "likes"))
+                    .andExpect(status().isBadRequest());
+        }
+    }
+
+    @Nested
+    @DisplayName("getPostsBatch")
+    class GetPostsBatch {
+
+        @Test
+        @DisplayName("should return posts in requested order with not-found markers")
+        void shouldReturnPostsInRequestedOrder() throws Exception {
+            AsyncMockMvc.perform(mockMvc, get("/api/posts/batch")
+                            .param("ids", post1Id + ",9999999," + post2Id))
+                    .andExpect(status().isOk())
+                    .andExpect(DbQueryBudget.atMost(1))
+                    .andExpect(header().string("ETag", startsWith("W/\"")))
+                    .andExpect(header().string("Cache-Control", "no-cache"))
+                    .andExpect(jsonPath("$.posts.length()").value(3))
+                    .andExpect(jsonPath("$.posts[0].id").value((int) post1Id))
+                    .andExpect(jsonPath("$.posts[0].found").value(true))
+                    .andExpect(jsonPath("$.posts[0].post.text", endsWith("…")))
+                    .andExpect(jsonPath("$.posts[0].post.tags", containsInAnyOrder("spring", "java")))
+                    .andExpect(jsonPath("$.posts[1].id").value(9_999_999))
+                    .andExpect(jsonPath("$.posts[1].found").value(false))
+                    .andExpect(jsonPath("$.posts[1].post").doesNotExist())
+                    .andExpect(jsonPath("$.posts[2].post.title").value("Java Tips"));
+        }
+
+        @Test
+        @DisplayName("should answer 304 until one of the posts changes")
+        void shouldAnswerNotModifiedUntilPostChanges() throws Exception {
+            String etag = AsyncMockMvc.perform(mockMvc, get("/api/posts/batch").param("ids", post1Id + "," + post2Id))
+                    .andExpect(status().isOk())
+                    .andReturn().getResponse().getHeader("ETag");
+
+            AsyncMockMvc.perform(mockMvc, get("/api/posts/batch")
+                            .param("ids", post1Id + "," + post2Id)
+                            .header("If-None-Match", etag))
+                    .andExpect(status().isNotModified())
+                    .andExpect(header().string("ETag", etag))
+                    .andExpect(content().string(""));
+
+            AsyncMockMvc.perform(mockMvc, post("/api/posts/{id}/likes", post2Id))
+                    .andExpect(status().isOk());
+
+            AsyncMockMvc.perform(mockMvc, get("/api/posts/batch")
+                            .param("ids", post1Id + "," + post2Id)
+                            .header("If-None-Match", etag))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.posts[1].post.likesCount").value(1));
+        }
+
+        @Test
+        @DisplayName("should return 400 when batch exceeds configured size")
+        void shouldReturn400WhenBatchTooLarge() throws Exception {
+            String ids = String.join(",", LongStream.rangeClosed(1, 101)
+                    .mapToObj(String::valueOf)
+                    .toList());
+
+            AsyncMockMvc.perform(mockMvc, get("/api/posts/batch").param("ids", ids))
+                    .andExpect(status().isBadRequest());
+        }
+
+        @ParameterizedTest(name = "ids={0}")
+        @CsvSource(delimiter = '|', value = {"1,,2", "0", "3,-5"})
+        @DisplayName("should return 400 on empty or non-positive ids")
+        void shouldReturn400OnInvalidIds(String ids) throws Exception {
+            AsyncMockMvc.perform(mockMvc, get("/api/posts/batch").param("ids", ids))
+                    .andExpect(status().isBadRequest())
+                    .andExpect(jsonPath("$.error").value(startsWith("Post ids must be positive numbers")));
+        }
     }
 
     @Nested
@@ -146,10 +321,11 @@ class PostControllerIT {
                     }
                     """;
 
-            mockMvc.perform(post("/api/posts")
+            AsyncMockMvc.perform(mockMvc, post("/api/posts")
                             .contentType(MediaType.APPLICATION_JSON)
                             .content(payload))
                     .andExpect(status().isCreated())
+                    .andExpect(DbQueryBudget.atMost(3))
                     .andExpect(jsonPath("$.title").value("New"))
                     .andExpect(jsonPath("$.likesCount").value(0))
                     .andExpect(jsonPath("$.commentsCount").value(0))
@@ -174,7 +350,7 @@ class PostControllerIT {
                     }
                     """;
 
-            mockMvc.perform(post("/api/posts")
+            AsyncMockMvc.perform(mockMvc, post("/api/posts")
                             .contentType(MediaType.APPLICATION_JSON)
                             .content(payload))
                     .andExpect(status().isBadRequest());
@@ -197,14 +373,57 @@ class PostControllerIT {
                     }
                     """.formatted(post1Id);
 
-            mockMvc.perform(put("/api/posts/{id}", post1Id)
+            AsyncMockMvc.perform(mockMvc, put("/api/posts/{id}", post1Id)
                             .contentType(MediaType.APPLICATION_JSON)
                             .content(payload))
                     .andExpect(status().isOk())
+                    .andExpect(DbQueryBudget.atMost(4))
                     .andExpect(jsonPath("$.title").value("Updated"))
                     .andExpect(jsonPath("$.tags", containsInAnyOrder("spring")));
         }
 
+        @Test
+        @DisplayName("should return 409 when expected version is outdated")
+        void shouldReturn409WhenVersionOutdated() throws Exception {
+            String payload = """
+                    {
+                      "id": %d,
+                      "title":"Updated",
+                      "text":"New text",
+                      "tags":["spring"],
+                      "version": 0
+                    }
+                    """.formatted(post1Id);
+
+            AsyncMockMvc.perform(mockMvc, put("/api/posts/{id}", post1Id)
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(payload))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.version").value(1));
+
+            AsyncMockMvc.perform(mockMvc, put("/api/posts/{id}", post1Id)
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(payload))
+                    .andExpect(status().isConflict());
+        }
+
+        @Test
+        @DisplayName("should return 404 when post missing")
+        void shouldReturn404WhenPostMissing() throws Exception {
+            String payload = """
+                    {
+                      "title":"Updated",
+                      "text":"New text",
+                      "tags":[]
+                    }
+                    """;
+
+            AsyncMockMvc.perform(mockMvc, put("/api/posts/{id}", -1L)
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(payload))
+                    .andExpect(status().isNotFound());
+        }
+
         @Test
         @DisplayName("should return 400 when ids mismatch")
         void shouldReturn400WhenIdsMismatch() throws Exception {
@@ -217,7 +436,7 @@ class PostControllerIT {
                     }
                     """.formatted(post2Id);
 
-            mockMvc.perform(put("/api/posts/{id}", post1Id)
+            AsyncMockMvc.perform(mockMvc, put("/api/posts/{id}", post1Id)
                             .contentType(MediaType.APPLICATION_JSON)
                             .content(payload))
                     .andExpect(status().isBadRequest());
@@ -231,8 +450,9 @@ class PostControllerIT {
         @Test
         @DisplayName("should delete post and comments")
         void shouldDeletePostAndComments() throws Exception {
-            mockMvc.perform(delete("/api/posts/{id}", post1Id))
-                    .andExpect(status().isOk());
+            AsyncMockMvc.perform(mockMvc, delete("/api/posts/{id}", post1Id))
+                    .andExpect(status().isOk())
+                    .andExpect(DbQueryBudget.atMost(2));
 
             Long postCount = jdbcTemplate.queryForObject(
                     "SELECT COUNT(*) FROM post WHERE id = :id",
@@ -243,6 +463,240 @@ class PostControllerIT {
         }
     }
 
+    @Nested
+    @DisplayName("importPosts")
+    class ImportPosts {
+
+        @Test
+        @DisplayName("should import valid lines and link tags with usage counts")
+        void shouldImportValidLinesAndLinkTags() throws Exception {
+            String payload = """
+                    {"title":"Imported 1","text":"Line\\twith tab\\nand newline \\\\ slash","tags":["java","Kotlin"]}
+
+                    {"title":"Imported 2","text":"Second","tags":["kotlin"]}
+                    {"title":"","text":"Rejected"}
+                    not a json
+                    """;
+
+            AsyncMockMvc.perform(mockMvc, post("/api/posts/import")
+                            .contentType(MediaType.APPLICATION_NDJSON)
+                            .content(payload))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.received").value(4))
+                    .andExpect(jsonPath("$.imported").value(2))
+                    .andExpect(jsonPath("$.rejected").value(2))
+                    .andExpect(jsonPath("$.linkedTags").value(3));
+
+            String text = jdbcTemplate.queryForObject(
+                    "SELECT text FROM post WHERE title = :title",
+                    Map.of("title", "Imported 1"),
+                    String.class
+            );
+            assertEquals("Line\twith tab\nand newline \\ slash", text);
+
+            Long links = jdbcTemplate.queryForObject(
+                    "SELECT COUNT(*) FROM post_tag pt JOIN post p ON p.id = pt.post_id WHERE p.title LIKE 'Imported%'",
+                    Map.of(),
+                    Long.class
+            );
+            assertEquals(3L, links);
+            assertEquals(3, usageCount("java")); // два поста из фикстуры и один импортированный
+            assertEquals(2, usageCount("kotlin"));
+        }
+    }
+
+    @Nested
+    @DisplayName("exportPosts")
+    class ExportPosts {
+
+        @Test
+        @DisplayName("should stream gzipped ndjson with tags and comments")
+        void shouldStreamGzippedNdjson() throws Exception {
+            byte[] body = AsyncMockMvc.perform(mockMvc, get("/api/posts/export"))
+                    .andExpect(status().isOk())
+                    .andExpect(content().contentType("application/gzip"))
+                    .andExpect(header().string("Content-Disposition", endsWith("filename=\"posts.ndjson.gz\"")))
+                    .andReturn().getResponse().getContentAsByteArray();
+
+            List<String> lines = gunzip(body).lines().toList();
+
+            assertEquals(2, lines.size());
+            ObjectMapper objectMapper = new ObjectMapper();
+            JsonNode first = objectMapper.readTree(lines.get(0));
+            assertEquals(post1Id, first.get("id").asLong());
+            assertEquals("[\"java\",\"spring\"]", first.get("tags").toString());
+            assertEquals(2, first.get("comments").size());
+            assertEquals("Nice", first.get("comments").get(0).get("text").asText());
+            assertEquals(0, objectMapper.readTree(lines.get(1)).get("comments").size());
+        }
+
+        @Test
+        @DisplayName("should stream gzipped csv with header")
+        void shouldStreamGzippedCsv() throws Exception {
+            byte[] body = AsyncMockMvc.perform(mockMvc, get("/api/posts/export").param("format", "CSV"))
+                    .andExpect(status().isOk())
+                    .andReturn().getResponse().getContentAsByteArray();
+
+            List<String> lines = gunzip(body).lines().toList();
+
+            assertEquals(3, lines.size());
+            assertEquals("id,title,text,likes_count,comments_count,created_at,tags,comments", lines.get(0));
+            assertTrue(lines.get(2).startsWith(post2Id + ",Java Tips,Short,0,0,"));
+        }
+
+        @Test
+        @DisplayName("should return 400 on unknown format")
+        void shouldReturn400OnUnknownFormat() throws Exception {
+            AsyncMockMvc.perform(mockMvc, get("/api/posts/export").param("format", "xml"))
+                    .andExpect(status().isBadRequest());
+        }
+    }
+
+    @Nested
+    @DisplayName("exportPosts failures")
+    class ExportFailures {
+
+        private final PostBulkService postBulkService = mock(PostBulkService.class);
+
+        private MockMvc failingMockMvc;
+
+        @BeforeEach
+        void setUp() {
+            PostController controller = new PostController(webApplicationContext.getBean(PostService.class), postBulkService);
+            failingMockMvc = MockMvcBuilders.standaloneSetup(controller)
+                    .setControllerAdvice(new DefaultExceptionHandler())
+                    .build();
+        }
+
+        @Test
+        @DisplayName("should return json error when export fails before response is committed")
+        void shouldReturnJsonErrorBeforeCommit() throws Exception {
+            doThrow(new PostDbException("Export aborted after 0 posts"))
+                    .when(postBulkService).exportPosts(any(), any());
+
+            failingMockMvc.perform(get("/api/posts/export"))
+                    .andExpect(status().isConflict())
+                    .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                    .andExpect(header().doesNotExist("Content-Disposition"))
+                    .andExpect(jsonPath("$.error").value("Export aborted after 0 posts"));
+        }
+
+        @Test
+        @DisplayName("should abort connection when export fails after response is committed")
+        void shouldAbortConnectionAfterCommit() {
+            doAnswer(invocation -> {
+                OutputStream output = invocation.getArgument(1);
+                output.write(new byte[]{0x1f, (byte) 0x8b});
+                output.flush();
+                throw new PostDbException("Export aborted after 1000 posts");
+            }).when(postBulkService).exportPosts(any(), any());
+
+            // Исключение уходит в контейнер, а не превращается в тело ответа поверх уже отправленного gzip
+            Exception ex = assertThrows(Exception.class, () -> failingMockMvc.perform(get("/api/posts/export")));
+            assertInstanceOf(PostExportAbortedException.class, ex.getCause());
+        }
+    }
+
+    @Nested
+    @DisplayName("compression")
+    class Compression {
+
+        private MockMvc compressingMockMvc;
+
+        @BeforeEach
+        void setUp() {
+            compressingMockMvc = MockMvcBuilders.webAppContextSetup(webApplicationContext)
+                    .addFilters(webApplicationContext.getBean(CompressionFilter.class))
+                    .build();
+        }
+
+        @Test
+        @DisplayName("should gzip large post listing after async dispatch")
+        void shouldGzipLargePostListing() throws Exception {
+            for (int i = 0; i < 20; i++) {
+                insertPost("Post " + i, "Long body text ".repeat(30), 0, 0);
+            }
+
+            byte[] body = AsyncMockMvc.perform(compressingMockMvc, get("/api/posts")
+                            .header("Accept-Encoding", "gzip, deflate")
+                            .param("search", "")
+                            .param("pageNumber", "1")
+                            .param("pageSize", "50"))
+                    .andExpect(status().isOk())
+                    .andExpect(header().string("Content-Encoding", "gzip"))
+                    .andExpect(header().stringValues("Vary", hasItem("Accept-Encoding")))
+                    .andReturn().getResponse().getContentAsByteArray();
+
+            JsonNode json = new ObjectMapper().readTree(gunzip(body));
+            assertEquals(22, json.get("posts").size());
+        }
+
+        @Test
+        @DisplayName("should leave small responses uncompressed")
+        void shouldLeaveSmallResponsesUncompressed() throws Exception {
+            AsyncMockMvc.perform(compressingMockMvc, get("/api/posts/{id}", post2Id)
+                            .header("Accept-Encoding", "gzip"))
+                    .andExpect(status().isOk())
+                    .andExpect(header().doesNotExist("Content-Encoding"))
+                    .andExpect(jsonPath("$.title").value("Java Tips"));
+        }
+
+        @Test
+        @DisplayName("should not compress export twice")
+        void shouldNotCompressExportTwice() throws Exception {
+            byte[] body = AsyncMockMvc.perform(compressingMockMvc, get("/api/posts/export")
+                            .header("Accept-Encoding", "gzip"))
+                    .andExpect(status().isOk())
+                    .andExpect(header().doesNotExist("Content-Encoding"))
+                    .andReturn().getResponse().getContentAsByteArray();
+
+            assertEquals(2, gunzip(body).lines().count());
+        }
+    }
+
+    @Nested
+    @DisplayName("contentNegotiation")
+    class ContentNegotiation {
+
+        @Test
+        @DisplayName("should encode post listing as cbor")
+        void shouldEncodePostListingAsCbor() throws Exception {
+            byte[] body = AsyncMockMvc.perform(mockMvc, get("/api/posts")
+                            .accept(MediaType.APPLICATION_CBOR)
+                            .param("search", "")
+                            .param("pageNumber", "1")
+                            .param("pageSize", "10"))
+                    .andExpect(status().isOk())
+                    .andExpect(content().contentType(MediaType.APPLICATION_CBOR))
+                    .andReturn().getResponse().getContentAsByteArray();
+
+            JsonNode json = Jackson2ObjectMapperBuilder.cbor().build().readTree(body);
+            assertEquals(2, json.get("posts").size());
+            assertEquals(post2Id, json.get("posts").get(0).get("id").asLong());
+            assertEquals("Java Tips", json.get("posts").get(0).get("title").asText());
+        }
+
+        @Test
+        @DisplayName("should accept and return smile")
+        void shouldAcceptAndReturnSmile() throws Exception {
+            MediaType smile = MediaType.valueOf("application/x-jackson-smile");
+            ObjectMapper smileMapper = Jackson2ObjectMapperBuilder.smile().build();
+            byte[] request = smileMapper.writeValueAsBytes(Map.of("title", "Binary", "text", "Smile body", "tags", List.of("smile")));
+
+            byte[] body = AsyncMockMvc.perform(mockMvc, post("/api/posts")
+                            .contentType(smile)
+                            .accept(smile)
+                            .content(request))
+                    .andExpect(status().isCreated())
+                    .andExpect(content().contentType(smile))
+                    .andReturn().getResponse().getContentAsByteArray();
+
+            JsonNode json = smileMapper.readTree(body);
+            assertEquals("Binary", json.get("title").asText());
+            assertEquals("smile", json.get("tags").get(0).asText());
+        }
+    }
+
     @Nested
     @DisplayName("incrementLikes")
     class IncrementLikes {
@@ -250,7 +704,7 @@ class PostControllerIT {
         @Test
         @DisplayName("should increase likes count")
         void shouldIncreaseLikesCount() throws Exception {
-            mockMvc.perform(post("/api/posts/{id}/likes", post1Id))
+            AsyncMockMvc.perform(mockMvc, post("/api/posts/{id}/likes", post1Id))
                     .andExpect(status().isOk())
                     .andExpect(content().string("2")); // было 1, стало 2
         }
@@ -266,7 +720,7 @@ class PostControllerIT {
             byte[] data = "data".getBytes(StandardCharsets.UTF_8);
             MockMultipartFile file = new MockMultipartFile("image", "image.jpg", "image/jpeg", data);
 
-            mockMvc.perform(MockMvcRequestBuilders.multipart("/api/posts/{id}/image", post1Id)
+            AsyncMockMvc.perform(mockMvc, MockMvcRequestBuilders.multipart("/api/posts/{id}/image", post1Id)
                             .file(file)
                             .with(request -> { request.setMethod("PUT"); return request; }))
                     .andExpect(status().isOk());
@@ -284,7 +738,7 @@ class PostControllerIT {
         void shouldReturn400WhenImageEmpty() throws Exception {
             MockMultipartFile file = new MockMultipartFile("image", "image.jpg", "image/jpeg", new byte[0]);
 
-            mockMvc.perform(MockMvcRequestBuilders.multipart("/api/posts/{id}/image", post1Id)
+            AsyncMockMvc.perform(mockMvc, MockMvcRequestBuilders.multipart("/api/posts/{id}/image", post1Id)
                             .file(file)
                             .with(request -> { request.setMethod("PUT"); return request; }))
                     .andExpect(status().isBadRequest());
@@ -300,13 +754,19 @@ class PostControllerIT {
                             .addValue("id", post1Id)
             );
 
-            mockMvc.perform(get("/api/posts/{id}/image", post1Id))
+            AsyncMockMvc.perform(mockMvc, get("/api/posts/{id}/image", post1Id))
                     .andExpect(status().isOk())
                     .andExpect(header().string("Content-Type", org.hamcrest.Matchers.containsString("image")))
                     .andExpect(content().bytes("hello".getBytes(StandardCharsets.UTF_8)));
         }
     }
 
+    private String gunzip(byte[] body) throws IOException {
+        try (GZIPInputStream input = new GZIPInputStream(new ByteArrayInputStream(body))) {
+            return new String(input.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+
     private long insertPost(String title, String text, int likes, int comments) {
         return jdbcTemplate.queryForObject(
                 "INSERT INTO post (title, text, likes_count, comments_count) " +
@@ -333,6 +793,22 @@ class PostControllerIT {
                 "INSERT INTO post_tag (post_id, tag_id) VALUES(:postId, :tagId)",
                 new MapSqlParameterSource().addValue("postId", postId).addValue("tagId", tagId)
         );
+        jdbcTemplate.update(
+                "UPDATE post SET tags = array_append(tags, (SELECT name FROM tag WHERE id = :tagId)) WHERE id = :postId",
+                new MapSqlParameterSource().addValue("postId", postId).addValue("tagId", tagId)
+        );
+        jdbcTemplate.update(
+                "UPDATE tag SET usage_count = usage_count + 1 WHERE id = :tagId",
+                new MapSqlParameterSource().addValue("tagId", tagId)
+        );
+    }
+
+    private int usageCount(String tagName) {
+        return jdbcTemplate.queryForObject(
+                "SELECT usage_count FROM tag WHERE name = :name",
+                Map.of("name", tagName),
+                Integer.class
+        );
     }
 
     private long insertComment(String text, long postId) {
@@ -0,0 +1,132 @@
+package ru.practicum.blog.web.controller;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
+import org.springframework.test.context.web.WebAppConfiguration;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+import ru.practicum.blog.config.TestWebApplicationConfiguration;
+import ru.practicum.blog.service.index.TagSuggestionIndex;
+import ru.practicum.blog.util.AsyncMockMvc;
+
+import java.util.Map;
+
+import static org.hamcrest.Matchers.hasSize;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringJUnitConfig(classes = TestWebApplicationConfiguration.class)
+@TestPropertySource(locations = "classpath:test-application.properties")
+@WebAppConfiguration
+@ActiveProfiles("test")
+@DisplayName("TagControllerIT")
+class TagControllerIT {
+
+    @Autowired
+    private WebApplicationContext webApplicationContext;
+
+    @Autowired
+    private NamedParameterJdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TagSuggestionIndex tagSuggestionIndex;
+
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        mockMvc = MockMvcBuilders.webAppContextSetup(webApplicationContext).build();
+
+        jdbcTemplate.update("DELETE FROM post_tag", Map.of());
+        jdbcTemplate.update("DELETE FROM comment", Map.of());
+        jdbcTemplate.update("DELETE FROM tag", Map.of());
+        jdbcTemplate.update("DELETE FROM post", Map.of());
+
+        insertTag("java", 4);
+        insertTag("spring", 9);
+        insertTag("jdbc", 1);
+        insertTag("unused", 0);
+        tagSuggestionIndex.reload();
+    }
+
+    @Nested
+    @DisplayName("getPopularTags")
+    class GetPopularTags {
+
+        @Test
+        @DisplayName("should return most used tags first")
+        void shouldReturnMostUsedTagsFirst() throws Exception {
+            mockMvc.perform(get("/api/tags/popular").param("limit", "2"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$", hasSize(2)))
+                    .andExpect(jsonPath("$[0].name").value("spring"))
+                    .andExpect(jsonPath("$[0].usageCount").value(9))
+                    .andExpect(jsonPath("$[1].name").value("java"));
+        }
+
+        @Test
+        @DisplayName("should skip unused tags")
+        void shouldSkipUnusedTags() throws Exception {
+            mockMvc.perform(get("/api/tags/popular"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$", hasSize(3)));
+        }
+
+        @Test
+        @DisplayName("should return 400 when limit is out of range")
+        void shouldReturn400WhenLimitIsOutOfRange() throws Exception {
+            mockMvc.perform(get("/api/tags/popular").param("limit", "0"))
+                    .andExpect(status().isBadRequest());
+        }
+    }
+
+    @Nested
+    @DisplayName("suggestTags")
+    class SuggestTags {
+
+        @Test
+        @DisplayName("should suggest tags by prefix ranked by usage")
+        void shouldSuggestTagsByPrefixRankedByUsage() throws Exception {
+            mockMvc.perform(get("/api/tags/suggest").param("prefix", "#J"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$", hasSize(2)))
+                    .andExpect(jsonPath("$[0].name").value("java"))
+                    .andExpect(jsonPath("$[1].name").value("jdbc"));
+        }
+
+        @Test
+        @DisplayName("should reflect tags created through posts")
+        void shouldReflectTagsCreatedThroughPosts() throws Exception {
+            AsyncMockMvc.perform(mockMvc, post("/api/posts")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content("""
+                                    {"title":"New","text":"Content","tags":["kotlin"]}
+                                    """))
+                    .andExpect(status().isCreated());
+
+            mockMvc.perform(get("/api/tags/suggest").param("prefix", "ko"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$[0].name").value("kotlin"))
+                    .andExpect(jsonPath("$[0].usageCount").value(1));
+        }
+    }
+
+    private void insertTag(String name, int usageCount) {
+        jdbcTemplate.update(
+                "INSERT INTO tag (name, usage_count) VALUES (:name, :usageCount)",
+                new MapSqlParameterSource().addValue("name", name).addValue("usageCount", usageCount)
+        );
+    }
+}
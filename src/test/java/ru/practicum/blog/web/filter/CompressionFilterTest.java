@@ -0,0 +1,205 @@
+package ru.practicum.blog.web.filter;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+@DisplayName("CompressionFilterTest")
+class CompressionFilterTest {
+
+    private static final int MIN_SIZE = 256;
+
+    private MeterRegistry meterRegistry;
+
+    private CompressionFilter compressionFilter;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        compressionFilter = new CompressionFilter(meterRegistry, true, MIN_SIZE, 6, 2);
+    }
+
+    @Test
+    @DisplayName("should gzip large json response and record ratio")
+    void shouldGzipLargeJsonResponse() throws Exception {
+        byte[] body = "{\"text\":\"repeated\"}".repeat(200).getBytes(StandardCharsets.UTF_8);
+
+        MockHttpServletResponse response = filter("gzip", "application/json", body);
+
+        assertEquals("gzip", response.getHeader("Content-Encoding"));
+        assertEquals("Accept-Encoding", response.getHeader("Vary"));
+        assertArrayEquals(body, gunzip(response.getContentAsByteArray()));
+        assertEquals(1L, meterRegistry.get("blog.http.compression.ratio").summary().count());
+        assertTrue(meterRegistry.get("blog.http.compression.ratio").summary().mean() > 10);
+        assertEquals(body.length, meterRegistry.get("blog.http.compression.bytes").tag("stage", "original").counter().count());
+    }
+
+    @Test
+    @DisplayName("should pass small response through with its content length")
+    void shouldPassSmallResponseThrough() throws Exception {
+        byte[] body = "{\"id\":1}".getBytes(StandardCharsets.UTF_8);
+
+        MockHttpServletResponse response = filter("gzip", "application/json", body);
+
+        assertNull(response.getHeader("Content-Encoding"));
+        assertEquals(body.length, response.getContentLength());
+        assertArrayEquals(body, response.getContentAsByteArray());
+    }
+
+    @Test
+    @DisplayName("should not compress images")
+    void shouldNotCompressImages() throws Exception {
+        byte[] body = new byte[MIN_SIZE * 4];
+
+        MockHttpServletResponse response = filter("gzip", "image/png", body);
+
+        assertNull(response.getHeader("Content-Encoding"));
+        assertArrayEquals(body, response.getContentAsByteArray());
+        assertEquals(0L, meterRegistry.get("blog.http.compression.ratio").summary().count());
+    }
+
+    @Test
+    @DisplayName("should compress writer output in response charset")
+    void shouldCompressWriterOutput() throws Exception {
+        String text = "Привет, блог! ".repeat(100);
+        MockHttpServletRequest request = gzipRequest("gzip");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        compressionFilter.doFilter(request, response, new MockFilterChain(new HttpServlet() {
+            @Override
+            protected void service(HttpServletRequest req, HttpServletResponse resp) throws IOException {
+                resp.setContentType("text/plain;charset=UTF-8");
+                resp.getWriter().write(text);
+            }
+        }));
+
+        assertEquals("gzip", response.getHeader("Content-Encoding"));
+        assertEquals(text, new String(gunzip(response.getContentAsByteArray()), StandardCharsets.UTF_8));
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @CsvSource(delimiter = '|', value = {
+            "gzip|true",
+            "deflate, gzip;q=0.5|true",
+            "*|true",
+            "*, gzip;q=0|false",
+            "gzip;q=0.5, *;q=0|true",
+            "br, *;q=0|false",
+            "GZIP ;q=1|true",
+            "gzip;q=0|false",
+            "deflate, br|false",
+            "identity|false"
+    })
+    @DisplayName("should negotiate gzip by Accept-Encoding")
+    void shouldNegotiateGzip(String acceptEncoding, boolean expected) {
+        assertEquals(expected, CompressionFilter.acceptsGzip(acceptEncoding));
+    }
+
+    @Test
+    @DisplayName("should reuse pooled deflaters")
+    void shouldReusePooledDeflaters() {
+        DeflaterPool pool = new DeflaterPool(1, 6);
+
+        var deflater = pool.borrow();
+        pool.release(deflater);
+
+        assertEquals(1, pool.size());
+        assertEquals(deflater, pool.borrow());
+        assertEquals(0, pool.size());
+    }
+
+    @Test
+    @DisplayName("should return deflater to pool and reuse it for next compressed response")
+    void shouldReuseDeflaterAcrossResponses() throws Exception {
+        byte[] first = "{\"text\":\"first\"}".repeat(100).getBytes(StandardCharsets.UTF_8);
+        byte[] second = "{\"text\":\"second\"}".repeat(100).getBytes(StandardCharsets.UTF_8);
+
+        assertArrayEquals(first, gunzip(filter("gzip", "application/json", first).getContentAsByteArray()));
+        assertArrayEquals(second, gunzip(filter("gzip", "application/json", second).getContentAsByteArray()));
+        assertEquals(2L, meterRegistry.get("blog.http.compression.ratio").summary().count());
+    }
+
+    @Test
+    @DisplayName("should pass write listener to wrapped stream and send body uncompressed")
+    void shouldDelegateWriteListener() throws Exception {
+        byte[] body = "{\"text\":\"async\"}".repeat(100).getBytes(StandardCharsets.UTF_8);
+        WriteListener listener = mock(WriteListener.class);
+        ServletOutputStream target = mock(ServletOutputStream.class);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        HttpServletResponse wrapped = new HttpServletResponseWrapper(response) {
+            @Override
+            public ServletOutputStream getOutputStream() {
+                return target;
+            }
+        };
+
+        compressionFilter.doFilter(gzipRequest("gzip"), wrapped, new MockFilterChain(new HttpServlet() {
+            @Override
+            protected void service(HttpServletRequest req, HttpServletResponse resp) throws IOException {
+                resp.setContentType("application/json");
+                resp.getOutputStream().setWriteListener(listener);
+                resp.getOutputStream().write(body);
+            }
+        }));
+
+        verify(target).setWriteListener(listener);
+        verify(target).write(body, 0, body.length);
+        assertNull(response.getHeader("Content-Encoding"));
+    }
+
+    private MockHttpServletResponse filter(String acceptEncoding, String contentType, byte[] body) throws Exception {
+        MockHttpServletRequest request = gzipRequest(acceptEncoding);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        compressionFilter.doFilter(request, response, new MockFilterChain(new HttpServlet() {
+            @Override
+            protected void service(HttpServletRequest req, HttpServletResponse resp) throws IOException {
+                resp.setContentType(contentType);
+                resp.setContentLength(body.length);
+                // Пишем частями, как это делает Jackson
+                for (int offset = 0; offset < body.length; offset += 100) {
+                    resp.getOutputStream().write(body, offset, Math.min(100, body.length - offset));
+                    resp.getOutputStream().flush();
+                }
+            }
+        }));
+        return response;
+    }
+
+    private static MockHttpServletRequest gzipRequest(String acceptEncoding) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/posts");
+        request.addHeader("Accept-Encoding", acceptEncoding);
+        return request;
+    }
+
+    private static byte[] gunzip(byte[] body) throws IOException {
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(body))) {
+            return in.readAllBytes();
+        }
+    }
+}
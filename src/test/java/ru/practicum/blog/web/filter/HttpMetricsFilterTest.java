@@ -0,0 +1,158 @@
+package ru.practicum.blog.web.filter;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@DisplayName("HttpMetricsFilterTest")
+class HttpMetricsFilterTest {
+
+    private MeterRegistry meterRegistry;
+
+    private HttpMetricsFilter httpMetricsFilter;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        httpMetricsFilter = new HttpMetricsFilter(meterRegistry, true);
+    }
+
+    @Test
+    @DisplayName("should record latency per route template and status with body sizes")
+    void shouldRecordLatencyPerRouteAndStatus() throws Exception {
+        byte[] body = "{\"id\":1}".getBytes(StandardCharsets.UTF_8);
+        MockHttpServletRequest request = new MockHttpServletRequest("PUT", "/api/posts/1");
+        request.setContent(new byte[42]);
+
+        httpMetricsFilter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain(new HttpServlet() {
+            @Override
+            protected void service(HttpServletRequest req, HttpServletResponse resp) throws IOException {
+                req.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/api/posts/{id}");
+                resp.setStatus(HttpServletResponse.SC_OK);
+                resp.getOutputStream().write(body);
+            }
+        }));
+
+        assertEquals(1L, meterRegistry.get("blog.http.server.requests")
+                .tags("route", "/api/posts/{id}", "method", "PUT", "status", "200").timer().count());
+        assertEquals(42.0, meterRegistry.get("blog.http.server.request.bytes")
+                .tags("route", "/api/posts/{id}", "method", "PUT").summary().totalAmount());
+        assertEquals(body.length, meterRegistry.get("blog.http.server.response.bytes")
+                .tags("route", "/api/posts/{id}", "method", "PUT").summary().totalAmount());
+        assertEquals(0.0, meterRegistry.get("blog.http.server.requests.active").gauge().value());
+    }
+
+    @Test
+    @DisplayName("should collapse unmatched paths and unknown methods into shared series")
+    void shouldCollapseUnmatchedPathsAndUnknownMethods() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("PROPFIND", "/random/path/123");
+
+        httpMetricsFilter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain(new HttpServlet() {
+            @Override
+            protected void service(HttpServletRequest req, HttpServletResponse resp) {
+                resp.setStatus(HttpServletResponse.SC_NOT_FOUND);
+            }
+        }));
+
+        assertEquals(1L, meterRegistry.get("blog.http.server.requests")
+                .tags("route", HttpMetricsFilter.UNMATCHED_ROUTE, "method", HttpMetricsFilter.OTHER_METHOD, "status", "404")
+                .timer().count());
+    }
+
+    @Test
+    @DisplayName("should count failed request as 500 and release in-flight slot")
+    void shouldCountFailedRequestAs500() {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/posts");
+
+        assertThrows(ServletException.class, () -> httpMetricsFilter.doFilter(
+                request,
+                new MockHttpServletResponse(),
+                new MockFilterChain(new HttpServlet() {
+                    @Override
+                    protected void service(HttpServletRequest req, HttpServletResponse resp) throws ServletException {
+                        throw new ServletException("boom");
+                    }
+                })
+        ));
+
+        assertEquals(1L, meterRegistry.get("blog.http.server.requests").tag("status", "500").timer().count());
+        assertEquals(0.0, meterRegistry.get("blog.http.server.requests.active").gauge().value());
+    }
+
+    @Test
+    @DisplayName("should record async request once when it completes without an async dispatch")
+    void shouldRecordAsyncRequestCompletedWithoutDispatch() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/posts");
+        request.setAsyncSupported(true);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        httpMetricsFilter.doFilter(request, response, new MockFilterChain(new HttpServlet() {
+            @Override
+            protected void service(HttpServletRequest req, HttpServletResponse resp) {
+                req.startAsync(req, resp);
+            }
+        }));
+
+        assertEquals(1.0, meterRegistry.get("blog.http.server.requests.active").gauge().value());
+        assertNull(meterRegistry.find("blog.http.server.requests").timer());
+
+        // Таймаут: контейнер выставляет статус и закрывает запрос без повторной диспетчеризации
+        response.setStatus(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+        request.getAsyncContext().complete();
+
+        assertEquals(1L, meterRegistry.get("blog.http.server.requests").tag("status", "503").timer().count());
+        assertEquals(0.0, meterRegistry.get("blog.http.server.requests.active").gauge().value());
+    }
+
+    @Test
+    @DisplayName("should record async request once with bytes written during the async dispatch")
+    void shouldRecordAsyncRequestOnceAfterDispatch() throws Exception {
+        byte[] body = "[]".getBytes(StandardCharsets.UTF_8);
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/posts");
+        request.setAsyncSupported(true);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        httpMetricsFilter.doFilter(request, response, new MockFilterChain(new HttpServlet() {
+            @Override
+            protected void service(HttpServletRequest req, HttpServletResponse resp) {
+                req.startAsync(req, resp);
+            }
+        }));
+
+        request.setDispatcherType(DispatcherType.ASYNC);
+        request.setAsyncStarted(false);
+        httpMetricsFilter.doFilter(request, response, new MockFilterChain(new HttpServlet() {
+            @Override
+            protected void service(HttpServletRequest req, HttpServletResponse resp) throws IOException {
+                resp.setStatus(HttpServletResponse.SC_OK);
+                resp.getOutputStream().write(body);
+            }
+        }));
+
+        assertNull(meterRegistry.find("blog.http.server.requests").timer());
+
+        request.getAsyncContext().complete();
+
+        assertEquals(1L, meterRegistry.get("blog.http.server.requests").tag("status", "200").timer().count());
+        assertEquals(body.length, meterRegistry.get("blog.http.server.response.bytes").summary().totalAmount());
+        assertEquals(0.0, meterRegistry.get("blog.http.server.requests.active").gauge().value());
+    }
+}
@@ -6,6 +6,7 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.MethodSource;
 import ru.practicum.blog.domain.model.Post;
+import ru.practicum.blog.domain.model.PostField;
 import ru.practicum.blog.util.TestDataFactory;
 import ru.practicum.blog.web.dto.PostResponseDto;
 import ru.practicum.blog.web.dto.PostsResponseDto;
@@ -38,7 +39,7 @@ class PostMapperTest {
                     2
             );
 
-            PostsResponseDto dto = PostMapper.toPostsResponseDto(List.of(post), true, false, 3);
+            PostsResponseDto dto = PostMapper.toPostsResponseDto(List.of(post), true, false, 3, PostField.ALL);
 
             assertEquals(1, dto.posts().size());
             PostResponseDto responseDto = dto.posts().getFirst();
@@ -50,6 +51,27 @@ class PostMapperTest {
             assertFalse(dto.hasNext());
             assertEquals(3, dto.lastPage());
         }
+
+        @Test
+        @DisplayName("should prefer stored preview over full text")
+        void shouldPreferStoredPreview() {
+            Post post = TestDataFactory.createPost(1L, "Title", null, List.of(), 0, 0);
+            post.setPreview("stored preview");
+
+            PostsResponseDto dto = PostMapper.toPostsResponseDto(List.of(post), false, false, 1, PostField.ALL);
+
+            assertEquals("stored preview", dto.posts().getFirst().text());
+        }
+
+        @Test
+        @DisplayName("should count characters rather than chars when truncating")
+        void shouldNotSplitSurrogatePairs() {
+            Post post = TestDataFactory.createPost(1L, "Title", "😀".repeat(130), List.of(), 0, 0);
+
+            PostsResponseDto dto = PostMapper.toPostsResponseDto(List.of(post), false, false, 1, PostField.ALL);
+
+            assertEquals("😀".repeat(128) + "…", dto.posts().getFirst().text());
+        }
     }
 
     @Nested
@@ -5,8 +5,10 @@ DROP TABLE IF EXISTS tag;
 
 CREATE TABLE tag
 (
-    id   BIGSERIAL PRIMARY KEY,
-    name VARCHAR(256) NOT NULL UNIQUE CHECK (name = LOWER(name))
+    id            BIGSERIAL PRIMARY KEY,
+    name          VARCHAR(256) NOT NULL UNIQUE CHECK (name = LOWER(name)),
+    usage_count   INTEGER      NOT NULL DEFAULT 0 CHECK (usage_count >= 0),
+    usage_version BIGINT       NOT NULL DEFAULT 0
 );
 
 CREATE TABLE post
@@ -14,9 +16,14 @@ CREATE TABLE post
     id             BIGSERIAL PRIMARY KEY,
     title          VARCHAR(256) NOT NULL,
     text           TEXT         NOT NULL,
+    preview        TEXT GENERATED ALWAYS AS (
+        CASE WHEN char_length(text) <= 128 THEN text ELSE left(text, 128) || '…' END
+        ) STORED,
+    tags           TEXT[]       NOT NULL DEFAULT '{}',
     likes_count    INTEGER      NOT NULL DEFAULT 0 CHECK (likes_count >= 0),
     comments_count INTEGER      NOT NULL DEFAULT 0 CHECK (comments_count >= 0),
     image          BYTEA,
+    version        BIGINT       NOT NULL DEFAULT 0,
     updated_at     TIMESTAMP    NOT NULL DEFAULT CURRENT_TIMESTAMP,
     created_at     TIMESTAMP    NOT NULL DEFAULT CURRENT_TIMESTAMP
 );
@@ -26,6 +33,7 @@ CREATE TABLE comment
     id         BIGSERIAL PRIMARY KEY,
     text       TEXT      NOT NULL,
     post_id    BIGINT    NOT NULL REFERENCES post (id) ON DELETE CASCADE,
+    version    BIGINT    NOT NULL DEFAULT 0,
     updated_at     TIMESTAMP    NOT NULL DEFAULT CURRENT_TIMESTAMP,
     created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
 );
@@ -36,3 +44,8 @@ CREATE TABLE post_tag
     tag_id  BIGINT NOT NULL REFERENCES tag (id) ON DELETE CASCADE,
     PRIMARY KEY (post_id, tag_id)
 );
+
+CREATE INDEX idx_post_tag_tag_id ON post_tag (tag_id);
+CREATE INDEX idx_post_tags ON post USING GIN (tags);
+CREATE INDEX idx_tag_unused ON tag (id) WHERE usage_count = 0;
+CREATE INDEX idx_tag_usage_count ON tag (usage_count DESC, name);